@@ -0,0 +1,87 @@
+package aima.bench.games;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.games.ConnectFourEngine;
+import aima.games.Game;
+import aima.games.IterativeDeepeningAlphaBetaSearch;
+import aima.games.MNKGameEngine;
+import aima.games.MonteCarloTreeSearch;
+import aima.games.ParallelAlphaBetaSearch;
+
+/**
+ * A move decision from the opening position of TicTacToe, solved
+ * exhaustively, and of Connect Four, searched to a fixed depth or by a
+ * fixed number of Monte Carlo playouts, each on the given number of
+ * threads where the search can use more than one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSearchBenchmark {
+
+	@Param( { "1", "4" })
+	public int threads;
+
+	private MNKGameEngine ticTacToe;
+
+	private ConnectFourEngine connectFour;
+
+	private IterativeDeepeningAlphaBetaSearch<ConnectFourEngine.Position, Integer> iterativeDeepening;
+
+	private ParallelAlphaBetaSearch<ConnectFourEngine.Position, Integer> parallelAlphaBeta;
+
+	private MonteCarloTreeSearch<ConnectFourEngine.Position, Integer> monteCarlo;
+
+	@Setup
+	public void setUp() {
+		ticTacToe = new MNKGameEngine(3, 3, 3);
+		connectFour = new ConnectFourEngine();
+		iterativeDeepening = new IterativeDeepeningAlphaBetaSearch<ConnectFourEngine.Position, Integer>(
+				connectFour, null);
+		iterativeDeepening.setMaxDepth(9);
+		parallelAlphaBeta = new ParallelAlphaBetaSearch<ConnectFourEngine.Position, Integer>(
+				connectFour, null, threads);
+		parallelAlphaBeta.setMaxDepth(9);
+		monteCarlo = new MonteCarloTreeSearch<ConnectFourEngine.Position, Integer>(
+				connectFour, threads);
+		monteCarlo.setPlayouts(20000);
+	}
+
+	@Benchmark
+	public int ticTacToeAlphaBeta() {
+		return Game.maxValue(ticTacToe, ticTacToe.getInitialState(),
+				Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public Integer connectFourIterativeDeepening() {
+		iterativeDeepening.getTranspositionTable().clear();
+		return iterativeDeepening.makeDecision(connectFour.getInitialState());
+	}
+
+	@Benchmark
+	public Integer connectFourParallelAlphaBeta() {
+		return parallelAlphaBeta.makeDecision(connectFour.getInitialState());
+	}
+
+	@Benchmark
+	public Integer connectFourMonteCarlo() {
+		return monteCarlo.makeDecision(connectFour.getInitialState());
+	}
+}
@@ -0,0 +1,134 @@
+package aima.bench.logic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.logic.fol.domain.FOLDomain;
+import aima.logic.fol.inference.FOLBCAsk;
+import aima.logic.fol.inference.FOLOTTERLikeTheoremProver;
+import aima.logic.fol.inference.InferenceProcedure;
+import aima.logic.fol.inference.InferenceResult;
+import aima.logic.fol.kb.FOLKnowledgeBase;
+import aima.logic.fol.kb.FOLKnowledgeBaseFactory;
+
+/**
+ * Backward chaining and the OTTER like theorem prover on the definite clause
+ * knowledge bases of FOLKnowledgeBaseFactory, the prover alone on the full
+ * FOL loves animal knowledge base, and both on a generated family tree
+ * where proving Ancestor(P0,Pn) needs a chain of n inferences.
+ *
+ * Each ask() adds an answer literal to the knowledge base's domain, so the
+ * knowledge bases are rebuilt for every iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FOLBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class DefiniteClauseKB {
+		@Param( { "kings", "weapons" })
+		public String kb;
+
+		FOLKnowledgeBase bcKB, otterKB;
+
+		String query;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			bcKB = create(new FOLBCAsk());
+			otterKB = create(new FOLOTTERLikeTheoremProver(false));
+			query = "kings".equals(kb) ? "Evil(x)" : "Criminal(x)";
+		}
+
+		private FOLKnowledgeBase create(InferenceProcedure infp) {
+			return "kings".equals(kb) ? FOLKnowledgeBaseFactory
+					.createKingsKnowledgeBase(infp) : FOLKnowledgeBaseFactory
+					.createWeaponsKnowledgeBase(infp);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class FamilyTreeKB {
+		@Param( { "4", "8", "16" })
+		public int generations;
+
+		FOLKnowledgeBase bcKB, otterKB;
+
+		String query;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			bcKB = create(new FOLBCAsk());
+			otterKB = create(new FOLOTTERLikeTheoremProver(false));
+			query = "Ancestor(P0,P" + generations + ")";
+		}
+
+		private FOLKnowledgeBase create(InferenceProcedure infp) {
+			FOLDomain domain = new FOLDomain();
+			for (int i = 0; i <= generations; i++) {
+				domain.addConstant("P" + i);
+			}
+			domain.addPredicate("Parent");
+			domain.addPredicate("Ancestor");
+			FOLKnowledgeBase kb = new FOLKnowledgeBase(domain, infp);
+			kb.tell("(Parent(x,y) => Ancestor(x,y))");
+			kb.tell("((Parent(x,z) AND Ancestor(z,y)) => Ancestor(x,y))");
+			for (int i = 0; i < generations; i++) {
+				kb.tell("Parent(P" + i + ",P" + (i + 1) + ")");
+			}
+			return kb;
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class LovesAnimalKB {
+		FOLKnowledgeBase otterKB;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			otterKB = FOLKnowledgeBaseFactory
+					.createLovesAnimalKnowledgeBase(new FOLOTTERLikeTheoremProver(
+							false));
+		}
+	}
+
+	@Benchmark
+	public InferenceResult backwardChainingDefiniteClauses(DefiniteClauseKB kb) {
+		return kb.bcKB.ask(kb.query);
+	}
+
+	@Benchmark
+	public InferenceResult otterDefiniteClauses(DefiniteClauseKB kb) {
+		return kb.otterKB.ask(kb.query);
+	}
+
+	@Benchmark
+	public InferenceResult backwardChainingFamilyTree(FamilyTreeKB kb) {
+		return kb.bcKB.ask(kb.query);
+	}
+
+	@Benchmark
+	public InferenceResult otterFamilyTree(FamilyTreeKB kb) {
+		return kb.otterKB.ask(kb.query);
+	}
+
+	@Benchmark
+	public InferenceResult otterLovesAnimal(LovesAnimalKB kb) {
+		return kb.otterKB.ask("Kills(Curiosity, Tuna)");
+	}
+}
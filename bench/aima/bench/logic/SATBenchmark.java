@@ -0,0 +1,98 @@
+package aima.bench.logic;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.logic.propositional.algorithms.DPLL;
+import aima.logic.propositional.algorithms.Model;
+import aima.logic.propositional.algorithms.WalkSAT;
+import aima.logic.propositional.parsing.PEParser;
+import aima.logic.propositional.parsing.ast.Sentence;
+
+/**
+ * DPLL and WalkSAT on random 3-SAT sentences with a given number of symbols
+ * and clausesPerSymbol * symbols clauses. Around 4.26 clauses per symbol
+ * sentences are about as likely to be satisfiable as not, and hardest to
+ * decide.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SATBenchmark {
+
+	@Param( { "10", "15", "20" })
+	public int symbols;
+
+	@Param( { "2.0", "4.26" })
+	public double clausesPerSymbol;
+
+	private String sentence;
+
+	private Sentence parsedSentence;
+
+	@Setup
+	public void setUp() {
+		sentence = random3SAT(symbols,
+				(int) Math.round(clausesPerSymbol * symbols), new Random(7L));
+		parsedSentence = (Sentence) new PEParser().parse(sentence);
+	}
+
+	@Benchmark
+	public boolean dpll() {
+		return new DPLL().dpllSatisfiable(parsedSentence);
+	}
+
+	@Benchmark
+	public Model walkSAT() {
+		return new WalkSAT().findModelFor(sentence, 1000, 0.5);
+	}
+
+	/**
+	 * Returns a conjunction of clauses, each the disjunction of three
+	 * literals over distinct symbols X1 ... Xn, in the syntax read by
+	 * PEParser.
+	 */
+	public static String random3SAT(int n, int clauses, Random r) {
+		StringBuilder sb = new StringBuilder();
+		for (int c = 0; c < clauses; c++) {
+			int a = r.nextInt(n), b, d;
+			do {
+				b = r.nextInt(n);
+			} while (b == a);
+			do {
+				d = r.nextInt(n);
+			} while (d == a || d == b);
+			String clause = "((" + literal(a, r) + " OR " + literal(b, r)
+					+ ") OR " + literal(d, r) + ")";
+			if (0 == c) {
+				sb.append(clause);
+			} else {
+				sb.insert(0, '(').append(" AND ").append(clause).append(')');
+			}
+		}
+		return sb.toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static String literal(int symbol, Random r) {
+		String s = "X" + (symbol + 1);
+		return r.nextBoolean() ? s : "(NOT " + s + ")";
+	}
+}
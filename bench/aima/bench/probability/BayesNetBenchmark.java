@@ -0,0 +1,134 @@
+package aima.bench.probability;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.probability.BayesNet;
+import aima.probability.BayesNetNode;
+import aima.probability.Randomizer;
+
+/**
+ * Approximate inference with BayesNet.likelihoodWeighting() and
+ * BayesNet.mcmcAsk() for increasing numbers of samples, on the burglary
+ * network of AIMA 2nd Edition page 494 and on chains X0 -> X1 -> ... of 5
+ * and 10 nodes, querying the first node given the last. Other chain lengths
+ * and sample counts can be given on the command line, e.g. -p
+ * network=chain20 -p samples=10000, but note that mcmcAsk() rejection
+ * samples each Markov blanket and takes seconds per call at that size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BayesNetBenchmark {
+
+	@Param( { "burglary", "chain5", "chain10" })
+	public String network;
+
+	@Param( { "100", "1000" })
+	public int samples;
+
+	private BayesNet net;
+
+	private String query;
+
+	private Hashtable<String, Boolean> evidence;
+
+	private Randomizer randomizer;
+
+	@Setup
+	public void setUp() {
+		evidence = new Hashtable<String, Boolean>();
+		if ("burglary".equals(network)) {
+			net = createBurglaryNetwork();
+			query = "Burglary";
+			evidence.put("JohnCalls", Boolean.TRUE);
+			evidence.put("MaryCalls", Boolean.TRUE);
+		} else {
+			int length = Integer.parseInt(network.substring("chain".length()));
+			net = createChain(length);
+			query = "X0";
+			evidence.put("X" + (length - 1), Boolean.TRUE);
+		}
+		final Random r = new Random(11L);
+		randomizer = new Randomizer() {
+			public double nextDouble() {
+				return r.nextDouble();
+			}
+		};
+	}
+
+	@Benchmark
+	public double[] likelihoodWeighting() {
+		return net.likelihoodWeighting(query, evidence, samples, randomizer);
+	}
+
+	@Benchmark
+	public double[] mcmcAsk() {
+		return net.mcmcAsk(query, evidence, samples, randomizer);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static BayesNet createBurglaryNetwork() {
+		BayesNetNode burglary = new BayesNetNode("Burglary");
+		BayesNetNode earthquake = new BayesNetNode("EarthQuake");
+		BayesNetNode alarm = new BayesNetNode("Alarm");
+		BayesNetNode johnCalls = new BayesNetNode("JohnCalls");
+		BayesNetNode maryCalls = new BayesNetNode("MaryCalls");
+
+		alarm.influencedBy(burglary, earthquake);
+		johnCalls.influencedBy(alarm);
+		maryCalls.influencedBy(alarm);
+
+		burglary.setProbability(true, 0.001);
+		earthquake.setProbability(true, 0.002);
+
+		alarm.setProbability(true, true, 0.95);
+		alarm.setProbability(true, false, 0.94);
+		alarm.setProbability(false, true, 0.29);
+		alarm.setProbability(false, false, 0.001);
+
+		johnCalls.setProbability(true, 0.90);
+		johnCalls.setProbability(false, 0.05);
+
+		maryCalls.setProbability(true, 0.70);
+		maryCalls.setProbability(false, 0.01);
+
+		return new BayesNet(burglary, earthquake);
+	}
+
+	private static BayesNet createChain(int length) {
+		List<BayesNetNode> nodes = new ArrayList<BayesNetNode>();
+		for (int i = 0; i < length; i++) {
+			BayesNetNode node = new BayesNetNode("X" + i);
+			if (0 == i) {
+				node.setProbability(true, 0.3);
+			} else {
+				node.influencedBy(nodes.get(i - 1));
+				node.setProbability(true, 0.8);
+				node.setProbability(false, 0.1);
+			}
+			nodes.add(node);
+		}
+		return new BayesNet(nodes.get(0));
+	}
+}
@@ -0,0 +1,112 @@
+package aima.bench.search;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzleSuccessorFunction;
+import aima.search.eightpuzzle.ManhattanHeuristicFunction;
+import aima.search.eightpuzzle.MisplacedTilleHeuristicFunction;
+import aima.search.framework.GraphSearch;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Problem;
+import aima.search.informed.AStarSearch;
+import aima.search.informed.IDAStarSearch;
+import aima.search.uninformed.BreadthFirstSearch;
+
+/**
+ * Searches on the 8-puzzle. The start board is made by a
+ * seeded random walk of scrambleMoves moves away from the goal, so larger
+ * values give (up to the puzzle's diameter of 31) deeper solutions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EightPuzzleBenchmark {
+
+	@Param( { "8", "16", "24" })
+	public int scrambleMoves;
+
+	private EightPuzzleBoard start;
+
+	@Setup
+	public void setUp() {
+		start = scramble(scrambleMoves, new Random(31L));
+	}
+
+	@Benchmark
+	public List aStarManhattan() throws Exception {
+		return new AStarSearch(new GraphSearch())
+				.search(problem(new ManhattanHeuristicFunction()));
+	}
+
+	@Benchmark
+	public List aStarMisplacedTiles() throws Exception {
+		return new AStarSearch(new GraphSearch())
+				.search(problem(new MisplacedTilleHeuristicFunction()));
+	}
+
+	@Benchmark
+	public List idaStarManhattan() throws Exception {
+		return new IDAStarSearch()
+				.search(problem(new ManhattanHeuristicFunction()));
+	}
+
+	@Benchmark
+	public List breadthFirstGraphSearch() throws Exception {
+		return new BreadthFirstSearch(new GraphSearch())
+				.search(problem(new ManhattanHeuristicFunction()));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem problem(HeuristicFunction hf) {
+		return new Problem(start, new EightPuzzleSuccessorFunction(),
+				new EightPuzzleGoalTest(), hf);
+	}
+
+	private static EightPuzzleBoard scramble(int moves, Random r) {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 0, 1, 2, 3,
+				4, 5, 6, 7, 8 });
+		String[] directions = { EightPuzzleBoard.UP, EightPuzzleBoard.DOWN,
+				EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT };
+		int last = -1;
+		for (int i = 0; i < moves;) {
+			int d = r.nextInt(4);
+			// Never undo the previous move
+			if ((d ^ 1) == last || !board.canMoveGap(directions[d])) {
+				continue;
+			}
+			if (0 == d) {
+				board.moveGapUp();
+			} else if (1 == d) {
+				board.moveGapDown();
+			} else if (2 == d) {
+				board.moveGapLeft();
+			} else {
+				board.moveGapRight();
+			}
+			last = d;
+			i++;
+		}
+		return board;
+	}
+}
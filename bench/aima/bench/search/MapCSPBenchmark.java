@@ -0,0 +1,112 @@
+package aima.bench.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.search.csp.Assignment;
+import aima.search.csp.CSP;
+import aima.search.csp.Constraint;
+import aima.search.csp.Domain;
+import aima.search.csp.MapCSP;
+
+/**
+ * CSP.backTrackingSearch() on the map of Australia, and on three-colouring
+ * a side x side grid of regions for increasing sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapCSPBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Australia {
+		CSP csp;
+
+		@Setup
+		public void setUp() {
+			csp = MapCSP.getMap();
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Grid {
+		@Param( { "4", "8", "16" })
+		public int side;
+
+		CSP csp;
+
+		@Setup
+		public void setUp() {
+			csp = createGridCSP(side);
+		}
+	}
+
+	@Benchmark
+	public Assignment australia(Australia map) {
+		return map.csp.backTrackingSearch();
+	}
+
+	@Benchmark
+	public Assignment grid(Grid map) {
+		return map.csp.backTrackingSearch();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static CSP createGridCSP(final int side) {
+		List<String> variables = new ArrayList<String>();
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				variables.add(x + "," + y);
+			}
+		}
+		List<String> colors = new ArrayList<String>();
+		colors.add(MapCSP.RED);
+		colors.add(MapCSP.GREEN);
+		colors.add(MapCSP.BLUE);
+		Domain domains = new Domain(variables);
+		for (String variable : variables) {
+			domains.addToDomain(variable, colors);
+		}
+		// A region differs in colour from those left, right, above and below
+		Constraint constraint = new Constraint() {
+			public boolean isSatisfiedWith(Assignment assignment,
+					String variable, Object value) {
+				int comma = variable.indexOf(',');
+				int x = Integer.parseInt(variable.substring(0, comma));
+				int y = Integer.parseInt(variable.substring(comma + 1));
+				return differs(assignment, x - 1, y, value)
+						&& differs(assignment, x + 1, y, value)
+						&& differs(assignment, x, y - 1, value)
+						&& differs(assignment, x, y + 1, value);
+			}
+
+			private boolean differs(Assignment assignment, int x, int y,
+					Object value) {
+				if (x < 0 || y < 0 || x >= side || y >= side) {
+					return true;
+				}
+				String neighbor = x + "," + y;
+				return !(assignment.hasAssignmentFor(neighbor) && value
+						.equals(assignment.getAssignment(neighbor)));
+			}
+		};
+		return new CSP(variables, constraint, domains);
+	}
+}
@@ -0,0 +1,59 @@
+package aima.bench.search;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.search.framework.Problem;
+import aima.search.informed.HillClimbingSearch;
+import aima.search.informed.SimulatedAnnealingSearch;
+import aima.search.nqueens.NQueensBoard;
+import aima.search.nqueens.NQueensGoalTest;
+import aima.search.nqueens.NQueensSuccessorFunction;
+import aima.search.nqueens.QueensToBePlacedHeuristic;
+
+/**
+ * Local search on the incremental formulation of the N-queens problem, as
+ * used by NQueensDemo, for increasing board sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NQueensBenchmark {
+
+	@Param( { "8", "16", "32" })
+	public int boardSize;
+
+	private Problem problem;
+
+	@Setup
+	public void setUp() {
+		problem = new Problem(new NQueensBoard(boardSize),
+				new NQueensSuccessorFunction(), new NQueensGoalTest(),
+				new QueensToBePlacedHeuristic());
+	}
+
+	@Benchmark
+	public List hillClimbing() throws Exception {
+		return new HillClimbingSearch().search(problem);
+	}
+
+	@Benchmark
+	public List simulatedAnnealing() throws Exception {
+		return new SimulatedAnnealingSearch().search(problem);
+	}
+}
@@ -0,0 +1,120 @@
+package aima.bench.search;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.search.framework.GraphSearch;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Problem;
+import aima.search.informed.AStarSearch;
+import aima.search.informed.MeetInTheMiddleSearch;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.ContractionHierarchy;
+import aima.search.map.ContractionHierarchySearch;
+import aima.search.map.LandmarkHeuristicFunction;
+import aima.search.map.Landmarks;
+import aima.search.map.Map;
+import aima.search.map.Point2D;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.search.uninformed.BreadthFirstSearch;
+import aima.search.uninformed.UniformCostSearch;
+
+/**
+ * Route finding to Bucharest on the map of Romania, from start cities at
+ * increasing distances, with GraphSearch based searches (A* with both
+ * straight line distance and landmark estimates), with
+ * MeetInTheMiddleSearch and with a ContractionHierarchySearch over a
+ * hierarchy built once in setUp().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RomaniaBenchmark {
+
+	@Param( { SimplifiedRoadMapOfPartOfRomania.PITESTI,
+			SimplifiedRoadMapOfPartOfRomania.ARAD,
+			SimplifiedRoadMapOfPartOfRomania.NEAMT })
+	public String from;
+
+	private Problem problem;
+
+	private Problem landmarkProblem;
+
+	private ContractionHierarchySearch contractionHierarchySearch;
+
+	@Setup
+	public void setUp() {
+		final Map map = new SimplifiedRoadMapOfPartOfRomania();
+		problem = new BidirectionalMapProblem(map, from,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST, straightLineTo(map,
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				straightLineTo(map, from));
+		Landmarks landmarks = Landmarks.select(map, 4,
+				Landmarks.Selection.AVOID, new Random(0L));
+		landmarkProblem = new BidirectionalMapProblem(map, from,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				new LandmarkHeuristicFunction(landmarks).getAdaptation(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, map));
+		contractionHierarchySearch = new ContractionHierarchySearch(
+				ContractionHierarchy.build(map));
+	}
+
+	@Benchmark
+	public List aStar() throws Exception {
+		return new AStarSearch(new GraphSearch()).search(problem);
+	}
+
+	@Benchmark
+	public List aStarLandmarks() throws Exception {
+		return new AStarSearch(new GraphSearch()).search(landmarkProblem);
+	}
+
+	@Benchmark
+	public List uniformCost() throws Exception {
+		return new UniformCostSearch(new GraphSearch()).search(problem);
+	}
+
+	@Benchmark
+	public List breadthFirst() throws Exception {
+		return new BreadthFirstSearch(new GraphSearch()).search(problem);
+	}
+
+	@Benchmark
+	public List meetInTheMiddle() throws Exception {
+		return new MeetInTheMiddleSearch().search(problem);
+	}
+
+	@Benchmark
+	public List contractionHierarchy() throws Exception {
+		return contractionHierarchySearch.search(problem);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static HeuristicFunction straightLineTo(final Map map,
+			String location) {
+		final Point2D to = map.getPosition(location);
+		return new HeuristicFunction() {
+			public double getHeuristicValue(Object state) {
+				return map.getPosition((String) state).distance(to);
+			}
+		};
+	}
+}
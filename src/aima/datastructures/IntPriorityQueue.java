@@ -0,0 +1,109 @@
+package aima.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of int values ordered by a primitive double priority. Both
+ * the values and their priorities are held in parallel arrays so that adding
+ * and removing entries does not allocate.
+ */
+public class IntPriorityQueue {
+
+	private int[] values;
+
+	private double[] priorities;
+
+	private int size;
+
+	public IntPriorityQueue() {
+		this(64);
+	}
+
+	public IntPriorityQueue(int initialCapacity) {
+		values = new int[Math.max(1, initialCapacity)];
+		priorities = new double[values.length];
+	}
+
+	public void add(int value, double priority) {
+		if (size == values.length) {
+			int newCapacity = values.length << 1;
+			values = Arrays.copyOf(values, newCapacity);
+			priorities = Arrays.copyOf(priorities, newCapacity);
+		}
+		int i = size++;
+		// sift up
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (priorities[parent] <= priority) {
+				break;
+			}
+			values[i] = values[parent];
+			priorities[i] = priorities[parent];
+			i = parent;
+		}
+		values[i] = value;
+		priorities[i] = priority;
+	}
+
+	/**
+	 * @return the value with the lowest priority, which is removed from the
+	 *         queue.
+	 */
+	public int remove() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int result = values[0];
+		size--;
+		if (size > 0) {
+			int lastValue = values[size];
+			double lastPriority = priorities[size];
+			int i = 0;
+			// sift down
+			int half = size >>> 1;
+			while (i < half) {
+				int child = (i << 1) + 1;
+				int right = child + 1;
+				if (right < size && priorities[right] < priorities[child]) {
+					child = right;
+				}
+				if (lastPriority <= priorities[child]) {
+					break;
+				}
+				values[i] = values[child];
+				priorities[i] = priorities[child];
+				i = child;
+			}
+			values[i] = lastValue;
+			priorities[i] = lastPriority;
+		}
+		return result;
+	}
+
+	public double peekPriority() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return priorities[0];
+	}
+
+	public int peek() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return values[0];
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+}
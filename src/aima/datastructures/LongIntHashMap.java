@@ -0,0 +1,129 @@
+package aima.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing (linear probing) hash map from primitive long keys to
+ * non-negative int values. Intended for search algorithms that encode their
+ * states as longs and need to map them to node indexes without boxing.
+ */
+public class LongIntHashMap {
+
+	public static final int NO_VALUE = -1;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+
+	// value + 1 is stored so that 0 can mark an empty slot
+	private int[] values;
+
+	private int size;
+
+	private int mask;
+
+	private int resizeAt;
+
+	public LongIntHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	public LongIntHashMap(int expectedSize) {
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	/**
+	 * @return the value associated with key, or NO_VALUE if there is none.
+	 */
+	public int get(long key) {
+		int slot = slotFor(key);
+		while (values[slot] != 0) {
+			if (keys[slot] == key) {
+				return values[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NO_VALUE;
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != NO_VALUE;
+	}
+
+	/**
+	 * Associate value (which must be >= 0) with key, replacing any previous
+	 * association.
+	 */
+	public void put(long key, int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Values must be >= 0: " + value);
+		}
+		int slot = slotFor(key);
+		while (values[slot] != 0) {
+			if (keys[slot] == key) {
+				values[slot] = value + 1;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value + 1;
+		size++;
+		if (size > resizeAt) {
+			rehash(keys.length << 1);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(values, 0);
+		size = 0;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int slotFor(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		// Keep the load factor at or below 0.5 so probe sequences stay short
+		resizeAt = capacity >> 1;
+	}
+
+	private void rehash(int newCapacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(newCapacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != 0) {
+				int slot = slotFor(oldKeys[i]);
+				while (values[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2L * expectedSize && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+}
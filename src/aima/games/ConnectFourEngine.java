@@ -0,0 +1,193 @@
+package aima.games;
+
+import java.util.List;
+
+/**
+ * Connect Four on the standard board of 7 columns and 6 rows, as a
+ * GameEngine with bitboards: each player's discs are a long with bit 7c + r
+ * for row r of column c, so that the bit above each column's top row is
+ * always clear and shifting a board never carries discs from one column
+ * into the next. A move is a column, and the moves are listed from the
+ * centre out, which suits alpha-beta. Whether the player who just moved
+ * has four in a row takes four shifts and ands:
+ *
+ * <pre>
+ * m = b &amp; (b &gt;&gt; s); won = 0 != (m &amp; (m &gt;&gt; 2s))
+ * </pre>
+ *
+ * for s = 1 (vertical), 7 (horizontal), 6 and 8 (the diagonals). The first
+ * player is MAX, with a utility of 1 for a win, -1 for a loss and 0 for a
+ * draw. With 4.5 10^12 positions and a branching factor of up to 7 it is a
+ * far larger test of a search than TicTacToe.
+ */
+public class ConnectFourEngine implements GameEngine<ConnectFourEngine.Position, Integer> {
+
+	public static final int WIDTH = 7, HEIGHT = 6;
+
+	// Bits per column, one more than its rows
+	private static final int STRIDE = HEIGHT + 1;
+
+	private static final int[] MOVE_ORDER = { 3, 2, 4, 1, 5, 0, 6 };
+
+	// Vertical, horizontal and the two diagonals
+	private static final int[] SHIFTS = { 1, STRIDE, STRIDE - 1, STRIDE + 1 };
+
+	private final ZobristKeys keys = new ZobristKeys(WIDTH * STRIDE, 2,
+			0xc4L);
+
+	/**
+	 * A position of Connect Four, changed in place by makeMove() and
+	 * unmakeMove().
+	 */
+	public static class Position {
+		// The discs of MAX and MIN
+		private final long[] boards = new long[2];
+
+		// The bit of the lowest empty square of each column
+		private final int[] heights = new int[WIDTH];
+
+		private int moves = 0;
+
+		private int player = MAX;
+
+		private boolean won = false;
+
+		private long hash = 0L;
+
+		public Position() {
+			for (int c = 0; c < WIDTH; c++) {
+				heights[c] = c * STRIDE;
+			}
+		}
+
+		public Position(Position position) {
+			boards[0] = position.boards[0];
+			boards[1] = position.boards[1];
+			System.arraycopy(position.heights, 0, heights, 0, WIDTH);
+			moves = position.moves;
+			player = position.player;
+			won = position.won;
+			hash = position.hash;
+		}
+
+		/**
+		 * @return MAX or MIN for the disc in row (from the bottom) of
+		 *         column, or -1 if there is none.
+		 */
+		public int getDisc(int column, int row) {
+			long bit = 1L << (column * STRIDE + row);
+			return 0 != (boards[MAX] & bit) ? MAX
+					: 0 != (boards[MIN] & bit) ? MIN : -1;
+		}
+
+		public int getNumberOfMoves() {
+			return moves;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Position)) {
+				return false;
+			}
+			Position another = (Position) o;
+			return boards[0] == another.boards[0]
+					&& boards[1] == another.boards[1];
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (hash ^ (hash >>> 32));
+		}
+
+		@Override
+		public String toString() {
+			StringBuffer buf = new StringBuffer();
+			for (int row = HEIGHT - 1; row >= 0; row--) {
+				for (int column = 0; column < WIDTH; column++) {
+					int disc = getDisc(column, row);
+					buf.append(MAX == disc ? "X" : MIN == disc ? "O" : "-");
+					buf.append(WIDTH - 1 == column ? "\n" : " ");
+				}
+			}
+			return buf.toString();
+		}
+	}
+
+	// START Interface - GameEngine
+	public Position getInitialState() {
+		return new Position();
+	}
+
+	public Position copyState(Position state) {
+		return new Position(state);
+	}
+
+	public int getPlayerToMove(Position state) {
+		return state.player;
+	}
+
+	public boolean isTerminal(Position state) {
+		return state.won || WIDTH * HEIGHT == state.moves;
+	}
+
+	public int getUtility(Position state) {
+		if (!state.won) {
+			return 0;
+		}
+		// The winner made the last move
+		return MAX == state.player ? -1 : 1;
+	}
+
+	public void getMoves(Position state, List<Integer> moves) {
+		moves.clear();
+		for (int column : MOVE_ORDER) {
+			if (state.heights[column] < column * STRIDE + HEIGHT) {
+				moves.add(Integer.valueOf(column));
+			}
+		}
+	}
+
+	public void makeMove(Position state, Integer move) {
+		int column = move.intValue();
+		int bit = state.heights[column]++;
+		long board = state.boards[state.player] |= 1L << bit;
+		state.hash ^= keys.get(bit, state.player) ^ keys.getSideToMove();
+		state.won = isWon(board);
+		state.player = 1 - state.player;
+		state.moves++;
+	}
+
+	public void unmakeMove(Position state, Integer move) {
+		int column = move.intValue();
+		int bit = --state.heights[column];
+		state.player = 1 - state.player;
+		state.boards[state.player] &= ~(1L << bit);
+		state.hash ^= keys.get(bit, state.player) ^ keys.getSideToMove();
+		// No move is made once a player has won
+		state.won = false;
+		state.moves--;
+	}
+
+	public long getHash(Position state) {
+		return state.hash;
+	}
+
+	// END Interface - GameEngine
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	private static boolean isWon(long board) {
+		for (int shift : SHIFTS) {
+			long m = board & (board >> shift);
+			if (0 != (m & (m >> 2 * shift))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,60 @@
+package aima.games;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays the move whose resulting state is best for the player to move, by
+ * its utility if it is terminal and otherwise by an evaluation function,
+ * except that with probability epsilon it plays a random move, so that
+ * playouts still vary. Playouts are slower than random ones, as every move
+ * is tried, but far more like real play, so fewer are needed.
+ */
+public class EvaluationRolloutPolicy<S, M> implements RolloutPolicy<S, M> {
+
+	private final GameEngine<S, M> engine;
+
+	private final GameEvaluationFunction<S> evaluation;
+
+	private final double epsilon;
+
+	/**
+	 * With a null evaluation only moves that end the game are told apart,
+	 * so that a playout takes a win when it can and otherwise plays at
+	 * random.
+	 */
+	public EvaluationRolloutPolicy(GameEngine<S, M> engine,
+			GameEvaluationFunction<S> evaluation, double epsilon) {
+		this.engine = engine;
+		this.evaluation = evaluation;
+		this.epsilon = epsilon;
+	}
+
+	public int selectMove(S state, List<M> moves, SplittableRandom random) {
+		if (random.nextDouble() < epsilon) {
+			return random.nextInt(moves.size());
+		}
+		int sign = GameEngine.MAX == engine.getPlayerToMove(state) ? 1 : -1;
+		int best = -1, bestValue = Integer.MIN_VALUE, ties = 0;
+		for (int i = 0; i < moves.size(); i++) {
+			M move = moves.get(i);
+			engine.makeMove(state, move);
+			int value;
+			if (engine.isTerminal(state)) {
+				value = sign * engine.getUtility(state);
+			} else {
+				value = null == evaluation ? 0 : sign
+						* evaluation.evaluate(state);
+			}
+			engine.unmakeMove(state, move);
+			if (value > bestValue) {
+				best = i;
+				bestValue = value;
+				ties = 1;
+			} else if (value == bestValue && 0 == random.nextInt(++ties)) {
+				best = i;
+			}
+		}
+		return best;
+	}
+}
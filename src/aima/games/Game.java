@@ -5,6 +5,7 @@
 package aima.games;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import aima.util.Util;
 
@@ -23,6 +24,9 @@ public abstract class Game {
 
 	protected int level;
 
+	// Created when first needed, as it holds a pool of nodes
+	private MonteCarloTreeSearch<GameStateEngine.Path, Integer> monteCarloTreeSearch = null;
+
 	public ArrayList getMoves(GameState state) {
 		return (ArrayList) state.get("moves");
 	}
@@ -136,27 +140,84 @@ public abstract class Game {
 	}
 
 	public void makeMiniMaxMove() {
-		getMiniMaxValue(presentState);
-		GameState nextState = (GameState) presentState.get("next");
-		if (nextState == null) {
-			throw new RuntimeException("Mini Max Move failed");
+		makeSearchedMove("Mini Max", new ValueFunction() {
+			public int getValue(GameState state) {
+				return getMiniMaxValue(state);
+			}
+		});
+	}
 
-		}
-		makeMove(presentState, nextState.get("moveMade"));
+	public void makeAlphaBetaMove() {
+		makeSearchedMove("Alpha Beta", new ValueFunction() {
+			public int getValue(GameState state) {
+				return getAlphaBetaValue(state);
+			}
+		});
+	}
 
+	public void makeIterativeDeepeningMove() {
+		makeSearchedMove("Iterative Deepening", new ValueFunction() {
+			public int getValue(GameState state) {
+				return getIterativeDeepeningValue(state);
+			}
+		});
 	}
 
-	public void makeAlphaBetaMove() {
-		getAlphaBetaValue(presentState);
+	/**
+	 * The value of state by an IterativeDeepeningAlphaBetaSearch, putting
+	 * the successor for the best move as "next". Games without a GameEngine
+	 * search with getAlphaBetaValue() instead.
+	 */
+	public int getIterativeDeepeningValue(GameState state) {
+		return getAlphaBetaValue(state);
+	}
 
-		GameState nextState = (GameState) presentState.get("next");
-		if (nextState == null) {
-			throw new RuntimeException("Alpha Beta Move failed");
+	public void makeParallelAlphaBetaMove() {
+		makeSearchedMove("Parallel Alpha Beta", new ValueFunction() {
+			public int getValue(GameState state) {
+				return getParallelAlphaBetaValue(state);
+			}
+		});
+	}
+
+	/**
+	 * The value of state by a ParallelAlphaBetaSearch, putting the successor
+	 * for the best move as "next". Games without a GameEngine search with
+	 * getAlphaBetaValue() instead.
+	 */
+	public int getParallelAlphaBetaValue(GameState state) {
+		return getAlphaBetaValue(state);
+	}
+
+	/**
+	 * Makes the move chosen by getMonteCarloTreeSearch() through the
+	 * GameStates of this game.
+	 */
+	public void makeMonteCarloMove() {
+		MonteCarloTreeSearch<GameStateEngine.Path, Integer> search = getMonteCarloTreeSearch();
+		Integer move = search.makeDecision(new GameStateEngine.Path(
+				presentState));
+		if (move == null) {
+			throw new RuntimeException("Monte Carlo Move failed");
 		}
+		GameState nextState = (GameState) getSuccessorStates(presentState)
+				.get(move.intValue());
 		makeMove(presentState, nextState.get("moveMade"));
 
 	}
 
+	/**
+	 * @return the search of makeMonteCarloMove(), over a GameStateEngine of
+	 *         this game, to configure.
+	 */
+	public MonteCarloTreeSearch<GameStateEngine.Path, Integer> getMonteCarloTreeSearch() {
+		if (null == monteCarloTreeSearch) {
+			monteCarloTreeSearch = new MonteCarloTreeSearch<GameStateEngine.Path, Integer>(
+					new GameStateEngine(this));
+		}
+		return monteCarloTreeSearch;
+	}
+
 	public abstract ArrayList getSuccessorStates(GameState state);
 
 	public abstract GameState makeMove(GameState state, Object o);
@@ -171,4 +232,145 @@ public abstract class Game {
 	public abstract int getMiniMaxValue(GameState state);
 
 	public abstract int getAlphaBetaValue(GameState state);
+
+	/**
+	 * MINIMAX-VALUE of state, with MAX to move, searched by making and
+	 * unmaking the moves of engine on state, which is left as it was.
+	 */
+	public static <S, M> int maxValue(GameEngine<S, M> engine, S state) {
+		return maxValue(engine, state, new ArrayList<List<M>>(), 0);
+	}
+
+	/**
+	 * MINIMAX-VALUE of state, with MIN to move.
+	 */
+	public static <S, M> int minValue(GameEngine<S, M> engine, S state) {
+		return minValue(engine, state, new ArrayList<List<M>>(), 0);
+	}
+
+	/**
+	 * The value of state, with MAX to move, by alpha-beta search: exact if
+	 * it lies strictly between alpha and beta, otherwise a bound on that
+	 * side.
+	 */
+	public static <S, M> int maxValue(GameEngine<S, M> engine, S state,
+			int alpha, int beta) {
+		return maxValue(engine, state, alpha, beta, new ArrayList<List<M>>(),
+				0);
+	}
+
+	/**
+	 * The value of state, with MIN to move, by alpha-beta search.
+	 */
+	public static <S, M> int minValue(GameEngine<S, M> engine, S state,
+			int alpha, int beta) {
+		return minValue(engine, state, alpha, beta, new ArrayList<List<M>>(),
+				0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// One of the get...Value() methods, which put the successor for the best
+	// move as "next"
+	private interface ValueFunction {
+		int getValue(GameState state);
+	}
+
+	// Makes the move to the "next" state that valueFunction puts
+	private void makeSearchedMove(String searchName,
+			ValueFunction valueFunction) {
+		valueFunction.getValue(presentState);
+		GameState nextState = (GameState) presentState.get("next");
+		if (nextState == null) {
+			throw new RuntimeException(searchName + " Move failed");
+		}
+		makeMove(presentState, nextState.get("moveMade"));
+	}
+
+	// The moves of each ply share one list for the whole search
+	private static <M> List<M> getMoveList(List<List<M>> moveLists, int ply) {
+		while (moveLists.size() <= ply) {
+			moveLists.add(new ArrayList<M>());
+		}
+		return moveLists.get(ply);
+	}
+
+	private static <S, M> int maxValue(GameEngine<S, M> engine, S state,
+			List<List<M>> moveLists, int ply) {
+		if (engine.isTerminal(state)) {
+			return engine.getUtility(state);
+		}
+		List<M> moves = getMoveList(moveLists, ply);
+		engine.getMoves(state, moves);
+		int v = Integer.MIN_VALUE;
+		for (int i = 0; i < moves.size(); i++) {
+			M move = moves.get(i);
+			engine.makeMove(state, move);
+			v = Math.max(v, minValue(engine, state, moveLists, ply + 1));
+			engine.unmakeMove(state, move);
+		}
+		return v;
+	}
+
+	private static <S, M> int minValue(GameEngine<S, M> engine, S state,
+			List<List<M>> moveLists, int ply) {
+		if (engine.isTerminal(state)) {
+			return engine.getUtility(state);
+		}
+		List<M> moves = getMoveList(moveLists, ply);
+		engine.getMoves(state, moves);
+		int v = Integer.MAX_VALUE;
+		for (int i = 0; i < moves.size(); i++) {
+			M move = moves.get(i);
+			engine.makeMove(state, move);
+			v = Math.min(v, maxValue(engine, state, moveLists, ply + 1));
+			engine.unmakeMove(state, move);
+		}
+		return v;
+	}
+
+	private static <S, M> int maxValue(GameEngine<S, M> engine, S state,
+			int alpha, int beta, List<List<M>> moveLists, int ply) {
+		if (engine.isTerminal(state)) {
+			return engine.getUtility(state);
+		}
+		List<M> moves = getMoveList(moveLists, ply);
+		engine.getMoves(state, moves);
+		int v = Integer.MIN_VALUE;
+		for (int i = 0; i < moves.size(); i++) {
+			M move = moves.get(i);
+			engine.makeMove(state, move);
+			v = Math.max(v, minValue(engine, state, alpha, beta, moveLists,
+					ply + 1));
+			engine.unmakeMove(state, move);
+			if (v >= beta) {
+				return v;
+			}
+			alpha = Math.max(alpha, v);
+		}
+		return v;
+	}
+
+	private static <S, M> int minValue(GameEngine<S, M> engine, S state,
+			int alpha, int beta, List<List<M>> moveLists, int ply) {
+		if (engine.isTerminal(state)) {
+			return engine.getUtility(state);
+		}
+		List<M> moves = getMoveList(moveLists, ply);
+		engine.getMoves(state, moves);
+		int v = Integer.MAX_VALUE;
+		for (int i = 0; i < moves.size(); i++) {
+			M move = moves.get(i);
+			engine.makeMove(state, move);
+			v = Math.min(v, maxValue(engine, state, alpha, beta, moveLists,
+					ply + 1));
+			engine.unmakeMove(state, move);
+			if (v <= alpha) {
+				return v;
+			}
+			beta = Math.min(beta, v);
+		}
+		return v;
+	}
 }
\ No newline at end of file
@@ -11,10 +11,54 @@ import aima.basic.Agent;
  * 
  */
 public class GameAgent extends Agent {
+	/**
+	 * How makeMove() chooses a move.
+	 */
+	public enum SearchMethod {
+		MINIMAX, ALPHA_BETA, ITERATIVE_DEEPENING, PARALLEL_ALPHA_BETA, MONTE_CARLO
+	};
+
 	private Game game;
 
+	private SearchMethod searchMethod;
+
 	public GameAgent(Game g) {
+		this(g, SearchMethod.ALPHA_BETA);
+	}
+
+	public GameAgent(Game g, SearchMethod searchMethod) {
 		this.game = g;
+		this.searchMethod = searchMethod;
+	}
+
+	public SearchMethod getSearchMethod() {
+		return searchMethod;
+	}
+
+	public void setSearchMethod(SearchMethod searchMethod) {
+		this.searchMethod = searchMethod;
+	}
+
+	/**
+	 * Makes a move chosen by the search method.
+	 */
+	public void makeMove() {
+		switch (searchMethod) {
+		case MINIMAX:
+			makeMiniMaxMove();
+			break;
+		case ITERATIVE_DEEPENING:
+			makeIterativeDeepeningMove();
+			break;
+		case PARALLEL_ALPHA_BETA:
+			makeParallelAlphaBetaMove();
+			break;
+		case MONTE_CARLO:
+			makeMonteCarloMove();
+			break;
+		default:
+			makeAlphaBetaMove();
+		}
 	}
 
 	public void makeMiniMaxMove() {
@@ -25,4 +69,16 @@ public class GameAgent extends Agent {
 		game.makeAlphaBetaMove();
 	}
 
+	public void makeIterativeDeepeningMove() {
+		game.makeIterativeDeepeningMove();
+	}
+
+	public void makeParallelAlphaBetaMove() {
+		game.makeParallelAlphaBetaMove();
+	}
+
+	public void makeMonteCarloMove() {
+		game.makeMonteCarloMove();
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package aima.games;
+
+import java.util.List;
+
+/**
+ * A two player, zero-sum game played on mutable states of type S with moves
+ * of type M, as an alternative to Game's GameStates. A search makes a move
+ * on a state and unmakes it again on the way back, so it needs only the one
+ * state however deep it goes, and the utilities are plain ints. The static
+ * maxValue() and minValue() of Game search a GameEngine.
+ *
+ * The hash of a state should be kept up to date by makeMove() and
+ * unmakeMove() rather than computed afresh, e.g. by Zobrist hashing with
+ * ZobristKeys, so that states can be looked up in a table as they are
+ * searched.
+ */
+public interface GameEngine<S, M> {
+
+	/**
+	 * The player whose utility is maximized.
+	 */
+	public static final int MAX = 0;
+
+	public static final int MIN = 1;
+
+	public S getInitialState();
+
+	public S copyState(S state);
+
+	/**
+	 * @return MAX or MIN.
+	 */
+	public int getPlayerToMove(S state);
+
+	public boolean isTerminal(S state);
+
+	/**
+	 * @return the utility of a terminal state for MAX.
+	 */
+	public int getUtility(S state);
+
+	/**
+	 * Replaces the contents of moves with the legal moves in state, in the
+	 * order they should be searched.
+	 */
+	public void getMoves(S state, List<M> moves);
+
+	public void makeMove(S state, M move);
+
+	/**
+	 * Takes back move, the last move made on state.
+	 */
+	public void unmakeMove(S state, M move);
+
+	/**
+	 * @return a 64 bit hash of state, equal for equal states.
+	 */
+	public long getHash(S state);
+}
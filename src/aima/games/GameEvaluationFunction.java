@@ -0,0 +1,10 @@
+package aima.games;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): page 171, EVAL,
+ * an estimate of the utility of a non-terminal state for MAX, on the same
+ * scale as GameEngine.getUtility(), for searches cut off at a fixed depth.
+ */
+public interface GameEvaluationFunction<S> {
+	public int evaluate(S state);
+}
@@ -0,0 +1,124 @@
+package aima.games;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The GameStates of a Game as a GameEngine, so that searches written for
+ * GameEngines, such as MonteCarloTreeSearch, also play any Game through
+ * getSuccessorStates(), terminalTest() and computeUtility(). A state is the
+ * path of GameStates from where the search started, a move the index of a
+ * successor in getSuccessorStates(), making a move pushes the successor and
+ * unmaking it pops it. The successors of the last GameState are kept once
+ * generated, so that listing the moves and making one generates them once.
+ *
+ * The player to move in the Game's initial state is MAX. The hash of a path
+ * is the hashCode() of its last GameState.
+ */
+public class GameStateEngine implements GameEngine<GameStateEngine.Path, Integer> {
+
+	private final Game game;
+
+	private final String maxPlayer;
+
+	public GameStateEngine(Game game) {
+		this.game = game;
+		this.maxPlayer = game.getPlayerToMove(game.initialState);
+	}
+
+	/**
+	 * A path of GameStates, changed in place by makeMove() and unmakeMove().
+	 */
+	public static class Path {
+		private final List<GameState> states = new ArrayList<GameState>();
+
+		// The successors of each GameState on the path, or null
+		private final List<ArrayList> successors = new ArrayList<ArrayList>();
+
+		public Path(GameState state) {
+			states.add(state);
+			successors.add(null);
+		}
+
+		public Path(Path path) {
+			states.addAll(path.states);
+			successors.addAll(path.successors);
+		}
+
+		/**
+		 * @return the GameState reached.
+		 */
+		public GameState getState() {
+			return states.get(states.size() - 1);
+		}
+	}
+
+	/**
+	 * @return the path of just state.
+	 */
+	public Path getPath(GameState state) {
+		return new Path(state);
+	}
+
+	// START Interface - GameEngine
+	public Path getInitialState() {
+		return new Path(game.initialState);
+	}
+
+	public Path copyState(Path state) {
+		return new Path(state);
+	}
+
+	public int getPlayerToMove(Path state) {
+		return maxPlayer.equals(game.getPlayerToMove(state.getState())) ? MAX
+				: MIN;
+	}
+
+	public boolean isTerminal(Path state) {
+		return game.terminalTest(state.getState());
+	}
+
+	public int getUtility(Path state) {
+		return game.computeUtility(state.getState());
+	}
+
+	public void getMoves(Path state, List<Integer> moves) {
+		moves.clear();
+		int count = getSuccessors(state).size();
+		for (int i = 0; i < count; i++) {
+			moves.add(Integer.valueOf(i));
+		}
+	}
+
+	public void makeMove(Path state, Integer move) {
+		GameState successor = (GameState) getSuccessors(state).get(
+				move.intValue());
+		state.states.add(successor);
+		state.successors.add(null);
+	}
+
+	public void unmakeMove(Path state, Integer move) {
+		state.states.remove(state.states.size() - 1);
+		state.successors.remove(state.successors.size() - 1);
+	}
+
+	public long getHash(Path state) {
+		return state.getState().hashCode();
+	}
+
+	// END Interface - GameEngine
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	private ArrayList getSuccessors(Path state) {
+		int last = state.states.size() - 1;
+		ArrayList successors = state.successors.get(last);
+		if (null == successors) {
+			successors = game.getSuccessorStates(state.states.get(last));
+			state.successors.set(last, successors);
+		}
+		return successors;
+	}
+}
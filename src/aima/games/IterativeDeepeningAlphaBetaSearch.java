@@ -0,0 +1,373 @@
+package aima.games;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): Figure 6.7, page
+ * 170, ALPHA-BETA-SEARCH, over a GameEngine, iteratively deepened and cut
+ * off at each depth with an evaluation function, as in Section 6.4.
+ *
+ * Each iteration searches one ply deeper than the last, in negamax form
+ * (Knuth and Moore, 1975), making and unmaking moves on one state. It ends
+ * when an iteration met no cutoff, as its value is then the minimax value,
+ * when maxDepth is reached or when the time limit runs out; the move of the
+ * last complete iteration is returned. Iterations are cheap to repeat as
+ * each orders its moves by what the previous ones learned:
+ * <ul>
+ * <li>A TranspositionTable, keyed by GameEngine.getHash(), holds the value
+ * and best move of every state searched. A deep enough entry settles a state
+ * at once, and any entry gives the move to try first.</li>
+ * <li>Killer moves, the last two moves at each ply that caused a beta
+ * cutoff, are tried next, as a move that refutes one line often refutes its
+ * siblings.</li>
+ * <li>The other moves are tried in order of their history scores (Schaeffer,
+ * 1989), which grow with the square of the remaining depth each time a move
+ * causes a cutoff. Moves are scored by hashCode(), so equal moves in
+ * different states share a score.</li>
+ * </ul>
+ *
+ * Entries searched all the way to terminal states, without a cutoff, are
+ * recorded with TranspositionTable.MAX_DEPTH, so that they settle a state at
+ * any depth without making the iteration seem cut off. Several searches can
+ * share one table, from different threads.
+ */
+public class IterativeDeepeningAlphaBetaSearch<S, M> {
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String DEPTH = "depth";
+
+	private static final String TRANSPOSITION_HITS = "transpositionHits";
+
+	private static final String BETA_CUTOFFS = "betaCutoffs";
+
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	// The time limit is checked every so many nodes
+	private static final int CHECK_INTERVAL = 1024;
+
+	private static final int HISTORY_SIZE = 1 << 12;
+
+	private static final int TT_MOVE_SCORE = Integer.MAX_VALUE;
+
+	private static final int KILLER_SCORE = 1 << 30;
+
+	private final GameEngine<S, M> engine;
+
+	private final GameEvaluationFunction<S> evaluation;
+
+	private final Metrics metrics = new Metrics();
+
+	private TranspositionTable table;
+
+	private int maxDepth = TranspositionTable.MAX_DEPTH - 1;
+
+	private long timeLimit = 0;
+
+	private boolean killerMoves = true;
+
+	private boolean historyHeuristic = true;
+
+	// The moves of each ply, their order and its scores
+	private final List<List<M>> moveLists = new ArrayList<List<M>>();
+
+	private int[][] orders = new int[0][], scores = new int[0][];
+
+	// Two killer moves per ply
+	private Object[][] killers = new Object[0][];
+
+	private final int[] history = new int[HISTORY_SIZE];
+
+	private long nodes, transpositionHits, betaCutoffs;
+
+	private long deadline;
+
+	private boolean timedOut;
+
+	// Whether the subtree being searched met the depth cutoff
+	private boolean cutoff;
+
+	private int rootMoveIndex;
+
+	private int value;
+
+	/**
+	 * Creates a search that cuts off with evaluation, or with a value of 0
+	 * if it is null, and has a transposition table of 2^20 entries.
+	 */
+	public IterativeDeepeningAlphaBetaSearch(GameEngine<S, M> engine,
+			GameEvaluationFunction<S> evaluation) {
+		this(engine, evaluation, new TranspositionTable(20));
+	}
+
+	public IterativeDeepeningAlphaBetaSearch(GameEngine<S, M> engine,
+			GameEvaluationFunction<S> evaluation, TranspositionTable table) {
+		this.engine = engine;
+		this.evaluation = evaluation;
+		this.table = table;
+		clearInstrumentation();
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		return table;
+	}
+
+	/**
+	 * Sets the deepest iteration (at most TranspositionTable.MAX_DEPTH - 1,
+	 * the default).
+	 */
+	public void setMaxDepth(int maxDepth) {
+		if (maxDepth < 1 || maxDepth >= TranspositionTable.MAX_DEPTH) {
+			throw new IllegalArgumentException("Depth must be from 1 to "
+					+ (TranspositionTable.MAX_DEPTH - 1) + ": " + maxDepth);
+		}
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Sets the wall-clock time after which makeDecision() gives up its
+	 * current iteration, or 0 (the default) for none. The first iteration
+	 * that finishes in time yields the move even if it runs over.
+	 */
+	public void setTimeLimit(long milliseconds) {
+		this.timeLimit = milliseconds;
+	}
+
+	public void setKillerMoves(boolean killerMoves) {
+		this.killerMoves = killerMoves;
+	}
+
+	public void setHistoryHeuristic(boolean historyHeuristic) {
+		this.historyHeuristic = historyHeuristic;
+	}
+
+	/**
+	 * @return the best move in state, which is left as it was, or null if
+	 *         state is terminal.
+	 */
+	public M makeDecision(S state) {
+		clearInstrumentation();
+		S position = engine.copyState(state);
+		List<M> rootMoves = new ArrayList<M>();
+		engine.getMoves(position, rootMoves);
+		if (engine.isTerminal(position) || rootMoves.isEmpty()) {
+			value = engine.getUtility(position);
+			return null;
+		}
+		for (int i = 0; i < history.length; i++) {
+			history[i] /= 8;
+		}
+		long start = System.currentTimeMillis();
+		deadline = timeLimit > 0 ? start + timeLimit : Long.MAX_VALUE;
+		timedOut = false;
+		value = 0;
+		int sign = GameEngine.MAX == engine.getPlayerToMove(position) ? 1 : -1;
+		int bestIndex = 0, depth;
+		for (depth = 1; depth <= maxDepth; depth++) {
+			cutoff = false;
+			rootMoveIndex = -1;
+			int v = search(position, depth, -INFINITY, INFINITY, 0);
+			if (timedOut) {
+				// Still better than the last iteration if it was searched
+				// at all, as the last iteration's move was searched first
+				if (rootMoveIndex >= 0) {
+					bestIndex = rootMoveIndex;
+				}
+				depth--;
+				break;
+			}
+			bestIndex = rootMoveIndex;
+			value = sign * v;
+			if (!cutoff) {
+				break;
+			}
+		}
+		metrics.set(DEPTH, Math.min(depth, maxDepth));
+		metrics.set(NODES_EXPANDED, nodes);
+		metrics.set(TRANSPOSITION_HITS, transpositionHits);
+		metrics.set(BETA_CUTOFFS, betaCutoffs);
+		return rootMoves.get(bestIndex);
+	}
+
+	/**
+	 * @return the value for MAX of the state of the last makeDecision(), as
+	 *         of its last complete iteration, or 0 if none completed.
+	 */
+	public int getValue() {
+		return value;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		nodes = 0;
+		transpositionHits = 0;
+		betaCutoffs = 0;
+		metrics.set(NODES_EXPANDED, 0L);
+		metrics.set(DEPTH, 0);
+		metrics.set(TRANSPOSITION_HITS, 0L);
+		metrics.set(BETA_CUTOFFS, 0L);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// The fail-soft negamax value of state for the player to move
+	private int search(S state, int depth, int alpha, int beta, int ply) {
+		nodes++;
+		if (0 == nodes % CHECK_INTERVAL
+				&& System.currentTimeMillis() > deadline) {
+			timedOut = true;
+		}
+		if (timedOut) {
+			return 0;
+		}
+		int sign = GameEngine.MAX == engine.getPlayerToMove(state) ? 1 : -1;
+		if (engine.isTerminal(state)) {
+			return sign * engine.getUtility(state);
+		}
+		if (0 == depth) {
+			cutoff = true;
+			return null == evaluation ? 0 : sign * evaluation.evaluate(state);
+		}
+
+		long hash = engine.getHash(state);
+		long entry = null == table ? 0L : table.probe(hash);
+		int tableMove = -1;
+		if (0 != entry) {
+			tableMove = TranspositionTable.getMoveIndex(entry);
+			int entryDepth = TranspositionTable.getDepth(entry);
+			int entryValue = TranspositionTable.getValue(entry);
+			int bound = TranspositionTable.getBound(entry);
+			boolean settled = TranspositionTable.EXACT == bound
+					|| (TranspositionTable.LOWER_BOUND == bound && entryValue >= beta)
+					|| (TranspositionTable.UPPER_BOUND == bound && entryValue <= alpha);
+			// The root is always searched, for its best move
+			if (ply > 0 && entryDepth >= depth && settled) {
+				transpositionHits++;
+				if (entryDepth < TranspositionTable.MAX_DEPTH) {
+					cutoff = true;
+				}
+				return entryValue;
+			}
+		}
+
+		int count = orderMoves(state, ply, tableMove);
+		if (0 == count) {
+			return sign * engine.getUtility(state);
+		}
+		List<M> moves = moveLists.get(ply);
+		boolean outerCutoff = cutoff;
+		cutoff = false;
+		int best = -INFINITY, bestIndex = -1, originalAlpha = alpha;
+		for (int i = 0; i < count; i++) {
+			int index = nextMove(ply, i, count);
+			M move = moves.get(index);
+			engine.makeMove(state, move);
+			int v = -search(state, depth - 1, -beta, -alpha, ply + 1);
+			engine.unmakeMove(state, move);
+			if (timedOut) {
+				return 0;
+			}
+			if (v > best) {
+				best = v;
+				bestIndex = index;
+				if (0 == ply) {
+					rootMoveIndex = index;
+				}
+			}
+			if (best >= beta) {
+				betaCutoffs++;
+				if (killerMoves && !move.equals(killers[ply][0])) {
+					killers[ply][1] = killers[ply][0];
+					killers[ply][0] = move;
+				}
+				if (historyHeuristic) {
+					history[historySlot(move)] += depth * depth;
+				}
+				break;
+			}
+			alpha = Math.max(alpha, best);
+		}
+		if (null != table) {
+			int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+					: best >= beta ? TranspositionTable.LOWER_BOUND
+							: TranspositionTable.EXACT;
+			table.store(hash, cutoff ? depth : TranspositionTable.MAX_DEPTH,
+					best, bound, bestIndex <= TranspositionTable.MAX_MOVE_INDEX
+							? bestIndex : -1);
+		}
+		cutoff |= outerCutoff;
+		return best;
+	}
+
+	// Fills the move list of ply and scores its moves
+	private int orderMoves(S state, int ply, int tableMove) {
+		while (moveLists.size() <= ply) {
+			moveLists.add(new ArrayList<M>());
+		}
+		if (killers.length <= ply) {
+			int length = Math.max(2 * killers.length, ply + 1);
+			Object[][] newKillers = new Object[length][];
+			System.arraycopy(killers, 0, newKillers, 0, killers.length);
+			for (int i = killers.length; i < length; i++) {
+				newKillers[i] = new Object[2];
+			}
+			killers = newKillers;
+			int[][] newOrders = new int[length][], newScores = new int[length][];
+			System.arraycopy(orders, 0, newOrders, 0, orders.length);
+			System.arraycopy(scores, 0, newScores, 0, scores.length);
+			orders = newOrders;
+			scores = newScores;
+		}
+		List<M> moves = moveLists.get(ply);
+		engine.getMoves(state, moves);
+		int count = moves.size();
+		if (null == orders[ply] || orders[ply].length < count) {
+			orders[ply] = new int[Math.max(count, 16)];
+			scores[ply] = new int[Math.max(count, 16)];
+		}
+		int[] order = orders[ply], score = scores[ply];
+		for (int i = 0; i < count; i++) {
+			M move = moves.get(i);
+			order[i] = i;
+			if (i == tableMove) {
+				score[i] = TT_MOVE_SCORE;
+			} else if (move.equals(killers[ply][0])) {
+				score[i] = KILLER_SCORE;
+			} else if (move.equals(killers[ply][1])) {
+				score[i] = KILLER_SCORE - 1;
+			} else {
+				score[i] = history[historySlot(move)];
+			}
+		}
+		return count;
+	}
+
+	// Selects the best scored of the moves from i on, as the moves after a
+	// cutoff never need sorting; ties keep the order of getMoves()
+	private int nextMove(int ply, int i, int count) {
+		int[] order = orders[ply], score = scores[ply];
+		int best = i;
+		for (int j = i + 1; j < count; j++) {
+			if (score[order[j]] > score[order[best]]
+					|| (score[order[j]] == score[order[best]] && order[j] < order[best])) {
+				best = j;
+			}
+		}
+		int index = order[best];
+		order[best] = order[i];
+		order[i] = index;
+		return index;
+	}
+
+	private int historySlot(M move) {
+		int h = move.hashCode();
+		return (h ^ (h >>> 16)) & (HISTORY_SIZE - 1);
+	}
+}
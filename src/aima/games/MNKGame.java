@@ -0,0 +1,230 @@
+package aima.games;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import aima.basic.XYLocation;
+
+/**
+ * The m,n,k-game of MNKGameEngine as a Game: X and O take turns to mark an
+ * empty square of a board of m rows and n columns, and whoever first has k
+ * marks in a row, column or diagonal wins. The moves of a GameState are
+ * XYLocations of row and column, and its "position" is the MNKGameEngine
+ * position, leaving "board" to subclasses that show the board their own
+ * way, as TicTacToe does with a TicTacToeBoard. Such a subclass adds its
+ * board to the successor that MNKGame.getMove() makes.
+ *
+ * getMiniMaxValue() and getAlphaBetaValue() search the position of a
+ * GameState by making and unmaking moves on its bitboards, rather than
+ * through its successor GameStates, as do getIterativeDeepeningValue() and
+ * getParallelAlphaBetaValue().
+ */
+public class MNKGame extends Game {
+	private final MNKGameEngine engine;
+
+	// Created when first needed, as it holds a transposition table
+	private IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer> iterativeDeepeningSearch = null;
+
+	private ParallelAlphaBetaSearch<MNKGameEngine.Position, Integer> parallelAlphaBetaSearch = null;
+
+	public MNKGame(int m, int n, int k) {
+		engine = new MNKGameEngine(m, n, k);
+		ArrayList<XYLocation> moves = new ArrayList<XYLocation>();
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < n; j++) {
+				moves.add(new XYLocation(i, j));
+			}
+		}
+		initialState.put("moves", moves);
+		initialState.put("player", "X");
+		initialState.put("utility", Integer.valueOf(0));
+		initialState.put("position", engine.getInitialState());
+		initialState.put("level", Integer.valueOf(0));
+		presentState = initialState;
+	}
+
+	public MNKGameEngine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * @return the search of getIterativeDeepeningValue(), to configure.
+	 */
+	public IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer> getIterativeDeepeningSearch() {
+		if (null == iterativeDeepeningSearch) {
+			// Room for every position of the smallest boards
+			int squares = engine.getRows() * engine.getColumns();
+			iterativeDeepeningSearch = new IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer>(
+					engine, null, new TranspositionTable(Math.min(20,
+							squares + 4)));
+		}
+		return iterativeDeepeningSearch;
+	}
+
+	/**
+	 * @return the search of getParallelAlphaBetaValue(), to configure.
+	 */
+	public ParallelAlphaBetaSearch<MNKGameEngine.Position, Integer> getParallelAlphaBetaSearch() {
+		if (null == parallelAlphaBetaSearch) {
+			parallelAlphaBetaSearch = new ParallelAlphaBetaSearch<MNKGameEngine.Position, Integer>(
+					engine, null);
+		}
+		return parallelAlphaBetaSearch;
+	}
+
+	/**
+	 * @return the MNKGameEngine position of state, which the caller may
+	 *         change.
+	 */
+	public MNKGameEngine.Position getPosition(GameState state) {
+		return engine.copyState((MNKGameEngine.Position) state
+				.get("position"));
+	}
+
+	@Override
+	public ArrayList getSuccessorStates(GameState state) {
+		ArrayList<Object> retVal = new ArrayList<Object>();
+		ArrayList moves = getMoves(state);
+		for (int i = 0; i < moves.size(); i++) {
+			XYLocation loc = (XYLocation) moves.get(i);
+
+			GameState aState = getMove(state, loc.getXCoOrdinate(), loc
+					.getYCoOrdinate());
+			aState.put("moveMade", loc);
+			retVal.add(aState);
+
+		}
+		return retVal;
+	}
+
+	@Override
+	public GameState makeMove(GameState state, Object o) {
+		XYLocation loc = (XYLocation) o;
+		return makeMove(state, loc.getXCoOrdinate(), loc.getYCoOrdinate());
+	}
+
+	public GameState makeMove(GameState state, int x, int y) {
+		GameState temp = getMove(state, x, y);
+		if (temp != null) {
+			presentState = temp;
+		}
+		return presentState;
+	}
+
+	public GameState makeMove(int x, int y) {
+		return makeMove(presentState, x, y);
+	}
+
+	/**
+	 * @return the successor of state for a mark at row x and column y, or
+	 *         null if that square is not a move of state.
+	 */
+	public GameState getMove(GameState state, int x, int y) {
+		GameState retVal = null;
+		XYLocation loc = new XYLocation(x, y);
+		ArrayList moves = getMoves(state);
+		if (moves.contains(loc)) {
+			ArrayList newMoves = (ArrayList) moves.clone();
+			newMoves.remove(loc);
+
+			MNKGameEngine.Position position = getPosition(state);
+			engine.makeMove(position, engine.getMove(x, y));
+			retVal = new GameState();
+			retVal.put("moves", newMoves);
+			retVal.put("player", GameEngine.MAX == engine
+					.getPlayerToMove(position) ? "X" : "O");
+			retVal.put("position", position);
+			retVal.put("utility", Integer.valueOf(engine.getUtility(position)));
+			retVal.put("level", Integer.valueOf(getLevel(state) + 1));
+		}
+		return retVal;
+	}
+
+	@Override
+	public int computeUtility(GameState state) {
+		return engine.getUtility(getPosition(state));
+	}
+
+	@Override
+	public boolean terminalTest(GameState state) {
+		return engine.isTerminal(getPosition(state));
+	}
+
+	@Override
+	public int getMiniMaxValue(GameState state) {
+		return searchPosition(state, false);
+	}
+
+	@Override
+	public int getAlphaBetaValue(GameState state) {
+		return searchPosition(state, true);
+	}
+
+	@Override
+	public int getIterativeDeepeningValue(GameState state) {
+		IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer> search = getIterativeDeepeningSearch();
+		Integer move = search.makeDecision(getPosition(state));
+		if (null != move) {
+			putNext(state, move.intValue());
+		}
+		return search.getValue();
+	}
+
+	@Override
+	public int getParallelAlphaBetaValue(GameState state) {
+		ParallelAlphaBetaSearch<MNKGameEngine.Position, Integer> search = getParallelAlphaBetaSearch();
+		Integer move = search.makeDecision(getPosition(state));
+		if (null != move) {
+			putNext(state, move.intValue());
+		}
+		return search.getValue();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// Searches each move from the position of state, as maxValue() and
+	// minValue() did its successors, and puts the successor for the first
+	// best move as "next"
+	private int searchPosition(GameState state, boolean alphaBeta) {
+		MNKGameEngine.Position position = getPosition(state);
+		if (engine.isTerminal(position)) {
+			return engine.getUtility(position);
+		}
+		boolean max = GameEngine.MAX == engine.getPlayerToMove(position);
+		List<Integer> moves = new ArrayList<Integer>();
+		engine.getMoves(position, moves);
+		int alpha = Integer.MIN_VALUE, beta = Integer.MAX_VALUE;
+		int v = max ? Integer.MIN_VALUE : Integer.MAX_VALUE, best = -1;
+		for (Integer move : moves) {
+			engine.makeMove(position, move);
+			int value;
+			if (max) {
+				value = alphaBeta ? minValue(engine, position, alpha, beta)
+						: minValue(engine, position);
+			} else {
+				value = alphaBeta ? maxValue(engine, position, alpha, beta)
+						: maxValue(engine, position);
+			}
+			engine.unmakeMove(position, move);
+			if (max ? value > v : value < v) {
+				v = value;
+				best = move.intValue();
+			}
+			if (max) {
+				alpha = Math.max(alpha, v);
+			} else {
+				beta = Math.min(beta, v);
+			}
+		}
+		putNext(state, best);
+		return v;
+	}
+
+	private void putNext(GameState state, int square) {
+		int n = engine.getColumns();
+		GameState next = getMove(state, square / n, square % n);
+		next.put("moveMade", new XYLocation(square / n, square % n));
+		state.put("next", next);
+	}
+}
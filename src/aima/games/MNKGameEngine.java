@@ -0,0 +1,271 @@
+package aima.games;
+
+import java.util.List;
+
+/**
+ * The m,n,k-game, k in a row on a board of m rows and n columns (TicTacToe
+ * is the 3,3,3-game, Gomoku the 15,15,5-game), as a GameEngine on
+ * bitboards: the marks of each player are a long with bit rn + c for
+ * column c of row r, so the board can have up to 64 squares.
+ *
+ * Every line of k squares is precomputed as a mask, and each square keeps
+ * the masks of the lines through it, so a move has won if the mover's board
+ * covers one of those masks, with an and and a compare per line rather than
+ * a scan of the board. The moves are the bits of the empty squares, found
+ * with Long.numberOfTrailingZeros(), in the order of the squares. X is MAX
+ * and moves first, with a utility of 1 for a win, -1 for a loss and 0 for a
+ * draw.
+ */
+public class MNKGameEngine implements GameEngine<MNKGameEngine.Position, Integer> {
+
+	public static final int X = 0, O = 1;
+
+	private final int m, n, k;
+
+	private final long full;
+
+	// The masks of the lines through each square
+	private final long[][] linesThrough;
+
+	private final ZobristKeys keys;
+
+	public MNKGameEngine(int m, int n, int k) {
+		if (m < 1 || n < 1 || m * n > 64) {
+			throw new IllegalArgumentException("Board must have 1 to 64 squares: "
+					+ m + " by " + n);
+		}
+		if (k < 1 || (k > m && k > n)) {
+			throw new IllegalArgumentException("No line of " + k
+					+ " fits on a board of " + m + " by " + n);
+		}
+		this.m = m;
+		this.n = n;
+		this.k = k;
+		full = 64 == m * n ? -1L : (1L << (m * n)) - 1;
+		keys = new ZobristKeys(m * n, 2, 0x3b9aca07L + m * n * k);
+
+		int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		long[] lines = new long[4 * m * n];
+		int count = 0;
+		for (int row = 0; row < m; row++) {
+			for (int col = 0; col < n; col++) {
+				for (int[] d : directions) {
+					int endRow = row + (k - 1) * d[0], endCol = col + (k - 1)
+							* d[1];
+					if (endRow >= m || endCol < 0 || endCol >= n) {
+						continue;
+					}
+					long line = 0L;
+					for (int i = 0; i < k; i++) {
+						line |= 1L << ((row + i * d[0]) * n + col + i * d[1]);
+					}
+					// A line of one square is found in every direction
+					if (1 == k && count > 0 && lines[count - 1] == line) {
+						continue;
+					}
+					lines[count++] = line;
+				}
+			}
+		}
+		linesThrough = new long[m * n][];
+		for (int square = 0; square < m * n; square++) {
+			int through = 0;
+			for (int i = 0; i < count; i++) {
+				if (0 != (lines[i] & (1L << square))) {
+					through++;
+				}
+			}
+			linesThrough[square] = new long[through];
+			for (int i = 0; i < count; i++) {
+				if (0 != (lines[i] & (1L << square))) {
+					linesThrough[square][--through] = lines[i];
+				}
+			}
+		}
+	}
+
+	public int getRows() {
+		return m;
+	}
+
+	public int getColumns() {
+		return n;
+	}
+
+	public int getLineLength() {
+		return k;
+	}
+
+	/**
+	 * A position of an m,n,k-game, changed in place by makeMove() and
+	 * unmakeMove().
+	 */
+	public static class Position {
+		// The marks of X and O
+		private final long[] boards = new long[2];
+
+		private int player = MAX;
+
+		// Whoever has k in a row, or -1
+		private int winner = -1;
+
+		private long hash = 0L;
+
+		public Position() {
+		}
+
+		public Position(Position position) {
+			boards[0] = position.boards[0];
+			boards[1] = position.boards[1];
+			player = position.player;
+			winner = position.winner;
+			hash = position.hash;
+		}
+
+		/**
+		 * @return the marks of X or O, with bit rn + c for row r and
+		 *         column c.
+		 */
+		public long getMarks(int mark) {
+			return boards[mark];
+		}
+
+		public int getNumberOfMarks() {
+			return Long.bitCount(boards[0] | boards[1]);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Position)) {
+				return false;
+			}
+			Position another = (Position) o;
+			return player == another.player
+					&& boards[0] == another.boards[0]
+					&& boards[1] == another.boards[1];
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (hash ^ (hash >>> 32));
+		}
+	}
+
+	/**
+	 * @return the position with the given marks of X and O, with X to move
+	 *         if xToMove and O otherwise.
+	 */
+	public Position getPosition(long xMarks, long oMarks, boolean xToMove) {
+		Position position = new Position();
+		for (int mark = X; mark <= O; mark++) {
+			long marks = mark == X ? xMarks : oMarks;
+			position.boards[mark] = marks;
+			for (long rest = marks; 0 != rest; rest &= rest - 1) {
+				int square = Long.numberOfTrailingZeros(rest);
+				position.hash ^= keys.get(square, mark);
+				if (hasLine(marks, square)) {
+					position.winner = mark;
+				}
+			}
+		}
+		if (!xToMove) {
+			position.player = MIN;
+			position.hash ^= keys.getSideToMove();
+		}
+		return position;
+	}
+
+	/**
+	 * @return the square of row and col, as a move.
+	 */
+	public Integer getMove(int row, int col) {
+		return Integer.valueOf(row * n + col);
+	}
+
+	/**
+	 * @return the board of position, a row to a line, with X, O and - for
+	 *         an empty square.
+	 */
+	public String toString(Position position) {
+		StringBuffer buf = new StringBuffer();
+		for (int square = 0; square < m * n; square++) {
+			long bit = 1L << square;
+			buf.append(0 != (position.boards[X] & bit) ? "X"
+					: 0 != (position.boards[O] & bit) ? "O" : "-");
+			buf.append(n - 1 == square % n ? "\n" : " ");
+		}
+		return buf.toString();
+	}
+
+	// START Interface - GameEngine
+	public Position getInitialState() {
+		return new Position();
+	}
+
+	public Position copyState(Position state) {
+		return new Position(state);
+	}
+
+	public int getPlayerToMove(Position state) {
+		return state.player;
+	}
+
+	public boolean isTerminal(Position state) {
+		return state.winner >= 0 || full == (state.boards[X] | state.boards[O]);
+	}
+
+	public int getUtility(Position state) {
+		return X == state.winner ? 1 : O == state.winner ? -1 : 0;
+	}
+
+	public void getMoves(Position state, List<Integer> moves) {
+		moves.clear();
+		for (long empty = full & ~(state.boards[X] | state.boards[O]); 0 != empty; empty &= empty - 1) {
+			moves.add(Integer.valueOf(Long.numberOfTrailingZeros(empty)));
+		}
+	}
+
+	public void makeMove(Position state, Integer move) {
+		int square = move.intValue();
+		// X is MAX and O MIN
+		int mark = state.player;
+		long board = state.boards[mark] |= 1L << square;
+		state.hash ^= keys.get(square, mark) ^ keys.getSideToMove();
+		if (hasLine(board, square)) {
+			state.winner = mark;
+		}
+		state.player = 1 - state.player;
+	}
+
+	public void unmakeMove(Position state, Integer move) {
+		int square = move.intValue();
+		state.player = 1 - state.player;
+		state.boards[state.player] &= ~(1L << square);
+		state.hash ^= keys.get(square, state.player) ^ keys.getSideToMove();
+		// No move is made once there is a line
+		state.winner = -1;
+	}
+
+	public long getHash(Position state) {
+		return state.hash;
+	}
+
+	// END Interface - GameEngine
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	// Whether board has a line through square
+	private boolean hasLine(long board, int square) {
+		for (long line : linesThrough[square]) {
+			if ((board & line) == line) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,441 @@
+package aima.games;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Monte Carlo tree search with UCT (Kocsis and Szepesvari, "Bandit based
+ * Monte-Carlo Planning", 2006) over a GameEngine, for games whose trees are
+ * too large for minimax. Each playout descends the tree from the root,
+ * taking at each node the child maximizing
+ *
+ * <pre>
+ * w / n + c * sqrt(ln N / n)
+ * </pre>
+ *
+ * (w the total reward and n the visits of the child, N the visits of the
+ * node, c the exploration constant), expands the first node it reaches that
+ * has no children yet, plays on from there to the end of the game with a
+ * RolloutPolicy, and adds the result to every node on the way: 1 for a
+ * win, 1/2 for a draw and 0 for a loss, for the player who made the move
+ * into the node. Utilities are taken as wins for MAX above 0 and for MIN
+ * below. The move chosen is the root's most visited.
+ *
+ * The tree is a pool of nodes of four longs each in one AtomicLongArray:
+ * the parent and the index of the node's move, the first child and the
+ * number of children (the children of a node are allocated together), the
+ * visits and virtual losses, and the total reward as the bits of a double.
+ * A node thus costs 32 bytes and no object, and nodes are never freed
+ * during a search. When the pool is full the tree stops growing and
+ * playouts start from its leaves.
+ *
+ * Several threads can run playouts on the one tree (tree parallelization,
+ * Chaslot, Winands and van den Herik, "Parallel Monte-Carlo Tree Search",
+ * 2008). Each node a thread passes through on the way down gets a virtual
+ * loss, counted as a visit with no reward until the result is added, so
+ * that other threads meanwhile prefer other paths. The search runs for a
+ * number of playouts or until a time limit, whichever ends first.
+ */
+public class MonteCarloTreeSearch<S, M> {
+
+	private static final String PLAYOUTS = "playouts";
+
+	private static final String PLAYOUTS_PER_SECOND = "playoutsPerSecond";
+
+	private static final String NODES = "nodes";
+
+	private static final String MAX_TREE_DEPTH = "maxTreeDepth";
+
+	// The longs of a node
+	private static final int STRIDE = 4;
+
+	private static final int LINKS = 0, CHILDREN = 1, VISITS = 2, REWARD = 3;
+
+	// CHILDREN of a node not yet expanded, or being expanded
+	private static final long UNEXPANDED = -1L, EXPANDING = -2L;
+
+	private final GameEngine<S, M> engine;
+
+	private final int threads;
+
+	private final Metrics metrics = new Metrics();
+
+	private RolloutPolicy<S, M> rolloutPolicy = new RandomRolloutPolicy<S, M>();
+
+	private double explorationConstant = Math.sqrt(2);
+
+	private int virtualLoss = 1;
+
+	private long playouts = 10000;
+
+	private long timeLimit = 0;
+
+	private int maxNodes = 1 << 18;
+
+	private SplittableRandom random = new SplittableRandom();
+
+	private AtomicLongArray pool = null;
+
+	private final AtomicInteger nodeCount = new AtomicInteger();
+
+	private final AtomicLong playoutsStarted = new AtomicLong();
+
+	private final AtomicInteger maxTreeDepth = new AtomicInteger();
+
+	private long deadline;
+
+	private double winRate;
+
+	public MonteCarloTreeSearch(GameEngine<S, M> engine) {
+		this(engine, 1);
+	}
+
+	public MonteCarloTreeSearch(GameEngine<S, M> engine, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("No threads: " + threads);
+		}
+		this.engine = engine;
+		this.threads = threads;
+		clearInstrumentation();
+	}
+
+	public void setRolloutPolicy(RolloutPolicy<S, M> rolloutPolicy) {
+		this.rolloutPolicy = rolloutPolicy;
+	}
+
+	/**
+	 * Sets c of UCT (sqrt(2) by default).
+	 */
+	public void setExplorationConstant(double explorationConstant) {
+		this.explorationConstant = explorationConstant;
+	}
+
+	/**
+	 * Sets the visits each thread on its way through a node counts as (1
+	 * by default), 0 for none; as they bring no reward, they are losses.
+	 */
+	public void setVirtualLoss(int virtualLoss) {
+		this.virtualLoss = virtualLoss;
+	}
+
+	/**
+	 * Sets the number of playouts of a decision (10000 by default).
+	 */
+	public void setPlayouts(long playouts) {
+		this.playouts = playouts;
+	}
+
+	/**
+	 * Sets the wall-clock time after which a decision stops, or 0 (the
+	 * default) for none.
+	 */
+	public void setTimeLimit(long milliseconds) {
+		this.timeLimit = milliseconds;
+	}
+
+	/**
+	 * Sets the most nodes the tree can hold (2^18 by default).
+	 */
+	public void setMaxNodes(int maxNodes) {
+		if (maxNodes < 1 || maxNodes > Integer.MAX_VALUE / STRIDE) {
+			throw new IllegalArgumentException("Bad number of nodes: "
+					+ maxNodes);
+		}
+		this.maxNodes = maxNodes;
+		pool = null;
+	}
+
+	/**
+	 * Seeds the random numbers of the playouts; each thread draws its own
+	 * from them.
+	 */
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * @return the most visited move in state, which is left as it was, or
+	 *         null if state is terminal.
+	 */
+	public M makeDecision(S state) {
+		clearInstrumentation();
+		List<M> rootMoves = new ArrayList<M>();
+		engine.getMoves(state, rootMoves);
+		if (engine.isTerminal(state) || rootMoves.isEmpty()) {
+			return null;
+		}
+		if (null == pool) {
+			pool = new AtomicLongArray(maxNodes * STRIDE);
+		}
+		initNode(0, -1, -1);
+		nodeCount.set(1);
+		long start = System.currentTimeMillis();
+		deadline = timeLimit > 0 ? start + timeLimit : Long.MAX_VALUE;
+
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			final Worker worker = new Worker(engine.copyState(state), random
+					.split());
+			workers[i] = new Thread(new Runnable() {
+				public void run() {
+					worker.run();
+				}
+			}, "MonteCarloTreeSearch");
+			workers[i].start();
+		}
+		for (Thread worker : workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		long elapsed = Math.max(1L, System.currentTimeMillis() - start);
+		long done = getVisits(0);
+		metrics.set(PLAYOUTS, done);
+		metrics.set(PLAYOUTS_PER_SECOND, done * 1000.0 / elapsed);
+		metrics.set(NODES, nodeCount.get());
+		metrics.set(MAX_TREE_DEPTH, maxTreeDepth.get());
+		long children = pool.get(CHILDREN);
+		if (children < 0) {
+			// Not even the root's children fit
+			return rootMoves.get(0);
+		}
+		int first = (int) (children >>> 32), count = (int) children;
+		int best = first;
+		for (int c = first; c < first + count; c++) {
+			if (getVisits(c) > getVisits(best)
+					|| (getVisits(c) == getVisits(best) && getReward(c) > getReward(best))) {
+				best = c;
+			}
+		}
+		winRate = getVisits(best) > 0 ? getReward(best) / getVisits(best) : 0;
+		return rootMoves.get(moveIndex(best));
+	}
+
+	/**
+	 * @return the mean reward of the move of the last makeDecision(), for
+	 *         the player making it: near 1 if it wins, 0 if it loses.
+	 */
+	public double getWinRate() {
+		return winRate;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		playoutsStarted.set(0);
+		maxTreeDepth.set(0);
+		winRate = 0;
+		metrics.set(PLAYOUTS, 0L);
+		metrics.set(PLAYOUTS_PER_SECOND, 0.0);
+		metrics.set(NODES, 0);
+		metrics.set(MAX_TREE_DEPTH, 0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void initNode(int node, int parent, int moveIndex) {
+		int base = node * STRIDE;
+		pool.set(base + LINKS, ((long) parent << 32) | (moveIndex & 0xffffffffL));
+		pool.set(base + CHILDREN, UNEXPANDED);
+		pool.set(base + VISITS, 0L);
+		pool.set(base + REWARD, Double.doubleToRawLongBits(0.0));
+	}
+
+	private int moveIndex(int node) {
+		return (int) pool.get(node * STRIDE + LINKS);
+	}
+
+	private long getVisits(int node) {
+		return pool.get(node * STRIDE + VISITS) >>> 32;
+	}
+
+	private double getReward(int node) {
+		return Double.longBitsToDouble(pool.get(node * STRIDE + REWARD));
+	}
+
+	// Allocates the children of node, unless another thread is at it or
+	// the pool is full
+	private boolean expand(int node, List<M> moves) {
+		int base = node * STRIDE;
+		if (!pool.compareAndSet(base + CHILDREN, UNEXPANDED, EXPANDING)) {
+			return false;
+		}
+		int count = moves.size();
+		// The slots are only taken if they all fit, so that a reservation
+		// never has to be handed back
+		int first = nodeCount.get();
+		while (first + count <= maxNodes
+				&& !nodeCount.compareAndSet(first, first + count)) {
+			first = nodeCount.get();
+		}
+		if (first + count > maxNodes) {
+			// Full: the node stays a leaf, for now
+			pool.set(base + CHILDREN, UNEXPANDED);
+			return false;
+		}
+		for (int i = 0; i < count; i++) {
+			initNode(first + i, node, i);
+		}
+		pool.set(base + CHILDREN, ((long) first << 32) | count);
+		return true;
+	}
+
+	// The child of node with the greatest UCT value, taking the first not
+	// yet visited (nor passed through) if there is one
+	private int select(int node) {
+		long children = pool.get(node * STRIDE + CHILDREN);
+		int first = (int) (children >>> 32), count = (int) children;
+		long visits = pool.get(node * STRIDE + VISITS);
+		double parentVisits = (visits >>> 32) + virtualLoss * (int) visits;
+		double logVisits = Math.log(Math.max(1.0, parentVisits));
+		int best = first;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for (int c = first; c < first + count; c++) {
+			long v = pool.get(c * STRIDE + VISITS);
+			double n = (v >>> 32) + virtualLoss * (int) v;
+			if (0 == n) {
+				return c;
+			}
+			double score = getReward(c) / n + explorationConstant
+					* Math.sqrt(logVisits / n);
+			if (score > bestScore) {
+				best = c;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	private void addReward(int node, double reward) {
+		int i = node * STRIDE + REWARD;
+		long bits = pool.get(i);
+		while (!pool.compareAndSet(i, bits, Double.doubleToRawLongBits(Double
+				.longBitsToDouble(bits)
+				+ reward))) {
+			bits = pool.get(i);
+		}
+	}
+
+	// The playouts of one thread, on its own copy of the root state
+	private class Worker {
+		private final S state;
+
+		private final SplittableRandom random;
+
+		private final List<M> moves = new ArrayList<M>();
+
+		// The moves made from the root, to unmake
+		private final List<M> path = new ArrayList<M>();
+
+		// The nodes passed through and the player who moved into each
+		private int[] nodes = new int[64], movers = new int[64];
+
+		Worker(S state, SplittableRandom random) {
+			this.state = state;
+			this.random = random;
+		}
+
+		void run() {
+			while (playoutsStarted.getAndIncrement() < playouts
+					&& (Long.MAX_VALUE == deadline || System
+							.currentTimeMillis() < deadline)) {
+				playout();
+			}
+		}
+
+		private void playout() {
+			int depth = 0;
+			int node = 0;
+			nodes[0] = 0;
+			movers[0] = -1;
+			pool.getAndAdd(VISITS, 1L);
+			boolean expanded = false;
+			while (!expanded) {
+				long children = pool.get(node * STRIDE + CHILDREN);
+				if (EXPANDING == children || 0 == (int) children
+						&& UNEXPANDED != children) {
+					break;
+				}
+				engine.getMoves(state, moves);
+				if (UNEXPANDED == children) {
+					if (engine.isTerminal(state) || moves.isEmpty()) {
+						pool.compareAndSet(node * STRIDE + CHILDREN,
+								UNEXPANDED, 0L);
+						break;
+					}
+					if (!expand(node, moves)) {
+						break;
+					}
+					expanded = true;
+				}
+				int child = select(node);
+				int mover = engine.getPlayerToMove(state);
+				M move = moves.get(moveIndex(child));
+				engine.makeMove(state, move);
+				path.add(move);
+				pool.getAndAdd(child * STRIDE + VISITS, 1L);
+				node = child;
+				if (++depth == nodes.length) {
+					int[] newNodes = new int[2 * depth], newMovers = new int[2 * depth];
+					System.arraycopy(nodes, 0, newNodes, 0, depth);
+					System.arraycopy(movers, 0, newMovers, 0, depth);
+					nodes = newNodes;
+					movers = newMovers;
+				}
+				nodes[depth] = child;
+				movers[depth] = mover;
+			}
+			int deepest = maxTreeDepth.get();
+			while (depth > deepest
+					&& !maxTreeDepth.compareAndSet(deepest, depth)) {
+				deepest = maxTreeDepth.get();
+			}
+
+			double maxReward = rollout();
+			for (int d = depth; d >= 0; d--) {
+				// A visit, less the virtual loss added on the way down
+				pool.getAndAdd(nodes[d] * STRIDE + VISITS, (1L << 32) - 1);
+				if (d > 0) {
+					addReward(nodes[d],
+							GameEngine.MAX == movers[d] ? maxReward
+									: 1 - maxReward);
+				}
+			}
+			for (int i = path.size() - 1; i >= 0; i--) {
+				engine.unmakeMove(state, path.remove(i));
+			}
+		}
+
+		// Plays to the end and back, giving MAX's reward
+		private double rollout() {
+			int start = path.size();
+			while (!engine.isTerminal(state)) {
+				engine.getMoves(state, moves);
+				if (moves.isEmpty()) {
+					break;
+				}
+				M move = moves.get(rolloutPolicy.selectMove(state, moves,
+						random));
+				engine.makeMove(state, move);
+				path.add(move);
+			}
+			int utility = engine.getUtility(state);
+			for (int i = path.size() - 1; i >= start; i--) {
+				engine.unmakeMove(state, path.remove(i));
+			}
+			return utility > 0 ? 1.0 : utility < 0 ? 0.0 : 0.5;
+		}
+	}
+}
@@ -0,0 +1,378 @@
+package aima.games;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Alpha-beta search over a GameEngine on several threads, by the Young
+ * Brothers Wait Concept (Feldmann, Monien, Mysliwietz and Vornberger,
+ * "Distributed Game Tree Search", 1989), with the work spread by the
+ * work-stealing of a ForkJoinPool.
+ *
+ * At every node with at least minSplitDepth plies left, the first move (the
+ * eldest brother) is searched alone, by the thread at the node, as it most
+ * often decides the node's value or causes its cutoff. Only then does the
+ * node become a split point: each of the other moves (the young brothers)
+ * becomes a task with its own copy of the state, and idle threads steal
+ * them. The young brothers share the split point's alpha, each starting
+ * from the best value found so far, and the first to reach beta cuts the
+ * split point off, abandoning the others and everything below them. Nodes
+ * nearer the leaves are searched by plain alpha-beta, making and unmaking
+ * moves on one state.
+ *
+ * Values are the minimax values of the tree cut off at maxDepth, exactly
+ * those of a sequential alpha-beta search of the same depth, whatever the
+ * number of threads; only the best move may differ between moves of equal
+ * value, and the number of nodes searched varies from run to run.
+ */
+public class ParallelAlphaBetaSearch<S, M> {
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String NODES_PER_SECOND = "nodesPerSecond";
+
+	private static final String SPLITS = "splits";
+
+	private static final String SPLIT_CUTOFFS = "splitCutoffs";
+
+	private static final String STEALS = "steals";
+
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	private final GameEngine<S, M> engine;
+
+	private final GameEvaluationFunction<S> evaluation;
+
+	private final int threads;
+
+	private final Metrics metrics = new Metrics();
+
+	private int maxDepth = TranspositionTable.MAX_DEPTH - 1;
+
+	private int minSplitDepth = 3;
+
+	private final LongAdder nodes = new LongAdder();
+
+	private final AtomicLong splits = new AtomicLong();
+
+	private final AtomicLong splitCutoffs = new AtomicLong();
+
+	private int value;
+
+	/**
+	 * Creates a search with a thread for each processor, which cuts off
+	 * with evaluation, or with a value of 0 if it is null.
+	 */
+	public ParallelAlphaBetaSearch(GameEngine<S, M> engine,
+			GameEvaluationFunction<S> evaluation) {
+		this(engine, evaluation, Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelAlphaBetaSearch(GameEngine<S, M> engine,
+			GameEvaluationFunction<S> evaluation, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("No threads: " + threads);
+		}
+		this.engine = engine;
+		this.evaluation = evaluation;
+		this.threads = threads;
+		clearInstrumentation();
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the depth at which the search is cut off (by default none is,
+	 * short of TranspositionTable.MAX_DEPTH).
+	 */
+	public void setMaxDepth(int maxDepth) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("Depth must be at least 1: "
+					+ maxDepth);
+		}
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Sets the fewest plies left at a node for it to become a split point
+	 * (3 by default); below it subtrees are too small to be worth a task.
+	 */
+	public void setMinSplitDepth(int minSplitDepth) {
+		this.minSplitDepth = Math.max(1, minSplitDepth);
+	}
+
+	/**
+	 * @return the best move in state, which is left as it was, or null if
+	 *         state is terminal.
+	 */
+	public M makeDecision(S state) {
+		clearInstrumentation();
+		S position = engine.copyState(state);
+		List<M> rootMoves = new ArrayList<M>();
+		engine.getMoves(position, rootMoves);
+		if (engine.isTerminal(position) || rootMoves.isEmpty()) {
+			value = engine.getUtility(position);
+			return null;
+		}
+		int sign = GameEngine.MAX == engine.getPlayerToMove(position) ? 1 : -1;
+		long start = System.nanoTime();
+		// The eldest brother unless a young brother is better
+		int[] bestIndex = new int[1];
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			value = sign
+					* pool.invoke(new NodeTask(position, maxDepth, bestIndex));
+		} finally {
+			metrics.set(STEALS, pool.getStealCount());
+			pool.shutdownNow();
+		}
+		long elapsed = Math.max(1L, System.nanoTime() - start);
+		metrics.set(NODES_EXPANDED, nodes.sum());
+		metrics.set(NODES_PER_SECOND, nodes.sum() * 1e9 / elapsed);
+		metrics.set(SPLITS, splits.get());
+		metrics.set(SPLIT_CUTOFFS, splitCutoffs.get());
+		return rootMoves.get(bestIndex[0]);
+	}
+
+	/**
+	 * @return the value for MAX of the state of the last makeDecision().
+	 */
+	public int getValue() {
+		return value;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		nodes.reset();
+		splits.set(0);
+		splitCutoffs.set(0);
+		metrics.set(NODES_EXPANDED, 0L);
+		metrics.set(NODES_PER_SECOND, 0.0);
+		metrics.set(SPLITS, 0L);
+		metrics.set(SPLIT_CUTOFFS, 0L);
+		metrics.set(STEALS, 0L);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// A node whose young brothers are being searched in parallel
+	private static class SplitPoint {
+		final SplitPoint parent;
+
+		// The best value found so far, as alpha for the young brothers
+		final AtomicInteger alpha;
+
+		final int beta;
+
+		volatile boolean cutoff = false;
+
+		SplitPoint(SplitPoint parent, int alpha, int beta) {
+			this.parent = parent;
+			this.alpha = new AtomicInteger(alpha);
+			this.beta = beta;
+		}
+
+		// Whether this split point or any above it has been cut off, so
+		// that the search below is no longer needed
+		static boolean isAborted(SplitPoint splitPoint) {
+			for (SplitPoint p = splitPoint; null != p; p = p.parent) {
+				if (p.cutoff) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void update(int v) {
+			int a = alpha.get();
+			while (v > a && !alpha.compareAndSet(a, v)) {
+				a = alpha.get();
+			}
+			if (v >= beta) {
+				cutoff = true;
+			}
+		}
+	}
+
+	// The fail-soft negamax value of state for the player to move, or
+	// anything if the search is aborted; bestIndex, if not null, gets the
+	// index of the best move
+	private int parallelSearch(S state, int depth, int alpha, int beta,
+			SplitPoint splitPoint, int[] bestIndex) {
+		if (depth < minSplitDepth && null == bestIndex) {
+			return serialSearch(state, depth, alpha, beta, splitPoint,
+					new ArrayList<List<M>>(), 0);
+		}
+		nodes.increment();
+		int sign = GameEngine.MAX == engine.getPlayerToMove(state) ? 1 : -1;
+		if (engine.isTerminal(state)) {
+			return sign * engine.getUtility(state);
+		}
+		if (0 == depth) {
+			return null == evaluation ? 0 : sign * evaluation.evaluate(state);
+		}
+		List<M> moves = new ArrayList<M>();
+		engine.getMoves(state, moves);
+		if (moves.isEmpty()) {
+			return sign * engine.getUtility(state);
+		}
+
+		// The eldest brother
+		M eldest = moves.get(0);
+		engine.makeMove(state, eldest);
+		int best = -parallelSearch(state, depth - 1, -beta, -alpha,
+				splitPoint, null);
+		engine.unmakeMove(state, eldest);
+		if (SplitPoint.isAborted(splitPoint) || best >= beta
+				|| 1 == moves.size()) {
+			return best;
+		}
+
+		// The young brothers
+		SplitPoint split = new SplitPoint(splitPoint, Math.max(alpha, best),
+				beta);
+		splits.incrementAndGet();
+		List<YoungBrotherTask> tasks = new ArrayList<YoungBrotherTask>();
+		for (int i = 1; i < moves.size(); i++) {
+			S child = engine.copyState(state);
+			engine.makeMove(child, moves.get(i));
+			tasks.add(new YoungBrotherTask(child, depth - 1, split));
+		}
+		RecursiveTask.invokeAll(tasks);
+		int eldestValue = best;
+		for (YoungBrotherTask task : tasks) {
+			if (task.valid) {
+				best = Math.max(best, task.value);
+			}
+		}
+		if (split.cutoff) {
+			splitCutoffs.incrementAndGet();
+		}
+		if (null != bestIndex && best > eldestValue) {
+			// A young brother that failed low may have returned a bound
+			// equal to the best value, but only a value above the alpha it
+			// started from is that of its move
+			for (int i = 0; i < tasks.size(); i++) {
+				YoungBrotherTask task = tasks.get(i);
+				if (task.valid && task.value == best && task.value > task.alpha) {
+					bestIndex[0] = i + 1;
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	// Plain alpha-beta below minSplitDepth, giving up once the split point
+	// above is cut off
+	private int serialSearch(S state, int depth, int alpha, int beta,
+			SplitPoint splitPoint, List<List<M>> moveLists, int ply) {
+		nodes.increment();
+		if (SplitPoint.isAborted(splitPoint)) {
+			return 0;
+		}
+		int sign = GameEngine.MAX == engine.getPlayerToMove(state) ? 1 : -1;
+		if (engine.isTerminal(state)) {
+			return sign * engine.getUtility(state);
+		}
+		if (0 == depth) {
+			return null == evaluation ? 0 : sign * evaluation.evaluate(state);
+		}
+		while (moveLists.size() <= ply) {
+			moveLists.add(new ArrayList<M>());
+		}
+		List<M> moves = moveLists.get(ply);
+		engine.getMoves(state, moves);
+		if (moves.isEmpty()) {
+			return sign * engine.getUtility(state);
+		}
+		int best = -INFINITY;
+		for (int i = 0; i < moves.size(); i++) {
+			M move = moves.get(i);
+			engine.makeMove(state, move);
+			int v = -serialSearch(state, depth - 1, -beta, -alpha,
+					splitPoint, moveLists, ply + 1);
+			engine.unmakeMove(state, move);
+			best = Math.max(best, v);
+			if (best >= beta) {
+				break;
+			}
+			alpha = Math.max(alpha, best);
+		}
+		return best;
+	}
+
+	// The search from the root
+	private class NodeTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final S state;
+
+		private final int depth;
+
+		private final int[] bestIndex;
+
+		NodeTask(S state, int depth, int[] bestIndex) {
+			this.state = state;
+			this.depth = depth;
+			this.bestIndex = bestIndex;
+		}
+
+		@Override
+		protected Integer compute() {
+			return parallelSearch(state, depth, -INFINITY, INFINITY, null,
+					bestIndex);
+		}
+	}
+
+	// A young brother of a split point, with its own copy of the state
+	private class YoungBrotherTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final S state;
+
+		private final int depth;
+
+		private final SplitPoint splitPoint;
+
+		// The value for the split point's player, if the search was not
+		// abandoned, and the alpha it was searched with
+		int value, alpha;
+
+		boolean valid = false;
+
+		YoungBrotherTask(S state, int depth, SplitPoint splitPoint) {
+			this.state = state;
+			this.depth = depth;
+			this.splitPoint = splitPoint;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (SplitPoint.isAborted(splitPoint)) {
+				return 0;
+			}
+			alpha = splitPoint.alpha.get();
+			value = -parallelSearch(state, depth, -splitPoint.beta, -alpha,
+					splitPoint, null);
+			if (!SplitPoint.isAborted(splitPoint)) {
+				valid = true;
+				splitPoint.update(value);
+			}
+			return value;
+		}
+	}
+}
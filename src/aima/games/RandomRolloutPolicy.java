@@ -0,0 +1,15 @@
+package aima.games;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays uniformly random moves, the cheapest playouts and the default of
+ * MonteCarloTreeSearch.
+ */
+public class RandomRolloutPolicy<S, M> implements RolloutPolicy<S, M> {
+
+	public int selectMove(S state, List<M> moves, SplittableRandom random) {
+		return random.nextInt(moves.size());
+	}
+}
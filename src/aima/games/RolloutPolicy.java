@@ -0,0 +1,15 @@
+package aima.games;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the moves of the playouts of a MonteCarloTreeSearch, from the
+ * end of the tree to a terminal state.
+ */
+public interface RolloutPolicy<S, M> {
+	/**
+	 * @return the index in moves, the moves of state, of the move to play.
+	 */
+	public int selectMove(S state, List<M> moves, SplittableRandom random);
+}
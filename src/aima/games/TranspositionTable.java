@@ -0,0 +1,118 @@
+package aima.games;
+
+/**
+ * A fixed size transposition table for game tree searches, keyed by 64 bit
+ * hashes such as those of GameEngine.getHash(). Each entry packs the value
+ * of a state, the depth it was searched to, whether the value is exact or a
+ * bound, and the index of the best move into one long. A hash selects a
+ * single slot, and a new entry replaces the old one unless that is for the
+ * same state and was searched deeper.
+ *
+ * The table takes no locks, so that several threads can search with one
+ * table (Hyatt and Mann, "A lock-less transposition table implementation for
+ * parallel search chess engines", 2002). A slot is two longs, the entry and
+ * the hash exclusive-or the entry, written one after the other. A thread
+ * that reads a slot while another writes it sees a pair from different
+ * writes, whose exclusive-or no longer gives the hash being looked up, so
+ * the read is simply a miss.
+ */
+public class TranspositionTable {
+
+	public static final int EXACT = 0, LOWER_BOUND = 1, UPPER_BOUND = 2;
+
+	/**
+	 * The greatest depth an entry can record.
+	 */
+	public static final int MAX_DEPTH = 255;
+
+	/**
+	 * The greatest index of a move an entry can record.
+	 */
+	public static final int MAX_MOVE_INDEX = (1 << 16) - 2;
+
+	// Set in every entry, so that 0 is never one
+	private static final long PRESENT = 1L << 63;
+
+	private final long[] slots;
+
+	private final int mask;
+
+	/**
+	 * Creates a table of 2^sizeLog2 entries, each taking 16 bytes.
+	 */
+	public TranspositionTable(int sizeLog2) {
+		if (sizeLog2 < 0 || sizeLog2 > 27) {
+			throw new IllegalArgumentException(
+					"Table size must be from 2^0 to 2^27 entries: 2^"
+							+ sizeLog2);
+		}
+		slots = new long[2 << sizeLog2];
+		mask = (1 << sizeLog2) - 1;
+	}
+
+	public int getSize() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return the entry for hash, or 0 if there is none.
+	 */
+	public long probe(long hash) {
+		int slot = index(hash);
+		long entry = slots[slot];
+		long check = slots[slot + 1];
+		return 0 != entry && (check ^ entry) == hash ? entry : 0L;
+	}
+
+	/**
+	 * Records the value of the state with hash, searched to depth (at most
+	 * MAX_DEPTH), with EXACT, LOWER_BOUND or UPPER_BOUND, and the index of
+	 * its best move among those of GameEngine.getMoves(), or -1.
+	 */
+	public void store(long hash, int depth, int value, int bound, int moveIndex) {
+		int slot = index(hash);
+		long old = slots[slot];
+		if (0 != old && (slots[slot + 1] ^ old) == hash
+				&& getDepth(old) > depth) {
+			return;
+		}
+		long entry = PRESENT | ((long) (moveIndex + 1) << 42)
+				| ((long) bound << 40) | ((long) depth << 32)
+				| (value & 0xffffffffL);
+		slots[slot] = entry;
+		slots[slot + 1] = hash ^ entry;
+	}
+
+	public void clear() {
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = 0L;
+		}
+	}
+
+	public static int getValue(long entry) {
+		return (int) entry;
+	}
+
+	public static int getDepth(long entry) {
+		return (int) (entry >>> 32) & 0xff;
+	}
+
+	public static int getBound(long entry) {
+		return (int) (entry >>> 40) & 3;
+	}
+
+	/**
+	 * @return the index of the best move of entry, or -1.
+	 */
+	public static int getMoveIndex(long entry) {
+		return ((int) (entry >>> 42) & 0xffff) - 1;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int index(long hash) {
+		// The high bits, as engines often build hashes from the low ones
+		return (int) ((hash ^ (hash >>> 32)) & mask) << 1;
+	}
+}
@@ -0,0 +1,45 @@
+package aima.games;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64 bit keys for Zobrist hashing (Zobrist, "A New Hashing Method
+ * with Application for Game Playing", 1970): the hash of a position is the
+ * exclusive or of the key of each piece on its square, and of the key for
+ * the side to move when it is MIN's turn. Making or unmaking a move then
+ * updates the hash with an exclusive or per square changed, and two
+ * positions only share a hash by chance, with probability 2^-64.
+ */
+public class ZobristKeys {
+
+	private final int pieces;
+
+	private final long[] keys;
+
+	private final long sideToMove;
+
+	/**
+	 * Draws the keys for the given numbers of squares and kinds of piece
+	 * from seed, so that the same seed gives the same hashes.
+	 */
+	public ZobristKeys(int squares, int pieces, long seed) {
+		this.pieces = pieces;
+		SplittableRandom random = new SplittableRandom(seed);
+		keys = new long[squares * pieces];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+		}
+		sideToMove = random.nextLong();
+	}
+
+	/**
+	 * @return the key of the piece of kind 0 to pieces - 1 on square.
+	 */
+	public long get(int square, int piece) {
+		return keys[square * pieces + piece];
+	}
+
+	public long getSideToMove() {
+		return sideToMove;
+	}
+}
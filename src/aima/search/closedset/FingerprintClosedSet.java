@@ -0,0 +1,214 @@
+package aima.search.closedset;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+import aima.search.framework.ClosedSet;
+import aima.search.framework.StateFingerprint;
+
+/**
+ * A ClosedSet holding a 64 bit fingerprint of each state in an open
+ * addressing (linear probing) hash table allocated off the heap, as a direct
+ * ByteBuffer. A state then costs 8 bytes that the garbage collector never
+ * has to trace, against the 40 or more bytes of a HashSet entry plus the
+ * state itself, which HashSet keeps reachable. The table doubles, by
+ * rehashing into a new buffer, whenever it becomes more than half full.
+ * clear() zeroes the table it has, however large it grew, rather than
+ * allocating another.
+ *
+ * By default only fingerprints are compared, so two different states with
+ * the same fingerprint are taken to be the same, and the second is never
+ * expanded. With a good 64 bit fingerprint that is unlikely (a set of n
+ * states has a collision with probability about n^2 / 2^65), and with a
+ * fingerprint that is the packed state itself it cannot happen. In exact
+ * mode the states are also kept, in an array parallel to the table, and
+ * compared with equals() when fingerprints match, which makes the set exact
+ * whatever the fingerprint, at the cost of keeping the states reachable.
+ *
+ * A single ByteBuffer, indexed by an int, limits the table to 2^27 slots of
+ * 8 bytes, i.e. 2^26 states.
+ */
+public class FingerprintClosedSet implements ClosedSet {
+
+	public static final int DEFAULT_INITIAL_CAPACITY = 1 << 12;
+
+	/**
+	 * Fingerprints states by their hashCode(). As this gives only 32 bits,
+	 * only suitable for exact mode.
+	 */
+	public static final StateFingerprint HASH_CODE = new StateFingerprint() {
+		public long fingerprint(Object state) {
+			return state.hashCode();
+		}
+	};
+
+	private static final int MAX_CAPACITY = 1 << 27;
+
+	// Marks an empty slot when not in exact mode
+	private static final long EMPTY = 0L;
+
+	// What clear() copies over the table
+	private static final long[] ZEROES = new long[1024];
+
+	private final StateFingerprint fingerprint;
+
+	private final boolean exact;
+
+	private LongBuffer table;
+
+	// In exact mode, states[i] is the state whose fingerprint is in slot i
+	private Object[] states;
+
+	private int mask;
+
+	private int size = 0;
+
+	// Whether a state fingerprinted as EMPTY has been added (not exact mode)
+	private boolean containsEmpty = false;
+
+	public FingerprintClosedSet(StateFingerprint fingerprint) {
+		this(fingerprint, false);
+	}
+
+	public FingerprintClosedSet(StateFingerprint fingerprint, boolean exact) {
+		this(fingerprint, exact, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public FingerprintClosedSet(StateFingerprint fingerprint, boolean exact,
+			int initialCapacity) {
+		if (initialCapacity < 2 || initialCapacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Initial capacity must be from 2 to "
+					+ MAX_CAPACITY + ": " + initialCapacity);
+		}
+		this.fingerprint = fingerprint;
+		this.exact = exact;
+		// Round up to a power of 2
+		allocate(Integer.highestOneBit(initialCapacity - 1) << 1);
+	}
+
+	public boolean isExact() {
+		return exact;
+	}
+
+	/**
+	 * @return the number of slots in the table.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	//
+	// START Interface - ClosedSet
+	public boolean add(Object state) {
+		long fp = fingerprint.fingerprint(state);
+		if (!exact && EMPTY == fp) {
+			if (containsEmpty) {
+				return false;
+			}
+			containsEmpty = true;
+			size++;
+			return true;
+		}
+		int i = find(fp, state);
+		if (isOccupied(i)) {
+			return false;
+		}
+		table.put(i, fp);
+		if (exact) {
+			states[i] = state;
+		}
+		size++;
+		if (size > (mask + 1) >>> 1) {
+			grow();
+		}
+		return true;
+	}
+
+	public boolean contains(Object state) {
+		long fp = fingerprint.fingerprint(state);
+		if (!exact && EMPTY == fp) {
+			return containsEmpty;
+		}
+		return isOccupied(find(fp, state));
+	}
+
+	public void clear() {
+		table.clear();
+		while (table.hasRemaining()) {
+			table.put(ZEROES, 0, Math.min(ZEROES.length, table.remaining()));
+		}
+		if (exact) {
+			Arrays.fill(states, null);
+		}
+		size = 0;
+		containsEmpty = false;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// END Interface - ClosedSet
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Returns the slot holding state, or the empty slot it would go in
+	private int find(long fp, Object state) {
+		int i = indexFor(fp);
+		while (isOccupied(i)) {
+			if (table.get(i) == fp && (!exact || state.equals(states[i]))) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	private boolean isOccupied(int i) {
+		return exact ? null != states[i] : EMPTY != table.get(i);
+	}
+
+	private int indexFor(long fp) {
+		// The finalizer of SplitMix64, so that fingerprints that differ only
+		// in their high bits (e.g. packed states) still spread
+		fp = (fp ^ (fp >>> 30)) * 0xBF58476D1CE4E5B9L;
+		fp = (fp ^ (fp >>> 27)) * 0x94D049BB133111EBL;
+		return (int) (fp ^ (fp >>> 31)) & mask;
+	}
+
+	private void allocate(int capacity) {
+		table = ByteBuffer.allocateDirect(capacity << 3).order(
+				ByteOrder.nativeOrder()).asLongBuffer();
+		states = exact ? new Object[capacity] : null;
+		mask = capacity - 1;
+	}
+
+	private void grow() {
+		int capacity = mask + 1;
+		if (capacity >= MAX_CAPACITY) {
+			throw new IllegalStateException("FingerprintClosedSet is full at "
+					+ size + " states");
+		}
+		LongBuffer oldTable = table;
+		Object[] oldStates = states;
+		allocate(capacity << 1);
+		for (int j = 0; j < capacity; j++) {
+			long fp = oldTable.get(j);
+			if (exact ? null != oldStates[j] : EMPTY != fp) {
+				int i = indexFor(fp);
+				while (isOccupied(i)) {
+					i = (i + 1) & mask;
+				}
+				table.put(i, fp);
+				if (exact) {
+					states[i] = oldStates[j];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package aima.search.closedset;
+
+import java.util.HashSet;
+
+import aima.search.framework.ClosedSet;
+
+/**
+ * A ClosedSet holding the states themselves in a HashSet. This is what
+ * GraphSearch uses by default.
+ */
+public class HashClosedSet implements ClosedSet {
+
+	private final HashSet<Object> states = new HashSet<Object>();
+
+	public boolean add(Object state) {
+		return states.add(state);
+	}
+
+	public boolean contains(Object state) {
+		return states.contains(state);
+	}
+
+	public void clear() {
+		states.clear();
+	}
+
+	public int size() {
+		return states.size();
+	}
+}
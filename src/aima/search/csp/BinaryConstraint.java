@@ -0,0 +1,16 @@
+package aima.search.csp;
+
+import java.util.List;
+
+/**
+ * A Constraint made only of binary constraints between each variable and
+ * its neighbours, e.g. MapColoringConstraint, which can say who they are.
+ * IntCSP.fromCSP() then only tries the values of neighbouring variables
+ * against one another, rather than those of every pair of variables.
+ */
+public interface BinaryConstraint extends Constraint {
+	/**
+	 * @return the variables that variable shares a constraint with.
+	 */
+	List<String> getNeighbors(String variable);
+}
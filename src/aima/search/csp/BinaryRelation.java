@@ -0,0 +1,9 @@
+package aima.search.csp;
+
+/**
+ * A binary constraint of an IntCSP, between the values, numbered from 0, of
+ * its two variables.
+ */
+public interface BinaryRelation {
+	boolean isSatisfiedBy(int value, int otherValue);
+}
@@ -1,10 +1,7 @@
 package aima.search.csp;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import aima.util.Util;
-
 /**
  * @author Ravi Mohan
  * 
@@ -42,6 +39,26 @@ public class CSP {
 		return recursiveBackTrackingSearch(new Assignment(variables));
 	}
 
+	/**
+	 * Solves the CSP as an IntCSP with IntCSPSolver, which maintains arc
+	 * consistency, orders variables and values, and backjumps.
+	 */
+	public Assignment constraintPropagationSearch() {
+		return new IntCSPSolver().solve(this);
+	}
+
+	public List<String> getVariables() {
+		return variables;
+	}
+
+	public Constraint getConstraints() {
+		return constraints;
+	}
+
+	public Domain getDomains() {
+		return domains;
+	}
+
 	private Assignment recursiveBackTrackingSearch(Assignment anAssignment) {
 		if (anAssignment.isComplete()) {
 			return anAssignment;
@@ -63,43 +80,15 @@ public class CSP {
 		return null;// failure
 	}
 
+	/**
+	 * Artificial Intelligence A Modern Approach (2nd Edition): Figure 5.8,
+	 * page 151, MIN-CONFLICTS, run by MinConflictsSolver on the CSP as an
+	 * IntCSP.
+	 */
 	public Assignment mcSearch(int maxSteps) {
-		Assignment randomAssignment = generateRandomAssignment();
-
-		for (int i = 0; i < maxSteps; i++) {
-
-			if (randomAssignment.satisfies(constraints)) {
-				return randomAssignment;
-			} else {
-				String conflictedVariable = Util
-						.selectRandomlyFromList(randomAssignment
-								.getConflictedVariables(constraints));
-				Object minConflictValue = randomAssignment
-						.getMinimumConflictingValueFor(conflictedVariable,
-								domains.getDomainOf(conflictedVariable),
-								constraints);
-				randomAssignment.setAssignment(conflictedVariable,
-						minConflictValue);
-			}
-		}
-		return null;
-
-	}
-
-	private Assignment generateRandomAssignment() {
-		List<String> vars = new ArrayList<String>();
-		for (int i = 0; i < variables.size(); i++) {
-			vars.add(variables.get(i));
-		}
-		Assignment assignment = new Assignment(vars);
-		for (int i = 0; i < variables.size(); i++) {
-			String variable = variables.get(i);
-			Object randomValue = Util.selectRandomlyFromList(domains
-					.getDomainOf(variable));
-			// System.out.println("in generate Assignment setting");
-			assignment.setAssignment(variable, randomValue);
-		}
-		return assignment;
+		MinConflictsSolver solver = new MinConflictsSolver();
+		solver.setMaxSteps(maxSteps);
+		return solver.solve(this);
 	}
 
 }
\ No newline at end of file
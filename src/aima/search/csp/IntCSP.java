@@ -0,0 +1,359 @@
+package aima.search.csp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A CSP of binary constraints over variables and values numbered from 0,
+ * for IntCSPSolver. The values of variable x are 0 to getDomainSize(x) - 1,
+ * standing for the objects given to addVariable(), if any.
+ *
+ * Each constraint is turned into a pair of arcs, one each way. The arc from
+ * x to y holds, for every value a of x, a bitset of the values of y
+ * compatible with x = a, so that revising x against the domain of y, itself
+ * a bitset, takes a word at a time. Constraints added between the same two
+ * variables are merged into one pair of arcs.
+ *
+ * fromCSP() adapts a CSP, whose Constraint only tells whether a value of a
+ * variable is consistent with an Assignment, by trying every pair of values
+ * of every pair of variables, so it assumes, as with MapColoringConstraint,
+ * that the constraint is made of unary and binary constraints only. That
+ * takes O(n^2 d^2) calls of the constraint, once, or only O(e d^2) for the
+ * e pairs of neighbours of a BinaryConstraint.
+ */
+public class IntCSP {
+
+	private final List<String> names = new ArrayList<String>();
+
+	private final List<Object[]> values = new ArrayList<Object[]>();
+
+	// The initial domains, as bitsets
+	private final List<long[]> domains = new ArrayList<long[]>();
+
+	// Arcs are numbered so that arc ^ 1 is the same constraint the other way
+	private final List<int[]> arcEnds = new ArrayList<int[]>();
+
+	private final List<long[]> arcSupports = new ArrayList<long[]>();
+
+	private final HashMap<Long, Integer> arcsByPair = new HashMap<Long, Integer>();
+
+	// Built on first use, and published whole, since solvers on several
+	// threads may ask for it at once
+	private volatile int[][] arcsFrom = null;
+
+	public IntCSP() {
+	}
+
+	/**
+	 * Adapts csp, as described above.
+	 */
+	public static IntCSP fromCSP(CSP csp) {
+		IntCSP intCSP = new IntCSP();
+		List<String> variables = csp.getVariables();
+		Constraint constraint = csp.getConstraints();
+		for (String variable : variables) {
+			int x = intCSP.addVariable(variable, csp
+					.defaultOrderDomainOf(variable));
+			for (int a = 0; a < intCSP.getDomainSize(x); a++) {
+				if (!constraint.isSatisfiedWith(new Assignment(variables),
+						variable, intCSP.getValue(x, a))) {
+					intCSP.removeValue(x, a);
+				}
+			}
+		}
+		HashMap<String, Integer> numbers = new HashMap<String, Integer>();
+		for (int x = 0; x < variables.size(); x++) {
+			numbers.put(variables.get(x), x);
+		}
+		HashSet<Long> pairs = new HashSet<Long>();
+		for (int x = 0; x < variables.size(); x++) {
+			int[] others;
+			if (constraint instanceof BinaryConstraint) {
+				List<String> neighbors = ((BinaryConstraint) constraint)
+						.getNeighbors(variables.get(x));
+				others = new int[null == neighbors ? 0 : neighbors.size()];
+				for (int i = 0; i < others.length; i++) {
+					others[i] = numbers.get(neighbors.get(i));
+				}
+			} else {
+				others = new int[variables.size() - x - 1];
+				for (int i = 0; i < others.length; i++) {
+					others[i] = x + 1 + i;
+				}
+			}
+			for (int y : others) {
+				long pair = x < y ? ((long) x << 32) | y : ((long) y << 32) | x;
+				// Neighbours may be listed both ways round
+				boolean probed = constraint instanceof BinaryConstraint
+						&& !pairs.add(pair);
+				if (x == y || probed) {
+					continue;
+				}
+				final boolean[][] compatible = new boolean[intCSP
+						.getDomainSize(x)][intCSP.getDomainSize(y)];
+				boolean constrained = false;
+				for (int a = 0; a < compatible.length; a++) {
+					for (int b = 0; b < compatible[a].length; b++) {
+						compatible[a][b] = isSatisfiedWith(csp, x, a, y, b,
+								intCSP)
+								&& isSatisfiedWith(csp, y, b, x, a, intCSP);
+						constrained |= !compatible[a][b];
+					}
+				}
+				if (constrained) {
+					intCSP.addConstraint(x, y, new BinaryRelation() {
+						public boolean isSatisfiedBy(int a, int b) {
+							return compatible[a][b];
+						}
+					});
+				}
+			}
+		}
+		return intCSP;
+	}
+
+	/**
+	 * @return the number of the new variable, whose values are 0 to
+	 *         domainSize - 1.
+	 */
+	public int addVariable(String name, int domainSize) {
+		return addVariable(name, new Object[domainSize]);
+	}
+
+	/**
+	 * @return the number of the new variable, whose value a stands for
+	 *         values.get(a).
+	 */
+	public int addVariable(String name, List<?> values) {
+		return addVariable(name, values.toArray());
+	}
+
+	/**
+	 * Removes value a from the initial domain of x, e.g. for a unary
+	 * constraint.
+	 */
+	public void removeValue(int x, int a) {
+		domains.get(x)[a >>> 6] &= ~(1L << a);
+	}
+
+	/**
+	 * Constrains x and y so that x = a and y = b only if relation holds for
+	 * a and b.
+	 */
+	public void addConstraint(int x, int y, BinaryRelation relation) {
+		if (x == y) {
+			throw new IllegalArgumentException("Constraint of " + getName(x)
+					+ " with itself");
+		}
+		long pair = x < y ? ((long) x << 32) | y : ((long) y << 32) | x;
+		Integer existing = arcsByPair.get(pair);
+		int arc;
+		if (null == existing) {
+			arc = arcEnds.size();
+			arcsByPair.put(pair, arc);
+			addArc(x, y);
+			addArc(y, x);
+			arcsFrom = null;
+		} else {
+			arc = arcEnds.get(existing)[0] == x ? existing : existing ^ 1;
+		}
+		long[] supports = arcSupports.get(arc);
+		long[] reverse = arcSupports.get(arc ^ 1);
+		int wordsX = getWords(x), wordsY = getWords(y);
+		for (int a = 0; a < getDomainSize(x); a++) {
+			for (int b = 0; b < getDomainSize(y); b++) {
+				if (!relation.isSatisfiedBy(a, b)) {
+					supports[a * wordsY + (b >>> 6)] &= ~(1L << b);
+					reverse[b * wordsX + (a >>> 6)] &= ~(1L << a);
+				}
+			}
+		}
+	}
+
+	public int getVariableCount() {
+		return names.size();
+	}
+
+	public String getName(int x) {
+		return names.get(x);
+	}
+
+	/**
+	 * @return the number of the variable called name, or -1.
+	 */
+	public int getVariable(String name) {
+		return names.indexOf(name);
+	}
+
+	public int getDomainSize(int x) {
+		return values.get(x).length;
+	}
+
+	/**
+	 * @return the object value a of x stands for, or a itself if x was added
+	 *         without values.
+	 */
+	public Object getValue(int x, int a) {
+		Object value = values.get(x)[a];
+		return null == value ? Integer.valueOf(a) : value;
+	}
+
+	/**
+	 * @return whether a is in the initial domain of x.
+	 */
+	public boolean isInDomain(int x, int a) {
+		return 0 != (domains.get(x)[a >>> 6] & (1L << a));
+	}
+
+	public int getArcCount() {
+		return arcEnds.size();
+	}
+
+	/**
+	 * @return the arcs from x, one to each variable it shares a constraint
+	 *         with.
+	 */
+	public int[] getArcsFrom(int x) {
+		int[][] index = arcsFrom;
+		if (null == index) {
+			int[] counts = new int[names.size()];
+			for (int[] ends : arcEnds) {
+				counts[ends[0]]++;
+			}
+			index = new int[names.size()][];
+			for (int v = 0; v < names.size(); v++) {
+				index[v] = new int[counts[v]];
+				counts[v] = 0;
+			}
+			for (int arc = 0; arc < arcEnds.size(); arc++) {
+				int from = arcEnds.get(arc)[0];
+				index[from][counts[from]++] = arc;
+			}
+			arcsFrom = index;
+		}
+		return index[x];
+	}
+
+	/**
+	 * @return the variable arc leads to.
+	 */
+	public int getArcTarget(int arc) {
+		return arcEnds.get(arc)[1];
+	}
+
+	/**
+	 * @return whether x = a and y = b satisfy every constraint between x and
+	 *         y, and are in their initial domains.
+	 */
+	public boolean isConsistent(int x, int a, int y, int b) {
+		if (!isInDomain(x, a) || !isInDomain(y, b)) {
+			return false;
+		}
+		long pair = x < y ? ((long) x << 32) | y : ((long) y << 32) | x;
+		Integer arc = arcsByPair.get(pair);
+		if (null == arc) {
+			return true;
+		}
+		int forward = arcEnds.get(arc)[0] == x ? arc : arc ^ 1;
+		long word = arcSupports.get(forward)[a * getWords(y) + (b >>> 6)];
+		return 0 != (word & (1L << b));
+	}
+
+	/**
+	 * @return whether values, the value of every variable, satisfies every
+	 *         constraint.
+	 */
+	public boolean isSolution(int[] values) {
+		for (int x = 0; x < getVariableCount(); x++) {
+			if (!isInDomain(x, values[x])) {
+				return false;
+			}
+			for (int arc : getArcsFrom(x)) {
+				int y = getArcTarget(arc);
+				if (!isConsistent(x, values[x], y, values[y])) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return values, the value of every variable, as an Assignment of the
+	 *         objects they stand for to the names of the variables.
+	 */
+	public Assignment toAssignment(int[] values) {
+		Assignment assignment = new Assignment(new ArrayList<String>(names));
+		for (int x = 0; x < getVariableCount(); x++) {
+			assignment.setAssignment(getName(x), getValue(x, values[x]));
+		}
+		return assignment;
+	}
+
+	/**
+	 * @return the number of longs in a bitset of the values of x.
+	 */
+	public int getWords(int x) {
+		return (getDomainSize(x) + 63) >>> 6;
+	}
+
+	//
+	// Used by IntCSPSolver, which must not change them
+	//
+	long[] getInitialDomain(int x) {
+		return domains.get(x);
+	}
+
+	// For value a of the source of arc, the values of its target compatible
+	// with it are the getWords(target) words from a * getWords(target)
+	long[] getSupports(int arc) {
+		return arcSupports.get(arc);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int addVariable(String name, Object[] domainValues) {
+		int x = names.size();
+		names.add(name);
+		values.add(domainValues);
+		long[] domain = new long[(domainValues.length + 63) >>> 6];
+		for (int a = 0; a < domainValues.length; a++) {
+			domain[a >>> 6] |= 1L << a;
+		}
+		domains.add(domain);
+		arcsFrom = null;
+		return x;
+	}
+
+	private void addArc(int x, int y) {
+		arcEnds.add(new int[] { x, y });
+		int wordsY = getWords(y);
+		long[] supports = new long[getDomainSize(x) * wordsY];
+		for (int a = 0; a < getDomainSize(x); a++) {
+			System.arraycopy(getInitialDomainBits(y), 0, supports, a * wordsY,
+					wordsY);
+		}
+		arcSupports.add(supports);
+	}
+
+	// Every value of y, whether or not later removed from its domain
+	private long[] getInitialDomainBits(int y) {
+		long[] all = new long[getWords(y)];
+		for (int b = 0; b < getDomainSize(y); b++) {
+			all[b >>> 6] |= 1L << b;
+		}
+		return all;
+	}
+
+	// Whether x = a is consistent with an assignment of y = b alone
+	private static boolean isSatisfiedWith(CSP csp, int x, int a, int y,
+			int b, IntCSP intCSP) {
+		Assignment assignment = new Assignment(csp.getVariables());
+		assignment.setAssignment(intCSP.getName(y), intCSP.getValue(y, b));
+		return csp.getConstraints().isSatisfiedWith(assignment,
+				intCSP.getName(x), intCSP.getValue(x, a));
+	}
+}
@@ -0,0 +1,817 @@
+package aima.search.csp;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): Figure 5.3, page
+ * 142, BACKTRACKING-SEARCH, for an IntCSP, with the improvements of Section
+ * 5.2: the variable with the fewest values left is assigned first (MRV),
+ * ties going to the one with the most unassigned neighbours (degree), and
+ * its values are tried least constraining first (LCV); each assignment is
+ * followed by forward checking, or by AC-3 (Figure 5.7) maintaining arc
+ * consistency (MAC); and on failure the search jumps straight back to the
+ * most recent variable in the conflict set (conflict-directed backjumping,
+ * Prosser, 1993).
+ *
+ * Domains are bitsets, revised against one another a word at a time. Every
+ * change to them is pushed onto a trail and undone by popping it, so the
+ * search is iterative and nothing is copied per node. With backjumping the
+ * reason for every pruned domain is kept as the set of assigned variables it
+ * follows from, a bitset of n bits per variable and per level of the
+ * search, so it suits CSPs of up to some thousands of variables.
+ *
+ * Solvers given the same NogoodStore share what their backjumps learn, and
+ * ParallelCSPSolver searches subtrees of one CSP with several solvers at
+ * once. A solver is not thread-safe, but may solve any number of CSPs in
+ * turn.
+ */
+public class IntCSPSolver {
+
+	public enum Inference {
+		NONE, FORWARD_CHECKING, MAC
+	};
+
+	public enum VariableOrdering {
+		FIRST_UNASSIGNED, MRV, MRV_DEGREE
+	};
+
+	public enum ValueOrdering {
+		DEFAULT, LCV
+	};
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String BACKTRACKS = "backtracks";
+
+	private static final String BACKJUMPS = "backjumps";
+
+	private static final String REVISIONS = "revisions";
+
+	private static final String WIPEOUTS = "wipeouts";
+
+	private Inference inference = Inference.MAC;
+
+	private VariableOrdering variableOrdering = VariableOrdering.MRV_DEGREE;
+
+	private ValueOrdering valueOrdering = ValueOrdering.LCV;
+
+	private boolean backjumping = true;
+
+	// Breaks ties between variables and between values at random, if set
+	private SplittableRandom random = null;
+
+	private NogoodStore nogoods = null;
+
+	private volatile boolean stopped = false;
+
+	// Stops every run while set, if given
+	private AtomicBoolean cancelled = null;
+
+	private final Metrics metrics = new Metrics();
+
+	private long nodesExpanded, backtracks, backjumps, revisions, wipeouts;
+
+	private IntCSP csp;
+
+	private int n;
+
+	// The current domains: those of x are the words from domainStart[x]
+	private long[] domains;
+
+	private int[] domainStart, domainOwner, domainSizes;
+
+	private boolean[] assigned;
+
+	private int[] values, depths;
+
+	// With backjumping, the assigned variables that the pruning of each
+	// variable's domain follows from, reasonWords bits from x * reasonWords
+	private long[] reasons;
+
+	private int reasonWords;
+
+	// Word changes to undo: index << 1 for domains, index << 1 | 1 for
+	// reasons, and the word before the change
+	private int[] trailIndexes;
+
+	private long[] trailWords;
+
+	private int trailSize;
+
+	// The arcs waiting to be revised, a circular queue
+	private int[] queue;
+
+	private boolean[] queued;
+
+	private int queueHead, queueSize;
+
+	// The variable, values to try and next value of each level, the trail
+	// before each level's current value, and with backjumping the variables
+	// its failures so far follow from
+	private int[] levelVariables, orderSizes, next, marks;
+
+	private int[][] orders;
+
+	private long[][] conflicts;
+
+	// The trail after the initial AC-3, and the levels assumed for a subtree
+	private int rootMark, assumedLevels;
+
+	public IntCSPSolver() {
+		clearInstrumentation();
+	}
+
+	public void setInference(Inference inference) {
+		this.inference = inference;
+	}
+
+	public Inference getInference() {
+		return inference;
+	}
+
+	public void setVariableOrdering(VariableOrdering variableOrdering) {
+		this.variableOrdering = variableOrdering;
+	}
+
+	public void setValueOrdering(ValueOrdering valueOrdering) {
+		this.valueOrdering = valueOrdering;
+	}
+
+	/**
+	 * Sets whether to jump back over variables that played no part in a
+	 * failure (true by default), or to backtrack chronologically.
+	 */
+	public void setBackjumping(boolean backjumping) {
+		this.backjumping = backjumping;
+	}
+
+	/**
+	 * Breaks ties between variables, and orders values that are equally
+	 * constraining (or all values, without LCV), at random.
+	 */
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * Shares nogoods through store, which must only be shared by solvers of
+	 * the same CSP.
+	 */
+	public void setNogoodStore(NogoodStore store) {
+		this.nogoods = store;
+	}
+
+	/**
+	 * Makes a solve() running in another thread give up and return null.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * @return the value of every variable of csp in a solution, or null if
+	 *         csp has none (or the solver was stopped).
+	 */
+	public int[] solve(IntCSP csp) {
+		clearInstrumentation();
+		stopped = false;
+		int[] solution = null;
+		if (prepare(csp)) {
+			solution = backtrack(0);
+		}
+		updateMetrics();
+		return solution;
+	}
+
+	/**
+	 * @return a solution of csp, or null if it has none.
+	 */
+	public Assignment solve(CSP csp) {
+		IntCSP intCSP = IntCSP.fromCSP(csp);
+		int[] solution = solve(intCSP);
+		return null == solution ? null : intCSP.toAssignment(solution);
+	}
+
+	/**
+	 * Makes the domains of csp arc consistent with AC-3.
+	 *
+	 * @return the values left of every variable, or null if a domain became
+	 *         empty.
+	 */
+	public int[][] arcConsistentDomains(IntCSP csp) {
+		clearInstrumentation();
+		initialize(csp);
+		boolean consistent = ac3();
+		metrics.set(REVISIONS, revisions);
+		metrics.set(WIPEOUTS, wipeouts);
+		if (!consistent) {
+			return null;
+		}
+		int[][] remaining = new int[n][];
+		for (int x = 0; x < n; x++) {
+			remaining[x] = new int[domainSizes[x]];
+			int i = 0;
+			for (int a = 0; a < csp.getDomainSize(x); a++) {
+				if (contains(x, a)) {
+					remaining[x][i++] = a;
+				}
+			}
+		}
+		return remaining;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public boolean isStopped() {
+		return stopped || (null != cancelled && cancelled.get());
+	}
+
+	public void clearInstrumentation() {
+		nodesExpanded = backtracks = backjumps = revisions = wipeouts = 0;
+		metrics.set(NODES_EXPANDED, 0L);
+		metrics.set(BACKTRACKS, 0L);
+		metrics.set(BACKJUMPS, 0L);
+		metrics.set(REVISIONS, 0L);
+		metrics.set(WIPEOUTS, 0L);
+	}
+
+	//
+	// Searching subtrees for ParallelCSPSolver
+	//
+	// Stops every run, including one not yet started, once cancelled is
+	// set, unlike stop(), which a later solve() forgets
+	void setCancellation(AtomicBoolean cancelled) {
+		this.cancelled = cancelled;
+	}
+
+	// Sets up csp, making it arc consistent with MAC. Returns false if it
+	// then has no solution.
+	boolean prepare(IntCSP csp) {
+		initialize(csp);
+		if (Inference.MAC == inference && !ac3()) {
+			return false;
+		}
+		rootMark = trailSize;
+		return true;
+	}
+
+	// Assigns a of x below the levels already assumed, as if the search had
+	// got there. Returns false if that fails at once.
+	boolean assume(int x, int a) {
+		int level = assumedLevels++;
+		levelVariables[level] = x;
+		marks[level] = trailSize;
+		if (isNogood(x, a)) {
+			return false;
+		}
+		assign(x, a, level);
+		nodesExpanded++;
+		return propagate(x, null);
+	}
+
+	// The variable the search would assign next, or -1 if all are
+	int nextVariable() {
+		return selectUnassignedVariable();
+	}
+
+	// The values the search would try for x, in order
+	int[] orderedValues(int x) {
+		int[] order = new int[csp.getDomainSize(x)];
+		return Arrays.copyOf(order, orderDomainValues(x, order));
+	}
+
+	// Searches below the levels assumed, returning a solution or null
+	int[] searchSubtree() {
+		return backtrack(assumedLevels);
+	}
+
+	// Undoes every assumption and assignment, back to just after prepare()
+	void reset() {
+		undo(rootMark);
+		Arrays.fill(assigned, false);
+		assumedLevels = 0;
+	}
+
+	void updateMetrics() {
+		metrics.set(NODES_EXPANDED, nodesExpanded);
+		metrics.set(BACKTRACKS, backtracks);
+		metrics.set(BACKJUMPS, backjumps);
+		metrics.set(REVISIONS, revisions);
+		metrics.set(WIPEOUTS, wipeouts);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void initialize(IntCSP csp) {
+		this.csp = csp;
+		n = csp.getVariableCount();
+		domainStart = new int[n + 1];
+		for (int x = 0; x < n; x++) {
+			domainStart[x + 1] = domainStart[x] + csp.getWords(x);
+		}
+		domains = new long[domainStart[n]];
+		domainOwner = new int[domainStart[n]];
+		domainSizes = new int[n];
+		for (int x = 0; x < n; x++) {
+			long[] initial = csp.getInitialDomain(x);
+			for (int w = 0; w < initial.length; w++) {
+				domains[domainStart[x] + w] = initial[w];
+				domainOwner[domainStart[x] + w] = x;
+				domainSizes[x] += Long.bitCount(initial[w]);
+			}
+		}
+		assigned = new boolean[n];
+		values = new int[n];
+		depths = new int[n];
+		reasonWords = (n + 63) >>> 6;
+		reasons = backjumping ? new long[n * reasonWords] : null;
+		trailIndexes = new int[64];
+		trailWords = new long[64];
+		trailSize = 0;
+		queue = new int[Math.max(1, csp.getArcCount())];
+		queued = new boolean[csp.getArcCount()];
+		queueHead = queueSize = 0;
+		levelVariables = new int[n];
+		orders = new int[n][];
+		orderSizes = new int[n];
+		next = new int[n];
+		marks = new int[n];
+		conflicts = new long[n][];
+		rootMark = assumedLevels = 0;
+	}
+
+	// Searches from level base, the levels above it being assumed
+	private int[] backtrack(int base) {
+		int depth = base;
+		if (!openLevel(depth)) {
+			return values.clone();
+		}
+		while (true) {
+			if (isStopped() || (null != nogoods && nogoods.isUnsatisfiable())) {
+				return null;
+			}
+			int x = levelVariables[depth];
+			if (next[depth] == orderSizes[depth]) {
+				// Every value of x failed
+				backtracks++;
+				int target = depth - 1;
+				if (backjumping) {
+					long[] conflict = conflicts[depth];
+					clear(conflict, x);
+					learn(conflict);
+					target = deepest(conflict);
+					if (target >= base) {
+						if (target < depth - 1) {
+							backjumps++;
+						}
+						union(conflicts[target], conflict, 0);
+					}
+				}
+				if (target < base) {
+					// With backjumping, the failure follows from no
+					// assignment below base
+					return null;
+				}
+				undo(marks[target]);
+				for (int level = target; level < depth; level++) {
+					assigned[levelVariables[level]] = false;
+				}
+				depth = target;
+				continue;
+			}
+			int a = orders[depth][next[depth]++];
+			nodesExpanded++;
+			marks[depth] = trailSize;
+			assign(x, a, depth);
+			if (propagate(x, backjumping ? conflicts[depth] : null)) {
+				depth++;
+				if (!openLevel(depth)) {
+					return values.clone();
+				}
+			} else {
+				undo(marks[depth]);
+				assigned[x] = false;
+			}
+		}
+	}
+
+	// Chooses the variable of level depth and orders its values.
+	// Returns false if every variable is assigned.
+	private boolean openLevel(int depth) {
+		int x = selectUnassignedVariable();
+		if (x < 0) {
+			return false;
+		}
+		levelVariables[depth] = x;
+		if (null == orders[depth]
+				|| orders[depth].length < csp.getDomainSize(x)) {
+			orders[depth] = new int[csp.getDomainSize(x)];
+		}
+		orderSizes[depth] = orderDomainValues(x, orders[depth]);
+		next[depth] = 0;
+		if (backjumping) {
+			if (null == conflicts[depth]) {
+				conflicts[depth] = new long[reasonWords];
+			}
+			// Values of x already pruned failed for the same reasons
+			System.arraycopy(reasons, x * reasonWords, conflicts[depth], 0,
+					reasonWords);
+		}
+		return true;
+	}
+
+	// Records conflict, with the current values of its variables, as a
+	// nogood
+	private void learn(long[] conflict) {
+		if (null == nogoods) {
+			return;
+		}
+		int[] variables = new int[2], nogoodValues = new int[2];
+		int count = 0;
+		for (int w = 0; w < reasonWords; w++) {
+			long word = conflict[w];
+			while (0 != word) {
+				int y = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				if (2 == count) {
+					return;
+				}
+				variables[count] = y;
+				nogoodValues[count++] = values[y];
+			}
+		}
+		nogoods.add(variables, nogoodValues, count);
+	}
+
+	private int selectUnassignedVariable() {
+		int best = -1, bestSize = Integer.MAX_VALUE, bestDegree = -1, ties = 0;
+		for (int x = 0; x < n; x++) {
+			if (assigned[x]) {
+				continue;
+			}
+			if (VariableOrdering.FIRST_UNASSIGNED == variableOrdering) {
+				return x;
+			}
+			if (domainSizes[x] < bestSize) {
+				best = x;
+				bestSize = domainSizes[x];
+				bestDegree = -1;
+				ties = 1;
+			} else if (domainSizes[x] == bestSize) {
+				int degree = 0;
+				if (VariableOrdering.MRV_DEGREE == variableOrdering) {
+					if (bestDegree < 0) {
+						bestDegree = unassignedDegree(best);
+					}
+					degree = unassignedDegree(x);
+				} else {
+					bestDegree = 0;
+				}
+				if (degree > bestDegree) {
+					best = x;
+					bestDegree = degree;
+					ties = 1;
+				} else if (degree == bestDegree && null != random
+						&& 0 == random.nextInt(++ties)) {
+					best = x;
+				}
+			}
+		}
+		return best;
+	}
+
+	private int unassignedDegree(int x) {
+		int degree = 0;
+		for (int arc : csp.getArcsFrom(x)) {
+			if (!assigned[csp.getArcTarget(arc)]) {
+				degree++;
+			}
+		}
+		return degree;
+	}
+
+	// Puts the values left of x into order, returning how many there are
+	private int orderDomainValues(int x, int[] order) {
+		int count = 0;
+		for (int a = 0; a < csp.getDomainSize(x); a++) {
+			if (contains(x, a) && !isNogood(x, a)) {
+				order[count++] = a;
+			}
+		}
+		if (null != random) {
+			for (int i = count - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int t = order[i];
+				order[i] = order[j];
+				order[j] = t;
+			}
+		}
+		if (ValueOrdering.LCV == valueOrdering && count > 1) {
+			// Sort by the number of values each rules out of the domains of
+			// unassigned neighbours, ties keeping their order
+			long[] keys = new long[count];
+			for (int i = 0; i < count; i++) {
+				keys[i] = ((long) ruledOut(x, order[i]) << 32) | i;
+			}
+			Arrays.sort(keys);
+			int[] sorted = new int[count];
+			for (int i = 0; i < count; i++) {
+				sorted[i] = order[(int) keys[i]];
+			}
+			System.arraycopy(sorted, 0, order, 0, count);
+		}
+		return count;
+	}
+
+	private boolean isNogood(int x, int a) {
+		return null != nogoods && nogoods.isNogood(x, a);
+	}
+
+	private int ruledOut(int x, int a) {
+		int ruledOut = 0;
+		for (int arc : csp.getArcsFrom(x)) {
+			int y = csp.getArcTarget(arc);
+			if (assigned[y]) {
+				continue;
+			}
+			long[] supports = csp.getSupports(arc);
+			int words = csp.getWords(y), start = a * words;
+			int supported = 0;
+			for (int w = 0; w < words; w++) {
+				supported += Long.bitCount(supports[start + w]
+						& domains[domainStart[y] + w]);
+			}
+			ruledOut += domainSizes[y] - supported;
+		}
+		return ruledOut;
+	}
+
+	private void assign(int x, int a, int depth) {
+		for (int i = domainStart[x]; i < domainStart[x + 1]; i++) {
+			setDomainWord(i, i - domainStart[x] == (a >>> 6) ? 1L << a : 0L);
+		}
+		assigned[x] = true;
+		values[x] = a;
+		depths[x] = depth;
+	}
+
+	// Makes the unassigned neighbours of x consistent with it, and with
+	// MAC their neighbours with them in turn. On a wipe out adds the
+	// variables it follows from to conflict, if not null, and returns false.
+	private boolean propagate(int x, long[] conflict) {
+		for (int arc : csp.getArcsFrom(x)) {
+			int y = csp.getArcTarget(arc);
+			if (!assigned[y]) {
+				if (Inference.NONE != inference) {
+					enqueue(arc ^ 1);
+				}
+			} else if (Inference.NONE == inference
+					&& !supports(arc, values[x], y, values[y])) {
+				// Otherwise the domain of x was already made consistent
+				// with y
+				if (null != conflict) {
+					set(conflict, y);
+				}
+				return false;
+			}
+		}
+		if (null != nogoods) {
+			for (long other : nogoods.getNogoodsWith(x, values[x])) {
+				int y = NogoodStore.variableOf(other);
+				int b = NogoodStore.valueOf(other);
+				if (assigned[y]) {
+					if (values[y] == b) {
+						clearQueue();
+						if (null != conflict) {
+							set(conflict, y);
+						}
+						return false;
+					}
+				} else if (Inference.NONE != inference && contains(y, b)) {
+					removeValue(y, b, x);
+					if (0 == domainSizes[y]) {
+						wipeouts++;
+						clearQueue();
+						if (null != conflict) {
+							union(conflict, reasons, y * reasonWords);
+						}
+						return false;
+					}
+					if (Inference.MAC == inference) {
+						for (int out : csp.getArcsFrom(y)) {
+							if (!assigned[csp.getArcTarget(out)]) {
+								enqueue(out ^ 1);
+							}
+						}
+					}
+				}
+			}
+		}
+		int wipedOut = revise();
+		if (wipedOut >= 0) {
+			if (null != conflict) {
+				union(conflict, reasons, wipedOut * reasonWords);
+			}
+			return false;
+		}
+		return true;
+	}
+
+	// AC-3 over every arc, before anything is assigned
+	private boolean ac3() {
+		for (int arc = 0; arc < csp.getArcCount(); arc++) {
+			enqueue(arc);
+		}
+		return revise() < 0;
+	}
+
+	// Revises the queued arcs, with MAC queueing the arcs into each
+	// variable whose domain shrinks. Returns the variable whose domain
+	// became empty, or -1.
+	private int revise() {
+		while (queueSize > 0) {
+			int arc = queue[queueHead];
+			queueHead = (queueHead + 1) % queue.length;
+			queueSize--;
+			queued[arc] = false;
+			int x = csp.getArcTarget(arc ^ 1), y = csp.getArcTarget(arc);
+			if (assigned[x] || !revise(arc, x, y)) {
+				continue;
+			}
+			if (0 == domainSizes[x]) {
+				wipeouts++;
+				clearQueue();
+				return x;
+			}
+			if (Inference.FORWARD_CHECKING == inference) {
+				continue;
+			}
+			for (int out : csp.getArcsFrom(x)) {
+				int z = csp.getArcTarget(out);
+				if (z != y && !assigned[z]) {
+					enqueue(out ^ 1);
+				}
+			}
+		}
+		return -1;
+	}
+
+	// Removes the values of x with no support left in the domain of y,
+	// returning true if there were any
+	private boolean revise(int arc, int x, int y) {
+		revisions++;
+		long[] supports = csp.getSupports(arc);
+		int words = csp.getWords(y), yStart = domainStart[y];
+		boolean revised = false;
+		for (int i = domainStart[x]; i < domainStart[x + 1]; i++) {
+			long word = domains[i], kept = word;
+			while (0 != word) {
+				int a = ((i - domainStart[x]) << 6)
+						+ Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				boolean supported = false;
+				for (int w = 0; w < words && !supported; w++) {
+					supported = 0 != (supports[a * words + w] & domains[yStart
+							+ w]);
+				}
+				if (!supported) {
+					kept &= ~(1L << a);
+				}
+			}
+			if (kept != domains[i]) {
+				setDomainWord(i, kept);
+				revised = true;
+			}
+		}
+		if (revised && backjumping) {
+			// The values removed follow from whatever the domain of y does
+			if (assigned[y]) {
+				setReasonBit(x, y);
+			} else {
+				for (int w = 0; w < reasonWords; w++) {
+					setReasonWord(x * reasonWords + w, reasons[x
+							* reasonWords + w]
+							| reasons[y * reasonWords + w]);
+				}
+			}
+		}
+		return revised;
+	}
+
+	private void clearQueue() {
+		while (queueSize > 0) {
+			queued[queue[queueHead]] = false;
+			queueHead = (queueHead + 1) % queue.length;
+			queueSize--;
+		}
+	}
+
+	// Removes b from the domain of y because of the value of x
+	private void removeValue(int y, int b, int x) {
+		int i = domainStart[y] + (b >>> 6);
+		setDomainWord(i, domains[i] & ~(1L << b));
+		if (backjumping) {
+			setReasonBit(y, x);
+		}
+	}
+
+	private void enqueue(int arc) {
+		if (!queued[arc]) {
+			queued[arc] = true;
+			queue[(queueHead + queueSize) % queue.length] = arc;
+			queueSize++;
+		}
+	}
+
+	// Whether b of y is compatible with a of the source of arc
+	private boolean supports(int arc, int a, int y, int b) {
+		long word = csp.getSupports(arc)[a * csp.getWords(y) + (b >>> 6)];
+		return 0 != (word & (1L << b));
+	}
+
+	private boolean contains(int x, int a) {
+		return 0 != (domains[domainStart[x] + (a >>> 6)] & (1L << a));
+	}
+
+	private void setDomainWord(int i, long word) {
+		if (domains[i] != word) {
+			push(i << 1, domains[i]);
+			domainSizes[domainOwner[i]] -= Long.bitCount(domains[i])
+					- Long.bitCount(word);
+			domains[i] = word;
+		}
+	}
+
+	private void setReasonBit(int x, int y) {
+		int i = x * reasonWords + (y >>> 6);
+		setReasonWord(i, reasons[i] | (1L << y));
+	}
+
+	private void setReasonWord(int i, long word) {
+		if (reasons[i] != word) {
+			push((i << 1) | 1, reasons[i]);
+			reasons[i] = word;
+		}
+	}
+
+	private void push(int index, long word) {
+		if (trailSize == trailIndexes.length) {
+			trailIndexes = Arrays.copyOf(trailIndexes, 2 * trailSize);
+			trailWords = Arrays.copyOf(trailWords, 2 * trailSize);
+		}
+		trailIndexes[trailSize] = index;
+		trailWords[trailSize++] = word;
+	}
+
+	private void undo(int mark) {
+		while (trailSize > mark) {
+			int index = trailIndexes[--trailSize];
+			long word = trailWords[trailSize];
+			if (0 == (index & 1)) {
+				int i = index >>> 1;
+				domainSizes[domainOwner[i]] += Long.bitCount(word)
+						- Long.bitCount(domains[i]);
+				domains[i] = word;
+			} else {
+				reasons[index >>> 1] = word;
+			}
+		}
+	}
+
+	// The level of the most recently assigned variable of set, or -1
+	private int deepest(long[] set) {
+		int deepest = -1;
+		for (int w = 0; w < reasonWords; w++) {
+			long word = set[w];
+			while (0 != word) {
+				int x = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				if (assigned[x] && depths[x] > deepest) {
+					deepest = depths[x];
+				}
+			}
+		}
+		return deepest;
+	}
+
+	private void set(long[] set, int x) {
+		set[x >>> 6] |= 1L << x;
+	}
+
+	private void clear(long[] set, int x) {
+		set[x >>> 6] &= ~(1L << x);
+	}
+
+	private void union(long[] set, long[] other, int start) {
+		for (int w = 0; w < reasonWords; w++) {
+			set[w] |= other[start + w];
+		}
+	}
+}
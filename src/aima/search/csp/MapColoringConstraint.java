@@ -4,6 +4,7 @@
  */
 package aima.search.csp;
 
+import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.List;
 
@@ -12,10 +13,10 @@ import java.util.List;
  * 
  */
 
-public class MapColoringConstraint implements Constraint {
+public class MapColoringConstraint implements BinaryConstraint {
 	private Hashtable neighbors;
 
-	MapColoringConstraint(Hashtable neighbors) {
+	public MapColoringConstraint(Hashtable neighbors) {
 		this.neighbors = neighbors;
 	}
 
@@ -36,4 +37,16 @@ public class MapColoringConstraint implements Constraint {
 		return true;
 	}
 
+	public List<String> getNeighbors(String variable) {
+		List variableNeighbors = (List) neighbors.get(variable);
+		if (null == variableNeighbors) {
+			return null;
+		}
+		List<String> result = new ArrayList<String>();
+		for (Object neighbor : variableNeighbors) {
+			result.add((String) neighbor);
+		}
+		return result;
+	}
+
 }
\ No newline at end of file
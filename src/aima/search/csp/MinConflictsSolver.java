@@ -0,0 +1,311 @@
+package aima.search.csp;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): Figure 5.8, page
+ * 151, MIN-CONFLICTS, for an IntCSP, with the conflicts of every value of
+ * every variable kept up to date as variables change, rather than counted
+ * afresh.
+ *
+ * For each value a of each variable x it keeps the number of neighbours of
+ * x whose current values are incompatible with x = a. Changing the value of
+ * y only changes the counts of the neighbours of y, a word of support bits
+ * at a time, so a step takes O(deg d) rather than re-evaluating every
+ * constraint. The variables in conflict are kept in an indexed set, so one
+ * is drawn at random in constant time.
+ *
+ * The initial assignment is greedy: each variable in turn takes the value
+ * in least conflict with those before it. Each step then takes a random
+ * variable in conflict and gives it the value with the fewest conflicts,
+ * ties broken at random, except that with probability walkProbability it
+ * takes a random value instead (a random walk), and that a value the
+ * variable left within the last tabuTenure steps is not taken back unless
+ * it has no conflicts at all. Without random walks the search is easily
+ * caught where every variable in conflict already has its best value.
+ */
+public class MinConflictsSolver {
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String RANDOM_WALKS = "randomWalks";
+
+	private static final String INITIAL_CONFLICTS = "initialConflicts";
+
+	private static final String CONFLICTS = "conflicts";
+
+	private final SplittableRandom random;
+
+	private final Metrics metrics = new Metrics();
+
+	private long maxSteps = 1000000L;
+
+	private int tabuTenure = 10;
+
+	private double walkProbability = 0.02;
+
+	private IntCSP csp;
+
+	private int n;
+
+	// The domain of x is domainValues[valueStart[x]..valueStart[x + 1] - 1];
+	// the counts of x are indexed from countStart[x] by value
+	private int[] valueStart, domainValues, countStart;
+
+	private int[] conflictCounts;
+
+	private long[] tabuUntil;
+
+	private int[] values;
+
+	// The variables in conflict, in the first conflictedCount places, with
+	// the place of each, or -1
+	private int[] conflicted, places;
+
+	private int conflictedCount;
+
+	// The number of pairs of neighbours in conflict
+	private long conflicts;
+
+	private volatile boolean stopped = false;
+
+	// Stops every run while set, if given
+	private AtomicBoolean cancelled = null;
+
+	public MinConflictsSolver() {
+		this(new SplittableRandom());
+	}
+
+	public MinConflictsSolver(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	private MinConflictsSolver(SplittableRandom random) {
+		this.random = random;
+		clearInstrumentation();
+	}
+
+	/**
+	 * Sets the number of steps before giving up (10^6 by default).
+	 */
+	public void setMaxSteps(long maxSteps) {
+		this.maxSteps = maxSteps;
+	}
+
+	/**
+	 * Sets the number of steps for which a variable does not take back a
+	 * value it left (10 by default), 0 for none.
+	 */
+	public void setTabuTenure(int tabuTenure) {
+		this.tabuTenure = tabuTenure;
+	}
+
+	/**
+	 * Sets the probability of a step giving a random value (0.02 by
+	 * default).
+	 */
+	public void setWalkProbability(double walkProbability) {
+		this.walkProbability = walkProbability;
+	}
+
+	/**
+	 * Makes a solve() running in another thread give up at its next step.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * @return the value of every variable of csp in a solution, or null if
+	 *         none was found within maxSteps.
+	 */
+	public int[] solve(IntCSP csp) {
+		clearInstrumentation();
+		stopped = false;
+		initialize(csp);
+		for (int x = 0; x < n; x++) {
+			if (valueStart[x] == valueStart[x + 1]) {
+				// Nothing to assign
+				return null;
+			}
+			setValue(x, bestValue(x, -1));
+		}
+		metrics.set(INITIAL_CONFLICTS, conflicts);
+
+		long steps = 0, walks = 0;
+		while (conflicts > 0 && steps < maxSteps && !isStopped()) {
+			steps++;
+			int x = conflicted[random.nextInt(conflictedCount)];
+			int value;
+			if (random.nextDouble() < walkProbability) {
+				walks++;
+				value = domainValues[valueStart[x]
+						+ random.nextInt(valueStart[x + 1] - valueStart[x])];
+			} else {
+				value = bestValue(x, steps);
+			}
+			if (value != values[x]) {
+				tabuUntil[countStart[x] + values[x]] = steps + tabuTenure;
+				setValue(x, value);
+			}
+		}
+		metrics.set(NODES_EXPANDED, steps);
+		metrics.set(RANDOM_WALKS, walks);
+		metrics.set(CONFLICTS, conflicts);
+		return 0 == conflicts ? values.clone() : null;
+	}
+
+	/**
+	 * @return a solution of csp, or null if none was found within maxSteps.
+	 */
+	public Assignment solve(CSP csp) {
+		IntCSP intCSP = IntCSP.fromCSP(csp);
+		int[] solution = solve(intCSP);
+		return null == solution ? null : intCSP.toAssignment(solution);
+	}
+
+	/**
+	 * @return the number of pairs of neighbours in conflict when solve()
+	 *         last stopped.
+	 */
+	public long getConflicts() {
+		return conflicts;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		metrics.set(NODES_EXPANDED, 0L);
+		metrics.set(RANDOM_WALKS, 0L);
+		metrics.set(INITIAL_CONFLICTS, 0L);
+		metrics.set(CONFLICTS, 0L);
+	}
+
+	// Stops every run, including one not yet started, once cancelled is
+	// set, unlike stop(), which a later solve() forgets
+	void setCancellation(AtomicBoolean cancelled) {
+		this.cancelled = cancelled;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private boolean isStopped() {
+		return stopped || (null != cancelled && cancelled.get());
+	}
+
+	private void initialize(IntCSP csp) {
+		this.csp = csp;
+		n = csp.getVariableCount();
+		valueStart = new int[n + 1];
+		countStart = new int[n + 1];
+		for (int x = 0; x < n; x++) {
+			int size = 0;
+			for (int a = 0; a < csp.getDomainSize(x); a++) {
+				if (csp.isInDomain(x, a)) {
+					size++;
+				}
+			}
+			valueStart[x + 1] = valueStart[x] + size;
+			countStart[x + 1] = countStart[x] + csp.getDomainSize(x);
+		}
+		domainValues = new int[valueStart[n]];
+		for (int x = 0; x < n; x++) {
+			int i = valueStart[x];
+			for (int a = 0; a < csp.getDomainSize(x); a++) {
+				if (csp.isInDomain(x, a)) {
+					domainValues[i++] = a;
+				}
+			}
+		}
+		conflictCounts = new int[countStart[n]];
+		tabuUntil = new long[countStart[n]];
+		values = new int[n];
+		conflicted = new int[n];
+		places = new int[n];
+		conflictedCount = 0;
+		conflicts = 0;
+		for (int x = 0; x < n; x++) {
+			// Unassigned until the greedy assignment reaches it
+			values[x] = -1;
+			places[x] = -1;
+		}
+	}
+
+	// The value of x in fewest conflicts, ties broken at random, leaving out
+	// tabu values with any conflicts at step (or none, if step < 0)
+	private int bestValue(int x, long step) {
+		int best = -1, fewest = Integer.MAX_VALUE, ties = 0;
+		for (int i = valueStart[x]; i < valueStart[x + 1]; i++) {
+			int a = domainValues[i];
+			int count = conflictCounts[countStart[x] + a];
+			if (count > 0 && step >= 0
+					&& tabuUntil[countStart[x] + a] > step) {
+				continue;
+			}
+			if (count < fewest) {
+				best = a;
+				fewest = count;
+				ties = 1;
+			} else if (count == fewest && 0 == random.nextInt(++ties)) {
+				best = a;
+			}
+		}
+		// Every value is tabu, so stay put
+		return best < 0 ? values[x] : best;
+	}
+
+	// Gives x value a, updating the counts of its neighbours' values
+	private void setValue(int x, int a) {
+		int old = values[x];
+		if (old >= 0) {
+			conflicts -= conflictCounts[countStart[x] + old];
+		}
+		conflicts += conflictCounts[countStart[x] + a];
+		values[x] = a;
+		updateConflicted(x);
+		for (int arc : csp.getArcsFrom(x)) {
+			int y = csp.getArcTarget(arc);
+			long[] supports = csp.getSupports(arc);
+			int words = csp.getWords(y), start = countStart[y];
+			for (int w = 0; w < words; w++) {
+				// Values of y compatible with the old value of x and not the
+				// new have one more conflict, and the other way round one
+				// less; an unassigned x is compatible with everything
+				long before = old < 0 ? -1L : supports[old * words + w];
+				long after = supports[a * words + w];
+				long changed = before ^ after;
+				while (0 != changed) {
+					int b = (w << 6) + Long.numberOfTrailingZeros(changed);
+					changed &= changed - 1;
+					if (b >= csp.getDomainSize(y)) {
+						break;
+					}
+					conflictCounts[start + b] += 0 != (before & (1L << b)) ? 1
+							: -1;
+				}
+			}
+			if (values[y] >= 0) {
+				updateConflicted(y);
+			}
+		}
+	}
+
+	private void updateConflicted(int x) {
+		boolean inConflict = conflictCounts[countStart[x] + values[x]] > 0;
+		if (inConflict && places[x] < 0) {
+			places[x] = conflictedCount;
+			conflicted[conflictedCount++] = x;
+		} else if (!inConflict && places[x] >= 0) {
+			int last = conflicted[--conflictedCount];
+			conflicted[places[x]] = last;
+			places[last] = places[x];
+			places[x] = -1;
+		}
+	}
+}
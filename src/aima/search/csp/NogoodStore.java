@@ -0,0 +1,139 @@
+package aima.search.csp;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nogoods of an IntCSP, shared between IntCSPSolvers, possibly running in
+ * different threads: combinations of values, x = a or x = a and y = b, that
+ * no solution has. Backjumping finds one whenever the failure of a level
+ * follows from the values of at most two variables. A unary nogood takes a
+ * value out of a domain for good, and a binary one is propagated like a
+ * constraint when either of its values is assigned. A failure that follows
+ * from no assignment at all marks the CSP as unsatisfiable.
+ *
+ * Larger nogoods are not kept: they would seldom match again, and checking
+ * them would cost more than it saves.
+ */
+public class NogoodStore {
+
+	private static final long[] NONE = new long[0];
+
+	private final Set<Long> unary = Collections
+			.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+	// x = a to the y = b it may not go with, as keys of the same form
+	private final ConcurrentHashMap<Long, long[]> binary = new ConcurrentHashMap<Long, long[]>();
+
+	private final AtomicLong size = new AtomicLong();
+
+	private volatile boolean unsatisfiable = false;
+
+	/**
+	 * Records that no solution gives the first count of variables the
+	 * corresponding values, if count is at most two.
+	 *
+	 * @return true if the nogood was new and kept.
+	 */
+	public boolean add(int[] variables, int[] values, int count) {
+		if (0 == count) {
+			unsatisfiable = true;
+			return true;
+		}
+		if (1 == count) {
+			boolean added = unary.add(key(variables[0], values[0]));
+			if (added) {
+				size.incrementAndGet();
+			}
+			return added;
+		}
+		if (2 == count) {
+			long first = key(variables[0], values[0]);
+			long second = key(variables[1], values[1]);
+			if (!append(first, second)) {
+				return false;
+			}
+			append(second, first);
+			size.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	public boolean isNogood(int x, int a) {
+		return unary.contains(key(x, a));
+	}
+
+	public boolean isNogood(int x, int a, int y, int b) {
+		for (long other : getNogoodsWith(x, a)) {
+			if (other == key(y, b)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether a failure was found to follow from no assignment.
+	 */
+	public boolean isUnsatisfiable() {
+		return unsatisfiable;
+	}
+
+	/**
+	 * @return the number of nogoods kept.
+	 */
+	public long size() {
+		return size.get();
+	}
+
+	//
+	// Used by IntCSPSolver
+	//
+	static long key(int x, int a) {
+		return ((long) x << 32) | a;
+	}
+
+	static int variableOf(long key) {
+		return (int) (key >>> 32);
+	}
+
+	static int valueOf(long key) {
+		return (int) key;
+	}
+
+	// The y = b, as keys, that x = a may not go with
+	long[] getNogoodsWith(int x, int a) {
+		long[] others = binary.get(key(x, a));
+		return null == others ? NONE : others;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// Copies on write, so that readers need no lock
+	private boolean append(long from, long to) {
+		while (true) {
+			long[] others = binary.get(from);
+			if (null == others) {
+				if (null == binary.putIfAbsent(from, new long[] { to })) {
+					return true;
+				}
+				continue;
+			}
+			for (long other : others) {
+				if (other == to) {
+					return false;
+				}
+			}
+			long[] more = new long[others.length + 1];
+			System.arraycopy(others, 0, more, 0, others.length);
+			more[others.length] = to;
+			if (binary.replace(from, others, more)) {
+				return true;
+			}
+		}
+	}
+}
@@ -0,0 +1,377 @@
+package aima.search.csp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Solves an IntCSP, or a CSP through IntCSP.fromCSP(), on several threads
+ * in one of two ways, both returning the first solution found and stopping
+ * the rest of the search.
+ *
+ * solve() splits the search tree of IntCSPSolver: a task assigns the next
+ * variable each of its values in turn and forks a task for each, as long as
+ * it is no deeper than maxSplitDepth and the worker's queue of tasks is
+ * short; otherwise it searches its subtree itself. Idle workers of the
+ * ForkJoinPool steal the queued tasks, so the work spreads out at shallow
+ * decision points, where subtrees are large, and splits further only where
+ * workers run short of it. Each worker thread keeps one IntCSPSolver, set
+ * up once and reset between subtrees, and all of them share a NogoodStore,
+ * so that what one subtree's backjumps learn prunes the others.
+ *
+ * race() runs a portfolio of different solvers on the same CSP, one per
+ * thread: IntCSPSolvers with MAC or forward checking and different random
+ * tie-breaking, sharing a NogoodStore, and MinConflictsSolvers, which
+ * cannot prove there is no solution but often find one first. The first
+ * solution wins; if a complete solver finds there is none, so does race().
+ */
+public class ParallelCSPSolver {
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String TASKS = "tasks";
+
+	private static final String NOGOODS = "nogoods";
+
+	private static final String WINNER = "winner";
+
+	private final int threads;
+
+	private final Metrics metrics = new Metrics();
+
+	private int maxSplitDepth = 8;
+
+	private long seed = 1L;
+
+	// The members of the last race, for getMemberName()
+	private final List<String> memberNames = new ArrayList<String>();
+
+	public ParallelCSPSolver() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelCSPSolver(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("No threads: " + threads);
+		}
+		this.threads = threads;
+		clearInstrumentation();
+	}
+
+	/**
+	 * Sets the depth of the search tree below which solve() no longer
+	 * splits it (8 by default).
+	 */
+	public void setMaxSplitDepth(int maxSplitDepth) {
+		this.maxSplitDepth = maxSplitDepth;
+	}
+
+	/**
+	 * Sets the seed from which race() seeds its members.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Searches the tree of IntCSPSolver with maintained arc consistency,
+	 * MRV and degree, LCV and backjumping, split as described above.
+	 *
+	 * @return the value of every variable of csp in a solution, or null if
+	 *         csp has none.
+	 */
+	public int[] solve(final IntCSP csp) {
+		clearInstrumentation();
+		final SplitSearch search = new SplitSearch(csp);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.invoke(new SplitTask(search, new int[0], new int[0]));
+		} finally {
+			pool.shutdownNow();
+		}
+		long expanded = 0;
+		for (IntCSPSolver solver : search.solvers.values()) {
+			solver.updateMetrics();
+			expanded += solver.getMetrics().getLong(NODES_EXPANDED);
+		}
+		metrics.set(NODES_EXPANDED, expanded);
+		metrics.set(TASKS, search.tasks.get());
+		metrics.set(NOGOODS, search.nogoods.size());
+		return search.solution.get();
+	}
+
+	/**
+	 * @return a solution of csp, or null if it has none.
+	 */
+	public Assignment solve(CSP csp) {
+		IntCSP intCSP = IntCSP.fromCSP(csp);
+		int[] solution = solve(intCSP);
+		return null == solution ? null : intCSP.toAssignment(solution);
+	}
+
+	/**
+	 * Races a portfolio of getThreads() solvers (at least two), as
+	 * described above.
+	 *
+	 * @return the value of every variable of csp in a solution, or null if
+	 *         csp has none.
+	 */
+	public int[] race(final IntCSP csp) {
+		clearInstrumentation();
+		memberNames.clear();
+		final NogoodStore nogoods = new NogoodStore();
+		// Set once the race is decided, which stops every member, even one
+		// whose thread has not yet started
+		final AtomicBoolean decided = new AtomicBoolean();
+		final List<IntCSPSolver> complete = new ArrayList<IntCSPSolver>();
+		final List<MinConflictsSolver> local = new ArrayList<MinConflictsSolver>();
+		int members = Math.max(2, threads);
+		for (int i = 0; i < members; i++) {
+			if (1 == i % 3) {
+				MinConflictsSolver solver = new MinConflictsSolver(seed + i);
+				solver.setMaxSteps(Long.MAX_VALUE);
+				solver.setCancellation(decided);
+				local.add(solver);
+				memberNames.add("minConflicts");
+			} else {
+				IntCSPSolver solver = new IntCSPSolver();
+				solver.setNogoodStore(nogoods);
+				solver.setCancellation(decided);
+				if (i > 0) {
+					solver.setSeed(seed + i);
+				}
+				if (2 == i % 3) {
+					solver.setInference(IntCSPSolver.Inference.FORWARD_CHECKING);
+					memberNames.add("forwardChecking");
+				} else {
+					memberNames.add("mac");
+				}
+				complete.add(solver);
+			}
+		}
+
+		final AtomicReference<int[]> solution = new AtomicReference<int[]>();
+		final AtomicInteger winner = new AtomicInteger(-1);
+		final AtomicInteger running = new AtomicInteger(members);
+		final Object finished = new Object();
+		ExecutorService executor = Executors.newFixedThreadPool(members,
+				new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "ParallelCSPSolver");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		int nextComplete = 0, nextLocal = 0;
+		for (int i = 0; i < members; i++) {
+			final int member = i;
+			final IntCSPSolver completeSolver = 1 == i % 3 ? null : complete
+					.get(nextComplete++);
+			final MinConflictsSolver localSolver = 1 == i % 3 ? local
+					.get(nextLocal++) : null;
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						int[] found = null == completeSolver ? localSolver
+								.solve(csp) : completeSolver.solve(csp);
+						// A complete solver that was not stopped and found
+						// nothing has shown there is no solution
+						boolean conclusive = null != found
+								|| (null != completeSolver && !completeSolver
+										.isStopped());
+						if (conclusive && winner.compareAndSet(-1, member)) {
+							solution.set(found);
+							decided.set(true);
+						}
+					} catch (RuntimeException e) {
+						// A member that fails leaves the race undecided
+					} finally {
+						synchronized (finished) {
+							running.decrementAndGet();
+							finished.notifyAll();
+						}
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		synchronized (finished) {
+			while (winner.get() < 0 && running.get() > 0) {
+				try {
+					finished.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		decided.set(true);
+		metrics.set(WINNER, winner.get());
+		metrics.set(NOGOODS, nogoods.size());
+		return solution.get();
+	}
+
+	/**
+	 * @return a solution of csp, or null if it has none.
+	 */
+	public Assignment race(CSP csp) {
+		IntCSP intCSP = IntCSP.fromCSP(csp);
+		int[] solution = race(intCSP);
+		return null == solution ? null : intCSP.toAssignment(solution);
+	}
+
+	/**
+	 * @return the kind of solver of member i of the last race: "mac",
+	 *         "forwardChecking" or "minConflicts".
+	 */
+	public String getMemberName(int i) {
+		return memberNames.get(i);
+	}
+
+	/**
+	 * @return the member that decided the last race, or -1.
+	 */
+	public int getWinner() {
+		return metrics.getInt(WINNER);
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		metrics.set(NODES_EXPANDED, 0L);
+		metrics.set(TASKS, 0L);
+		metrics.set(NOGOODS, 0L);
+		metrics.set(WINNER, -1);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// What the tasks of one solve() share
+	private class SplitSearch {
+		final IntCSP csp;
+
+		final NogoodStore nogoods = new NogoodStore();
+
+		final AtomicReference<int[]> solution = new AtomicReference<int[]>();
+
+		final AtomicLong tasks = new AtomicLong();
+
+		final ConcurrentHashMap<Thread, IntCSPSolver> solvers = new ConcurrentHashMap<Thread, IntCSPSolver>();
+
+		// Whether the CSP turned out inconsistent before any search
+		volatile boolean inconsistent = false;
+
+		SplitSearch(IntCSP csp) {
+			this.csp = csp;
+		}
+
+		boolean isDone() {
+			return null != solution.get() || inconsistent
+					|| nogoods.isUnsatisfiable();
+		}
+
+		// The solver of the current thread, reset to just after prepare()
+		IntCSPSolver solver() {
+			IntCSPSolver solver = solvers.get(Thread.currentThread());
+			if (null == solver) {
+				solver = new IntCSPSolver();
+				solver.setNogoodStore(nogoods);
+				if (!solver.prepare(csp)) {
+					inconsistent = true;
+				}
+				solvers.put(Thread.currentThread(), solver);
+			} else {
+				solver.reset();
+			}
+			return solver;
+		}
+
+		void found(int[] values) {
+			if (solution.compareAndSet(null, values)) {
+				for (IntCSPSolver solver : solvers.values()) {
+					solver.stop();
+				}
+			}
+		}
+	}
+
+	// Searches the subtree below the assignment of values to variables. A
+	// task only uses its thread's solver until it forks, so the thread may
+	// run other tasks while it waits for its own.
+	private class SplitTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final SplitSearch search;
+
+		private final int[] variables, values;
+
+		SplitTask(SplitSearch search, int[] variables, int[] values) {
+			this.search = search;
+			this.variables = variables;
+			this.values = values;
+		}
+
+		@Override
+		protected void compute() {
+			if (search.isDone()) {
+				return;
+			}
+			search.tasks.incrementAndGet();
+			IntCSPSolver solver = search.solver();
+			if (search.inconsistent) {
+				return;
+			}
+			for (int i = 0; i < variables.length; i++) {
+				if (!solver.assume(variables[i], values[i])) {
+					return;
+				}
+			}
+			int depth = variables.length;
+			if (depth >= maxSplitDepth
+					|| ForkJoinTask.getSurplusQueuedTaskCount() > 2) {
+				int[] solution = solver.searchSubtree();
+				if (null != solution) {
+					search.found(solution);
+				}
+				return;
+			}
+			int x = solver.nextVariable();
+			if (x < 0) {
+				search.found(solver.searchSubtree());
+				return;
+			}
+			int[] order = solver.orderedValues(x);
+			List<SplitTask> children = new ArrayList<SplitTask>();
+			for (int a : order) {
+				int[] childVariables = new int[depth + 1];
+				int[] childValues = new int[depth + 1];
+				System.arraycopy(variables, 0, childVariables, 0, depth);
+				System.arraycopy(values, 0, childValues, 0, depth);
+				childVariables[depth] = x;
+				childValues[depth] = a;
+				children.add(new SplitTask(search, childVariables,
+						childValues));
+			}
+			invokeAll(children);
+		}
+	}
+}
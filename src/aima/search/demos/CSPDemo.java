@@ -13,6 +13,8 @@ public class CSPDemo {
 		CSP csp = MapCSP.getMap();
 		System.out.println("Map Coloring - Backtracking ");
 		System.out.println(csp.backTrackingSearch());
+		System.out.println("Map Coloring - Constraint Propagation ");
+		System.out.println(csp.constraintPropagationSearch());
 		System.out.println("Map Coloring - Minimum Conflicts ");
 		System.out.println(csp.mcSearch(100));
 	}
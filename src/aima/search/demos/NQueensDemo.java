@@ -5,6 +5,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import aima.search.framework.GraphSearch;
 import aima.search.framework.Problem;
@@ -12,11 +13,17 @@ import aima.search.framework.Search;
 import aima.search.framework.SearchAgent;
 import aima.search.framework.TreeSearch;
 import aima.search.informed.HillClimbingSearch;
+import aima.search.informed.LocalSearchPortfolio;
 import aima.search.informed.SimulatedAnnealingSearch;
 import aima.search.informed.ga.GeneticAlgorithm;
+import aima.search.informed.ga.PackedGeneticAlgorithm;
+import aima.search.informed.ga.PackedPopulation;
+import aima.search.nqueens.CompactNQueensBoard;
+import aima.search.nqueens.MinConflictsNQueensSolver;
 import aima.search.nqueens.NQueensBoard;
 import aima.search.nqueens.NQueensFitnessFunction;
 import aima.search.nqueens.NQueensGoalTest;
+import aima.search.nqueens.NQueensLocalSearchProblem;
 import aima.search.nqueens.NQueensSuccessorFunction;
 import aima.search.nqueens.QueensToBePlacedHeuristic;
 import aima.search.uninformed.BreadthFirstSearch;
@@ -44,7 +51,10 @@ public class NQueensDemo {
 		nQueensWithIterativeDeepeningSearch();
 		nQueensSimulatedAnnealingSearch();
 		nQueensHillClimbingSearch();
+		nQueensLocalSearchPortfolio();
+		nQueensMinConflicts();
 		nQueensGeneticAlgorithmSearch();
+		nQueensPackedGeneticAlgorithm();
 	}
 
 	private static void nQueensWithRecursiveDLS() {
@@ -145,6 +155,34 @@ public class NQueensDemo {
 		}
 	}
 
+	private static void nQueensLocalSearchPortfolio() {
+		System.out.println("\nNQueensDemo LocalSearchPortfolio  -->");
+		try {
+			LocalSearchPortfolio search = new LocalSearchPortfolio();
+			search.search(new NQueensLocalSearchProblem(200));
+			System.out.println("Search Outcome=" + search.getOutcome());
+			if (search.getWinningChain() >= 0) {
+				System.out.println("Winning Chain="
+						+ search.getChainName(search.getWinningChain()));
+			}
+			System.out.println(search.getMetrics().snapshot());
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static void nQueensMinConflicts() {
+		System.out.println("\nNQueensDemo MinConflicts  -->");
+		MinConflictsNQueensSolver solver = new MinConflictsNQueensSolver();
+		long start = System.currentTimeMillis();
+		CompactNQueensBoard board = solver.solve(1000000);
+		System.out.println("Queens=" + board.getSize());
+		System.out.println("Is Goal=" + board.isSolution());
+		System.out.println("Time=" + (System.currentTimeMillis() - start)
+				+ "ms");
+		System.out.println(solver.getMetrics().snapshot());
+	}
+
 	public static void nQueensGeneticAlgorithmSearch() {
 		System.out.println("\nNQueensDemo GeneticAlgorithm  -->");
 		try {
@@ -190,6 +228,23 @@ public class NQueensDemo {
 		}
 	}
 
+	private static void nQueensPackedGeneticAlgorithm() {
+		System.out.println("\nNQueensDemo PackedGeneticAlgorithm  -->");
+		int boardSize = 8;
+		NQueensFitnessFunction fitnessFunction = new NQueensFitnessFunction();
+		PackedPopulation population = PackedPopulation.random(1000,
+				boardSize, boardSize, new SplittableRandom());
+		PackedGeneticAlgorithm ga = new PackedGeneticAlgorithm(0.15);
+		ga.setTournamentSelection(3);
+		ga.geneticAlgorithm(population, fitnessFunction, fitnessFunction
+				.getMaximumFitness(boardSize), 1000);
+		System.out.println("Fitness=" + ga.getBestFitness());
+		System.out.println("Is Goal="
+				+ (ga.getBestFitness() == fitnessFunction
+						.getMaximumFitness(boardSize)));
+		System.out.println(ga.getMetrics().snapshot());
+	}
+
 	private static void printInstrumentation(Properties properties) {
 		Iterator keys = properties.keySet().iterator();
 		while (keys.hasNext()) {
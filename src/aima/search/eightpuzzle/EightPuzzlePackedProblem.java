@@ -0,0 +1,132 @@
+package aima.search.eightpuzzle;
+
+import aima.search.framework.PackedProblem;
+import aima.search.framework.Problem;
+
+/**
+ * The eight puzzle as a PackedProblem. The board is packed 4 bits per square,
+ * square i (0..8, row major) being held in bits 4i..4i+3, so that it can be
+ * solved by PackedGraphSearch or PackedAStarSearch. It is also an ordinary
+ * Problem (using EightPuzzleSuccessorFunction, EightPuzzleGoalTest and
+ * ManhattanHeuristicFunction) so the object based searches can be run
+ * against the same instance for comparison.
+ */
+public class EightPuzzlePackedProblem extends Problem implements PackedProblem {
+
+	// In the same order as generated by EightPuzzleSuccessorFunction
+	private static final String[] ACTIONS = new String[] { EightPuzzleBoard.UP,
+			EightPuzzleBoard.DOWN, EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT };
+
+	private static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+
+	private static final long GOAL = pack(new int[] { 0, 1, 2, 3, 4, 5, 6, 7,
+			8 });
+
+	private final long packedInitialState;
+
+	public EightPuzzlePackedProblem(EightPuzzleBoard initialState) {
+		super(initialState, new EightPuzzleSuccessorFunction(),
+				new EightPuzzleGoalTest(), new ManhattanHeuristicFunction());
+		packedInitialState = pack(initialState.getBoard());
+	}
+
+	public static long pack(int[] board) {
+		long packed = 0L;
+		for (int i = 0; i < 9; i++) {
+			packed |= ((long) board[i]) << (i << 2);
+		}
+		return packed;
+	}
+
+	public static int[] unpack(long packed) {
+		int[] board = new int[9];
+		for (int i = 0; i < 9; i++) {
+			board[i] = tileAt(packed, i);
+		}
+		return board;
+	}
+
+	//
+	// START Interface - PackedProblem
+	public long getInitialPackedState() {
+		return packedInitialState;
+	}
+
+	public boolean isPackedGoalState(long state) {
+		return state == GOAL;
+	}
+
+	public int getMaxSuccessors() {
+		return ACTIONS.length;
+	}
+
+	public int getPackedSuccessors(long state, long[] successorStates,
+			int[] successorActions) {
+		int gap = gapPosition(state);
+		int n = 0;
+		if (gap > 2) {
+			successorStates[n] = swap(state, gap, gap - 3);
+			successorActions[n++] = UP;
+		}
+		if (gap < 6) {
+			successorStates[n] = swap(state, gap, gap + 3);
+			successorActions[n++] = DOWN;
+		}
+		if (gap % 3 != 0) {
+			successorStates[n] = swap(state, gap, gap - 1);
+			successorActions[n++] = LEFT;
+		}
+		if (gap % 3 != 2) {
+			successorStates[n] = swap(state, gap, gap + 1);
+			successorActions[n++] = RIGHT;
+		}
+		return n;
+	}
+
+	public double getPackedStepCost(long fromState, int action, long toState) {
+		return 1.0;
+	}
+
+	public double getPackedHeuristicValue(long state) {
+		// Manhattan distance, as per ManhattanHeuristicFunction
+		int distance = 0;
+		for (int i = 0; i < 9; i++) {
+			int tile = tileAt(state, i);
+			if (tile != 0) {
+				distance += Math.abs(tile / 3 - i / 3)
+						+ Math.abs(tile % 3 - i % 3);
+			}
+		}
+		return distance;
+	}
+
+	public String getActionName(int action) {
+		return ACTIONS[action];
+	}
+
+	// END Interface - PackedProblem
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	private static int tileAt(long state, int square) {
+		return (int) (state >>> (square << 2)) & 0xF;
+	}
+
+	private static int gapPosition(long state) {
+		for (int i = 0; i < 9; i++) {
+			if (tileAt(state, i) == 0) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("No gap on board: "
+				+ Long.toHexString(state));
+	}
+
+	// Move the tile at square 'from' into the gap at square 'gap'
+	private static long swap(long state, int gap, int from) {
+		long tile = (state >>> (from << 2)) & 0xFL;
+		return (state & ~(0xFL << (from << 2))) | (tile << (gap << 2));
+	}
+}
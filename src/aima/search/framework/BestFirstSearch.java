@@ -1,7 +1,5 @@
 package aima.search.framework;
 
-import java.util.Comparator;
-
 /**
  * Artificial Intelligence A Modern Approach (2nd Edition): page 94.
  * 
@@ -25,14 +23,7 @@ public class BestFirstSearch extends PrioritySearch {
 	// PROTECTED METHODS
 	//
 	@Override
-	protected Comparator<Node> getComparator(final Problem p) {
-		return new Comparator<Node>() {
-			public int compare(Node one, Node two) {
-				Double f1 = evaluationFunction.getValue(p, one);
-				Double f2 = evaluationFunction.getValue(p, two);
-
-				return f1.compareTo(f2);
-			}
-		};
+	protected EvaluationFunction getEvaluationFunction() {
+		return evaluationFunction;
 	}
 }
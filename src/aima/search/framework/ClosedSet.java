@@ -0,0 +1,21 @@
+package aima.search.framework;
+
+/**
+ * The set of states GraphSearch has already expanded. Implementations trade
+ * memory against exactness: HashClosedSet holds the states themselves, while
+ * FingerprintClosedSet holds 64 bit fingerprints of them off the heap.
+ */
+public interface ClosedSet {
+	/**
+	 * Adds state to the set.
+	 *
+	 * @return true if state was not already in the set.
+	 */
+	public boolean add(Object state);
+
+	public boolean contains(Object state);
+
+	public void clear();
+
+	public int size();
+}
@@ -1,8 +1,8 @@
 package aima.search.framework;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+
+import aima.search.closedset.HashClosedSet;
 
 /**
  * @author Ravi Mohan
@@ -28,11 +28,26 @@ import java.util.Set;
  * implemented with a hash table to allow efficient checking for repeated
  * states. This algorithm assumes that the first path to a state s is the
  * cheapest (see text).
+ * 
+ * The closed set is pluggable: a HashClosedSet of the states by default, or
+ * e.g. a FingerprintClosedSet to keep millions of states off the heap.
  */
 
 public class GraphSearch extends QueueSearch {
 
-	Set<Object> closed = new HashSet<Object>();
+	private final ClosedSet closed;
+
+	public GraphSearch() {
+		this(new HashClosedSet());
+	}
+
+	public GraphSearch(ClosedSet closed) {
+		this.closed = closed;
+	}
+
+	public ClosedSet getClosedSet() {
+		return closed;
+	}
 
 	// Need to override search() method so that I can re-initialize
 	// the closed list should multiple calls to search be made.
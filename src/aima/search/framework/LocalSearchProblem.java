@@ -0,0 +1,54 @@
+package aima.search.framework;
+
+import java.util.SplittableRandom;
+
+/**
+ * An interface describing a problem in complete-state formulation for local
+ * search: every state is a candidate solution with a cost, 0 for and only for
+ * goal states, and a neighbourhood of moves numbered from 0. Searches that
+ * understand this contract (e.g. LocalSearchPortfolio) evaluate a move by the
+ * change it makes to the cost and apply it to the state in place, instead of
+ * building a Node and a successor state for every neighbour.
+ *
+ * States are mutable; a search copies a state with copyState() before
+ * changing it if it needs to keep the original. getCost() and getMoveDelta()
+ * are called for every neighbour considered, so implementations should keep
+ * whatever is needed to answer them cheaply in the state itself.
+ *
+ * Implementations are normally also subclasses of Problem (see PackedProblem
+ * for the same pattern) so that they can be handed to HillClimbingSearch or
+ * SimulatedAnnealingSearch as well. Several searches may use one problem at
+ * once, so its methods must be thread-safe for different states.
+ */
+public interface LocalSearchProblem {
+
+	/**
+	 * @return a new state chosen at random, e.g. to restart from.
+	 */
+	Object getRandomState(SplittableRandom random);
+
+	Object copyState(Object state);
+
+	/**
+	 * @return the cost of state, 0 if and only if it is a goal state.
+	 */
+	double getCost(Object state);
+
+	/**
+	 * @return the number of moves from state, numbered 0 to one less.
+	 */
+	int getMoveCount(Object state);
+
+	/**
+	 * @return the change in cost that applying move to state would make.
+	 */
+	double getMoveDelta(Object state, int move);
+
+	void applyMove(Object state, int move);
+
+	/**
+	 * @return the action name (as returned by Search.search()) of move from
+	 *         state.
+	 */
+	String getMoveName(Object state, int move);
+}
@@ -1,45 +1,411 @@
 /*
  * Created on Sep 8, 2004
- *  
+ *
  */
 package aima.search.framework;
 
 import java.util.Hashtable;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * A registry of named, typed metrics. Searches that update a metric on every
+ * node should obtain it once with counter(), gauge(), doubleGauge(),
+ * maxGauge() or timer() and then update it directly, which costs no more
+ * than an add, a write or a compare and set and is safe to do from several
+ * threads at once.
+ *
+ * The older name based methods (set(), getInt(), getDouble() and get()) are
+ * still supported and operate on the same metrics. set() on an existing
+ * metric updates it in place, so handles obtained earlier stay valid after
+ * a search clears its instrumentation, except that setting a Gauge to a
+ * floating point value replaces it with a DoubleGauge, and the other way
+ * round. A Timer can only be cleared with reset(), and set() on one throws
+ * IllegalArgumentException. get() renders a metric as a String the way
+ * earlier versions did, e.g. "945" for a count and "418.0" for a path cost.
+ *
  * @author Ravi Mohan
- * 
+ *
  */
 
 public class Metrics {
-	private Hashtable<String, String> hash;
+	// A Hashtable so that keySet() iterates in the same order as before
+	private Hashtable<String, Metric> hash;
 
 	public Metrics() {
-		this.hash = new Hashtable<String, String>();
+		this.hash = new Hashtable<String, Metric>();
 	}
 
 	public void set(String name, int i) {
-		hash.put(name, Integer.toString(i));
+		set(name, (long) i);
+	}
+
+	public void set(String name, long l) {
+		synchronized (hash) {
+			Metric m = hash.get(name);
+			if (null == m || m instanceof DoubleGauge) {
+				hash.put(name, new Gauge(l));
+			} else {
+				m.setLong(l);
+			}
+		}
 	}
 
 	public void set(String name, double d) {
-		hash.put(name, Double.toString(d));
+		synchronized (hash) {
+			Metric m = hash.get(name);
+			if (null == m || m instanceof Gauge) {
+				hash.put(name, new DoubleGauge(d));
+			} else {
+				m.setDouble(d);
+			}
+		}
 	}
 
 	public int getInt(String name) {
-		return new Integer(hash.get(name)).intValue();
+		return (int) getLong(name);
+	}
+
+	public long getLong(String name) {
+		return lookup(name).longValue();
 	}
 
 	public double getDouble(String name) {
-		return new Double(hash.get(name)).doubleValue();
+		return lookup(name).doubleValue();
 	}
 
 	public String get(String name) {
-		return hash.get(name);
+		Metric m = hash.get(name);
+		return null == m ? null : m.toString();
 	}
 
 	public Set keySet() {
 		return hash.keySet();
 	}
+
+	public Counter counter(String name) {
+		return register(name, Counter.class);
+	}
+
+	public Gauge gauge(String name) {
+		return register(name, Gauge.class);
+	}
+
+	public DoubleGauge doubleGauge(String name) {
+		return register(name, DoubleGauge.class);
+	}
+
+	public MaxGauge maxGauge(String name) {
+		return register(name, MaxGauge.class);
+	}
+
+	public Timer timer(String name) {
+		return register(name, Timer.class);
+	}
+
+	public MetricsSnapshot snapshot() {
+		MetricsSnapshot snapshot = new MetricsSnapshot();
+		synchronized (hash) {
+			for (String name : hash.keySet()) {
+				hash.get(name).addTo(snapshot, name);
+			}
+		}
+		return snapshot;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Metric lookup(String name) {
+		Metric m = hash.get(name);
+		if (null == m) {
+			throw new NumberFormatException("No metric named " + name);
+		}
+		return m;
+	}
+
+	private <T extends Metric> T register(String name, Class<T> type) {
+		synchronized (hash) {
+			Metric m = hash.get(name);
+			if (null == m) {
+				try {
+					m = type.getDeclaredConstructor().newInstance();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+				hash.put(name, m);
+			} else if (m.getClass() != type) {
+				throw new IllegalArgumentException("Metric " + name
+						+ " is a " + m.getClass().getSimpleName() + ", not a "
+						+ type.getSimpleName());
+			}
+			return type.cast(m);
+		}
+	}
+
+	/**
+	 * Base class of all metric types.
+	 */
+	public static abstract class Metric {
+		public abstract long longValue();
+
+		public abstract double doubleValue();
+
+		abstract void setLong(long l);
+
+		abstract void setDouble(double d);
+
+		void addTo(MetricsSnapshot snapshot, String name) {
+			snapshot.put(name, Long.valueOf(longValue()));
+		}
+
+		@Override
+		public String toString() {
+			return Long.toString(longValue());
+		}
+	}
+
+	/**
+	 * A monotonically increasing count, e.g. of the nodes expanded. Backed by
+	 * a LongAdder so that concurrent increments do not contend.
+	 */
+	public static class Counter extends Metric {
+		private final LongAdder count = new LongAdder();
+
+		public void increment() {
+			count.increment();
+		}
+
+		public void add(long delta) {
+			count.add(delta);
+		}
+
+		public void reset() {
+			count.reset();
+		}
+
+		@Override
+		public long longValue() {
+			return count.sum();
+		}
+
+		@Override
+		public double doubleValue() {
+			return count.sum();
+		}
+
+		@Override
+		void setLong(long l) {
+			count.reset();
+			count.add(l);
+		}
+
+		@Override
+		void setDouble(double d) {
+			setLong((long) d);
+		}
+	}
+
+	/**
+	 * The last integral value set, e.g. the size of a fringe.
+	 */
+	public static class Gauge extends Metric {
+		private volatile long value;
+
+		public Gauge() {
+		}
+
+		Gauge(long l) {
+			value = l;
+		}
+
+		public void set(long l) {
+			value = l;
+		}
+
+		@Override
+		public long longValue() {
+			return value;
+		}
+
+		@Override
+		public double doubleValue() {
+			return value;
+		}
+
+		@Override
+		void setLong(long l) {
+			value = l;
+		}
+
+		@Override
+		void setDouble(double d) {
+			value = (long) d;
+		}
+	}
+
+	/**
+	 * The last floating point value set, e.g. the cost of a path. Kept as the
+	 * bits of the double, so that setting it allocates nothing.
+	 */
+	public static class DoubleGauge extends Metric {
+		private volatile long bits = Double.doubleToRawLongBits(0.0);
+
+		public DoubleGauge() {
+		}
+
+		DoubleGauge(double d) {
+			set(d);
+		}
+
+		public void set(double d) {
+			bits = Double.doubleToRawLongBits(d);
+		}
+
+		@Override
+		public long longValue() {
+			return (long) doubleValue();
+		}
+
+		@Override
+		public double doubleValue() {
+			return Double.longBitsToDouble(bits);
+		}
+
+		@Override
+		void setLong(long l) {
+			set(l);
+		}
+
+		@Override
+		void setDouble(double d) {
+			set(d);
+		}
+
+		@Override
+		void addTo(MetricsSnapshot snapshot, String name) {
+			snapshot.put(name, Double.valueOf(doubleValue()));
+		}
+
+		@Override
+		public String toString() {
+			return Double.toString(doubleValue());
+		}
+	}
+
+	/**
+	 * The largest value seen since the last reset, e.g. the maximum size of a
+	 * fringe.
+	 */
+	public static class MaxGauge extends Metric {
+		private final AtomicLong max = new AtomicLong();
+
+		public void update(long l) {
+			long current;
+			while (l > (current = max.get())) {
+				if (max.compareAndSet(current, l)) {
+					break;
+				}
+			}
+		}
+
+		public void reset() {
+			max.set(0);
+		}
+
+		@Override
+		public long longValue() {
+			return max.get();
+		}
+
+		@Override
+		public double doubleValue() {
+			return max.get();
+		}
+
+		@Override
+		void setLong(long l) {
+			max.set(l);
+		}
+
+		@Override
+		void setDouble(double d) {
+			max.set((long) d);
+		}
+	}
+
+	/**
+	 * Accumulates durations measured with System.nanoTime(). Its value
+	 * through the name based methods is the total number of nanoseconds
+	 * recorded; a snapshot also holds the number of recordings and the
+	 * longest one, as name.count, name.totalNanos and name.maxNanos.
+	 */
+	public static class Timer extends Metric {
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final MaxGauge maxNanos = new MaxGauge();
+
+		public void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.update(nanos);
+		}
+
+		/**
+		 * Records the time elapsed since startNanos, a value previously
+		 * returned by System.nanoTime().
+		 */
+		public void recordSince(long startNanos) {
+			record(System.nanoTime() - startNanos);
+		}
+
+		public void reset() {
+			count.reset();
+			totalNanos.reset();
+			maxNanos.reset();
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		public long getMaxNanos() {
+			return maxNanos.longValue();
+		}
+
+		@Override
+		public long longValue() {
+			return getTotalNanos();
+		}
+
+		@Override
+		public double doubleValue() {
+			return getTotalNanos();
+		}
+
+		@Override
+		void setLong(long l) {
+			throw new IllegalArgumentException(
+					"A Timer is only cleared by reset()");
+		}
+
+		@Override
+		void setDouble(double d) {
+			setLong((long) d);
+		}
+
+		@Override
+		void addTo(MetricsSnapshot snapshot, String name) {
+			snapshot.put(name + ".count", Long.valueOf(getCount()));
+			snapshot.put(name + ".totalNanos", Long.valueOf(getTotalNanos()));
+			snapshot.put(name + ".maxNanos", Long.valueOf(getMaxNanos()));
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package aima.search.framework;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An immutable copy of the values in a Metrics object at one point in time,
+ * typically taken after a search has finished. Values are Longs, or Doubles
+ * for metrics that were set to floating point values, keyed by name in
+ * alphabetical order. A snapshot can be written out as a JSON object or as
+ * CSV, where getCSVHeader() and toCSVRow() make it easy to append one row per
+ * search to a file.
+ */
+public class MetricsSnapshot {
+	private final Map<String, Number> values = new TreeMap<String, Number>();
+
+	MetricsSnapshot() {
+	}
+
+	public Number get(String name) {
+		return values.get(name);
+	}
+
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(values.keySet());
+	}
+
+	public Map<String, Number> asMap() {
+		return Collections.unmodifiableMap(values);
+	}
+
+	public String toJSON() {
+		StringBuilder sb = new StringBuilder("{");
+		for (Map.Entry<String, Number> e : values.entrySet()) {
+			if (sb.length() > 1) {
+				sb.append(',');
+			}
+			sb.append('"');
+			appendEscaped(sb, e.getKey());
+			sb.append("\":");
+			sb.append(toJSONNumber(e.getValue()));
+		}
+		return sb.append('}').toString();
+	}
+
+	public String getCSVHeader() {
+		StringBuilder sb = new StringBuilder();
+		for (String name : values.keySet()) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(toCSVField(name));
+		}
+		return sb.toString();
+	}
+
+	public String toCSVRow() {
+		StringBuilder sb = new StringBuilder();
+		boolean first = true;
+		for (Number value : values.values()) {
+			if (!first) {
+				sb.append(',');
+			}
+			first = false;
+			sb.append(value);
+		}
+		return sb.toString();
+	}
+
+	public String toCSV() {
+		return getCSVHeader() + "\n" + toCSVRow() + "\n";
+	}
+
+	@Override
+	public String toString() {
+		return toJSON();
+	}
+
+	//
+	// PACKAGE METHODS
+	//
+	void put(String name, Number value) {
+		values.put(name, value);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static String toJSONNumber(Number value) {
+		double d = value.doubleValue();
+		if (value instanceof Double && (Double.isNaN(d) || Double.isInfinite(d))) {
+			// JSON has no representation for these
+			return "null";
+		}
+		return value.toString();
+	}
+
+	private static void appendEscaped(StringBuilder sb, String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+	}
+
+	private static String toCSVField(String s) {
+		if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) {
+			return s;
+		}
+		return "\"" + s.replace("\"", "\"\"") + "\"";
+	}
+}
@@ -5,7 +5,7 @@ import java.util.List;
 
 /**
  * @author Ravi Mohan
- * 
+ *
  */
 
 public class NodeExpander {
@@ -13,15 +13,54 @@ public class NodeExpander {
 
 	protected static String NODES_EXPANDED = "nodesExpanded";
 
+	protected static String EXPANSION_TIME = "expansionTime";
+
+	protected static String GOAL_TEST_TIME = "goalTestTime";
+
+	protected static String HEURISTIC_TIME = "heuristicTime";
+
+	private final Metrics.Counter nodesExpanded;
+
+	// Timers are only registered, and nanoTime() only called, when enabled
+	private boolean timingEnabled = false;
+
+	private Metrics.Timer expansionTimer, goalTestTimer, heuristicTimer;
+
 	public NodeExpander() {
 		metrics = new Metrics();
+		nodesExpanded = metrics.counter(NODES_EXPANDED);
 	}
 
 	public void clearInstrumentation() {
 		metrics.set(NODES_EXPANDED, 0);
+		if (timingEnabled) {
+			expansionTimer.reset();
+			goalTestTimer.reset();
+			heuristicTimer.reset();
+		}
+	}
+
+	/**
+	 * Enables or disables nanosecond timers for node expansion, goal tests
+	 * and heuristic evaluation, recorded as expansionTime, goalTestTime and
+	 * heuristicTime. Searches that evaluate nodes through an
+	 * EvaluationFunction record the time spent in it as heuristicTime.
+	 */
+	public void setTimingEnabled(boolean timingEnabled) {
+		this.timingEnabled = timingEnabled;
+		if (timingEnabled) {
+			expansionTimer = metrics.timer(EXPANSION_TIME);
+			goalTestTimer = metrics.timer(GOAL_TEST_TIME);
+			heuristicTimer = metrics.timer(HEURISTIC_TIME);
+		}
+	}
+
+	public boolean isTimingEnabled() {
+		return timingEnabled;
 	}
 
 	public List<Node> expandNode(Node node, Problem problem) {
+		long start = timingEnabled ? System.nanoTime() : 0L;
 
 		List<Node> nodes = new ArrayList<Node>();
 		List successors = problem.getSuccessorFunction().getSuccessors(
@@ -38,14 +77,15 @@ public class NodeExpander {
 			nodes.add(aNode);
 
 		}
-		metrics.set(NODES_EXPANDED, metrics.getInt(NODES_EXPANDED) + 1);
-		// System.out.println("Nodes expanded = " +
-		// metrics.getInt(NODES_EXPANDED));
+		nodesExpanded.increment();
+		if (timingEnabled) {
+			expansionTimer.recordSince(start);
+		}
 		return nodes;
 	}
 
 	public int getNodesExpanded() {
-		return metrics.getInt(NODES_EXPANDED);
+		return (int) nodesExpanded.longValue();
 	}
 
 	public void setNodesExpanded(int nodesExpanded) {
@@ -59,4 +99,57 @@ public class NodeExpander {
 	public Metrics getMetrics() {
 		return metrics;
 	}
+
+	//
+	// PROTECTED METHODS
+	//
+
+	/**
+	 * Tests whether the node's state is a goal, timing the test if timing is
+	 * enabled.
+	 */
+	protected boolean isGoalState(Problem problem, Node node) {
+		if (!timingEnabled) {
+			return problem.isGoalState(node.getState());
+		}
+		long start = System.nanoTime();
+		boolean goal = problem.isGoalState(node.getState());
+		goalTestTimer.recordSince(start);
+		return goal;
+	}
+
+	/**
+	 * Returns the heuristic value of the node's state, timing the call if
+	 * timing is enabled.
+	 */
+	protected double getHeuristicValue(Problem problem, Node node) {
+		if (!timingEnabled) {
+			return problem.getHeuristicFunction().getHeuristicValue(
+					node.getState());
+		}
+		long start = System.nanoTime();
+		double h = problem.getHeuristicFunction().getHeuristicValue(
+				node.getState());
+		heuristicTimer.recordSince(start);
+		return h;
+	}
+
+	/**
+	 * Returns ef itself if timing is disabled, otherwise an
+	 * EvaluationFunction that records the time spent in ef as heuristicTime.
+	 */
+	protected EvaluationFunction timed(final EvaluationFunction ef) {
+		if (!timingEnabled) {
+			return ef;
+		}
+		final Metrics.Timer timer = heuristicTimer;
+		return new EvaluationFunction() {
+			public Double getValue(Problem p, Node n) {
+				long start = System.nanoTime();
+				Double value = ef.getValue(p, n);
+				timer.recordSince(start);
+				return value;
+			}
+		};
+	}
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package aima.search.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import aima.datastructures.LongIntHashMap;
+
+/**
+ * A breadth-first GRAPH-SEARCH (see GraphSearch) for PackedProblems. As nodes
+ * are added to the PackedNodeTable in the order they are generated, the FIFO
+ * fringe is simply the range of node indexes that have been generated but not
+ * yet removed, so fringe, closed set and parent pointers are all held in
+ * primitive arrays.
+ *
+ * Returns the same action list (and reports the same metric names) as
+ * BreadthFirstSearch(new GraphSearch()) does for the equivalent Problem.
+ */
+public class PackedGraphSearch extends NodeExpander implements Search {
+
+	private static final String QUEUE_SIZE = "queueSize";
+
+	private static final String MAX_QUEUE_SIZE = "maxQueueSize";
+
+	private static final String PATH_COST = "pathCost";
+
+	private final PackedNodeTable nodes = new PackedNodeTable();
+
+	private final LongIntHashMap seen = new LongIntHashMap();
+
+	public PackedGraphSearch() {
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		assert (p instanceof PackedProblem);
+
+		PackedProblem problem = (PackedProblem) p;
+
+		clearInstrumentation();
+		nodes.clear();
+		seen.clear();
+
+		long[] successorStates = new long[problem.getMaxSuccessors()];
+		int[] successorActions = new int[successorStates.length];
+		int expanded = 0;
+		int maxQueueSize = 1;
+
+		long initialState = problem.getInitialPackedState();
+		seen.put(initialState, nodes.add(initialState,
+				PackedNodeTable.NO_PARENT, 0, 0.0));
+		// The fringe is nodes [head, nodes.size())
+		int head = 0;
+		while (head < nodes.size()) {
+			int node = head++;
+			long state = nodes.getState(node);
+			if (problem.isPackedGoalState(state)) {
+				recordMetrics(expanded, nodes.size() - head, maxQueueSize,
+						nodes.getPathCost(node));
+				return nodes.actionsFromRoot(node, problem);
+			}
+			int n = problem.getPackedSuccessors(state, successorStates,
+					successorActions);
+			for (int i = 0; i < n; i++) {
+				long successor = successorStates[i];
+				if (!seen.containsKey(successor)) {
+					double pathCost = nodes.getPathCost(node)
+							+ problem.getPackedStepCost(state,
+									successorActions[i], successor);
+					seen.put(successor, nodes.add(successor, node,
+							successorActions[i], pathCost));
+				}
+			}
+			expanded++;
+			maxQueueSize = Math.max(maxQueueSize, nodes.size() - head);
+		}
+		recordMetrics(expanded, 0, maxQueueSize, 0.0);
+		return new ArrayList<String>();// Empty List indicates Failure
+	}
+
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		metrics.set(QUEUE_SIZE, 0);
+		metrics.set(MAX_QUEUE_SIZE, 0);
+		metrics.set(PATH_COST, 0);
+	}
+
+	public int getQueueSize() {
+		return metrics.getInt(QUEUE_SIZE);
+	}
+
+	public int getMaxQueueSize() {
+		return metrics.getInt(MAX_QUEUE_SIZE);
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// The counters are kept in locals during the search and only
+	// published once, to keep the Metrics overhead out of the inner loop.
+	private void recordMetrics(int expanded, int queueSize, int maxQueueSize,
+			double pathCost) {
+		setNodesExpanded(expanded);
+		metrics.set(QUEUE_SIZE, queueSize);
+		metrics.set(MAX_QUEUE_SIZE, maxQueueSize);
+		metrics.set(PATH_COST, pathCost);
+	}
+}
@@ -0,0 +1,100 @@
+package aima.search.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The search tree of a packed search, stored as parallel primitive arrays. A
+ * node is referred to by its int index, which is assigned in the order the
+ * nodes are added. This plays the role of Node (STATE, PARENT-NODE, ACTION,
+ * PATH-COST) for PackedProblems.
+ */
+public class PackedNodeTable {
+
+	public static final int NO_PARENT = -1;
+
+	private long[] states;
+
+	private int[] parents;
+
+	private int[] actions;
+
+	private double[] pathCosts;
+
+	private int size;
+
+	public PackedNodeTable() {
+		this(1024);
+	}
+
+	public PackedNodeTable(int initialCapacity) {
+		int capacity = Math.max(1, initialCapacity);
+		states = new long[capacity];
+		parents = new int[capacity];
+		actions = new int[capacity];
+		pathCosts = new double[capacity];
+	}
+
+	/**
+	 * @return the index of the newly added node.
+	 */
+	public int add(long state, int parent, int action, double pathCost) {
+		if (size == states.length) {
+			int newCapacity = states.length << 1;
+			states = Arrays.copyOf(states, newCapacity);
+			parents = Arrays.copyOf(parents, newCapacity);
+			actions = Arrays.copyOf(actions, newCapacity);
+			pathCosts = Arrays.copyOf(pathCosts, newCapacity);
+		}
+		states[size] = state;
+		parents[size] = parent;
+		actions[size] = action;
+		pathCosts[size] = pathCost;
+		return size++;
+	}
+
+	public long getState(int node) {
+		return states[node];
+	}
+
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	public int getAction(int node) {
+		return actions[node];
+	}
+
+	public double getPathCost(int node) {
+		return pathCosts[node];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * The equivalent of SearchUtils.actionsFromNodes(node.getPathFromRoot())
+	 * for a packed node.
+	 */
+	public List<String> actionsFromRoot(int node, PackedProblem problem) {
+		List<String> actionList = new ArrayList<String>();
+		int current = node;
+		while (parents[current] != NO_PARENT) {
+			actionList.add(problem.getActionName(actions[current]));
+			current = parents[current];
+		}
+		// Collected goal first, so flip to give the order from the root
+		for (int i = 0, j = actionList.size() - 1; i < j; i++, j--) {
+			String tmp = actionList.get(i);
+			actionList.set(i, actionList.get(j));
+			actionList.set(j, tmp);
+		}
+		return actionList;
+	}
+}
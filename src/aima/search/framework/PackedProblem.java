@@ -0,0 +1,50 @@
+package aima.search.framework;
+
+/**
+ * An interface describing a problem whose states can be encoded into a single
+ * primitive long. Searches that understand this contract (e.g.
+ * PackedGraphSearch) can then hold their fringe, closed set and parent
+ * pointers in primitive arrays instead of allocating a Node, a Successor and
+ * boxed costs for every state generated.
+ *
+ * Implementations are normally also subclasses of Problem (see
+ * BidirectionalProblem for the same pattern) so that they can be handed to
+ * any existing Search as well.
+ */
+public interface PackedProblem {
+
+	long getInitialPackedState();
+
+	boolean isPackedGoalState(long state);
+
+	/**
+	 * @return the maximum number of successors getPackedSuccessors() can
+	 *         generate for any state, used to size the output arrays once.
+	 */
+	int getMaxSuccessors();
+
+	/**
+	 * Generate the successors of state.
+	 *
+	 * @param state
+	 *            the packed state to expand.
+	 * @param successorStates
+	 *            filled with the packed successor states.
+	 * @param successorActions
+	 *            filled with the action index that generates the successor
+	 *            at the same position in successorStates.
+	 * @return the number of successors generated.
+	 */
+	int getPackedSuccessors(long state, long[] successorStates,
+			int[] successorActions);
+
+	double getPackedStepCost(long fromState, int action, long toState);
+
+	double getPackedHeuristicValue(long state);
+
+	/**
+	 * @return the action name (as returned by Search.search()) that
+	 *         corresponds to the action index.
+	 */
+	String getActionName(int action);
+}
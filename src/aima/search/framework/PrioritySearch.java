@@ -1,9 +1,8 @@
 package aima.search.framework;
 
-import java.util.Comparator;
 import java.util.List;
 
-import aima.search.nodestore.PriorityNodeStore;
+import aima.search.nodestore.IndexedPriorityNodeStore;
 
 /**
  * @author Ravi Mohan
@@ -13,7 +12,8 @@ public abstract class PrioritySearch implements Search {
 	protected QueueSearch search;
 
 	public List search(Problem p) throws Exception {
-		return search.search(p, new PriorityNodeStore(getComparator(p)));
+		return search.search(p, new IndexedPriorityNodeStore(p, search
+				.timed(getEvaluationFunction())));
 	}
 
 	public Metrics getMetrics() {
@@ -23,5 +23,5 @@ public abstract class PrioritySearch implements Search {
 	//
 	// PROTECTED METHODS
 	//
-	protected abstract Comparator<Node> getComparator(Problem p);
+	protected abstract EvaluationFunction getEvaluationFunction();
 }
\ No newline at end of file
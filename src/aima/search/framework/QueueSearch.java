@@ -19,6 +19,15 @@ public abstract class QueueSearch extends NodeExpander {
 
 	private static String PATH_COST = "pathCost";
 
+	private final Metrics.Gauge queueSize;
+
+	private final Metrics.MaxGauge maxQueueSize;
+
+	public QueueSearch() {
+		queueSize = metrics.gauge(QUEUE_SIZE);
+		maxQueueSize = metrics.maxGauge(MAX_QUEUE_SIZE);
+	}
+
 	public List<String> search(Problem problem, NodeStore fringe) {
 		clearInstrumentation();
 		fringe.add(new Node(problem.getInitialState()));
@@ -26,7 +35,7 @@ public abstract class QueueSearch extends NodeExpander {
 		while (!(fringe.isEmpty())) {
 			Node node = fringe.remove();
 			setQueueSize(fringe.size());
-			if (problem.isGoalState(node.getState())) {
+			if (isGoalState(problem, node)) {
 				setPathCost(node.getPathCost());
 				return SearchUtils.actionsFromNodes(node.getPathFromRoot());
 			}
@@ -45,20 +54,16 @@ public abstract class QueueSearch extends NodeExpander {
 	}
 
 	public int getQueueSize() {
-		return metrics.getInt("queueSize");
+		return (int) queueSize.longValue();
 	}
 
 	public void setQueueSize(int queueSize) {
-
-		metrics.set(QUEUE_SIZE, queueSize);
-		int maxQSize = metrics.getInt(MAX_QUEUE_SIZE);
-		if (queueSize > maxQSize) {
-			metrics.set(MAX_QUEUE_SIZE, queueSize);
-		}
+		this.queueSize.set(queueSize);
+		maxQueueSize.update(queueSize);
 	}
 
 	public int getMaxQueueSize() {
-		return metrics.getInt(MAX_QUEUE_SIZE);
+		return (int) maxQueueSize.longValue();
 	}
 
 	public double getPathCost() {
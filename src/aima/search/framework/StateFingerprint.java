@@ -0,0 +1,11 @@
+package aima.search.framework;
+
+/**
+ * Reduces a state to a 64 bit fingerprint. States that are equal must have
+ * equal fingerprints. Where states can be packed into a long without loss
+ * (see PackedProblem) the packed state is the ideal fingerprint, as unequal
+ * states then never share one.
+ */
+public interface StateFingerprint {
+	public long fingerprint(Object state);
+}
@@ -7,9 +7,9 @@ package aima.search.framework;
 
 public class Successor {
 
-	private String action;
+	private final String action;
 
-	private Object state;
+	private final Object state;
 
 	public Successor(String action, Object state) {
 		this.action = action;
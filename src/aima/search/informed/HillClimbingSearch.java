@@ -66,7 +66,7 @@ public class HillClimbingSearch extends NodeExpander implements Search {
 			// if VALUE[neighbor] <= VALUE[current] then return STATE[current]
 			if ((neighbor == null)
 					|| (getValue(p, neighbor) <= getValue(p, current))) {
-				if (p.isGoalState(current.getState())) {
+				if (isGoalState(p, current)) {
 					outcome = SearchOutcome.SOLUTION_FOUND;
 				}
 				lastState = current.getState();
@@ -100,11 +100,7 @@ public class HillClimbingSearch extends NodeExpander implements Search {
 	}
 
 	private double getValue(Problem p, Node n) {
-		return -1 * getHeuristic(p, n); // assumption greater heuristic value =>
+		return -1 * getHeuristicValue(p, n); // assumption greater heuristic value =>
 		// HIGHER on hill; 0 == goal state;
 	}
-
-	private double getHeuristic(Problem p, Node aNode) {
-		return p.getHeuristicFunction().getHeuristicValue(aNode.getState());
-	}
 }
\ No newline at end of file
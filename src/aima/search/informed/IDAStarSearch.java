@@ -0,0 +1,278 @@
+package aima.search.informed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Metrics;
+import aima.search.framework.MetricsSnapshot;
+import aima.search.framework.NodeExpander;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+import aima.search.framework.StepCostFunction;
+import aima.search.framework.Successor;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): page 101.
+ *
+ * Iterative-deepening A* (IDA*) runs a series of depth first searches, each
+ * cut off where the f-cost (g + h) of a node exceeds a bound. The first bound
+ * is h of the initial state, and each following one is the smallest f-cost
+ * that exceeded the bound before. With an admissible heuristic the first
+ * solution found is optimal, while memory use is linear in its depth.
+ *
+ * The depth first searches are run over a single path stack of states,
+ * actions, path costs and successor lists that is reused by every iteration
+ * (and every call of search()), rather than over Nodes. A successor that is
+ * the same state as the parent of the state being expanded (i.e. the move
+ * that undoes the last one) is never followed.
+ *
+ * Optionally, a bounded transposition table remembers the lowest path cost
+ * each state has been reached with during the current iteration. A state
+ * reached again with no lower path cost cannot lead to anything not already
+ * searched, so it is pruned. When full, the least recently used entry is
+ * dropped, which only loses pruning, never solutions.
+ *
+ * After every iteration a snapshot of the metrics is kept, giving its bound
+ * and the nodes it expanded (see getIterationMetrics()).
+ */
+public class IDAStarSearch extends NodeExpander implements Search {
+
+	public static final String PATH_COST = "pathCost";
+
+	public static final String ITERATIONS = "iterations";
+
+	public static final String BOUND = "bound";
+
+	public static final String ITERATION_NODES_EXPANDED = "iterationNodesExpanded";
+
+	public static final String MAX_DEPTH = "maxDepth";
+
+	public static final String TRANSPOSITION_HITS = "transpositionHits";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final int transpositionTableSize;
+
+	private final Metrics.Counter nodesExpanded;
+
+	private final Metrics.Counter transpositionHits;
+
+	private final Metrics.MaxGauge maxDepth;
+
+	private final List<MetricsSnapshot> iterationMetrics = new ArrayList<MetricsSnapshot>();
+
+	// The path stack, slot d holding the state at depth d, the action that
+	// reached it, its path cost, its successors once expanded and the index
+	// of the next successor to try
+	private Object[] states = new Object[64];
+
+	private String[] actions = new String[64];
+
+	private double[] pathCosts = new double[64];
+
+	private List[] successors = new List[64];
+
+	private int[] nextSuccessor = new int[64];
+
+	/**
+	 * Creates an IDA* search without a transposition table.
+	 */
+	public IDAStarSearch() {
+		this(0);
+	}
+
+	/**
+	 * Creates an IDA* search whose transposition table holds up to the given
+	 * number of states, 0 meaning none is used.
+	 */
+	public IDAStarSearch(int transpositionTableSize) {
+		if (transpositionTableSize < 0) {
+			throw new IllegalArgumentException(
+					"Transposition table size must not be negative");
+		}
+		this.transpositionTableSize = transpositionTableSize;
+		nodesExpanded = metrics.counter(NODES_EXPANDED);
+		transpositionHits = metrics.counter(TRANSPOSITION_HITS);
+		maxDepth = metrics.maxGauge(MAX_DEPTH);
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		clearInstrumentation();
+		HeuristicFunction hf = p.getHeuristicFunction();
+		Map<Object, Double> table = createTranspositionTable();
+
+		double bound = hf.getHeuristicValue(p.getInitialState());
+		while (bound < INFINITY) {
+			metrics.set(BOUND, bound);
+			long expandedBefore = nodesExpanded.longValue();
+			if (null != table) {
+				table.clear();
+				table.put(p.getInitialState(), 0.0);
+			}
+			double nextBound = INFINITY;
+			int solutionDepth = -1;
+
+			int depth = 0;
+			states[0] = p.getInitialState();
+			pathCosts[0] = 0;
+			successors[0] = null;
+			while (depth >= 0) {
+				if (null == successors[depth]) {
+					// First visit of the state at the top of the stack
+					double f = pathCosts[depth]
+							+ hf.getHeuristicValue(states[depth]);
+					if (f > bound) {
+						nextBound = Math.min(nextBound, f);
+						depth--;
+						continue;
+					}
+					if (p.isGoalState(states[depth])) {
+						solutionDepth = depth;
+						break;
+					}
+					successors[depth] = p.getSuccessorFunction()
+							.getSuccessors(states[depth]);
+					nextSuccessor[depth] = 0;
+					nodesExpanded.increment();
+				}
+				List children = successors[depth];
+				if (nextSuccessor[depth] >= children.size()) {
+					successors[depth] = null;
+					depth--;
+					continue;
+				}
+				Successor s = (Successor) children.get(nextSuccessor[depth]++);
+				Object state = s.getState();
+				if (depth > 0 && state.equals(states[depth - 1])) {
+					continue; // Undoes the move that led here
+				}
+				double g = pathCosts[depth]
+						+ stepCost(p.getStepCostFunction(), states[depth],
+								state, s.getAction());
+				if (null != table) {
+					Double seen = table.get(state);
+					if (null != seen && seen.doubleValue() <= g) {
+						transpositionHits.increment();
+						continue;
+					}
+					table.put(state, g);
+				}
+				ensureCapacity(depth + 2);
+				depth++;
+				states[depth] = state;
+				actions[depth] = s.getAction();
+				pathCosts[depth] = g;
+				successors[depth] = null;
+				maxDepth.update(depth);
+			}
+
+			metrics.set(ITERATIONS, metrics.getInt(ITERATIONS) + 1);
+			metrics.set(ITERATION_NODES_EXPANDED, nodesExpanded.longValue()
+					- expandedBefore);
+			if (solutionDepth >= 0) {
+				metrics.set(PATH_COST, pathCosts[solutionDepth]);
+				iterationMetrics.add(metrics.snapshot());
+				List<String> solution = new ArrayList<String>(solutionDepth);
+				for (int d = 1; d <= solutionDepth; d++) {
+					solution.add(actions[d]);
+				}
+				release();
+				return solution;
+			}
+			iterationMetrics.add(metrics.snapshot());
+			bound = nextBound;
+		}
+
+		// Empty List can indicate already at Goal
+		// or unable to find valid set of actions
+		release();
+		return new ArrayList<String>();
+	}
+
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		metrics.set(PATH_COST, 0.0);
+		metrics.set(ITERATIONS, 0);
+		metrics.set(BOUND, 0.0);
+		metrics.set(ITERATION_NODES_EXPANDED, 0);
+		metrics.set(MAX_DEPTH, 0);
+		metrics.set(TRANSPOSITION_HITS, 0);
+		iterationMetrics.clear();
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	public int getIterations() {
+		return metrics.getInt(ITERATIONS);
+	}
+
+	/**
+	 * Returns a snapshot of the metrics taken at the end of each iteration of
+	 * the last search, holding among others its bound and the nodes it
+	 * expanded as iterationNodesExpanded.
+	 */
+	public List<MetricsSnapshot> getIterationMetrics() {
+		return Collections.unmodifiableList(iterationMetrics);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Map<Object, Double> createTranspositionTable() {
+		if (0 == transpositionTableSize) {
+			return null;
+		}
+		final int capacity = transpositionTableSize;
+		return new LinkedHashMap<Object, Double>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	private double stepCost(StepCostFunction scf, Object from, Object to,
+			String action) {
+		return scf.calculateStepCost(from, to, action).doubleValue();
+	}
+
+	private void ensureCapacity(int size) {
+		if (size <= states.length) {
+			return;
+		}
+		int newLength = Math.max(size, states.length << 1);
+		Object[] newStates = new Object[newLength];
+		System.arraycopy(states, 0, newStates, 0, states.length);
+		states = newStates;
+		String[] newActions = new String[newLength];
+		System.arraycopy(actions, 0, newActions, 0, actions.length);
+		actions = newActions;
+		double[] newPathCosts = new double[newLength];
+		System.arraycopy(pathCosts, 0, newPathCosts, 0, pathCosts.length);
+		pathCosts = newPathCosts;
+		List[] newSuccessors = new List[newLength];
+		System.arraycopy(successors, 0, newSuccessors, 0, successors.length);
+		successors = newSuccessors;
+		int[] newNextSuccessor = new int[newLength];
+		System.arraycopy(nextSuccessor, 0, newNextSuccessor, 0,
+				nextSuccessor.length);
+		nextSuccessor = newNextSuccessor;
+	}
+
+	// Drops the references the stack holds so states can be collected
+	private void release() {
+		Arrays.fill(states, null);
+		Arrays.fill(actions, null);
+		Arrays.fill(successors, null);
+	}
+}
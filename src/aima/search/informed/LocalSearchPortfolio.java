@@ -0,0 +1,669 @@
+package aima.search.informed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import aima.search.framework.LocalSearchProblem;
+import aima.search.framework.Metrics;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+
+/**
+ * Runs several local searches on the same LocalSearchProblem at once, each in
+ * its own thread, and stops them all as soon as any finds a goal:
+ * <ul>
+ * <li>a number of random-restart hill climbers. The even numbered ones climb
+ * by steepest descent in cost, taking the best of all moves (ties broken at
+ * random), the odd numbered ones by first choice, taking the first move that
+ * lowers the cost in a random order of the moves, which is much cheaper when
+ * there are thousands of moves. Each allows up to maxSidewaysMoves moves in
+ * a row that leave the cost unchanged, and at a local minimum restarts from
+ * a random state. The first climber starts from the problem's initial
+ * state.</li>
+ * <li>a local beam search, which keeps the beamWidth best states among all the
+ * moves from the current ones, restarting from random states if it has not
+ * improved on its best cost for maxSidewaysMoves steps.</li>
+ * <li>parallel tempering: a number of replicas, each a simulated annealing
+ * chain held at its own temperature, spaced geometrically between
+ * minTemperature and maxTemperature. After every exchangeInterval proposed
+ * moves the replicas wait for each other and neighbouring temperatures
+ * exchange states with the Metropolis probability, min(1, e^((c_i - c_j)(1/T_i
+ * - 1/T_j))), so that good states found by hot replicas sink to cold
+ * ones.</li>
+ * </ul>
+ *
+ * Each chain draws from its own SplittableRandom, split from a seed that can
+ * be fixed with setSeed(). A chain gives up after evaluating moveLimit moves,
+ * where a step from a state without moves counts as one.
+ * Its figures are recorded in the metrics under the chain's number, e.g.
+ * nodesExpanded[2], along with the totals under the usual names; a node
+ * expanded is a climbing or beam step, or a proposed annealing move.
+ *
+ * As a complete-state search the solution is the state, returned by
+ * getLastSearchState(), and search() returns no actions. If no chain reaches
+ * a goal the outcome is FAILURE and the last search state is the cheapest
+ * state any chain reached.
+ */
+public class LocalSearchPortfolio implements Search {
+
+	public enum SearchOutcome {
+		FAILURE, SOLUTION_FOUND
+	};
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String MOVES_EVALUATED = "movesEvaluated";
+
+	private static final String RESTARTS = "restarts";
+
+	private static final String COST = "cost";
+
+	private static final String REPLICA_EXCHANGES = "replicaExchanges";
+
+	private static final String WINNING_CHAIN = "winningChain";
+
+	private final int climbers, beamWidth, replicas;
+
+	private final Metrics metrics = new Metrics();
+
+	private Long seed = null;
+
+	private long moveLimit = 1000000000L;
+
+	private int maxSidewaysMoves = 100;
+
+	private double minTemperature = 0.1, maxTemperature = 5.0;
+
+	private int exchangeInterval = 1000;
+
+	private SearchOutcome outcome = SearchOutcome.FAILURE;
+
+	private Object lastState = null;
+
+	private Chain[] chains = new Chain[0];
+
+	// Shared state for the duration of a single call to search()
+	private LocalSearchProblem problem;
+
+	private volatile boolean stopped;
+
+	private Chain winner;
+
+	private Throwable failure;
+
+	// The replicas' states and their costs, by temperature, and whether
+	// tempering is over. Only changed while every replica is waiting at the
+	// barrier, or by the replica at that temperature.
+	private Object[] replicaStates;
+
+	private double[] replicaCosts, temperatures;
+
+	private CyclicBarrier exchangeBarrier;
+
+	private boolean temperingDone;
+
+	private int replicaExchanges, exchangeRounds;
+
+	private SplittableRandom exchangeRandom;
+
+	/**
+	 * A climber for each processor, a beam of 8 and 4 tempering replicas.
+	 */
+	public LocalSearchPortfolio() {
+		this(Runtime.getRuntime().availableProcessors(), 8, 4);
+	}
+
+	/**
+	 * @param climbers
+	 *            the number of random-restart hill climbers.
+	 * @param beamWidth
+	 *            the number of states in the local beam, 0 for no beam.
+	 * @param replicas
+	 *            the number of parallel tempering replicas, 0 for none.
+	 */
+	public LocalSearchPortfolio(int climbers, int beamWidth, int replicas) {
+		if (climbers < 0 || beamWidth < 0 || replicas < 0
+				|| climbers + beamWidth + replicas == 0) {
+			throw new IllegalArgumentException("No chains to run: "
+					+ climbers + ", " + beamWidth + ", " + replicas);
+		}
+		this.climbers = climbers;
+		this.beamWidth = beamWidth;
+		this.replicas = replicas;
+		clearInstrumentation();
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setMoveLimit(long moveLimit) {
+		this.moveLimit = moveLimit;
+	}
+
+	public void setMaxSidewaysMoves(int maxSidewaysMoves) {
+		this.maxSidewaysMoves = maxSidewaysMoves;
+	}
+
+	public void setTemperatures(double minTemperature, double maxTemperature) {
+		if (minTemperature <= 0 || maxTemperature < minTemperature) {
+			throw new IllegalArgumentException("Bad temperatures: "
+					+ minTemperature + ", " + maxTemperature);
+		}
+		this.minTemperature = minTemperature;
+		this.maxTemperature = maxTemperature;
+	}
+
+	public void setExchangeInterval(int exchangeInterval) {
+		this.exchangeInterval = exchangeInterval;
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		if (!(p instanceof LocalSearchProblem)) {
+			throw new IllegalArgumentException(
+					"LocalSearchPortfolio requires a LocalSearchProblem");
+		}
+		clearInstrumentation();
+		outcome = SearchOutcome.FAILURE;
+		lastState = null;
+		problem = (LocalSearchProblem) p;
+		stopped = false;
+		winner = null;
+		failure = null;
+		SplittableRandom random = null == seed ? new SplittableRandom()
+				: new SplittableRandom(seed.longValue());
+
+		List<Chain> created = new ArrayList<Chain>();
+		for (int i = 0; i < climbers; i++) {
+			created.add(new HillClimber(created.size(), random.split(),
+					0 == i ? p.getInitialState() : null, 1 == (i & 1)));
+		}
+		if (beamWidth > 0) {
+			created.add(new LocalBeam(created.size(), random.split()));
+		}
+		if (replicas > 0) {
+			startTempering(random.split());
+			for (int r = 0; r < replicas; r++) {
+				created.add(new Replica(created.size(), random.split(), r));
+			}
+		}
+		chains = created.toArray(new Chain[created.size()]);
+
+		ExecutorService pool = Executors.newFixedThreadPool(chains.length,
+				new ThreadFactory() {
+					private int count = 0;
+
+					public synchronized Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "LocalSearchPortfolio-"
+								+ count++);
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (Chain chain : chains) {
+				futures.add(pool.submit(chain));
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			stopped = true;
+			pool.shutdown();
+		}
+
+		mergeChainMetrics();
+		if (null != failure) {
+			if (failure instanceof Exception) {
+				throw (Exception) failure;
+			}
+			throw new RuntimeException(failure);
+		}
+		if (null != winner) {
+			outcome = SearchOutcome.SOLUTION_FOUND;
+			lastState = winner.bestState;
+			metrics.set(WINNING_CHAIN, winner.id);
+		} else {
+			double bestCost = Double.POSITIVE_INFINITY;
+			for (Chain chain : chains) {
+				if (chain.bestCost < bestCost) {
+					bestCost = chain.bestCost;
+					lastState = chain.bestState;
+				}
+			}
+		}
+		problem = null;
+		replicaStates = null;
+		return new ArrayList<String>();
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		metrics.set(NODES_EXPANDED, 0);
+		metrics.set(MOVES_EVALUATED, 0L);
+		metrics.set(RESTARTS, 0);
+		metrics.set(REPLICA_EXCHANGES, 0);
+		metrics.set(WINNING_CHAIN, -1);
+	}
+
+	public SearchOutcome getOutcome() {
+		return outcome;
+	}
+
+	public Object getLastSearchState() {
+		return lastState;
+	}
+
+	/**
+	 * @return the number of chains run by the last search, climbers first,
+	 *         then the beam, then the replicas.
+	 */
+	public int getChainCount() {
+		return chains.length;
+	}
+
+	/**
+	 * @return "hillClimbing", "firstChoiceHillClimbing", "localBeam" or
+	 *         "tempering".
+	 */
+	public String getChainName(int chain) {
+		return chains[chain].name;
+	}
+
+	/**
+	 * @return SOLUTION_FOUND for the chain that found the goal returned by the
+	 *         last search, if any, and FAILURE for the others.
+	 */
+	public SearchOutcome getChainOutcome(int chain) {
+		return chains[chain] == winner ? SearchOutcome.SOLUTION_FOUND
+				: SearchOutcome.FAILURE;
+	}
+
+	/**
+	 * @return the chain that found the goal, or -1 if none did.
+	 */
+	public int getWinningChain() {
+		return metrics.getInt(WINNING_CHAIN);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private synchronized void offerSolution(Chain chain, Object state) {
+		if (null == winner && null == failure) {
+			winner = chain;
+			chain.bestState = problem.copyState(state);
+			chain.bestCost = 0;
+		}
+		stopped = true;
+	}
+
+	private synchronized void abort(Throwable t) {
+		if (null == failure) {
+			failure = t;
+		}
+		stopped = true;
+	}
+
+	private void startTempering(SplittableRandom random) {
+		replicaStates = new Object[replicas];
+		replicaCosts = new double[replicas];
+		temperatures = new double[replicas];
+		for (int r = 0; r < replicas; r++) {
+			replicaStates[r] = problem.getRandomState(random);
+			replicaCosts[r] = problem.getCost(replicaStates[r]);
+			temperatures[r] = replicas == 1 ? minTemperature : minTemperature
+					* Math.pow(maxTemperature / minTemperature, r
+							/ (replicas - 1.0));
+		}
+		temperingDone = false;
+		replicaExchanges = 0;
+		exchangeRounds = 0;
+		exchangeRandom = random;
+		exchangeBarrier = new CyclicBarrier(replicas, new Runnable() {
+			public void run() {
+				exchangeReplicas();
+			}
+		});
+	}
+
+	// Run by the last replica to reach the barrier, while the others wait.
+	// Alternates between exchanging pairs (0, 1), (2, 3)... and (1, 2),
+	// (3, 4)... so states can travel the whole ladder.
+	private void exchangeReplicas() {
+		Replica first = (Replica) chains[chains.length - replicas];
+		if (stopped || first.movesEvaluated >= moveLimit) {
+			temperingDone = true;
+			return;
+		}
+		for (int r = exchangeRounds++ & 1; r + 1 < replicas; r += 2) {
+			double exponent = (replicaCosts[r] - replicaCosts[r + 1])
+					* (1 / temperatures[r] - 1 / temperatures[r + 1]);
+			if (exponent >= 0
+					|| exchangeRandom.nextDouble() < Math.exp(exponent)) {
+				Object state = replicaStates[r];
+				replicaStates[r] = replicaStates[r + 1];
+				replicaStates[r + 1] = state;
+				double cost = replicaCosts[r];
+				replicaCosts[r] = replicaCosts[r + 1];
+				replicaCosts[r + 1] = cost;
+				replicaExchanges++;
+			}
+		}
+	}
+
+	// Totals go under the usual metric names and each chain's
+	// figures are also recorded, e.g. nodesExpanded[0].
+	private void mergeChainMetrics() {
+		long expanded = 0, evaluated = 0;
+		int restarts = 0;
+		for (Chain chain : chains) {
+			expanded += chain.nodesExpanded;
+			evaluated += chain.movesEvaluated;
+			restarts += chain.restarts;
+			metrics.set(NODES_EXPANDED + "[" + chain.id + "]",
+					chain.nodesExpanded);
+			metrics.set(MOVES_EVALUATED + "[" + chain.id + "]",
+					chain.movesEvaluated);
+			metrics.set(RESTARTS + "[" + chain.id + "]", chain.restarts);
+			metrics.set(COST + "[" + chain.id + "]", chain.bestCost);
+		}
+		metrics.set(NODES_EXPANDED, expanded);
+		metrics.set(MOVES_EVALUATED, evaluated);
+		metrics.set(RESTARTS, restarts);
+		metrics.set(REPLICA_EXCHANGES, replicas > 0 ? replicaExchanges : 0);
+	}
+
+	private abstract class Chain implements Runnable {
+		final int id;
+
+		final String name;
+
+		final SplittableRandom random;
+
+		long nodesExpanded = 0, movesEvaluated = 0;
+
+		int restarts = 0;
+
+		// The cheapest state the chain has recorded, and its cost
+		Object bestState = null;
+
+		double bestCost = Double.POSITIVE_INFINITY;
+
+		Chain(int id, String name, SplittableRandom random) {
+			this.id = id;
+			this.name = name;
+			this.random = random;
+		}
+
+		public void run() {
+			try {
+				runChain();
+			} catch (Throwable t) {
+				abort(t);
+			}
+		}
+
+		abstract void runChain() throws Exception;
+
+		boolean outOfMoves() {
+			return stopped || movesEvaluated >= moveLimit;
+		}
+
+		// Keeps a copy of state if it is the cheapest so far
+		void record(Object state, double cost) {
+			if (cost < bestCost) {
+				bestCost = cost;
+				bestState = problem.copyState(state);
+			}
+		}
+	}
+
+	private class HillClimber extends Chain {
+		private final Object start;
+
+		private final boolean firstChoice;
+
+		HillClimber(int id, SplittableRandom random, Object start,
+				boolean firstChoice) {
+			super(id, firstChoice ? "firstChoiceHillClimbing" : "hillClimbing",
+					random);
+			this.start = start;
+			this.firstChoice = firstChoice;
+		}
+
+		@Override
+		void runChain() {
+			Object current = null == start ? problem.getRandomState(random)
+					: problem.copyState(start);
+			double cost = problem.getCost(current);
+			int sideways = 0;
+			while (!outOfMoves()) {
+				if (0 == cost) {
+					offerSolution(this, current);
+					return;
+				}
+				nodesExpanded++;
+				int moves = problem.getMoveCount(current);
+				// A first choice climber tries the moves from a random one
+				// on and takes the first that lowers the cost, or else the
+				// first that leaves it unchanged
+				int offset = firstChoice && moves > 0 ? random.nextInt(moves)
+						: 0;
+				int best = -1, ties = 0;
+				double bestDelta = Double.POSITIVE_INFINITY;
+				for (int i = 0; i < moves; i++) {
+					int move = offset + i < moves ? offset + i : offset + i
+							- moves;
+					double delta = problem.getMoveDelta(current, move);
+					if (delta < bestDelta) {
+						best = move;
+						bestDelta = delta;
+						ties = 1;
+						if (firstChoice && delta < 0) {
+							movesEvaluated += i;
+							break;
+						}
+					} else if (delta == bestDelta && !firstChoice
+							&& 0 == random.nextInt(++ties)) {
+						best = move;
+					}
+				}
+				movesEvaluated += firstChoice && bestDelta < 0 ? 1 : Math.max(
+						1, moves);
+				if (bestDelta < 0
+						|| (0 == bestDelta && sideways < maxSidewaysMoves)) {
+					sideways = bestDelta < 0 ? 0 : sideways + 1;
+					problem.applyMove(current, best);
+					cost = problem.getCost(current);
+				} else {
+					record(current, cost);
+					current = problem.getRandomState(random);
+					cost = problem.getCost(current);
+					sideways = 0;
+					restarts++;
+				}
+			}
+			record(current, cost);
+		}
+	}
+
+	private class LocalBeam extends Chain {
+		LocalBeam(int id, SplittableRandom random) {
+			super(id, "localBeam", random);
+		}
+
+		@Override
+		void runChain() {
+			Object[] states = new Object[beamWidth];
+			double[] costs = new double[beamWidth];
+			restart(states, costs);
+			// The best moves found in a step: from which state, which move,
+			// and the cost it leads to
+			int[] parents = new int[beamWidth], moves = new int[beamWidth];
+			double[] moveCosts = new double[beamWidth];
+			double best = Double.POSITIVE_INFINITY;
+			int stale = 0;
+			while (!outOfMoves()) {
+				for (int s = 0; s < beamWidth; s++) {
+					if (0 == costs[s]) {
+						offerSolution(this, states[s]);
+						return;
+					}
+				}
+				nodesExpanded++;
+				int found = 0, worst = 0;
+				for (int s = 0; s < beamWidth; s++) {
+					int count = problem.getMoveCount(states[s]);
+					movesEvaluated += Math.max(1, count);
+					// Start at a random move so that ties do not always go
+					// to the first moves
+					int offset = count > 0 ? random.nextInt(count) : 0;
+					for (int i = 0; i < count; i++) {
+						int move = offset + i < count ? offset + i : offset + i
+								- count;
+						double cost = costs[s]
+								+ problem.getMoveDelta(states[s], move);
+						if (found < beamWidth) {
+							parents[found] = s;
+							moves[found] = move;
+							moveCosts[found] = cost;
+							if (cost > moveCosts[worst]) {
+								worst = found;
+							}
+							found++;
+						} else if (cost < moveCosts[worst]) {
+							parents[worst] = s;
+							moves[worst] = move;
+							moveCosts[worst] = cost;
+							for (int j = 0; j < beamWidth; j++) {
+								if (moveCosts[j] > moveCosts[worst]) {
+									worst = j;
+								}
+							}
+						}
+					}
+				}
+				if (0 == found) {
+					restart(states, costs);
+					continue;
+				}
+				Object[] next = new Object[beamWidth];
+				for (int j = 0; j < beamWidth; j++) {
+					int from = parents[j % found];
+					next[j] = problem.copyState(states[from]);
+					problem.applyMove(next[j], moves[j % found]);
+					costs[j] = problem.getCost(next[j]);
+				}
+				states = next;
+				double stepBest = Double.POSITIVE_INFINITY;
+				for (int j = 0; j < beamWidth; j++) {
+					stepBest = Math.min(stepBest, costs[j]);
+				}
+				if (stepBest < best) {
+					best = stepBest;
+					stale = 0;
+					recordBest(states, costs);
+				} else if (++stale > maxSidewaysMoves) {
+					recordBest(states, costs);
+					restart(states, costs);
+					best = Double.POSITIVE_INFINITY;
+					stale = 0;
+				}
+			}
+			recordBest(states, costs);
+		}
+
+		private void restart(Object[] states, double[] costs) {
+			for (int s = 0; s < beamWidth; s++) {
+				states[s] = problem.getRandomState(random);
+				costs[s] = problem.getCost(states[s]);
+			}
+			if (nodesExpanded > 0) {
+				restarts++;
+			}
+		}
+
+		private void recordBest(Object[] states, double[] costs) {
+			for (int s = 0; s < beamWidth; s++) {
+				record(states[s], costs[s]);
+			}
+		}
+	}
+
+	private class Replica extends Chain {
+		// This replica's temperature, whose state it works on between
+		// exchanges
+		private final int rung;
+
+		Replica(int id, SplittableRandom random, int rung) {
+			super(id, "tempering", random);
+			this.rung = rung;
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				try {
+					runChain();
+				} catch (Throwable t) {
+					abort(t);
+				}
+				// Every replica must reach the barrier, even after a
+				// failure, or the others would wait for ever. temperingDone
+				// is set at the barrier, so all see the same value.
+				try {
+					exchangeBarrier.await();
+				} catch (Throwable t) {
+					abort(t);
+					return;
+				}
+				if (temperingDone) {
+					record(replicaStates[rung], replicaCosts[rung]);
+					return;
+				}
+			}
+		}
+
+		// Proposes up to exchangeInterval random moves at this replica's
+		// temperature, accepting each with the Metropolis probability
+		@Override
+		void runChain() {
+			Object state = replicaStates[rung];
+			double cost = replicaCosts[rung];
+			double temperature = temperatures[rung];
+			record(state, cost);
+			for (int i = 0; i < exchangeInterval && !outOfMoves(); i++) {
+				if (0 == cost) {
+					offerSolution(this, state);
+					break;
+				}
+				nodesExpanded++;
+				movesEvaluated++;
+				int count = problem.getMoveCount(state);
+				if (0 == count) {
+					continue;
+				}
+				int move = random.nextInt(count);
+				double delta = problem.getMoveDelta(state, move);
+				if (delta <= 0
+						|| random.nextDouble() < Math.exp(-delta / temperature)) {
+					problem.applyMove(state, move);
+					cost = problem.getCost(state);
+					record(state, cost);
+				}
+			}
+			replicaCosts[rung] = cost;
+		}
+	}
+}
@@ -0,0 +1,338 @@
+package aima.search.informed;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import aima.search.framework.BidirectionalProblem;
+import aima.search.framework.DefaultHeuristicFunction;
+import aima.search.framework.EvaluationFunction;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Metrics;
+import aima.search.framework.Node;
+import aima.search.framework.NodeExpander;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+import aima.search.framework.SearchUtils;
+import aima.search.framework.Successor;
+import aima.search.nodestore.IndexedPriorityNodeStore;
+
+/**
+ * MM, a bidirectional heuristic search that is guaranteed to meet in the
+ * middle (Holte, Felner, Sharon and Sturtevant, "Bidirectional Search That Is
+ * Guaranteed to Meet in the Middle", AAAI 2016).
+ *
+ * A best first search is run from each end of a BidirectionalProblem: forward
+ * over the original problem, and backward over the reverse problem, whose
+ * successors must be the predecessors of states in the original problem, at
+ * the same step costs, and whose heuristic must estimate the cost back to the
+ * original initial state. A problem without a heuristic (i.e. with the
+ * DefaultHeuristicFunction) is searched with h = 0, as MM0, a bidirectional
+ * uniform cost search. A node n is prioritised by max(f(n), 2g(n)), so
+ * neither search expands a node more than half way along an optimal path, and
+ * each step the side with the lower priority at the front of its fringe is
+ * expanded.
+ *
+ * Whenever a state is generated that the other side has also reached, the
+ * two paths are joined and the cheapest such path, of cost U, remembered. The
+ * search stops once U is no greater than the lower bound
+ *
+ * <code>
+ *   max(C, fmin(forward), fmin(backward), gmin(forward) + gmin(backward))
+ * </code>
+ *
+ * on the cost of any path not yet joined, where C is the lower of the
+ * priorities at the front of the two fringes, so with admissible heuristics
+ * the path returned is optimal.
+ *
+ * getClosingSide() tells which of the searches generated the state that
+ * joined the returned path.
+ */
+public class MeetInTheMiddleSearch extends NodeExpander implements Search {
+
+	public enum Side {
+		ORIGINAL_PROBLEM, REVERSE_PROBLEM, NONE
+	};
+
+	public static final String PATH_COST = "pathCost";
+
+	public static final String QUEUE_SIZE = "queueSize";
+
+	public static final String MAX_QUEUE_SIZE = "maxQueueSize";
+
+	public static final String NODES_EXPANDED_ORIGINAL = "nodesExpandedOriginal";
+
+	public static final String NODES_EXPANDED_REVERSE = "nodesExpandedReverse";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final Metrics.Gauge queueSize;
+
+	private final Metrics.MaxGauge maxQueueSize;
+
+	private final Metrics.Counter nodesExpandedOriginal;
+
+	private final Metrics.Counter nodesExpandedReverse;
+
+	private Side closingSide = Side.NONE;
+
+	public MeetInTheMiddleSearch() {
+		queueSize = metrics.gauge(QUEUE_SIZE);
+		maxQueueSize = metrics.maxGauge(MAX_QUEUE_SIZE);
+		nodesExpandedOriginal = metrics.counter(NODES_EXPANDED_ORIGINAL);
+		nodesExpandedReverse = metrics.counter(NODES_EXPANDED_REVERSE);
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		if (!(p instanceof BidirectionalProblem)) {
+			throw new IllegalArgumentException(
+					"MeetInTheMiddleSearch requires a BidirectionalProblem");
+		}
+		clearInstrumentation();
+		closingSide = Side.NONE;
+
+		Problem op = ((BidirectionalProblem) p).getOriginalProblem();
+		Problem rp = ((BidirectionalProblem) p).getReverseProblem();
+		Frontier forward = new Frontier(op, nodesExpandedOriginal);
+		Frontier backward = new Frontier(rp, nodesExpandedReverse);
+		forward.add(new Node(op.getInitialState()));
+		backward.add(new Node(rp.getInitialState()));
+
+		double u = INFINITY;
+		Node forwardMeeting = null, backwardMeeting = null;
+		if (op.isGoalState(op.getInitialState())) {
+			u = 0;
+			forwardMeeting = forward.getNodeBasedOn(op.getInitialState());
+			closingSide = Side.ORIGINAL_PROBLEM;
+		}
+
+		while (!forward.isEmpty() && !backward.isEmpty()) {
+			double prForward = forward.peekPriority();
+			double prBackward = backward.peekPriority();
+			double lowerBound = Math.max(Math.min(prForward, prBackward),
+					Math.max(Math.max(forward.peekF(), backward.peekF()),
+							forward.peekG() + backward.peekG()));
+			if (u <= lowerBound) {
+				break;
+			}
+
+			boolean expandForward = prForward <= prBackward;
+			Frontier expanding = expandForward ? forward : backward;
+			Frontier other = expandForward ? backward : forward;
+			Node n = expanding.remove();
+			for (Node child : expandNode(n, expanding.problem)) {
+				if (!expanding.offer(child)) {
+					continue;
+				}
+				Node meeting = other.getNodeBasedOn(child.getState());
+				if (null != meeting
+						&& child.getPathCost() + meeting.getPathCost() < u) {
+					u = child.getPathCost() + meeting.getPathCost();
+					forwardMeeting = expandForward ? child : meeting;
+					backwardMeeting = expandForward ? meeting : child;
+					closingSide = expandForward ? Side.ORIGINAL_PROBLEM
+							: Side.REVERSE_PROBLEM;
+				}
+			}
+			expanding.counter.increment();
+			queueSize.set(forward.size() + backward.size());
+			maxQueueSize.update(forward.size() + backward.size());
+		}
+
+		if (u == INFINITY) {
+			// Empty List can indicate already at Goal
+			// or unable to find valid set of actions
+			return new ArrayList<String>();
+		}
+		metrics.set(PATH_COST, u);
+		List<String> actions = SearchUtils.actionsFromNodes(forwardMeeting
+				.getPathFromRoot());
+		if (null != backwardMeeting) {
+			appendReversePath(op, backwardMeeting, actions);
+		}
+		return actions;
+	}
+
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		metrics.set(PATH_COST, 0.0);
+		metrics.set(QUEUE_SIZE, 0);
+		metrics.set(MAX_QUEUE_SIZE, 0);
+		metrics.set(NODES_EXPANDED_ORIGINAL, 0);
+		metrics.set(NODES_EXPANDED_REVERSE, 0);
+	}
+
+	/**
+	 * Returns which search, over the original or the reverse problem,
+	 * generated the state at which the returned path was joined, or NONE if
+	 * no path was found.
+	 */
+	public Side getClosingSide() {
+		return closingSide;
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	public int getQueueSize() {
+		return metrics.getInt(QUEUE_SIZE);
+	}
+
+	public int getMaxQueueSize() {
+		return metrics.getInt(MAX_QUEUE_SIZE);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Follows the reverse path from the meeting state back to the goal,
+	// recovering the original problem's action for each step
+	private void appendReversePath(Problem op, Node backwardMeeting,
+			List<String> actions) {
+		for (Node n = backwardMeeting; !n.isRootNode(); n = n.getParent()) {
+			Object from = n.getState();
+			Object to = n.getParent().getState();
+			String action = null;
+			double cost = INFINITY;
+			List successors = op.getSuccessorFunction().getSuccessors(from);
+			for (int i = 0; i < successors.size(); i++) {
+				Successor s = (Successor) successors.get(i);
+				if (to.equals(s.getState())) {
+					double c = op.getStepCostFunction().calculateStepCost(
+							from, to, s.getAction()).doubleValue();
+					if (c < cost) {
+						cost = c;
+						action = s.getAction();
+					}
+				}
+			}
+			if (null == action) {
+				throw new IllegalStateException("The reverse problem moves from "
+						+ to + " to " + from
+						+ ", which the original problem cannot");
+			}
+			actions.add(action);
+		}
+	}
+
+	// The fringe and closed set of one direction, along with heaps of the
+	// f-costs and path costs of the fringe nodes for the stopping criterion
+	// (stale entries in those are skipped lazily)
+	private static class Frontier {
+		final Problem problem;
+
+		final Metrics.Counter counter;
+
+		// null if the problem has no heuristic
+		private final HeuristicFunction heuristicFunction;
+
+		private final IndexedPriorityNodeStore open;
+
+		private final HashMap<Object, Node> closed = new HashMap<Object, Node>();
+
+		private final PriorityQueue<Entry> fs = new PriorityQueue<Entry>();
+
+		private final PriorityQueue<Entry> gs = new PriorityQueue<Entry>();
+
+		Frontier(final Problem problem, Metrics.Counter counter) {
+			this.problem = problem;
+			this.counter = counter;
+			HeuristicFunction hf = problem.getHeuristicFunction();
+			heuristicFunction = hf instanceof DefaultHeuristicFunction ? null
+					: hf;
+			open = new IndexedPriorityNodeStore(problem,
+					new EvaluationFunction() {
+						public Double getValue(Problem p, Node n) {
+							double g = n.getPathCost();
+							return Math.max(g + h(n), 2 * g);
+						}
+					});
+		}
+
+		boolean isEmpty() {
+			return open.isEmpty();
+		}
+
+		int size() {
+			return open.size();
+		}
+
+		double peekPriority() {
+			return open.peekValue();
+		}
+
+		double peekF() {
+			return peek(fs);
+		}
+
+		double peekG() {
+			return peek(gs);
+		}
+
+		Node getNodeBasedOn(Object state) {
+			Node n = open.getNodeBasedOn(state);
+			return null == n ? closed.get(state) : n;
+		}
+
+		void add(Node n) {
+			open.add(n);
+			fs.add(new Entry(n, n.getPathCost() + h(n)));
+			gs.add(new Entry(n, n.getPathCost()));
+		}
+
+		/**
+		 * Adds n unless its state has already been reached at no greater
+		 * cost, reopening it if it had been expanded.
+		 *
+		 * @return true if n was added.
+		 */
+		boolean offer(Node n) {
+			Node existing = getNodeBasedOn(n.getState());
+			if (null != existing && existing.getPathCost() <= n.getPathCost()) {
+				return false;
+			}
+			closed.remove(n.getState());
+			add(n);
+			return true;
+		}
+
+		Node remove() {
+			Node n = open.remove();
+			closed.put(n.getState(), n);
+			return n;
+		}
+
+		private double h(Node n) {
+			return null == heuristicFunction ? 0.0 : heuristicFunction
+					.getHeuristicValue(n.getState());
+		}
+
+		private double peek(PriorityQueue<Entry> heap) {
+			while (!heap.isEmpty()
+					&& open.getNodeBasedOn(heap.peek().node.getState()) != heap
+							.peek().node) {
+				heap.poll();
+			}
+			return heap.isEmpty() ? INFINITY : heap.peek().value;
+		}
+	}
+
+	private static class Entry implements Comparable<Entry> {
+		final Node node;
+
+		final double value;
+
+		Entry(Node node, double value) {
+			this.node = node;
+			this.value = value;
+		}
+
+		public int compareTo(Entry other) {
+			return Double.compare(value, other.value);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package aima.search.informed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import aima.datastructures.IntPriorityQueue;
+import aima.datastructures.LongIntHashMap;
+import aima.search.framework.NodeExpander;
+import aima.search.framework.PackedNodeTable;
+import aima.search.framework.PackedProblem;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): page 97.
+ *
+ * A* search (f(n) = g(n) + h(n)) for PackedProblems. The fringe is a primitive
+ * binary heap of node indexes, the search tree a PackedNodeTable and the best
+ * node known for each state is tracked in a LongIntHashMap, so no objects are
+ * allocated per generated state.
+ *
+ * A node whose state has since been reached more cheaply is discarded when it
+ * is removed from the fringe, and closed states are re-opened if a cheaper
+ * path to them is found, so the search remains optimal with admissible but
+ * inconsistent heuristics.
+ */
+public class PackedAStarSearch extends NodeExpander implements Search {
+
+	private static final String QUEUE_SIZE = "queueSize";
+
+	private static final String MAX_QUEUE_SIZE = "maxQueueSize";
+
+	private static final String PATH_COST = "pathCost";
+
+	private final PackedNodeTable nodes = new PackedNodeTable();
+
+	private final LongIntHashMap bestNodes = new LongIntHashMap();
+
+	private final IntPriorityQueue fringe = new IntPriorityQueue();
+
+	public PackedAStarSearch() {
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		assert (p instanceof PackedProblem);
+
+		PackedProblem problem = (PackedProblem) p;
+
+		clearInstrumentation();
+		nodes.clear();
+		bestNodes.clear();
+		fringe.clear();
+
+		long[] successorStates = new long[problem.getMaxSuccessors()];
+		int[] successorActions = new int[successorStates.length];
+		int expanded = 0;
+		int maxQueueSize = 1;
+
+		long initialState = problem.getInitialPackedState();
+		int root = nodes.add(initialState, PackedNodeTable.NO_PARENT, 0, 0.0);
+		bestNodes.put(initialState, root);
+		fringe.add(root, problem.getPackedHeuristicValue(initialState));
+		while (!fringe.isEmpty()) {
+			int node = fringe.remove();
+			long state = nodes.getState(node);
+			if (bestNodes.get(state) != node) {
+				// A cheaper path to this state has been found since
+				continue;
+			}
+			if (problem.isPackedGoalState(state)) {
+				recordMetrics(expanded, fringe.size(), maxQueueSize, nodes
+						.getPathCost(node));
+				return nodes.actionsFromRoot(node, problem);
+			}
+			double g = nodes.getPathCost(node);
+			int n = problem.getPackedSuccessors(state, successorStates,
+					successorActions);
+			for (int i = 0; i < n; i++) {
+				long successor = successorStates[i];
+				double successorG = g
+						+ problem.getPackedStepCost(state, successorActions[i],
+								successor);
+				int existing = bestNodes.get(successor);
+				if (existing != LongIntHashMap.NO_VALUE
+						&& nodes.getPathCost(existing) <= successorG) {
+					continue;
+				}
+				int child = nodes.add(successor, node, successorActions[i],
+						successorG);
+				bestNodes.put(successor, child);
+				fringe.add(child, successorG
+						+ problem.getPackedHeuristicValue(successor));
+			}
+			expanded++;
+			maxQueueSize = Math.max(maxQueueSize, fringe.size());
+		}
+		recordMetrics(expanded, 0, maxQueueSize, 0.0);
+		return new ArrayList<String>();// Empty List indicates Failure
+	}
+
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		metrics.set(QUEUE_SIZE, 0);
+		metrics.set(MAX_QUEUE_SIZE, 0);
+		metrics.set(PATH_COST, 0);
+	}
+
+	public int getQueueSize() {
+		return metrics.getInt(QUEUE_SIZE);
+	}
+
+	public int getMaxQueueSize() {
+		return metrics.getInt(MAX_QUEUE_SIZE);
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void recordMetrics(int expanded, int queueSize, int maxQueueSize,
+			double pathCost) {
+		setNodesExpanded(expanded);
+		metrics.set(QUEUE_SIZE, queueSize);
+		metrics.set(MAX_QUEUE_SIZE, maxQueueSize);
+		metrics.set(PATH_COST, pathCost);
+	}
+}
@@ -0,0 +1,309 @@
+package aima.search.informed;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import aima.search.framework.Metrics;
+import aima.search.framework.Node;
+import aima.search.framework.NodeExpander;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+import aima.search.framework.SearchUtils;
+import aima.search.nodestore.IndexedPriorityNodeStore;
+
+/**
+ * Hash distributed A* (HDA*). Every state is owned by exactly one of a number
+ * of worker threads, chosen by hashing the state. Each worker keeps its own
+ * fringe (an IndexedPriorityNodeStore) and its own record of the cheapest
+ * path cost seen for the states it owns, so no locks are needed around them.
+ * A worker expands its best node and sends each successor to the mailbox
+ * (a lock-free ConcurrentLinkedQueue) of the worker that owns the successor's
+ * state.
+ *
+ * A goal node removed from a fringe becomes the incumbent solution if it is
+ * cheaper than the current one. Nodes whose f-value is not lower than the
+ * incumbent's cost are never expanded. The search terminates only once no
+ * worker has a node that could improve on the incumbent and no nodes are in
+ * transit between workers, so with an admissible heuristic the solution
+ * returned is optimal.
+ *
+ * Termination is detected with a single counter holding the number of
+ * active workers plus the number of nodes in transit. A node is counted when
+ * it is sent. A worker that receives a node while idle becomes active and
+ * takes over that count, and an active worker that has nothing left to
+ * expand stops counting itself. When the counter reaches zero no work can
+ * reappear.
+ *
+ * nodesExpanded, nodesSent and queueSize are totals over the workers, and
+ * the first two are also given for each worker, e.g. as nodesExpanded[0].
+ * The workers' fringes peak at different times, so maxQueueSize is the
+ * largest of the workers' own, given as maxQueueSize[0] and so on, not
+ * their sum.
+ *
+ * The SuccessorFunction, StepCostFunction, GoalTest and HeuristicFunction of
+ * the Problem are called concurrently and must be thread-safe, and states
+ * must implement equals() and hashCode() consistently.
+ */
+public class ParallelAStarSearch implements Search {
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String QUEUE_SIZE = "queueSize";
+
+	private static final String MAX_QUEUE_SIZE = "maxQueueSize";
+
+	private static final String PATH_COST = "pathCost";
+
+	private static final String NODES_SENT = "nodesSent";
+
+	private static final String NUMBER_OF_WORKERS = "numberOfWorkers";
+
+	private final int numberOfWorkers;
+
+	private final Metrics metrics = new Metrics();
+
+	// Shared state for the duration of a single call to search()
+	private Problem problem;
+
+	private Worker[] workers;
+
+	private AtomicInteger activeWork;
+
+	private volatile boolean terminated;
+
+	private volatile double incumbentCost;
+
+	private Node incumbent;
+
+	private Throwable failure;
+
+	public ParallelAStarSearch() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelAStarSearch(int numberOfWorkers) {
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException(
+					"Number of workers must be >= 1: " + numberOfWorkers);
+		}
+		this.numberOfWorkers = numberOfWorkers;
+		clearInstrumentation();
+	}
+
+	public int getNumberOfWorkers() {
+		return numberOfWorkers;
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		clearInstrumentation();
+		problem = p;
+		terminated = false;
+		incumbentCost = Double.POSITIVE_INFINITY;
+		incumbent = null;
+		failure = null;
+		// Every worker starts out active
+		activeWork = new AtomicInteger(numberOfWorkers);
+		workers = new Worker[numberOfWorkers];
+		for (int i = 0; i < numberOfWorkers; i++) {
+			workers[i] = new Worker(i);
+		}
+		Node root = new Node(p.getInitialState());
+		workers[ownerOf(root.getState())].send(root);
+
+		Thread[] threads = new Thread[numberOfWorkers];
+		for (int i = 0; i < numberOfWorkers; i++) {
+			threads[i] = new Thread(workers[i], "ParallelAStarSearch-" + i);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+		for (int i = 0; i < numberOfWorkers; i++) {
+			threads[i].join();
+		}
+
+		mergeWorkerMetrics();
+		List<String> actions = new ArrayList<String>();
+		synchronized (this) {
+			if (null != failure) {
+				if (failure instanceof Exception) {
+					throw (Exception) failure;
+				}
+				throw new RuntimeException(failure);
+			}
+			if (null != incumbent) {
+				metrics.set(PATH_COST, incumbent.getPathCost());
+				actions = SearchUtils.actionsFromNodes(incumbent
+						.getPathFromRoot());
+			}
+		}
+		problem = null;
+		workers = null;
+		// Empty List can indicate already at Goal
+		// or unable to find valid set of actions
+		return actions;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		metrics.set(NODES_EXPANDED, 0);
+		metrics.set(QUEUE_SIZE, 0);
+		metrics.set(MAX_QUEUE_SIZE, 0);
+		metrics.set(PATH_COST, 0.0);
+		metrics.set(NODES_SENT, 0);
+		metrics.set(NUMBER_OF_WORKERS, numberOfWorkers);
+	}
+
+	public int getNodesExpanded() {
+		return metrics.getInt(NODES_EXPANDED);
+	}
+
+	public int getMaxQueueSize() {
+		return metrics.getInt(MAX_QUEUE_SIZE);
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int ownerOf(Object state) {
+		int h = state.hashCode();
+		h ^= (h >>> 16);
+		h *= 0x85EBCA6B;
+		h ^= (h >>> 13);
+		return (h & 0x7FFFFFFF) % numberOfWorkers;
+	}
+
+	private synchronized void offerSolution(Node goal) {
+		if (goal.getPathCost() < incumbentCost) {
+			incumbent = goal;
+			incumbentCost = goal.getPathCost();
+		}
+	}
+
+	private synchronized void abort(Throwable t) {
+		if (null == failure) {
+			failure = t;
+		}
+		terminated = true;
+	}
+
+	// Totals go under the usual metric names and each worker's
+	// figures are also recorded, e.g. nodesExpanded[0].
+	private void mergeWorkerMetrics() {
+		int expanded = 0, queueSize = 0, maxQueueSize = 0, sent = 0;
+		for (Worker w : workers) {
+			Metrics wm = w.getMetrics();
+			expanded += w.getNodesExpanded();
+			queueSize += w.fringe.size();
+			maxQueueSize = Math.max(maxQueueSize, w.maxQueueSize);
+			sent += w.nodesSent;
+			metrics.set(NODES_EXPANDED + "[" + w.id + "]", wm
+					.getInt(NODES_EXPANDED));
+			metrics.set(MAX_QUEUE_SIZE + "[" + w.id + "]", w.maxQueueSize);
+			metrics.set(NODES_SENT + "[" + w.id + "]", w.nodesSent);
+		}
+		metrics.set(NODES_EXPANDED, expanded);
+		metrics.set(QUEUE_SIZE, queueSize);
+		metrics.set(MAX_QUEUE_SIZE, maxQueueSize);
+		metrics.set(NODES_SENT, sent);
+	}
+
+	private class Worker extends NodeExpander implements Runnable {
+		private final int id;
+
+		private final ConcurrentLinkedQueue<Node> mailbox = new ConcurrentLinkedQueue<Node>();
+
+		private final IndexedPriorityNodeStore fringe;
+
+		// Cheapest path cost found so far to each state owned by this worker
+		private final HashMap<Object, Double> bestPathCosts = new HashMap<Object, Double>();
+
+		private boolean active = true;
+
+		private int maxQueueSize = 0;
+
+		private int nodesSent = 0;
+
+		Worker(int id) {
+			this.id = id;
+			fringe = new IndexedPriorityNodeStore(problem,
+					new AStarEvaluationFunction());
+			clearInstrumentation();
+		}
+
+		// Called by any thread
+		void send(Node n) {
+			activeWork.incrementAndGet();
+			mailbox.offer(n);
+		}
+
+		public void run() {
+			try {
+				while (!terminated) {
+					Node received;
+					while (null != (received = mailbox.poll())) {
+						if (active) {
+							activeWork.decrementAndGet();
+						} else {
+							// Takes over the count of the received node
+							active = true;
+						}
+						receive(received);
+					}
+					if (active) {
+						if (fringe.peekValue() < incumbentCost) {
+							expandBestNode();
+						} else {
+							active = false;
+							if (0 == activeWork.decrementAndGet()) {
+								terminated = true;
+							}
+						}
+					} else {
+						LockSupport.parkNanos(10000L);
+					}
+				}
+			} catch (Throwable t) {
+				abort(t);
+			}
+		}
+
+		private void receive(Node n) {
+			Double best = bestPathCosts.get(n.getState());
+			if (null != best && best.doubleValue() <= n.getPathCost()) {
+				return;
+			}
+			bestPathCosts.put(n.getState(), n.getPathCost());
+			fringe.add(n);
+			if (fringe.size() > maxQueueSize) {
+				maxQueueSize = fringe.size();
+			}
+		}
+
+		private void expandBestNode() {
+			Node node = fringe.remove();
+			if (problem.isGoalState(node.getState())) {
+				offerSolution(node);
+				return;
+			}
+			for (Node child : expandNode(node, problem)) {
+				int owner = ownerOf(child.getState());
+				if (owner == id) {
+					receive(child);
+				} else {
+					nodesSent++;
+					workers[owner].send(child);
+				}
+			}
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import aima.search.framework.EvaluationFunction;
+import aima.search.framework.Metrics;
 import aima.search.framework.Node;
 import aima.search.framework.NodeExpander;
 import aima.search.framework.Problem;
@@ -47,8 +48,14 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 
 	private static final Double INFINITY = Double.MAX_VALUE;
 
+	private final Metrics.MaxGauge maxRecursiveDepth;
+
+	// evaluationFunction, timed if timing is enabled
+	private EvaluationFunction evaluator;
+
 	public RecursiveBestFirstSearch(EvaluationFunction ef) {
 		evaluationFunction = ef;
+		maxRecursiveDepth = metrics.maxGauge(MAX_RECURSIVE_DEPTH);
 	}
 
 	// function RECURSIVE-BEST-FIRST-SEARCH(problem) returns a solution, or
@@ -57,10 +64,11 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 		List<String> actions = new ArrayList<String>();
 
 		clearInstrumentation();
+		evaluator = timed(evaluationFunction);
 
 		// RBFS(problem, MAKE-NODE(INITIAL-STATE[problem]), infinity)
 		Node n = new Node(p.getInitialState());
-		SearchResult sr = rbfs(p, n, evaluationFunction.getValue(p, n),
+		SearchResult sr = rbfs(p, n, evaluator.getValue(p, n),
 				INFINITY, 0);
 		if (sr.getOutcome() == SearchResult.SearchOutcome.SOLUTION_FOUND) {
 			Node s = sr.getSolution();
@@ -81,14 +89,11 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 	}
 
 	public void setMaxRecursiveDepth(int recursiveDepth) {
-		int maxRdepth = metrics.getInt(MAX_RECURSIVE_DEPTH);
-		if (recursiveDepth > maxRdepth) {
-			metrics.set(MAX_RECURSIVE_DEPTH, recursiveDepth);
-		}
+		maxRecursiveDepth.update(recursiveDepth);
 	}
 
 	public int getMaxRecursiveDepth() {
-		return metrics.getInt(MAX_RECURSIVE_DEPTH);
+		return (int) maxRecursiveDepth.longValue();
 	}
 
 	public double getPathCost() {
@@ -110,7 +115,7 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 		setMaxRecursiveDepth(recursiveDepth);
 
 		// if GOAL-TEST[problem](STATE[node]) then return node
-		if (p.isGoalState(n.getState())) {
+		if (isGoalState(p, n)) {
 			return new SearchResult(n, fLimit);
 		}
 
@@ -125,7 +130,7 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 		int size = successors.size();
 		for (int s = 0; s < size; s++) {
 			// f[s] <- max(g(s) + h(s), f[node])
-			f[s] = Math.max(evaluationFunction.getValue(p, successors.get(s)),
+			f[s] = Math.max(evaluator.getValue(p, successors.get(s)),
 					fNode);
 		}
 
@@ -0,0 +1,477 @@
+package aima.search.informed;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import aima.search.framework.Node;
+import aima.search.framework.NodeExpander;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+import aima.search.framework.SearchUtils;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): page 104.
+ *
+ * SMA* (simplified memory-bounded A*) proceeds just like A*, expanding the
+ * best leaf until memory is full. At this point, it cannot add a new node to
+ * the search tree without dropping an old one. SMA* always drops the worst
+ * leaf node - the one with the highest f-value. Like RBFS, SMA* then backs up
+ * the value of the forgotten node to its parent. In this way, the ancestor of
+ * a forgotten subtree knows the quality of the best path in that subtree.
+ * With this information, SMA* regenerates the subtree only when all other
+ * paths have been shown to look worse than the path it has forgotten.
+ *
+ * Memory is measured as the number of nodes held in the search tree. SMA* is
+ * complete if the depth of the shallowest goal is less than that number, and
+ * optimal if an optimal solution is reachable within it.
+ *
+ * Optionally, instead of being forgotten altogether, the backed up value of
+ * every dropped node is spilled to a temporary memory-mapped file, linked to
+ * the values spilled for its own dropped children. When a parent is
+ * re-expanded its regenerated children pick up the values learnt for them
+ * (and their subtrees) rather than starting again from g + h, which cuts down
+ * the re-expansion SMA* is prone to, while the heap holds only the node
+ * budget plus one file offset per node.
+ */
+public class SMAStarSearch extends NodeExpander implements Search {
+
+	private static final String PATH_COST = "pathCost";
+
+	private static final String MAX_NODES_IN_MEMORY = "maxNodesInMemory";
+
+	private static final String NODES_FORGOTTEN = "nodesForgotten";
+
+	private static final String NODES_SPILLED = "nodesSpilled";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final int maxNodes;
+
+	private final boolean spillToDisk;
+
+	private final File spillDirectory;
+
+	// Per call to search()
+	private TreeSet<SMANode> open;
+
+	private SpillFile spillFile;
+
+	private int nodesInMemory, maxNodesInMemory, nodesForgotten, nodesSpilled;
+
+	private long nextId;
+
+	public SMAStarSearch(int maxNodes) {
+		this(maxNodes, false);
+	}
+
+	public SMAStarSearch(int maxNodes, boolean spillToDisk) {
+		this(maxNodes, spillToDisk, null);
+	}
+
+	/**
+	 * @param maxNodes
+	 *            the maximum number of nodes to keep in the search tree.
+	 * @param spillToDisk
+	 *            if true, dropped nodes are spilled to a memory-mapped file
+	 *            instead of being forgotten.
+	 * @param spillDirectory
+	 *            where to create the spill file, null for the default
+	 *            temporary-file directory.
+	 */
+	public SMAStarSearch(int maxNodes, boolean spillToDisk, File spillDirectory) {
+		if (maxNodes < 2) {
+			throw new IllegalArgumentException("maxNodes must be >= 2: "
+					+ maxNodes);
+		}
+		this.maxNodes = maxNodes;
+		this.spillToDisk = spillToDisk;
+		this.spillDirectory = spillDirectory;
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		clearInstrumentation();
+		open = new TreeSet<SMANode>(new SMANodeComparator());
+		nodesInMemory = maxNodesInMemory = nodesForgotten = nodesSpilled = 0;
+		nextId = 0;
+		spillFile = spillToDisk ? new SpillFile(spillDirectory) : null;
+		try {
+			SMANode root = new SMANode(new Node(p.getInitialState()), -1, null);
+			root.f = getHeuristicValue(p, root.node);
+			addToTree(root);
+
+			while (!open.isEmpty()) {
+				SMANode best = open.first();
+				if (INFINITY == best.key()) {
+					break;
+				}
+				if (best.isLeaf() && isGoalState(p, best.node)) {
+					setPathCost(best.node.getPathCost());
+					return SearchUtils.actionsFromNodes(best.node
+							.getPathFromRoot());
+				}
+				expand(best, p);
+				while (nodesInMemory > maxNodes) {
+					if (!dropWorstLeaf()) {
+						break;
+					}
+				}
+			}
+			return new ArrayList<String>();// Empty List indicates Failure
+		} finally {
+			publishMetrics();
+			open = null;
+			if (null != spillFile) {
+				spillFile.close();
+				spillFile = null;
+			}
+		}
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		metrics.set(PATH_COST, 0.0);
+		metrics.set(MAX_NODES_IN_MEMORY, 0);
+		metrics.set(NODES_FORGOTTEN, 0);
+		metrics.set(NODES_SPILLED, 0);
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	public void setPathCost(Double pathCost) {
+		metrics.set(PATH_COST, pathCost);
+	}
+
+	public int getMaxNodesInMemory() {
+		return metrics.getInt(MAX_NODES_IN_MEMORY);
+	}
+
+	public int getNodesForgotten() {
+		return metrics.getInt(NODES_FORGOTTEN);
+	}
+
+	public int getNodesSpilled() {
+		return metrics.getInt(NODES_SPILLED);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void publishMetrics() {
+		metrics.set(MAX_NODES_IN_MEMORY, maxNodesInMemory);
+		metrics.set(NODES_FORGOTTEN, nodesForgotten);
+		metrics.set(NODES_SPILLED, nodesSpilled);
+	}
+
+	// Generate the children of n that are not currently in memory
+	private void expand(SMANode n, Problem p) {
+		open.remove(n);
+
+		HashMap<Integer, Long> spilled = new HashMap<Integer, Long>();
+		if (null != spillFile) {
+			for (long r = n.spillHead; r != SpillFile.NONE; r = spillFile
+					.getNext(r)) {
+				spilled.put(spillFile.getChildIndex(r), r);
+			}
+		}
+		// The key n was selected with bounds every child being regenerated
+		double parentF = n.key();
+		n.forgottenF = INFINITY;
+		n.spillHead = SpillFile.NONE;
+
+		List<Node> successors = expandNode(n.node, p);
+		for (int i = 0; i < successors.size(); i++) {
+			Node s = successors.get(i);
+			if (n.hasChild(i) || onPath(n.node, s.getState())) {
+				continue;
+			}
+			SMANode child = new SMANode(s, i, n);
+			if (!isGoalState(p, s) && s.getDepth() >= maxNodes - 1) {
+				// No room to hold a path any deeper than this
+				child.f = INFINITY;
+			} else {
+				// f(s) <- max(f(n), g(s) + h(s))
+				child.f = Math.max(parentF, s.getPathCost()
+						+ getHeuristicValue(p, s));
+			}
+			Long r = spilled.get(i);
+			if (null != r && spillFile.getActionHash(r) == hashOf(s.getAction())) {
+				child.f = Math.max(child.f, spillFile.getF(r));
+				child.spillHead = spillFile.getChildSpillHead(r);
+			}
+			n.addChild(child);
+			addToTree(child);
+		}
+		if (n.isLeaf()) {
+			// Dead end, it can only be dropped
+			n.f = INFINITY;
+			open.add(n);
+			backUp(n.parent);
+		} else {
+			backUp(n);
+		}
+	}
+
+	private boolean onPath(Node n, Object state) {
+		for (Node a = n; null != a; a = a.getParent()) {
+			if (a.getState().equals(state)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addToTree(SMANode n) {
+		open.add(n);
+		nodesInMemory++;
+		if (nodesInMemory > maxNodesInMemory) {
+			maxNodesInMemory = nodesInMemory;
+		}
+	}
+
+	// f(n) <- min of the f-values of its children (in memory or forgotten),
+	// repeated up the tree while it changes.
+	private void backUp(SMANode n) {
+		while (null != n && !n.isLeaf()) {
+			double f = n.forgottenF;
+			for (SMANode c : n.children) {
+				f = Math.min(f, c.f);
+			}
+			if (f == n.f) {
+				break;
+			}
+			boolean inOpen = open.remove(n);
+			n.f = f;
+			if (inOpen) {
+				open.add(n);
+			}
+			n = n.parent;
+		}
+	}
+
+	// Drop the shallowest of the highest f-value leaves, remembering its
+	// value in its parent.
+	private boolean dropWorstLeaf() {
+		SMANode worst = null;
+		Iterator<SMANode> it = open.descendingIterator();
+		while (it.hasNext()) {
+			SMANode n = it.next();
+			if (n.isLeaf() && null != n.parent) {
+				worst = n;
+				break;
+			}
+		}
+		if (null == worst) {
+			return false;
+		}
+		open.remove(worst);
+		nodesInMemory--;
+		nodesForgotten++;
+
+		SMANode parent = worst.parent;
+		open.remove(parent);
+		parent.removeChild(worst);
+		parent.forgottenF = Math.min(parent.forgottenF, worst.f);
+		if (null != spillFile) {
+			parent.spillHead = spillFile.append(worst.childIndex,
+					hashOf(worst.node.getAction()), worst.f, worst.spillHead,
+					parent.spillHead);
+			nodesSpilled++;
+		}
+		// The parent's backed up value is unchanged, but it now has a
+		// forgotten child to regenerate (or is a leaf again).
+		if (parent.isLeaf()) {
+			parent.f = parent.forgottenF;
+		}
+		open.add(parent);
+		return true;
+	}
+
+	private static int hashOf(String action) {
+		return null == action ? 0 : action.hashCode();
+	}
+
+	private class SMANode {
+		final Node node;
+
+		final long id;
+
+		// Position in the list of its parent's successors
+		final int childIndex;
+
+		final SMANode parent;
+
+		List<SMANode> children = null;
+
+		// The backed up f-value
+		double f;
+
+		// The lowest f-value of any children dropped from memory
+		double forgottenF = INFINITY;
+
+		long spillHead = SpillFile.NONE;
+
+		SMANode(Node node, int childIndex, SMANode parent) {
+			this.node = node;
+			this.childIndex = childIndex;
+			this.parent = parent;
+			this.id = nextId++;
+		}
+
+		// Leaves are ordered on their f-value, and nodes with forgotten
+		// children on the value they would regenerate them with.
+		double key() {
+			return isLeaf() ? f : forgottenF;
+		}
+
+		boolean isLeaf() {
+			return null == children || children.isEmpty();
+		}
+
+		boolean hasChild(int index) {
+			if (null != children) {
+				for (SMANode c : children) {
+					if (c.childIndex == index) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		void addChild(SMANode c) {
+			if (null == children) {
+				children = new ArrayList<SMANode>();
+			}
+			children.add(c);
+		}
+
+		void removeChild(SMANode c) {
+			children.remove(c);
+		}
+	}
+
+	// Best first: lowest key, then deepest. The last element is therefore
+	// the shallowest of the highest keyed nodes.
+	private static class SMANodeComparator implements Comparator<SMANode> {
+		public int compare(SMANode n1, SMANode n2) {
+			int c = Double.compare(n1.key(), n2.key());
+			if (0 == c) {
+				c = n2.node.getDepth() - n1.node.getDepth();
+			}
+			if (0 == c) {
+				c = n1.id < n2.id ? -1 : (n1.id == n2.id ? 0 : 1);
+			}
+			return c;
+		}
+	}
+
+	/**
+	 * An append only store of fixed size records, each describing a dropped
+	 * node: its position among its parent's successors, a hash of the action
+	 * that generated it, its backed up f-value, the record chain spilled for
+	 * its own dropped children and the next record spilled for its parent.
+	 * The file is mapped a segment at a time as it grows.
+	 */
+	private static class SpillFile {
+		static final long NONE = -1L;
+
+		private static final int RECORD_SIZE = 32;
+
+		private static final int SEGMENT_SIZE = RECORD_SIZE * 32768;
+
+		private final File file;
+
+		private final RandomAccessFile raf;
+
+		private final FileChannel channel;
+
+		private final List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+
+		private long end = 0;
+
+		SpillFile(File directory) throws IOException {
+			file = File.createTempFile("smastar", ".spill", directory);
+			file.deleteOnExit();
+			raf = new RandomAccessFile(file, "rw");
+			channel = raf.getChannel();
+		}
+
+		long append(int childIndex, int actionHash, double f,
+				long childSpillHead, long next) {
+			long offset = end;
+			int segment = (int) (offset / SEGMENT_SIZE);
+			if (segment == segments.size()) {
+				try {
+					segments.add(channel.map(FileChannel.MapMode.READ_WRITE,
+							(long) segment * SEGMENT_SIZE, SEGMENT_SIZE));
+				} catch (IOException ex) {
+					throw new RuntimeException(ex);
+				}
+			}
+			MappedByteBuffer b = segments.get(segment);
+			int pos = (int) (offset % SEGMENT_SIZE);
+			b.putInt(pos, childIndex);
+			b.putInt(pos + 4, actionHash);
+			b.putDouble(pos + 8, f);
+			b.putLong(pos + 16, childSpillHead);
+			b.putLong(pos + 24, next);
+			end += RECORD_SIZE;
+			return offset;
+		}
+
+		int getChildIndex(long record) {
+			return segmentOf(record).getInt(positionOf(record));
+		}
+
+		int getActionHash(long record) {
+			return segmentOf(record).getInt(positionOf(record) + 4);
+		}
+
+		double getF(long record) {
+			return segmentOf(record).getDouble(positionOf(record) + 8);
+		}
+
+		long getChildSpillHead(long record) {
+			return segmentOf(record).getLong(positionOf(record) + 16);
+		}
+
+		long getNext(long record) {
+			return segmentOf(record).getLong(positionOf(record) + 24);
+		}
+
+		void close() {
+			segments.clear();
+			try {
+				channel.close();
+				raf.close();
+			} catch (IOException ex) {
+				// Nothing more can be done, the file is also deleted on exit
+			}
+			file.delete();
+		}
+
+		private MappedByteBuffer segmentOf(long record) {
+			return segments.get((int) (record / SEGMENT_SIZE));
+		}
+
+		private int positionOf(long record) {
+			return (int) (record % SEGMENT_SIZE);
+		}
+	}
+}
@@ -55,6 +55,8 @@ public class SimulatedAnnealingSearch extends NodeExpander implements Search {
 
 	private final Scheduler scheduler;
 
+	private final Random random = new Random();
+
 	private SearchOutcome outcome = SearchOutcome.FAILURE;
 
 	private Object lastState = null;
@@ -85,7 +87,7 @@ public class SimulatedAnnealingSearch extends NodeExpander implements Search {
 			timeStep++;
 			// if temperature = 0 then return current
 			if (temperature == 0.0) {
-				if (p.isGoalState(current.getState())) {
+				if (isGoalState(p, current)) {
 					outcome = SearchOutcome.SOLUTION_FOUND;
 				}
 				ret = SearchUtils.actionsFromNodes(current.getPathFromRoot());
@@ -113,7 +115,7 @@ public class SimulatedAnnealingSearch extends NodeExpander implements Search {
 	// else current <- next only with probablity e^(/\E/T)
 	private boolean shouldAccept(double temperature, double deltaE) {
 		return (deltaE > 0.0)
-				|| (new Random().nextDouble() <= probabilityOfAcceptance(
+				|| (random.nextDouble() <= probabilityOfAcceptance(
 						temperature, deltaE));
 	}
 
@@ -130,12 +132,8 @@ public class SimulatedAnnealingSearch extends NodeExpander implements Search {
 	}
 
 	private double getValue(Problem p, Node n) {
-		return -1 * getHeuristic(p, n); // assumption greater heuristic value =>
+		return -1 * getHeuristicValue(p, n); // assumption greater heuristic value =>
 		// HIGHER on hill; 0 == goal state;
 		// SA deals with gardient DESCENT
 	}
-
-	private double getHeuristic(Problem p, Node aNode) {
-		return p.getHeuristicFunction().getHeuristicValue(aNode.getState());
-	}
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package aima.search.informed.ga;
+
+/**
+ * Interface representing a fitness function used by the
+ * PackedGeneticAlgorithm, which reads the genes of an individual straight
+ * out of its PackedPopulation rather than from a String. The individuals of
+ * a population are evaluated concurrently, so implementations must be
+ * thread-safe.
+ */
+public interface PackedFitnessFunction {
+	double getValue(PackedPopulation population, int individual);
+}
@@ -0,0 +1,318 @@
+package aima.search.informed.ga;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import aima.search.framework.Metrics;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): Figure 4.17, page
+ * 119, as GeneticAlgorithm, for individuals held in a PackedPopulation.
+ *
+ * Each generation first evaluates every individual, the individuals being
+ * shared out over a ForkJoinPool, then breeds the next generation into the
+ * population's second array: RANDOM-SELECTION is either a tournament, the
+ * fittest of a few individuals drawn at random, or the roulette wheel of
+ * GeneticAlgorithm, drawn from an alias table (Vose, "A Linear Algorithm
+ * For Generating Random Numbers With a Given Distribution", 1991) so that
+ * each draw takes constant time; REPRODUCE copies whole words of the
+ * parents; and MUTATE sets one gene, chosen at random, to a random symbol.
+ *
+ * The best fitness, the mean fitness and the evaluations per second of the
+ * last generation are kept in the metrics, with the number of generations
+ * and evaluations.
+ */
+public class PackedGeneticAlgorithm {
+
+	public enum Selection {
+		TOURNAMENT, ROULETTE
+	};
+
+	private static final String GENERATIONS = "generations";
+
+	private static final String EVALUATIONS = "evaluations";
+
+	private static final String BEST_FITNESS = "bestFitness";
+
+	private static final String MEAN_FITNESS = "meanFitness";
+
+	private static final String EVALUATIONS_PER_SECOND = "evaluationsPerSecond";
+
+	private final double mutationProbability;
+
+	private final ForkJoinPool pool;
+
+	private final Metrics metrics = new Metrics();
+
+	private SplittableRandom random = new SplittableRandom();
+
+	private Selection selection = Selection.TOURNAMENT;
+
+	private int tournamentSize = 2;
+
+	private int[] best = null;
+
+	private double bestFitness = Double.NEGATIVE_INFINITY;
+
+	// The alias table of the roulette wheel
+	private double[] probability = new double[0];
+
+	private int[] alias = new int[0];
+
+	/**
+	 * Evaluates individuals in the common ForkJoinPool.
+	 */
+	public PackedGeneticAlgorithm(double mutationProbability) {
+		this(mutationProbability, ForkJoinPool.commonPool());
+	}
+
+	public PackedGeneticAlgorithm(double mutationProbability, ForkJoinPool pool) {
+		if (mutationProbability < 0.0 || mutationProbability > 1.0) {
+			throw new IllegalArgumentException("Mutation probability "
+					+ mutationProbability + " is not in [0, 1]");
+		}
+		this.mutationProbability = mutationProbability;
+		this.pool = pool;
+		clearInstrumentation();
+	}
+
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * Selects the fittest of tournamentSize individuals drawn at random (2
+	 * by default).
+	 */
+	public void setTournamentSelection(int tournamentSize) {
+		if (tournamentSize < 1) {
+			throw new IllegalArgumentException("Tournament of "
+					+ tournamentSize);
+		}
+		this.selection = Selection.TOURNAMENT;
+		this.tournamentSize = tournamentSize;
+	}
+
+	/**
+	 * Selects individuals with probability proportional to their fitness,
+	 * as GeneticAlgorithm. Fitness values must then not be negative.
+	 */
+	public void setRouletteSelection() {
+		this.selection = Selection.ROULETTE;
+	}
+
+	public Selection getSelection() {
+		return selection;
+	}
+
+	/**
+	 * Breeds generations of population until an individual is at least as
+	 * fit as targetFitness, or maxGenerations have been bred.
+	 *
+	 * @return the genes of the fittest individual evaluated.
+	 */
+	public int[] geneticAlgorithm(PackedPopulation population,
+			PackedFitnessFunction fitnessFn, double targetFitness,
+			int maxGenerations) {
+		clearInstrumentation();
+		evaluate(population, fitnessFn);
+		int generation = 0;
+		while (bestFitness < targetFitness && generation < maxGenerations) {
+			breed(population);
+			evaluate(population, fitnessFn);
+			generation++;
+			metrics.set(GENERATIONS, generation);
+		}
+		return best;
+	}
+
+	/**
+	 * Breeds iterations generations of population.
+	 *
+	 * @return the genes of the fittest individual evaluated.
+	 */
+	public int[] geneticAlgorithm(PackedPopulation population,
+			PackedFitnessFunction fitnessFn, int iterations) {
+		return geneticAlgorithm(population, fitnessFn,
+				Double.POSITIVE_INFINITY, iterations);
+	}
+
+	/**
+	 * @return the fitness of the individual returned by geneticAlgorithm().
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		best = null;
+		bestFitness = Double.NEGATIVE_INFINITY;
+		metrics.set(GENERATIONS, 0);
+		metrics.set(EVALUATIONS, 0L);
+		metrics.set(BEST_FITNESS, 0.0);
+		metrics.set(MEAN_FITNESS, 0.0);
+		metrics.set(EVALUATIONS_PER_SECOND, 0.0);
+	}
+
+	public int getGenerations() {
+		return metrics.getInt(GENERATIONS);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void evaluate(PackedPopulation population,
+			PackedFitnessFunction fitnessFn) {
+		int size = population.size();
+		int leafSize = Math.max(1, size / (4 * pool.getParallelism()));
+		long start = System.nanoTime();
+		pool.invoke(new EvaluationTask(population, fitnessFn, 0, size,
+				leafSize));
+		long nanos = System.nanoTime() - start;
+
+		int fittest = 0;
+		double total = 0.0;
+		for (int i = 0; i < size; i++) {
+			total += population.getFitness(i);
+			if (population.getFitness(i) > population.getFitness(fittest)) {
+				fittest = i;
+			}
+		}
+		if (population.getFitness(fittest) > bestFitness) {
+			bestFitness = population.getFitness(fittest);
+			best = population.getGenes(fittest);
+		}
+		metrics.set(EVALUATIONS, metrics.getLong(EVALUATIONS) + size);
+		metrics.set(BEST_FITNESS, population.getFitness(fittest));
+		metrics.set(MEAN_FITNESS, total / size);
+		metrics.set(EVALUATIONS_PER_SECOND, size * 1e9 / Math.max(1L, nanos));
+	}
+
+	private void breed(PackedPopulation population) {
+		int size = population.size(), length = population
+				.getIndividualLength();
+		if (Selection.ROULETTE == selection) {
+			buildAliasTable(population);
+		}
+		// loop for i from 1 to SIZE(population) do
+		for (int i = 0; i < size; i++) {
+			int x = randomSelection(population);
+			int y = randomSelection(population);
+			// child <- REPRODUCE(x, y), c being a random number from 1 to n
+			population.crossover(x, y, random.nextInt(length), i);
+		}
+		population.nextGeneration();
+		// if (small random probability) then child <- MUTATE(child)
+		for (int i = 0; i < size; i++) {
+			if (random.nextDouble() <= mutationProbability) {
+				population.setGene(i, random.nextInt(length), random
+						.nextInt(population.getAlphabetSize()));
+			}
+		}
+	}
+
+	private int randomSelection(PackedPopulation population) {
+		int size = population.size();
+		if (Selection.ROULETTE == selection) {
+			int i = random.nextInt(size);
+			return random.nextDouble() < probability[i] ? i : alias[i];
+		}
+		int fittest = random.nextInt(size);
+		for (int k = 1; k < tournamentSize; k++) {
+			int i = random.nextInt(size);
+			if (population.getFitness(i) > population.getFitness(fittest)) {
+				fittest = i;
+			}
+		}
+		return fittest;
+	}
+
+	// Vose's alias method: each of the size columns holds the probability
+	// of its own individual and, in the rest, that of its alias
+	private void buildAliasTable(PackedPopulation population) {
+		int size = population.size();
+		if (probability.length != size) {
+			probability = new double[size];
+			alias = new int[size];
+		}
+		double total = 0.0;
+		for (int i = 0; i < size; i++) {
+			if (population.getFitness(i) < 0.0) {
+				throw new IllegalStateException(
+						"Roulette selection of negative fitness "
+								+ population.getFitness(i));
+			}
+			total += population.getFitness(i);
+		}
+		int[] small = new int[size], large = new int[size];
+		int smalls = 0, larges = 0;
+		for (int i = 0; i < size; i++) {
+			// Every individual is as likely when none is fit
+			probability[i] = total > 0.0 ? population.getFitness(i) * size
+					/ total : 1.0;
+			if (probability[i] < 1.0) {
+				small[smalls++] = i;
+			} else {
+				large[larges++] = i;
+			}
+		}
+		while (smalls > 0 && larges > 0) {
+			int s = small[--smalls], l = large[--larges];
+			alias[s] = l;
+			probability[l] -= 1.0 - probability[s];
+			if (probability[l] < 1.0) {
+				small[smalls++] = l;
+			} else {
+				large[larges++] = l;
+			}
+		}
+		// What is left over is 1 but for rounding
+		while (larges > 0) {
+			probability[large[--larges]] = 1.0;
+		}
+		while (smalls > 0) {
+			probability[small[--smalls]] = 1.0;
+		}
+	}
+
+	// Evaluates individuals first to last - 1, splitting the range in two
+	// until it is no longer than leafSize
+	private static class EvaluationTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final PackedPopulation population;
+
+		private final PackedFitnessFunction fitnessFn;
+
+		private final int first, last, leafSize;
+
+		EvaluationTask(PackedPopulation population,
+				PackedFitnessFunction fitnessFn, int first, int last,
+				int leafSize) {
+			this.population = population;
+			this.fitnessFn = fitnessFn;
+			this.first = first;
+			this.last = last;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (last - first <= leafSize) {
+				for (int i = first; i < last; i++) {
+					population.setFitness(i, fitnessFn.getValue(population, i));
+				}
+				return;
+			}
+			int middle = (first + last) >>> 1;
+			invokeAll(new EvaluationTask(population, fitnessFn, first,
+					middle, leafSize), new EvaluationTask(population,
+					fitnessFn, middle, last, leafSize));
+		}
+	}
+}
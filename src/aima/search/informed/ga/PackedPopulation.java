@@ -0,0 +1,180 @@
+package aima.search.informed.ga;
+
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * A population of fixed length individuals for the PackedGeneticAlgorithm,
+ * held in one long array rather than as a String per individual. Each gene
+ * is a symbol of an alphabet of alphabetSize symbols, numbered from 0, and
+ * takes just enough bits for the largest of them. Genes do not straddle
+ * words, so an individual takes length / (64 / bits) words, rounded up,
+ * and the individuals follow one another in the array.
+ *
+ * The population also keeps the fitness of each individual as last
+ * evaluated by the PackedGeneticAlgorithm, and a second array of the same
+ * size into which the next generation is bred.
+ */
+public class PackedPopulation {
+
+	private final int size, length, alphabetSize;
+
+	private final int bitsPerGene, genesPerWord, wordsPerIndividual;
+
+	private final long geneMask;
+
+	private long[] words, nextWords;
+
+	private final double[] fitness;
+
+	public PackedPopulation(int size, int length, int alphabetSize) {
+		if (size < 1 || length < 1 || alphabetSize < 1) {
+			throw new IllegalArgumentException("Bad population: " + size
+					+ " individuals of " + length + " genes from "
+					+ alphabetSize + " symbols");
+		}
+		this.size = size;
+		this.length = length;
+		this.alphabetSize = alphabetSize;
+		bitsPerGene = Math.max(1, 32 - Integer
+				.numberOfLeadingZeros(alphabetSize - 1));
+		genesPerWord = 64 / bitsPerGene;
+		wordsPerIndividual = (length + genesPerWord - 1) / genesPerWord;
+		geneMask = bitsPerGene == 64 ? -1L : (1L << bitsPerGene) - 1;
+		words = new long[size * wordsPerIndividual];
+		nextWords = new long[size * wordsPerIndividual];
+		fitness = new double[size];
+	}
+
+	/**
+	 * @return a population whose genes are all chosen at random.
+	 */
+	public static PackedPopulation random(int size, int length,
+			int alphabetSize, SplittableRandom random) {
+		PackedPopulation population = new PackedPopulation(size, length,
+				alphabetSize);
+		for (int i = 0; i < size; i++) {
+			for (int g = 0; g < length; g++) {
+				population.setGene(i, g, random.nextInt(alphabetSize));
+			}
+		}
+		return population;
+	}
+
+	/**
+	 * @return a population of the String individuals used by
+	 *         GeneticAlgorithm, each character being replaced by its
+	 *         position in alphabet.
+	 */
+	public static PackedPopulation fromStrings(Collection<String> individuals,
+			Character[] alphabet) {
+		int length = individuals.iterator().next().length();
+		PackedPopulation population = new PackedPopulation(individuals
+				.size(), length, alphabet.length);
+		int i = 0;
+		for (String individual : individuals) {
+			if (individual.length() != length) {
+				throw new IllegalArgumentException(individual
+						+ " is not of length " + length);
+			}
+			for (int g = 0; g < length; g++) {
+				population.setGene(i, g, symbolOf(individual.charAt(g),
+						alphabet));
+			}
+			i++;
+		}
+		return population;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getIndividualLength() {
+		return length;
+	}
+
+	public int getAlphabetSize() {
+		return alphabetSize;
+	}
+
+	public int getGene(int individual, int position) {
+		int word = individual * wordsPerIndividual + position / genesPerWord;
+		int shift = (position % genesPerWord) * bitsPerGene;
+		return (int) ((words[word] >>> shift) & geneMask);
+	}
+
+	public void setGene(int individual, int position, int symbol) {
+		if (symbol < 0 || symbol >= alphabetSize) {
+			throw new IllegalArgumentException("Symbol " + symbol
+					+ " is not in an alphabet of " + alphabetSize);
+		}
+		int word = individual * wordsPerIndividual + position / genesPerWord;
+		int shift = (position % genesPerWord) * bitsPerGene;
+		words[word] = (words[word] & ~(geneMask << shift))
+				| ((long) symbol << shift);
+	}
+
+	public int[] getGenes(int individual) {
+		int[] genes = new int[length];
+		for (int g = 0; g < length; g++) {
+			genes[g] = getGene(individual, g);
+		}
+		return genes;
+	}
+
+	/**
+	 * @return the individual as a String of GeneticAlgorithm, each gene
+	 *         being replaced by that symbol of alphabet.
+	 */
+	public String toString(int individual, Character[] alphabet) {
+		StringBuffer buf = new StringBuffer(length);
+		for (int g = 0; g < length; g++) {
+			buf.append(alphabet[getGene(individual, g)].charValue());
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * @return the fitness of the individual when last evaluated.
+	 */
+	public double getFitness(int individual) {
+		return fitness[individual];
+	}
+
+	void setFitness(int individual, double value) {
+		fitness[individual] = value;
+	}
+
+	// Makes child of the next generation from the genes of x before
+	// position c and those of y from c on
+	void crossover(int x, int y, int c, int child) {
+		int from = x * wordsPerIndividual, to = child * wordsPerIndividual;
+		int word = c / genesPerWord;
+		long low = (1L << ((c % genesPerWord) * bitsPerGene)) - 1;
+		System.arraycopy(words, from, nextWords, to, word);
+		nextWords[to + word] = (words[from + word] & low)
+				| (words[y * wordsPerIndividual + word] & ~low);
+		System.arraycopy(words, y * wordsPerIndividual + word + 1, nextWords,
+				to + word + 1, wordsPerIndividual - word - 1);
+	}
+
+	// Makes the next generation the current one
+	void nextGeneration() {
+		long[] t = words;
+		words = nextWords;
+		nextWords = t;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static int symbolOf(char c, Character[] alphabet) {
+		for (int s = 0; s < alphabet.length; s++) {
+			if (alphabet[s].charValue() == c) {
+				return s;
+			}
+		}
+		throw new IllegalArgumentException(c + " is not in the alphabet");
+	}
+}
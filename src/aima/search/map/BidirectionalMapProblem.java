@@ -26,8 +26,27 @@ public class BidirectionalMapProblem extends Problem implements
 				new MapGoalTest(initialState), new MapStepCostFunction(aMap));
 	}
 
+	/**
+	 * If hf is an AdaptableHeuristicFunction the reverse problem uses its
+	 * adaptation to initialState, so that it estimates the distance back to
+	 * the initial state, otherwise it uses hf as is.
+	 */
 	public BidirectionalMapProblem(Map aMap, String initialState,
 			String goalState, HeuristicFunction hf) {
+		this(aMap, initialState, goalState, hf,
+				hf instanceof AdaptableHeuristicFunction ? ((AdaptableHeuristicFunction) hf)
+						.getAdaptation(initialState, aMap)
+						: hf);
+	}
+
+	/**
+	 * @param hf
+	 *            estimates the distance from a location to goalState.
+	 * @param reverseHf
+	 *            estimates the distance from a location to initialState.
+	 */
+	public BidirectionalMapProblem(Map aMap, String initialState,
+			String goalState, HeuristicFunction hf, HeuristicFunction reverseHf) {
 		super(initialState, new MapSuccessorFunction(aMap), new MapGoalTest(
 				goalState), new MapStepCostFunction(aMap), hf);
 
@@ -35,7 +54,7 @@ public class BidirectionalMapProblem extends Problem implements
 
 		reverseProblem = new Problem(goalState, new MapSuccessorFunction(aMap),
 				new MapGoalTest(initialState), new MapStepCostFunction(aMap),
-				hf);
+				reverseHf);
 	}
 
 	//
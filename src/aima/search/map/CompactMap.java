@@ -0,0 +1,438 @@
+package aima.search.map;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import aima.search.framework.Successor;
+
+/**
+ * An immutable map for large road networks. Locations are numbered 0..n-1
+ * and the links are held in compressed sparse row form: the links leaving
+ * location v are those numbered getFirstLink(v) to getFirstLink(v + 1) - 1,
+ * with their destinations and distances in plain int and double arrays.
+ * Positions are held in two double arrays. Looking a location up by name
+ * goes through an open addressing table of ints, so beyond the names
+ * themselves a location costs about 40 bytes and a link 12.
+ *
+ * The Map methods return read-only views onto these arrays rather than new
+ * lists, so MapAgent, MapEnvironment and the searches can run on a
+ * CompactMap unchanged. The locations linked to a location are in name
+ * order, as for ExtendableMap. MapSuccessorFunction also reuses a single
+ * Successor per location rather than creating them for every expansion.
+ *
+ * A CompactMap is made with a Builder, copied from another Map with
+ * copyOf(), or read from an edge list file with CompactMapLoader.
+ */
+public class CompactMap implements Map {
+
+	private final String[] names;
+
+	// nameTable[slot] is 1 + the id of the location whose name hashes there,
+	// or 0 if the slot is empty
+	private final int[] nameTable;
+
+	private final int[] firstLink;
+
+	private final int[] linkTargets;
+
+	private final double[] linkDistances;
+
+	// NaN where a location has no position
+	private final double[] xs, ys;
+
+	private final List<String> locations;
+
+	// Created the first time each location is generated as a successor
+	private final Successor[] successors;
+
+	private final Random random = new Random();
+
+	private CompactMap(String[] names, int[] nameTable, int[] firstLink,
+			int[] linkTargets, double[] linkDistances, double[] xs, double[] ys) {
+		this.names = names;
+		this.nameTable = nameTable;
+		this.firstLink = firstLink;
+		this.linkTargets = linkTargets;
+		this.linkDistances = linkDistances;
+		this.xs = xs;
+		this.ys = ys;
+		locations = Collections.unmodifiableList(Arrays.asList(names));
+		successors = new Successor[names.length];
+	}
+
+	/**
+	 * Returns a CompactMap with the locations, links and positions of map.
+	 */
+	public static CompactMap copyOf(Map map) {
+		Builder builder = new Builder();
+		for (String location : map.getLocations()) {
+			Point2D p = map.getPosition(location);
+			if (null == p) {
+				builder.addLocation(location);
+			} else {
+				builder.addLocation(location, p.getX(), p.getY());
+			}
+		}
+		for (String from : map.getLocations()) {
+			for (String to : map.getLocationsLinkedTo(from)) {
+				builder.addUnidirectionalLink(from, to, map.getDistance(from,
+						to));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns a CompactMap with the same locations, numbered the same, and
+	 * the links turned around, so that searching it from a location searches
+	 * backwards to that location in this map.
+	 */
+	public CompactMap reverse() {
+		Builder builder = new Builder();
+		for (int id = 0; id < names.length; id++) {
+			builder.addLocation(names[id], xs[id], ys[id]);
+		}
+		for (int id = 0; id < names.length; id++) {
+			for (int link = firstLink[id]; link < firstLink[id + 1]; link++) {
+				builder.addUnidirectionalLink(names[linkTargets[link]],
+						names[id], linkDistances[link]);
+			}
+		}
+		return builder.build();
+	}
+
+	//
+	// Primitive accessors
+	//
+	public int getLocationCount() {
+		return names.length;
+	}
+
+	public int getLinkCount() {
+		return linkTargets.length;
+	}
+
+	/**
+	 * @return the number of the location, or -1 if there is no such
+	 *         location.
+	 */
+	public int getId(String location) {
+		return lookup(names, nameTable, location);
+	}
+
+	public String getName(int id) {
+		return names[id];
+	}
+
+	/**
+	 * @return the number of the first link leaving location id. Those
+	 *         leaving it end just before getFirstLink(id + 1).
+	 */
+	public int getFirstLink(int id) {
+		return firstLink[id];
+	}
+
+	public int getLinkTarget(int link) {
+		return linkTargets[link];
+	}
+
+	public double getLinkDistance(int link) {
+		return linkDistances[link];
+	}
+
+	public double getX(int id) {
+		return xs[id];
+	}
+
+	public double getY(int id) {
+		return ys[id];
+	}
+
+	/**
+	 * Returns a Successor for each location linked to the given one, as
+	 * MapSuccessorFunction would create, but without creating new ones.
+	 */
+	public List<Successor> getSuccessors(String fromLocation) {
+		final int id = getId(fromLocation);
+		if (id < 0) {
+			return Collections.emptyList();
+		}
+		return new AbstractList<Successor>() {
+			@Override
+			public Successor get(int index) {
+				int target = linkTargets[linkIndex(id, index)];
+				Successor s = successors[target];
+				if (null == s) {
+					// Racing threads may create equal Successors; as its
+					// fields are final, a Successor read without
+					// synchronization is always seen whole
+					s = new Successor(names[target], names[target]);
+					successors[target] = s;
+				}
+				return s;
+			}
+
+			@Override
+			public int size() {
+				return firstLink[id + 1] - firstLink[id];
+			}
+		};
+	}
+
+	//
+	// START Interface - Map
+	public List<String> getLocations() {
+		return locations;
+	}
+
+	public List<String> getLocationsLinkedTo(String fromLocation) {
+		final int id = getId(fromLocation);
+		if (id < 0) {
+			return Collections.emptyList();
+		}
+		return new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				return names[linkTargets[linkIndex(id, index)]];
+			}
+
+			@Override
+			public int size() {
+				return firstLink[id + 1] - firstLink[id];
+			}
+		};
+	}
+
+	public Double getDistance(String fromLocation, String toLocation) {
+		int from = getId(fromLocation);
+		int to = getId(toLocation);
+		if (from < 0 || to < 0) {
+			return null;
+		}
+		for (int link = firstLink[from]; link < firstLink[from + 1]; link++) {
+			if (linkTargets[link] == to) {
+				return linkDistances[link];
+			}
+		}
+		return null;
+	}
+
+	public Point2D getPosition(String loc) {
+		int id = getId(loc);
+		if (id < 0 || Double.isNaN(xs[id])) {
+			return null;
+		}
+		return new Point2D(xs[id], ys[id]);
+	}
+
+	public String randomlyGenerateDestination() {
+		return names[random.nextInt(names.length)];
+	}
+
+	// END Interface - Map
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	private int linkIndex(int id, int index) {
+		if (index < 0 || index >= firstLink[id + 1] - firstLink[id]) {
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+		return firstLink[id] + index;
+	}
+
+	private static int slotFor(String name, int mask) {
+		int h = name.hashCode() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private static int lookup(String[] names, int[] table, String name) {
+		if (null == name) {
+			return -1;
+		}
+		int mask = table.length - 1;
+		for (int slot = slotFor(name, mask);; slot = (slot + 1) & mask) {
+			int entry = table[slot];
+			if (0 == entry) {
+				return -1;
+			}
+			if (names[entry - 1].equals(name)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	private static void insert(String[] names, int[] table, int id) {
+		int mask = table.length - 1;
+		int slot = slotFor(names[id], mask);
+		while (0 != table[slot]) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = id + 1;
+	}
+
+	/**
+	 * Collects locations and links into growable primitive arrays and then
+	 * builds a CompactMap from them. As for ExtendableMap, adding a link
+	 * that already exists replaces its distance, and locations are added as
+	 * links to them are.
+	 */
+	public static class Builder {
+		private String[] names = new String[16];
+
+		private int[] nameTable = new int[32];
+
+		private double[] xs = new double[16], ys = new double[16];
+
+		private int locationCount = 0;
+
+		private int[] froms = new int[16], tos = new int[16];
+
+		private double[] distances = new double[16];
+
+		private int linkCount = 0;
+
+		/**
+		 * Adds a location without a position, unless it exists already.
+		 *
+		 * @return the number of the location.
+		 */
+		public int addLocation(String name) {
+			int id = lookup(names, nameTable, name);
+			if (id >= 0) {
+				return id;
+			}
+			if (locationCount == names.length) {
+				int capacity = names.length << 1;
+				names = Arrays.copyOf(names, capacity);
+				xs = Arrays.copyOf(xs, capacity);
+				ys = Arrays.copyOf(ys, capacity);
+			}
+			id = locationCount++;
+			names[id] = name;
+			xs[id] = Double.NaN;
+			ys[id] = Double.NaN;
+			if (locationCount > nameTable.length >>> 1) {
+				nameTable = new int[nameTable.length << 1];
+				for (int i = 0; i < locationCount; i++) {
+					insert(names, nameTable, i);
+				}
+			} else {
+				insert(names, nameTable, id);
+			}
+			return id;
+		}
+
+		/**
+		 * Adds a location, or sets the position of an existing one.
+		 *
+		 * @return the number of the location.
+		 */
+		public int addLocation(String name, double x, double y) {
+			int id = addLocation(name);
+			xs[id] = x;
+			ys[id] = y;
+			return id;
+		}
+
+		public Builder addUnidirectionalLink(String fromLocation,
+				String toLocation, double distance) {
+			int from = addLocation(fromLocation);
+			int to = addLocation(toLocation);
+			if (linkCount == froms.length) {
+				int capacity = froms.length << 1;
+				froms = Arrays.copyOf(froms, capacity);
+				tos = Arrays.copyOf(tos, capacity);
+				distances = Arrays.copyOf(distances, capacity);
+			}
+			froms[linkCount] = from;
+			tos[linkCount] = to;
+			distances[linkCount] = distance;
+			linkCount++;
+			return this;
+		}
+
+		public Builder addBidirectionalLink(String fromLocation,
+				String toLocation, double distance) {
+			addUnidirectionalLink(fromLocation, toLocation, distance);
+			return addUnidirectionalLink(toLocation, fromLocation, distance);
+		}
+
+		public CompactMap build() {
+			int n = locationCount;
+			final String[] finalNames = Arrays.copyOf(names, n);
+
+			// Rank the locations by name, so each location's links can be
+			// put in name order
+			Integer[] byName = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				byName[i] = i;
+			}
+			Arrays.sort(byName, new Comparator<Integer>() {
+				public int compare(Integer a, Integer b) {
+					return finalNames[a].compareTo(finalNames[b]);
+				}
+			});
+			int[] rank = new int[n];
+			for (int i = 0; i < n; i++) {
+				rank[byName[i]] = i;
+			}
+
+			// Counting sort of the links by origin, keeping the order they
+			// were added in
+			int[] first = new int[n + 1];
+			for (int l = 0; l < linkCount; l++) {
+				first[froms[l] + 1]++;
+			}
+			for (int v = 0; v < n; v++) {
+				first[v + 1] += first[v];
+			}
+			int[] next = Arrays.copyOf(first, n);
+			int[] order = new int[linkCount];
+			for (int l = 0; l < linkCount; l++) {
+				order[next[froms[l]]++] = l;
+			}
+
+			// Sort each location's links by destination name, then drop all
+			// but the last added of any links to the same destination
+			long[] keys = new long[linkCount];
+			for (int v = 0; v < n; v++) {
+				for (int i = first[v]; i < first[v + 1]; i++) {
+					keys[i] = ((long) rank[tos[order[i]]] << 32) | (i - first[v]);
+				}
+				Arrays.sort(keys, first[v], first[v + 1]);
+			}
+			int[] targets = new int[linkCount];
+			double[] dists = new double[linkCount];
+			int[] compactFirst = new int[n + 1];
+			int m = 0;
+			for (int v = 0; v < n; v++) {
+				compactFirst[v] = m;
+				for (int i = first[v]; i < first[v + 1]; i++) {
+					int l = order[first[v] + (int) keys[i]];
+					if (m > compactFirst[v] && targets[m - 1] == tos[l]) {
+						m--;
+					}
+					targets[m] = tos[l];
+					dists[m] = distances[l];
+					m++;
+				}
+			}
+			compactFirst[n] = m;
+
+			int[] table = new int[Math.max(2,
+					Integer.highestOneBit(Math.max(1, n)) << 2)];
+			for (int i = 0; i < n; i++) {
+				insert(finalNames, table, i);
+			}
+			return new CompactMap(finalNames, table, compactFirst, Arrays
+					.copyOf(targets, m), Arrays.copyOf(dists, m), Arrays
+					.copyOf(xs, n), Arrays.copyOf(ys, n));
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package aima.search.map;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Reads and writes CompactMaps as edge list text files, a line at a time, so
+ * that a map of millions of links can be loaded without holding more than
+ * the CompactMap.Builder's arrays. Each line is one of
+ *
+ * <pre>
+ * v name x y       a location and its position
+ * e from to dist   a link from one location to another
+ * b from to dist   links both ways between two locations
+ * </pre>
+ *
+ * with fields separated by spaces or tabs. Blank lines and lines starting
+ * with # are skipped. Locations need not be declared with a v line before
+ * links to them, but only v lines give positions. Names cannot contain
+ * white space.
+ */
+public class CompactMapLoader {
+
+	public static CompactMap load(File file) throws IOException {
+		Reader in = new FileReader(file);
+		try {
+			return load(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	public static CompactMap load(Reader in) throws IOException {
+		BufferedReader reader = new BufferedReader(in, 1 << 16);
+		CompactMap.Builder builder = new CompactMap.Builder();
+		String[] fields = new String[4];
+		String line;
+		int lineNumber = 0;
+		while (null != (line = reader.readLine())) {
+			lineNumber++;
+			int count = split(line, fields);
+			if (0 == count || fields[0].startsWith("#")) {
+				continue;
+			}
+			if (4 != count || 1 != fields[0].length()) {
+				throw new IOException("Line " + lineNumber
+						+ " should be a record type and 3 fields: " + line);
+			}
+			try {
+				switch (fields[0].charAt(0)) {
+				case 'v':
+					builder.addLocation(fields[1], Double
+							.parseDouble(fields[2]), Double
+							.parseDouble(fields[3]));
+					break;
+				case 'e':
+					builder.addUnidirectionalLink(fields[1], fields[2], Double
+							.parseDouble(fields[3]));
+					break;
+				case 'b':
+					builder.addBidirectionalLink(fields[1], fields[2], Double
+							.parseDouble(fields[3]));
+					break;
+				default:
+					throw new IOException("Line " + lineNumber
+							+ " starts with an unknown record type: " + line);
+				}
+			} catch (NumberFormatException e) {
+				throw new IOException("Line " + lineNumber
+						+ " has a malformed number: " + line);
+			}
+		}
+		return builder.build();
+	}
+
+	public static void write(CompactMap map, File file) throws IOException {
+		Writer out = new FileWriter(file);
+		try {
+			write(map, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes a v line for each location with a position, then an e line for
+	 * each link. Locations with neither a position nor links are lost.
+	 */
+	public static void write(CompactMap map, Writer out) throws IOException {
+		BufferedWriter writer = new BufferedWriter(out, 1 << 16);
+		for (int id = 0; id < map.getLocationCount(); id++) {
+			if (!Double.isNaN(map.getX(id))) {
+				writer.write("v " + map.getName(id) + " " + map.getX(id) + " "
+						+ map.getY(id));
+				writer.newLine();
+			}
+		}
+		for (int id = 0; id < map.getLocationCount(); id++) {
+			for (int link = map.getFirstLink(id); link < map
+					.getFirstLink(id + 1); link++) {
+				writer.write("e " + map.getName(id) + " "
+						+ map.getName(map.getLinkTarget(link)) + " "
+						+ map.getLinkDistance(link));
+				writer.newLine();
+			}
+		}
+		writer.flush();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Splits line at white space into up to fields.length fields, returning
+	// how many there were (fields.length + 1 if there were more)
+	private static int split(String line, String[] fields) {
+		int count = 0;
+		int i = 0, n = line.length();
+		while (true) {
+			while (i < n && Character.isWhitespace(line.charAt(i))) {
+				i++;
+			}
+			if (i == n) {
+				return count;
+			}
+			int start = i;
+			while (i < n && !Character.isWhitespace(line.charAt(i))) {
+				i++;
+			}
+			if (count == fields.length) {
+				return count + 1;
+			}
+			fields[count++] = line.substring(start, i);
+		}
+	}
+}
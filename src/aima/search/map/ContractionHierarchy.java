@@ -0,0 +1,562 @@
+package aima.search.map;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import aima.util.IndexedDoubleHeap;
+
+/**
+ * The contraction hierarchy (Geisberger, Sanders, Schultes and Delling,
+ * "Contraction Hierarchies: Faster and Simpler Hierarchical Routing in Road
+ * Networks", WEA 2008) of a CompactMap, the preprocessing behind
+ * ContractionHierarchySearch.
+ *
+ * The locations are contracted one at a time, least important first. When
+ * location v is contracted, a shortcut u -> x is added for each pair of
+ * links u -> v -> x (u and x not yet contracted) unless a witness search
+ * from u that avoids v finds a path to x no longer than the one through v.
+ * Importance is twice the number of shortcuts contracting a location would
+ * add less the number of edges it would remove, plus the number of its
+ * neighbours already contracted and its level (how many contractions
+ * deep its contracted neighbours are), which spreads the contractions
+ * evenly over the map. It is kept up to date lazily: a location taken from
+ * the front of the queue whose recomputed importance is no longer the
+ * lowest goes back in. A location's rank is when it was
+ * contracted. Every shortest path then has a version, through shortcuts,
+ * that only climbs in rank and then only falls, which a query finds by
+ * searching upwards from both ends.
+ *
+ * Each shortcut remembers the two links or shortcuts it replaces, so that
+ * paths can be unpacked to the map's own links. Witness searches stop after
+ * settling a limited number of locations, which can only add shortcuts
+ * that were not needed, never lose a shortest path.
+ *
+ * As for MapStepCostFunction, a link of distance 0 or less costs 1.
+ * save() writes the map and the hierarchy to a binary file that load() reads
+ * back, so that a service need not redo the preprocessing when it starts.
+ */
+public class ContractionHierarchy {
+
+	public static final int DEFAULT_WITNESS_SETTLE_LIMIT = 500;
+
+	private static final int MAGIC = 0x43484D31; // "CHM1"
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final CompactMap map;
+
+	private final int[] rank;
+
+	// All links and shortcuts. Shortcut e replaces first[e] then second[e],
+	// which are -1 for a link of the map. edgeFrom[e] is -1 if e was
+	// superseded by a cheaper shortcut between the same locations, and so
+	// is only kept for unpacking the shortcuts that replace it
+	private final int[] edgeFrom, edgeTo, edgeFirst, edgeSecond;
+
+	private final double[] edgeCost;
+
+	// The edges leaving each location to a higher ranked one, and those
+	// entering each location from a higher ranked one, in CSR form
+	private final int[] upStart, upEdges, downStart, downEdges;
+
+	private ContractionHierarchy(CompactMap map, int[] rank, int[] edgeFrom,
+			int[] edgeTo, int[] edgeFirst, int[] edgeSecond, double[] edgeCost) {
+		this.map = map;
+		this.rank = rank;
+		this.edgeFrom = edgeFrom;
+		this.edgeTo = edgeTo;
+		this.edgeFirst = edgeFirst;
+		this.edgeSecond = edgeSecond;
+		this.edgeCost = edgeCost;
+
+		int n = rank.length;
+		upStart = new int[n + 1];
+		downStart = new int[n + 1];
+		for (int e = 0; e < edgeFrom.length; e++) {
+			if (edgeFrom[e] < 0) {
+				continue;
+			}
+			if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+				upStart[edgeFrom[e] + 1]++;
+			} else {
+				downStart[edgeTo[e] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			upStart[v + 1] += upStart[v];
+			downStart[v + 1] += downStart[v];
+		}
+		upEdges = new int[upStart[n]];
+		downEdges = new int[downStart[n]];
+		int[] upNext = Arrays.copyOf(upStart, n);
+		int[] downNext = Arrays.copyOf(downStart, n);
+		for (int e = 0; e < edgeFrom.length; e++) {
+			if (edgeFrom[e] < 0) {
+				continue;
+			}
+			if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+				upEdges[upNext[edgeFrom[e]]++] = e;
+			} else {
+				downEdges[downNext[edgeTo[e]]++] = e;
+			}
+		}
+	}
+
+	public static ContractionHierarchy build(Map map) {
+		return build(map instanceof CompactMap ? (CompactMap) map : CompactMap
+				.copyOf(map), DEFAULT_WITNESS_SETTLE_LIMIT);
+	}
+
+	public static ContractionHierarchy build(CompactMap map,
+			int witnessSettleLimit) {
+		return new Contractor(map, witnessSettleLimit).contractAll();
+	}
+
+	public static ContractionHierarchy load(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file), 1 << 16));
+		try {
+			if (MAGIC != in.readInt()) {
+				throw new IOException(file + " is not a contraction hierarchy");
+			}
+			int n = in.readInt();
+			// Adding the locations in order gives them their original ids
+			CompactMap.Builder builder = new CompactMap.Builder();
+			String[] names = new String[n];
+			for (int v = 0; v < n; v++) {
+				names[v] = in.readUTF();
+				builder.addLocation(names[v], in.readDouble(), in.readDouble());
+			}
+			int[] linkStart = readInts(in, n + 1);
+			int[] linkTargets = readInts(in, linkStart[n]);
+			double[] linkDistances = readDoubles(in, linkStart[n]);
+			for (int v = 0; v < n; v++) {
+				for (int link = linkStart[v]; link < linkStart[v + 1]; link++) {
+					builder.addUnidirectionalLink(names[v],
+							names[linkTargets[link]], linkDistances[link]);
+				}
+			}
+			int[] rank = readInts(in, n);
+			int m = in.readInt();
+			return new ContractionHierarchy(builder.build(), rank, readInts(
+					in, m), readInts(in, m), readInts(in, m), readInts(in, m),
+					readDoubles(in, m));
+		} catch (EOFException e) {
+			throw new IOException(file + " is truncated");
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the map, with its positions, and the hierarchy to file.
+	 */
+	public void save(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), 1 << 16));
+		try {
+			int n = map.getLocationCount();
+			out.writeInt(MAGIC);
+			out.writeInt(n);
+			for (int v = 0; v < n; v++) {
+				out.writeUTF(map.getName(v));
+				out.writeDouble(map.getX(v));
+				out.writeDouble(map.getY(v));
+			}
+			for (int v = 0; v <= n; v++) {
+				out.writeInt(map.getFirstLink(v));
+			}
+			for (int link = 0; link < map.getLinkCount(); link++) {
+				out.writeInt(map.getLinkTarget(link));
+			}
+			for (int link = 0; link < map.getLinkCount(); link++) {
+				out.writeDouble(map.getLinkDistance(link));
+			}
+			writeInts(out, rank);
+			out.writeInt(edgeFrom.length);
+			writeInts(out, edgeFrom);
+			writeInts(out, edgeTo);
+			writeInts(out, edgeFirst);
+			writeInts(out, edgeSecond);
+			for (double cost : edgeCost) {
+				out.writeDouble(cost);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	public CompactMap getMap() {
+		return map;
+	}
+
+	public int getRank(int location) {
+		return rank[location];
+	}
+
+	/**
+	 * @return the number of links and shortcuts searched by queries.
+	 */
+	public int getEdgeCount() {
+		return upEdges.length + downEdges.length;
+	}
+
+	public int getShortcutCount() {
+		int shortcuts = 0;
+		for (int e = 0; e < edgeFrom.length; e++) {
+			if (edgeFrom[e] >= 0 && edgeFirst[e] >= 0) {
+				shortcuts++;
+			}
+		}
+		return shortcuts;
+	}
+
+	//
+	// Accessors for ContractionHierarchySearch
+	//
+	int getUpStart(int location) {
+		return upStart[location];
+	}
+
+	int getUpEdge(int i) {
+		return upEdges[i];
+	}
+
+	int getDownStart(int location) {
+		return downStart[location];
+	}
+
+	int getDownEdge(int i) {
+		return downEdges[i];
+	}
+
+	int getEdgeFrom(int edge) {
+		return edgeFrom[edge];
+	}
+
+	int getEdgeTo(int edge) {
+		return edgeTo[edge];
+	}
+
+	double getEdgeCost(int edge) {
+		return edgeCost[edge];
+	}
+
+	/**
+	 * Appends to path the locations reached along edge, after its origin,
+	 * unpacking shortcuts into the map's own links.
+	 */
+	void unpack(int edge, List<String> path) {
+		if (edgeFirst[edge] < 0) {
+			path.add(map.getName(edgeTo[edge]));
+		} else {
+			unpack(edgeFirst[edge], path);
+			unpack(edgeSecond[edge], path);
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static int[] readInts(DataInputStream in, int count)
+			throws IOException {
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	private static double[] readDoubles(DataInputStream in, int count)
+			throws IOException {
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = in.readDouble();
+		}
+		return values;
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values)
+			throws IOException {
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	// The graph as it is while being contracted, with each location's
+	// incoming and outgoing edges in growable lists of edge numbers
+	private static class Contractor {
+		private final CompactMap map;
+
+		private final int witnessSettleLimit;
+
+		private final int n;
+
+		private int[] from, to, first, second;
+
+		private double[] cost;
+
+		private int edgeCount = 0;
+
+		private final int[][] out, in;
+
+		private final int[] outSize, inSize;
+
+		private final int[] contractedNeighbours;
+
+		// One more than the highest level of the contracted neighbours
+		private final int[] level;
+
+		// Witness search state, reset after each search
+		private final double[] dist;
+
+		private final int[] touched;
+
+		private int touchedCount = 0;
+
+		private final IndexedDoubleHeap witnessQueue;
+
+		// targetOf[x] == search if x is a target of the current search
+		private final int[] targetOf;
+
+		private int search = 0;
+
+		Contractor(CompactMap map, int witnessSettleLimit) {
+			this.map = map;
+			this.witnessSettleLimit = witnessSettleLimit;
+			n = map.getLocationCount();
+			int capacity = Math.max(16, map.getLinkCount() * 2);
+			from = new int[capacity];
+			to = new int[capacity];
+			first = new int[capacity];
+			second = new int[capacity];
+			cost = new double[capacity];
+			out = new int[n][];
+			in = new int[n][];
+			outSize = new int[n];
+			inSize = new int[n];
+			for (int v = 0; v < n; v++) {
+				out[v] = new int[4];
+				in[v] = new int[4];
+			}
+			contractedNeighbours = new int[n];
+			level = new int[n];
+			dist = new double[n];
+			Arrays.fill(dist, INFINITY);
+			touched = new int[n];
+			witnessQueue = new IndexedDoubleHeap(n);
+			targetOf = new int[n];
+
+			for (int v = 0; v < n; v++) {
+				for (int link = map.getFirstLink(v); link < map
+						.getFirstLink(v + 1); link++) {
+					int x = map.getLinkTarget(link);
+					double d = map.getLinkDistance(link);
+					if (x != v) {
+						addOrImprove(v, x, d > 0 ? d : 1.0, -1, -1);
+					}
+				}
+			}
+		}
+
+		ContractionHierarchy contractAll() {
+			IndexedDoubleHeap order = new IndexedDoubleHeap(n);
+			for (int v = 0; v < n; v++) {
+				order.put(v, importance(v));
+			}
+			int[] rank = new int[n];
+			int next = 0;
+			while (!order.isEmpty()) {
+				int v = order.removeMin();
+				double importance = importance(v);
+				if (!order.isEmpty() && importance > order.peekKey()) {
+					order.put(v, importance);
+					continue;
+				}
+				contract(v, false);
+				rank[v] = next++;
+				// Take v's edges out of its neighbours' lists, leaving only
+				// those between uncontracted locations for the searches
+				for (int i = 0; i < inSize[v]; i++) {
+					int e = in[v][i];
+					outSize[from[e]] = remove(out[from[e]], outSize[from[e]], e);
+				}
+				for (int i = 0; i < outSize[v]; i++) {
+					int e = out[v][i];
+					inSize[to[e]] = remove(in[to[e]], inSize[to[e]], e);
+				}
+				for (int i = 0; i < inSize[v]; i++) {
+					updateNeighbour(v, from[in[v][i]], order);
+				}
+				for (int i = 0; i < outSize[v]; i++) {
+					updateNeighbour(v, to[out[v][i]], order);
+				}
+			}
+			return new ContractionHierarchy(map, rank, Arrays.copyOf(from,
+					edgeCount), Arrays.copyOf(to, edgeCount), Arrays.copyOf(
+					first, edgeCount), Arrays.copyOf(second, edgeCount),
+					Arrays.copyOf(cost, edgeCount));
+		}
+
+		// Rather than recomputing the importance of each neighbour, which
+		// costs a witness search per incoming edge, this only adds the
+		// change in contracted neighbours, and contractAll() recomputes it
+		// when it reaches the front of the queue
+		private void updateNeighbour(int v, int u, IndexedDoubleHeap order) {
+			contractedNeighbours[u]++;
+			level[u] = Math.max(level[u], level[v] + 1);
+			order.put(u, order.getKey(u) + 1);
+		}
+
+		private double importance(int v) {
+			return 2 * (contract(v, true) - inSize[v] - outSize[v])
+					+ contractedNeighbours[v] + level[v];
+		}
+
+		// Removes e from the first size entries of edges, returning the new
+		// size
+		private static int remove(int[] edges, int size, int e) {
+			for (int i = 0; i < size; i++) {
+				if (edges[i] == e) {
+					edges[i] = edges[size - 1];
+					return size - 1;
+				}
+			}
+			return size;
+		}
+
+		// Adds, or only counts if simulating, the shortcuts that contracting
+		// v needs
+		private int contract(int v, boolean simulate) {
+			int shortcuts = 0;
+			for (int i = 0; i < inSize[v]; i++) {
+				int e1 = in[v][i];
+				int u = from[e1];
+				double maxCost = 0;
+				int targets = 0;
+				search++;
+				for (int j = 0; j < outSize[v]; j++) {
+					int x = to[out[v][j]];
+					if (x != u) {
+						maxCost = Math.max(maxCost, cost[e1]
+								+ cost[out[v][j]]);
+						targetOf[x] = search;
+						targets++;
+					}
+				}
+				if (0 == targets) {
+					continue;
+				}
+				witnessSearch(u, v, maxCost, targets);
+				for (int j = 0; j < outSize[v]; j++) {
+					int e2 = out[v][j];
+					int x = to[e2];
+					if (x != u && dist[x] > cost[e1] + cost[e2]) {
+						shortcuts++;
+						if (!simulate) {
+							addOrImprove(u, x, cost[e1] + cost[e2], e1, e2);
+						}
+					}
+				}
+				resetWitnessSearch();
+			}
+			return shortcuts;
+		}
+
+		// Dijkstra from u over uncontracted locations other than v, until
+		// all the targets are settled, maxCost is passed or the settle limit
+		// is reached
+		private void witnessSearch(int u, int v, double maxCost, int targets) {
+			visit(u, 0);
+			witnessQueue.put(u, 0);
+			int settled = 0;
+			while (!witnessQueue.isEmpty()
+					&& witnessQueue.peekKey() <= maxCost
+					&& settled < witnessSettleLimit) {
+				int w = witnessQueue.removeMin();
+				settled++;
+				if (targetOf[w] == search && 0 == --targets) {
+					return;
+				}
+				for (int i = 0; i < outSize[w]; i++) {
+					int e = out[w][i];
+					int x = to[e];
+					double d = dist[w] + cost[e];
+					if (x != v && d < dist[x]) {
+						visit(x, d);
+						witnessQueue.put(x, d);
+					}
+				}
+			}
+		}
+
+		private void visit(int x, double d) {
+			if (INFINITY == dist[x]) {
+				touched[touchedCount++] = x;
+			}
+			dist[x] = d;
+		}
+
+		private void resetWitnessSearch() {
+			for (int i = 0; i < touchedCount; i++) {
+				dist[touched[i]] = INFINITY;
+			}
+			touchedCount = 0;
+			witnessQueue.clear();
+		}
+
+		// Adds the edge u -> x unless there is one already that costs no
+		// more. One that costs more is superseded rather than changed, as
+		// earlier shortcuts may unpack through it.
+		private void addOrImprove(int u, int x, double c, int e1, int e2) {
+			for (int i = 0; i < outSize[u]; i++) {
+				int e = out[u][i];
+				if (to[e] == x) {
+					if (c >= cost[e]) {
+						return;
+					}
+					from[e] = -1;
+					out[u][i] = out[u][--outSize[u]];
+					for (int j = 0; j < inSize[x]; j++) {
+						if (in[x][j] == e) {
+							in[x][j] = in[x][--inSize[x]];
+							break;
+						}
+					}
+					break;
+				}
+			}
+			if (edgeCount == from.length) {
+				int capacity = from.length << 1;
+				from = Arrays.copyOf(from, capacity);
+				to = Arrays.copyOf(to, capacity);
+				first = Arrays.copyOf(first, capacity);
+				second = Arrays.copyOf(second, capacity);
+				cost = Arrays.copyOf(cost, capacity);
+			}
+			int e = edgeCount++;
+			from[e] = u;
+			to[e] = x;
+			cost[e] = c;
+			first[e] = e1;
+			second[e] = e2;
+			if (outSize[u] == out[u].length) {
+				out[u] = Arrays.copyOf(out[u], outSize[u] << 1);
+			}
+			out[u][outSize[u]++] = e;
+			if (inSize[x] == in[x].length) {
+				in[x] = Arrays.copyOf(in[x], inSize[x] << 1);
+			}
+			in[x][inSize[x]++] = e;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package aima.search.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import aima.search.framework.BidirectionalProblem;
+import aima.search.framework.Metrics;
+import aima.search.framework.NodeExpander;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+import aima.util.IndexedDoubleHeap;
+
+/**
+ * Answers route queries over a ContractionHierarchy with a bidirectional
+ * Dijkstra search that only moves up in rank: forwards from the initial
+ * state of a BidirectionalProblem (e.g. a BidirectionalMapProblem over the
+ * hierarchy's map) and backwards from the initial state of its reverse
+ * problem, i.e. the goal. The search stops once neither fringe has a
+ * location closer than the best path found through a location both
+ * searches have settled, and the path is unpacked into the map's own links.
+ * As with the other map searches the actions are the locations visited.
+ *
+ * The distance arrays and queues are allocated once, for the size of the
+ * map, and reset after each query in time proportional to what it touched,
+ * so a search can answer many queries cheaply. A search is not safe for use
+ * by several threads at once, but any number of them can share a
+ * hierarchy.
+ */
+public class ContractionHierarchySearch extends NodeExpander implements
+		Search {
+
+	public static final String PATH_COST = "pathCost";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final ContractionHierarchy hierarchy;
+
+	private final Metrics.Counter nodesExpanded;
+
+	private final Direction forward, backward;
+
+	public ContractionHierarchySearch(ContractionHierarchy hierarchy) {
+		this.hierarchy = hierarchy;
+		int n = hierarchy.getMap().getLocationCount();
+		forward = new Direction(n, true);
+		backward = new Direction(n, false);
+		nodesExpanded = metrics.counter(NODES_EXPANDED);
+	}
+
+	public ContractionHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		if (!(p instanceof BidirectionalProblem)) {
+			throw new IllegalArgumentException(
+					"ContractionHierarchySearch requires a BidirectionalProblem");
+		}
+		clearInstrumentation();
+		int source = locationOf(p.getInitialState());
+		int target = locationOf(((BidirectionalProblem) p).getReverseProblem()
+				.getInitialState());
+
+		List<String> actions = new ArrayList<String>();
+		try {
+			double best = INFINITY;
+			int meeting = -1;
+			forward.start(source);
+			backward.start(target);
+			while (true) {
+				double forwardMin = forward.peekDistance();
+				double backwardMin = backward.peekDistance();
+				Direction expanding = forwardMin <= backwardMin ? forward
+						: backward;
+				Direction other = expanding == forward ? backward : forward;
+				if (Math.min(forwardMin, backwardMin) >= best) {
+					break;
+				}
+				int v = expanding.settleNext();
+				nodesExpanded.increment();
+				if (other.dist[v] < INFINITY
+						&& expanding.dist[v] + other.dist[v] < best) {
+					best = expanding.dist[v] + other.dist[v];
+					meeting = v;
+				}
+			}
+
+			if (meeting < 0) {
+				// Empty List can indicate already at Goal
+				// or unable to find valid set of actions
+				return actions;
+			}
+			metrics.set(PATH_COST, best);
+			int[] edges = new int[16];
+			int count = 0;
+			for (int v = meeting; v != source; v = hierarchy
+					.getEdgeFrom(forward.parent[v])) {
+				if (count == edges.length) {
+					edges = Arrays.copyOf(edges, count << 1);
+				}
+				edges[count++] = forward.parent[v];
+			}
+			while (count > 0) {
+				hierarchy.unpack(edges[--count], actions);
+			}
+			for (int v = meeting; v != target; v = hierarchy
+					.getEdgeTo(backward.parent[v])) {
+				hierarchy.unpack(backward.parent[v], actions);
+			}
+			return actions;
+		} finally {
+			forward.reset();
+			backward.reset();
+		}
+	}
+
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		metrics.set(PATH_COST, 0.0);
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int locationOf(Object state) {
+		int location = hierarchy.getMap().getId(state.toString());
+		if (location < 0) {
+			throw new IllegalArgumentException(state
+					+ " is not a location of the hierarchy's map");
+		}
+		return location;
+	}
+
+	// The state of the search from one end
+	private class Direction {
+		final boolean isForward;
+
+		final double[] dist;
+
+		// The edge each location was reached by
+		final int[] parent;
+
+		final int[] touched;
+
+		int touchedCount = 0;
+
+		final IndexedDoubleHeap queue;
+
+		Direction(int n, boolean isForward) {
+			this.isForward = isForward;
+			dist = new double[n];
+			Arrays.fill(dist, INFINITY);
+			parent = new int[n];
+			touched = new int[n];
+			queue = new IndexedDoubleHeap(n);
+		}
+
+		void start(int location) {
+			touched[touchedCount++] = location;
+			dist[location] = 0;
+			queue.put(location, 0);
+		}
+
+		double peekDistance() {
+			return queue.isEmpty() ? INFINITY : queue.peekKey();
+		}
+
+		int settleNext() {
+			int v = queue.removeMin();
+			if (isForward) {
+				for (int i = hierarchy.getUpStart(v); i < hierarchy
+						.getUpStart(v + 1); i++) {
+					int e = hierarchy.getUpEdge(i);
+					relax(hierarchy.getEdgeTo(e), dist[v]
+							+ hierarchy.getEdgeCost(e), e);
+				}
+			} else {
+				for (int i = hierarchy.getDownStart(v); i < hierarchy
+						.getDownStart(v + 1); i++) {
+					int e = hierarchy.getDownEdge(i);
+					relax(hierarchy.getEdgeFrom(e), dist[v]
+							+ hierarchy.getEdgeCost(e), e);
+				}
+			}
+			return v;
+		}
+
+		void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				dist[touched[i]] = INFINITY;
+			}
+			touchedCount = 0;
+			queue.clear();
+		}
+
+		private void relax(int x, double d, int edge) {
+			if (d < dist[x]) {
+				if (INFINITY == dist[x]) {
+					touched[touchedCount++] = x;
+				}
+				dist[x] = d;
+				parent[x] = edge;
+				queue.put(x, d);
+			}
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package aima.search.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes origin x destination matrices of travel costs over a map: one
+ * Dijkstra search from each origin to every location (see ShortestPaths)
+ * gives a whole row, where a search per pair would start from scratch for
+ * each destination. The origins are split between the tasks of a
+ * ForkJoinPool, each of which reuses one ShortestPaths for its origins.
+ *
+ * A matrix is returned as a double[][] with a row per origin, or for large
+ * matrices written to a MappedDistanceMatrix. Unreachable destinations have
+ * infinite cost. Costs are those of MapStepCostFunction, i.e. a link of
+ * distance 0 or less costs 1. getPath() finds the route behind an entry
+ * when it is wanted.
+ */
+public class DistanceMatrixService {
+
+	private final CompactMap map;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Computes matrices in the common ForkJoinPool.
+	 */
+	public DistanceMatrixService(Map map) {
+		this(map, ForkJoinPool.commonPool());
+	}
+
+	public DistanceMatrixService(Map map, ForkJoinPool pool) {
+		this.map = map instanceof CompactMap ? (CompactMap) map : CompactMap
+				.copyOf(map);
+		this.pool = pool;
+	}
+
+	public CompactMap getMap() {
+		return map;
+	}
+
+	/**
+	 * @return the costs from each origin, by row, to each destination, by
+	 *         column.
+	 */
+	public double[][] computeMatrix(List<String> origins,
+			List<String> destinations) {
+		double[][] matrix = new double[origins.size()][];
+		pool.invoke(new RowsTask(ids(origins), ids(destinations), matrix,
+				null, 0, origins.size(), leafSize(origins.size())));
+		return matrix;
+	}
+
+	/**
+	 * Computes the matrix into file, which is created or replaced, and
+	 * returns it mapped into memory.
+	 */
+	public MappedDistanceMatrix computeMatrix(List<String> origins,
+			List<String> destinations, File file) throws IOException {
+		int[] originIds = ids(origins), destinationIds = ids(destinations);
+		MappedDistanceMatrix matrix = MappedDistanceMatrix.create(file,
+				origins, destinations);
+		pool.invoke(new RowsTask(originIds, destinationIds, null, matrix, 0,
+				origins.size(), leafSize(origins.size())));
+		matrix.force();
+		return matrix;
+	}
+
+	/**
+	 * Returns the locations after origin on a cheapest path from origin to
+	 * destination, as the actions of a map search would be, or an empty
+	 * list if there is no such path or they are the same location. Searches
+	 * only as far from origin as destination is.
+	 */
+	public List<String> getPath(String origin, String destination) {
+		ShortestPaths paths = new ShortestPaths(map);
+		int target = id(destination);
+		paths.compute(id(origin), target);
+		return paths.getPathTo(target);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int[] ids(List<String> locations) {
+		int[] ids = new int[locations.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = id(locations.get(i));
+		}
+		return ids;
+	}
+
+	private int id(String location) {
+		int id = map.getId(location);
+		if (id < 0) {
+			throw new IllegalArgumentException(location
+					+ " is not a location of the map");
+		}
+		return id;
+	}
+
+	// About four tasks per thread, so that threads finishing early can
+	// steal work
+	private int leafSize(int origins) {
+		return Math.max(1, origins / (4 * pool.getParallelism()));
+	}
+
+	// Computes the rows for origins first to last - 1 into rows, or mapped
+	// if rows is null, splitting the range in two until it is no more than
+	// leafSize
+	private class RowsTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] origins, destinations;
+
+		private final double[][] rows;
+
+		private final MappedDistanceMatrix mapped;
+
+		private final int first, last, leafSize;
+
+		RowsTask(int[] origins, int[] destinations, double[][] rows,
+				MappedDistanceMatrix mapped, int first, int last, int leafSize) {
+			this.origins = origins;
+			this.destinations = destinations;
+			this.rows = rows;
+			this.mapped = mapped;
+			this.first = first;
+			this.last = last;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (last - first > leafSize) {
+				int middle = (first + last) >>> 1;
+				invokeAll(new RowsTask(origins, destinations, rows, mapped,
+						first, middle, leafSize), new RowsTask(origins,
+						destinations, rows, mapped, middle, last, leafSize));
+				return;
+			}
+			ShortestPaths paths = new ShortestPaths(map);
+			for (int i = first; i < last; i++) {
+				paths.compute(origins[i]);
+				double[] row = new double[destinations.length];
+				for (int j = 0; j < destinations.length; j++) {
+					row[j] = paths.getDistance(destinations[j]);
+				}
+				if (null != rows) {
+					rows[i] = row;
+				} else {
+					mapped.setRow(i, row);
+				}
+			}
+		}
+	}
+}
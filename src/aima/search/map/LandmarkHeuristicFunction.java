@@ -0,0 +1,44 @@
+package aima.search.map;
+
+/**
+ * Estimates the distance from a location to the goal from the distance
+ * tables of a set of Landmarks (ALT), for AStarSearch and MapAgent on maps
+ * with or without positions. As an AdaptableHeuristicFunction it must be
+ * adapted to a goal before use. The map it is adapted with is not
+ * consulted: the estimates are for the map the Landmarks were computed
+ * over, which must have the same links.
+ *
+ * Locations, or a goal, not on the Landmarks' map are estimated at 0.
+ */
+public class LandmarkHeuristicFunction extends AdaptableHeuristicFunction {
+
+	private final Landmarks landmarks;
+
+	// The goal's id, or -1 if it is not on the Landmarks' map
+	private int goalId = -1;
+
+	public LandmarkHeuristicFunction(Landmarks landmarks) {
+		this.landmarks = landmarks;
+	}
+
+	public Landmarks getLandmarks() {
+		return landmarks;
+	}
+
+	@Override
+	public AdaptableHeuristicFunction getAdaptation(Object goal, Map map) {
+		LandmarkHeuristicFunction result = (LandmarkHeuristicFunction) super
+				.getAdaptation(goal, map);
+		result.goalId = null == goal ? -1 : landmarks.getMap().getId(
+				goal.toString());
+		return result;
+	}
+
+	public double getHeuristicValue(Object state) {
+		if (goalId < 0) {
+			return 0.0;
+		}
+		int id = landmarks.getMap().getId(state.toString());
+		return id < 0 ? 0.0 : landmarks.lowerBound(id, goalId);
+	}
+}
@@ -0,0 +1,320 @@
+package aima.search.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Distance tables for ALT search (A*, Landmarks and the Triangle
+ * inequality, Goldberg and Harrelson, "Computing the Shortest Path: A*
+ * Search Meets Graph Theory", SODA 2005). For each of a few landmark
+ * locations L the cost of the shortest path from L to every location v,
+ * d(L, v), and from every location to L, d(v, L), are computed in advance.
+ * By the triangle inequality
+ *
+ * <code>
+ *   d(v, t) >= d(L, t) - d(L, v)   and   d(v, t) >= d(v, L) - d(t, L)
+ * </code>
+ *
+ * so the greatest of these over the landmarks is an admissible and
+ * consistent estimate of the cost from v to t, which
+ * LandmarkHeuristicFunction gives A*. Unlike straight line distance it
+ * needs no positions and follows the detours of the road network.
+ *
+ * The tables are two double arrays with a row of landmark distances per
+ * location, so an estimate reads two short runs of adjacent entries. Each
+ * landmark's two tables are computed as separate tasks in a ForkJoinPool.
+ * Landmarks can be given, or selected from the map by
+ * <ul>
+ * <li>FARTHEST: each landmark is the location farthest from those already
+ * chosen, starting from the one farthest from a random location;</li>
+ * <li>AVOID: each landmark is a leaf of the shortest path tree from a
+ * random root, found by going down into the subtree, without a landmark,
+ * where the current estimates fall shortest of the true distances
+ * (Goldberg and Werneck, "Computing Point-to-Point Shortest Paths from
+ * External Memory", ALENEX 2005).</li>
+ * </ul>
+ *
+ * As for MapStepCostFunction, a link of distance 0 or less costs 1.
+ */
+public class Landmarks {
+
+	public enum Selection {
+		FARTHEST, AVOID
+	};
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final CompactMap map;
+
+	private final CompactMap reverseMap;
+
+	private final int[] landmarks;
+
+	// fromLandmark[v * landmarks.length + l] is d(landmark l, v), and
+	// toLandmark[v * landmarks.length + l] is d(v, landmark l)
+	private final double[] fromLandmark, toLandmark;
+
+	// Landmarks whose tables have been computed, during selection
+	private int landmarkCount = 0;
+
+	private Landmarks(CompactMap map, int count) {
+		this.map = map;
+		reverseMap = map.reverse();
+		landmarks = new int[count];
+		fromLandmark = new double[count * map.getLocationCount()];
+		toLandmark = new double[count * map.getLocationCount()];
+	}
+
+	/**
+	 * Computes the tables for the given landmarks in the common ForkJoinPool.
+	 */
+	public static Landmarks of(Map map, List<String> landmarks) {
+		return of(map, landmarks, ForkJoinPool.commonPool());
+	}
+
+	public static Landmarks of(Map map, List<String> landmarks,
+			ForkJoinPool pool) {
+		CompactMap compact = compact(map);
+		Landmarks result = new Landmarks(compact, landmarks.size());
+		for (int l = 0; l < landmarks.size(); l++) {
+			int id = compact.getId(landmarks.get(l));
+			if (id < 0) {
+				throw new IllegalArgumentException(landmarks.get(l)
+						+ " is not a location of the map");
+			}
+			result.landmarks[l] = id;
+		}
+		result.computeTables(0, landmarks.size(), pool);
+		return result;
+	}
+
+	/**
+	 * Selects count landmarks (or every location, if there are fewer) and
+	 * computes their tables in the common ForkJoinPool.
+	 */
+	public static Landmarks select(Map map, int count, Selection selection,
+			Random random) {
+		return select(map, count, selection, random, ForkJoinPool
+				.commonPool());
+	}
+
+	public static Landmarks select(Map map, int count, Selection selection,
+			Random random, ForkJoinPool pool) {
+		CompactMap compact = compact(map);
+		Landmarks result = new Landmarks(compact, Math.min(count, compact
+				.getLocationCount()));
+		ShortestPaths paths = new ShortestPaths(compact);
+		for (int l = 0; l < result.landmarks.length; l++) {
+			int landmark = -1;
+			if (Selection.AVOID == selection) {
+				landmark = result.avoid(paths, random.nextInt(compact
+						.getLocationCount()));
+			}
+			if (landmark < 0) {
+				landmark = result.farthest(paths, random);
+			}
+			result.landmarks[l] = landmark;
+			result.computeTables(l, l + 1, pool);
+		}
+		return result;
+	}
+
+	public CompactMap getMap() {
+		return map;
+	}
+
+	public List<String> getLandmarks() {
+		List<String> names = new ArrayList<String>();
+		for (int landmark : landmarks) {
+			names.add(map.getName(landmark));
+		}
+		return names;
+	}
+
+	/**
+	 * @return a lower bound on the cost of the shortest path from location
+	 *         from to location to, both given by id.
+	 */
+	public double lowerBound(int from, int to) {
+		int k = landmarks.length;
+		int v = from * k, t = to * k;
+		double bound = 0;
+		for (int l = 0; l < landmarkCount; l++) {
+			double forward = fromLandmark[t + l] - fromLandmark[v + l];
+			double backward = toLandmark[v + l] - toLandmark[t + l];
+			// A difference with an infinite distance in it is skipped, as
+			// NaN, or infinite, which is only a bound if the map is
+			// strongly connected
+			if (forward > bound && forward < INFINITY) {
+				bound = forward;
+			}
+			if (backward > bound && backward < INFINITY) {
+				bound = backward;
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * @return a lower bound on the cost of the shortest path from location
+	 *         from to location to, or 0 if either is not on the map.
+	 */
+	public double lowerBound(String from, String to) {
+		int v = map.getId(from), t = map.getId(to);
+		return v < 0 || t < 0 ? 0.0 : lowerBound(v, t);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static CompactMap compact(Map map) {
+		return map instanceof CompactMap ? (CompactMap) map : CompactMap
+				.copyOf(map);
+	}
+
+	// Computes the tables of landmarks first to last - 1, a task for each
+	// direction of each landmark
+	private void computeTables(int first, int last, ForkJoinPool pool) {
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for (int l = first; l < last; l++) {
+			tasks.add(tableTask(map, l, fromLandmark));
+			tasks.add(tableTask(reverseMap, l, toLandmark));
+		}
+		try {
+			for (Future<Object> f : pool.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted computing landmark distances", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(
+					"Failed computing landmark distances", e.getCause());
+		}
+		landmarkCount = last;
+	}
+
+	private Callable<Object> tableTask(final CompactMap searched, final int l,
+			final double[] table) {
+		return new Callable<Object>() {
+			public Object call() {
+				ShortestPaths paths = new ShortestPaths(searched);
+				paths.compute(landmarks[l]);
+				paths.copyDistances(table, l, landmarks.length);
+				return null;
+			}
+		};
+	}
+
+	// The location farthest from the landmarks chosen so far, or from a
+	// random location if there are none. Locations no landmark reaches
+	// count as farthest of all.
+	private int farthest(ShortestPaths paths, Random random) {
+		int n = map.getLocationCount();
+		int k = landmarks.length;
+		double[] nearest = new double[n];
+		if (0 == landmarkCount) {
+			paths.compute(random.nextInt(n));
+			for (int v = 0; v < n; v++) {
+				nearest[v] = paths.getDistance(v);
+			}
+		} else {
+			Arrays.fill(nearest, INFINITY);
+			for (int v = 0; v < n; v++) {
+				for (int l = 0; l < landmarkCount; l++) {
+					nearest[v] = Math.min(nearest[v], fromLandmark[v * k + l]);
+				}
+			}
+		}
+		int farthest = -1;
+		for (int v = 0; v < n; v++) {
+			if (!isLandmark(v)
+					&& (farthest < 0 || nearest[v] > nearest[farthest])) {
+				farthest = v;
+			}
+		}
+		return farthest;
+	}
+
+	// The leaf reached by going down from root's shortest path tree into
+	// the subtree of greatest total shortfall, d(root, v) less its lower
+	// bound, among those without a landmark. -1 if every subtree has one.
+	private int avoid(ShortestPaths paths, int root) {
+		int n = map.getLocationCount();
+		paths.compute(root);
+		int reached = paths.getSettledCount();
+		double[] size = new double[n];
+		boolean[] hasLandmark = new boolean[n];
+		// Children after their parents in settled order, so sum backwards
+		for (int i = reached - 1; i >= 0; i--) {
+			int v = paths.getSettled(i);
+			hasLandmark[v] |= isLandmark(v);
+			size[v] = hasLandmark[v] ? 0 : size[v] + paths.getDistance(v)
+					- lowerBound(root, v);
+			int parent = paths.getParent(v);
+			if (parent >= 0) {
+				size[parent] += size[v];
+				hasLandmark[parent] |= hasLandmark[v];
+			}
+		}
+		int w = -1;
+		for (int i = 0; i < reached; i++) {
+			int v = paths.getSettled(i);
+			if (size[v] > 0 && (w < 0 || size[v] > size[w])) {
+				w = v;
+			}
+		}
+		if (w < 0) {
+			return -1;
+		}
+		// Children of each location, in CSR form
+		int[] childStart = new int[n + 1];
+		for (int i = 0; i < reached; i++) {
+			int parent = paths.getParent(paths.getSettled(i));
+			if (parent >= 0) {
+				childStart[parent + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			childStart[v + 1] += childStart[v];
+		}
+		int[] children = new int[childStart[n]];
+		int[] next = Arrays.copyOf(childStart, n);
+		for (int i = 0; i < reached; i++) {
+			int v = paths.getSettled(i);
+			int parent = paths.getParent(v);
+			if (parent >= 0) {
+				children[next[parent]++] = v;
+			}
+		}
+		while (true) {
+			int best = -1;
+			for (int i = childStart[w]; i < childStart[w + 1]; i++) {
+				int c = children[i];
+				if (size[c] > 0 && (best < 0 || size[c] > size[best])) {
+					best = c;
+				}
+			}
+			if (best < 0) {
+				return w;
+			}
+			w = best;
+		}
+	}
+
+	private boolean isLandmark(int v) {
+		for (int l = 0; l < landmarkCount; l++) {
+			if (landmarks[l] == v) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
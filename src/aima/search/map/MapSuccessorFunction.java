@@ -33,6 +33,10 @@ public class MapSuccessorFunction implements SuccessorFunction {
 					.getAttribute(DynAttributeNames.PERCEPT_IN);
 		}
 
+		if (map instanceof CompactMap) {
+			return ((CompactMap) map).getSuccessors(location);
+		}
+
 		List<String> linkedLocations = map.getLocationsLinkedTo(location);
 		for (String linkLoc : linkedLocations) {
 			successors.add(new Successor(linkLoc, linkLoc));
@@ -0,0 +1,189 @@
+package aima.search.map;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An origin x destination matrix of travel costs held in a memory-mapped
+ * file rather than on the heap, for matrices too large for a double[][].
+ * The file starts with the names of the origins and destinations, followed
+ * by the costs as doubles, a row per origin. The rows are mapped in chunks
+ * of at most 1 GB, so the matrix is limited only by the address space.
+ * Unreachable destinations have infinite cost.
+ *
+ * Made by DistanceMatrixService, or opened read only from a file it wrote.
+ * Rows may be written by several threads at once, as long as no two write
+ * the same row.
+ */
+public class MappedDistanceMatrix {
+
+	private static final int MAGIC = 0x444D4131; // "DMA1"
+
+	private static final long CHUNK_BYTES = 1L << 30;
+
+	private final List<String> origins, destinations;
+
+	private final int rowsPerChunk;
+
+	private final MappedByteBuffer[] mapped;
+
+	// Views of mapped as doubles
+	private final DoubleBuffer[] chunks;
+
+	private MappedDistanceMatrix(List<String> origins,
+			List<String> destinations, MappedByteBuffer[] mapped,
+			DoubleBuffer[] chunks, int rowsPerChunk) {
+		this.origins = Collections.unmodifiableList(origins);
+		this.destinations = Collections.unmodifiableList(destinations);
+		this.mapped = mapped;
+		this.chunks = chunks;
+		this.rowsPerChunk = rowsPerChunk;
+	}
+
+	/**
+	 * Creates file, or replaces it, to hold a matrix for the given origins
+	 * and destinations, and maps it for writing.
+	 */
+	static MappedDistanceMatrix create(File file, List<String> origins,
+			List<String> destinations) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(0);
+			raf.writeInt(MAGIC);
+			raf.writeInt(origins.size());
+			raf.writeInt(destinations.size());
+			for (String origin : origins) {
+				raf.writeUTF(origin);
+			}
+			for (String destination : destinations) {
+				raf.writeUTF(destination);
+			}
+			return map(raf, FileChannel.MapMode.READ_WRITE,
+					new ArrayList<String>(origins), new ArrayList<String>(
+							destinations));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Maps a matrix previously written by DistanceMatrixService, read only.
+	 */
+	public static MappedDistanceMatrix open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			if (MAGIC != raf.readInt()) {
+				throw new IOException(file + " is not a distance matrix");
+			}
+			int rows = raf.readInt();
+			int columns = raf.readInt();
+			List<String> origins = new ArrayList<String>(rows);
+			for (int i = 0; i < rows; i++) {
+				origins.add(raf.readUTF());
+			}
+			List<String> destinations = new ArrayList<String>(columns);
+			for (int j = 0; j < columns; j++) {
+				destinations.add(raf.readUTF());
+			}
+			return map(raf, FileChannel.MapMode.READ_ONLY, origins,
+					destinations);
+		} catch (EOFException e) {
+			throw new IOException(file + " is truncated");
+		} finally {
+			raf.close();
+		}
+	}
+
+	public List<String> getOrigins() {
+		return origins;
+	}
+
+	public List<String> getDestinations() {
+		return destinations;
+	}
+
+	public int getRowCount() {
+		return origins.size();
+	}
+
+	public int getColumnCount() {
+		return destinations.size();
+	}
+
+	/**
+	 * @return the cost from origin i to destination j.
+	 */
+	public double get(int i, int j) {
+		return chunks[i / rowsPerChunk].get((i % rowsPerChunk)
+				* destinations.size() + j);
+	}
+
+	/**
+	 * Copies the costs from origin i into row.
+	 */
+	public void getRow(int i, double[] row) {
+		DoubleBuffer chunk = chunks[i / rowsPerChunk].duplicate();
+		chunk.position((i % rowsPerChunk) * destinations.size());
+		chunk.get(row, 0, destinations.size());
+	}
+
+	/**
+	 * Writes any changes to the matrix out to its file.
+	 */
+	public void force() {
+		for (MappedByteBuffer buffer : mapped) {
+			if (!buffer.isReadOnly()) {
+				buffer.force();
+			}
+		}
+	}
+
+	void setRow(int i, double[] row) {
+		DoubleBuffer chunk = chunks[i / rowsPerChunk].duplicate();
+		chunk.position((i % rowsPerChunk) * destinations.size());
+		chunk.put(row, 0, destinations.size());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Maps the rows, which start at the next multiple of 8 bytes
+	private static MappedDistanceMatrix map(RandomAccessFile raf,
+			FileChannel.MapMode mode, List<String> origins,
+			List<String> destinations) throws IOException {
+		long rowBytes = 8L * Math.max(1, destinations.size());
+		if (rowBytes > CHUNK_BYTES) {
+			throw new IllegalArgumentException("Too many destinations: "
+					+ destinations.size());
+		}
+		int rowsPerChunk = (int) (CHUNK_BYTES / rowBytes);
+		long start = (raf.getFilePointer() + 7) & ~7L;
+		long end = start + 8L * origins.size() * destinations.size();
+		FileChannel channel = raf.getChannel();
+		if (FileChannel.MapMode.READ_WRITE == mode) {
+			raf.setLength(end);
+		} else if (channel.size() < end) {
+			throw new IOException("Distance matrix file is truncated");
+		}
+		int chunkCount = (origins.size() + rowsPerChunk - 1) / rowsPerChunk;
+		MappedByteBuffer[] mapped = new MappedByteBuffer[chunkCount];
+		DoubleBuffer[] chunks = new DoubleBuffer[chunkCount];
+		for (int c = 0; c < chunkCount; c++) {
+			long offset = start + (long) c * rowsPerChunk * rowBytes;
+			long length = Math.min(rowsPerChunk * rowBytes, end - offset);
+			mapped[c] = channel.map(mode, offset, length);
+			chunks[c] = mapped[c].asDoubleBuffer();
+		}
+		return new MappedDistanceMatrix(origins, destinations, mapped,
+				chunks, rowsPerChunk);
+	}
+}
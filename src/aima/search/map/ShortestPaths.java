@@ -0,0 +1,165 @@
+package aima.search.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import aima.util.IndexedDoubleHeap;
+
+/**
+ * Dijkstra's algorithm from one location to all the others of a
+ * CompactMap, over arrays indexed by location id. The arrays are allocated
+ * once and compute() only resets the entries the previous search touched,
+ * so an instance can run many searches over one map cheaply. Not safe for
+ * use by several threads at once; give each thread its own.
+ *
+ * As for MapStepCostFunction, a link of distance 0 or less costs 1.
+ */
+public class ShortestPaths {
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final CompactMap map;
+
+	private final double[] distances;
+
+	// The location each was reached from, -1 for the source
+	private final int[] parents;
+
+	// The locations in the order they were settled, i.e. by distance
+	private final int[] settled;
+
+	private int settledCount = 0;
+
+	private final IndexedDoubleHeap queue;
+
+	private int source = -1;
+
+	public ShortestPaths(CompactMap map) {
+		this.map = map;
+		int n = map.getLocationCount();
+		distances = new double[n];
+		Arrays.fill(distances, INFINITY);
+		parents = new int[n];
+		settled = new int[n];
+		queue = new IndexedDoubleHeap(n);
+	}
+
+	public static double linkCost(double distance) {
+		return distance > 0 ? distance : 1.0;
+	}
+
+	public CompactMap getMap() {
+		return map;
+	}
+
+	/**
+	 * Finds the shortest paths from source to every location reachable
+	 * from it.
+	 */
+	public void compute(int source) {
+		compute(source, -1);
+	}
+
+	/**
+	 * Finds the shortest paths from source to target, and to every location
+	 * no farther away than target, stopping once target is reached. target
+	 * -1 stops at no location.
+	 */
+	public void compute(int source, int target) {
+		for (int i = 0; i < settledCount; i++) {
+			distances[settled[i]] = INFINITY;
+		}
+		// Locations left in the queue by a search stopped at its target
+		while (!queue.isEmpty()) {
+			distances[queue.removeMin()] = INFINITY;
+		}
+		settledCount = 0;
+		this.source = source;
+		distances[source] = 0;
+		parents[source] = -1;
+		queue.put(source, 0);
+		while (!queue.isEmpty()) {
+			int v = queue.removeMin();
+			settled[settledCount++] = v;
+			if (v == target) {
+				break;
+			}
+			double d = distances[v];
+			for (int link = map.getFirstLink(v); link < map
+					.getFirstLink(v + 1); link++) {
+				int x = map.getLinkTarget(link);
+				double dx = d + linkCost(map.getLinkDistance(link));
+				if (dx < distances[x]) {
+					distances[x] = dx;
+					parents[x] = v;
+					queue.put(x, dx);
+				}
+			}
+		}
+	}
+
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the cost of the shortest path from the source to location,
+	 *         or infinity if there is none. After a search stopped at its
+	 *         target, only the distances of settled locations are final.
+	 */
+	public double getDistance(int location) {
+		return distances[location];
+	}
+
+	/**
+	 * @return the location before location on the shortest path to it, or
+	 *         -1 for the source or a location that cannot be reached.
+	 */
+	public int getParent(int location) {
+		return INFINITY == distances[location] ? -1 : parents[location];
+	}
+
+	/**
+	 * @return the number of locations reached by the last search.
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * @return the ith location reached, in order of distance.
+	 */
+	public int getSettled(int i) {
+		return settled[i];
+	}
+
+	/**
+	 * Copies the distances into every stride-th element of a, starting at
+	 * offset, e.g. for a table with one row per location.
+	 */
+	public void copyDistances(double[] a, int offset, int stride) {
+		for (int v = 0; v < distances.length; v++) {
+			a[offset + v * stride] = distances[v];
+		}
+	}
+
+	/**
+	 * Returns the locations after the source on the shortest path to
+	 * location, as the actions a map search would return, or an empty list
+	 * if there is no path.
+	 */
+	public List<String> getPathTo(int location) {
+		List<String> path = new ArrayList<String>();
+		if (INFINITY == distances[location]) {
+			return path;
+		}
+		for (int v = location; v != source; v = parents[v]) {
+			path.add(map.getName(v));
+		}
+		for (int i = 0, j = path.size() - 1; i < j; i++, j--) {
+			path.set(j, path.set(i, path.get(j)));
+		}
+		return path;
+	}
+}
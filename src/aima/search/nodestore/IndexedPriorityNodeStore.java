@@ -0,0 +1,229 @@
+package aima.search.nodestore;
+
+import java.util.HashMap;
+import java.util.List;
+
+import aima.search.framework.EvaluationFunction;
+import aima.search.framework.Node;
+import aima.search.framework.NodeStore;
+import aima.search.framework.Problem;
+
+/**
+ * A priority NodeStore implemented as an indexed d-ary min-heap keyed by
+ * state. The value of the EvaluationFunction is calculated once, when a node
+ * is added, and cached as a primitive double, so it is not re-evaluated on
+ * every comparison.
+ *
+ * The store holds at most one node per state. Adding a node for a state that
+ * is already in the store performs a decrease-key if the new node has a lower
+ * value (the old node is replaced in place); otherwise the new node is
+ * discarded. The size of the fringe is therefore bounded by the number of
+ * distinct states, instead of growing with every duplicate generated.
+ */
+public class IndexedPriorityNodeStore implements NodeStore {
+
+	public static final int DEFAULT_ARITY = 4;
+
+	private final Problem problem;
+
+	private final EvaluationFunction evaluationFunction;
+
+	private final int arity;
+
+	private final HashMap<Object, Entry> entries = new HashMap<Object, Entry>();
+
+	private Entry[] heap = new Entry[16];
+
+	private int size = 0;
+
+	private long insertions = 0;
+
+	public IndexedPriorityNodeStore(Problem p, EvaluationFunction ef) {
+		this(p, ef, DEFAULT_ARITY);
+	}
+
+	public IndexedPriorityNodeStore(Problem p, EvaluationFunction ef, int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("Arity must be >= 2: " + arity);
+		}
+		this.problem = p;
+		this.evaluationFunction = ef;
+		this.arity = arity;
+	}
+
+	public boolean containsNodeBasedOn(Object state) {
+		return entries.containsKey(state);
+	}
+
+	public Node getNodeBasedOn(Object state) {
+		Entry e = entries.get(state);
+		return null == e ? null : e.node;
+	}
+
+	/**
+	 * @return the cached value of the node held for state, or
+	 *         Double.POSITIVE_INFINITY if no node is held for it.
+	 */
+	public double getValueOf(Object state) {
+		Entry e = entries.get(state);
+		return null == e ? Double.POSITIVE_INFINITY : e.value;
+	}
+
+	/**
+	 * @return the cached value of the node that remove() would return, or
+	 *         Double.POSITIVE_INFINITY if the store is empty.
+	 */
+	public double peekValue() {
+		return size == 0 ? Double.POSITIVE_INFINITY : heap[0].value;
+	}
+
+	/**
+	 * Replace the node held for the state of aNode if value is lower than
+	 * the value currently held for it.
+	 *
+	 * @return true if aNode is now held by the store.
+	 */
+	public boolean decreaseKey(Node aNode, double value) {
+		Entry e = entries.get(aNode.getState());
+		if (null == e || value >= e.value) {
+			return false;
+		}
+		e.node = aNode;
+		e.value = value;
+		e.order = insertions++;
+		siftUp(e.index);
+		return true;
+	}
+
+	//
+	// START Interface - NodeStore
+	public void add(Node anItem) {
+		double value = evaluationFunction.getValue(problem, anItem)
+				.doubleValue();
+		Entry e = entries.get(anItem.getState());
+		if (null != e) {
+			decreaseKey(anItem, value);
+			return;
+		}
+		if (size == heap.length) {
+			Entry[] grown = new Entry[heap.length << 1];
+			System.arraycopy(heap, 0, grown, 0, size);
+			heap = grown;
+		}
+		e = new Entry(anItem, value, size, insertions++);
+		heap[size++] = e;
+		entries.put(anItem.getState(), e);
+		siftUp(e.index);
+	}
+
+	public Node remove() {
+		Entry top = heap[0];
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			heap[0].index = 0;
+			siftDown(0);
+		}
+		heap[size] = null;
+		entries.remove(top.node.getState());
+		return top.node;
+	}
+
+	public void add(List<Node> nodes) {
+		for (Node n : nodes) {
+			add(n);
+		}
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// END Interface - NodeStore
+	//
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(heap[i].node);
+		}
+		return sb.append("]").toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void siftUp(int index) {
+		Entry e = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) / arity;
+			if (!lessThan(e, heap[parent])) {
+				break;
+			}
+			heap[index] = heap[parent];
+			heap[index].index = index;
+			index = parent;
+		}
+		heap[index] = e;
+		e.index = index;
+	}
+
+	private void siftDown(int index) {
+		Entry e = heap[index];
+		while (true) {
+			int first = index * arity + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + arity, size);
+			int smallest = first;
+			for (int c = first + 1; c < last; c++) {
+				if (lessThan(heap[c], heap[smallest])) {
+					smallest = c;
+				}
+			}
+			if (!lessThan(heap[smallest], e)) {
+				break;
+			}
+			heap[index] = heap[smallest];
+			heap[index].index = index;
+			index = smallest;
+		}
+		heap[index] = e;
+		e.index = index;
+	}
+
+	// Ties are broken in favour of the most recently added node, which
+	// gives a deterministic order and prefers the deeper of equal nodes.
+	private boolean lessThan(Entry e1, Entry e2) {
+		if (e1.value != e2.value) {
+			return e1.value < e2.value;
+		}
+		return e1.order > e2.order;
+	}
+
+	private static class Entry {
+		Node node;
+
+		double value;
+
+		int index;
+
+		long order;
+
+		Entry(Node node, double value, int index, long order) {
+			this.node = node;
+			this.value = value;
+			this.index = index;
+			this.order = order;
+		}
+	}
+}
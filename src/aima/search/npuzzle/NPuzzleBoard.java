@@ -0,0 +1,222 @@
+package aima.search.npuzzle;
+
+import aima.search.eightpuzzle.EightPuzzleBoard;
+
+/**
+ * An immutable board of a width x width sliding tile puzzle: the 8 puzzle
+ * (width 3), 15 puzzle (width 4) or 24 puzzle (width 5). Squares are numbered
+ * row major from 0, tiles from 1, and 0 stands for the gap. In the goal
+ * state tile t is on square t and the gap on square 0, as for
+ * EightPuzzleGoalTest.
+ *
+ * The tiles are packed into one long (two for the 24 puzzle), so a move is a
+ * couple of shifts and masks and produces no garbage besides the new board.
+ * The board also carries the position of the gap and its Manhattan
+ * distance, which are updated incrementally as moves are made.
+ */
+public class NPuzzleBoard {
+
+	private static final String[] ACTIONS = new String[] { EightPuzzleBoard.UP,
+			EightPuzzleBoard.DOWN, EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT };
+
+	private final NPuzzleLayout layout;
+
+	private final long lo, hi;
+
+	private final int gap;
+
+	private final int manhattan;
+
+	public NPuzzleBoard(int width, int[] tiles) {
+		layout = NPuzzleLayout.forWidth(width);
+		if (tiles.length != layout.size) {
+			throw new IllegalArgumentException("Expected " + layout.size
+					+ " tiles but got " + tiles.length);
+		}
+		boolean[] seen = new boolean[layout.size];
+		long l = 0L, h = 0L;
+		int g = -1, md = 0;
+		for (int sq = 0; sq < layout.size; sq++) {
+			int tile = tiles[sq];
+			if (tile < 0 || tile >= layout.size || seen[tile]) {
+				throw new IllegalArgumentException(
+						"Tiles must be a permutation of 0.." + (layout.size - 1));
+			}
+			seen[tile] = true;
+			if (0 == tile) {
+				g = sq;
+			}
+			l = layout.orLo(l, sq, tile);
+			h = layout.orHi(h, sq, tile);
+			md += layout.manhattan[tile * layout.size + sq];
+		}
+		lo = l;
+		hi = h;
+		gap = g;
+		manhattan = md;
+	}
+
+	private NPuzzleBoard(NPuzzleLayout layout, long lo, long hi, int gap,
+			int manhattan) {
+		this.layout = layout;
+		this.lo = lo;
+		this.hi = hi;
+		this.gap = gap;
+		this.manhattan = manhattan;
+	}
+
+	/**
+	 * Returns the goal board of the given width.
+	 */
+	public static NPuzzleBoard goal(int width) {
+		int[] tiles = new int[width * width];
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = i;
+		}
+		return new NPuzzleBoard(width, tiles);
+	}
+
+	/**
+	 * Returns the board that getPackedState() returned the given value for.
+	 */
+	public static NPuzzleBoard fromPackedState(int width, long packed) {
+		NPuzzleLayout layout = NPuzzleLayout.forWidth(width);
+		if (!layout.isSingleLong()) {
+			throw new UnsupportedOperationException("A board of width "
+					+ width + " does not fit in a long");
+		}
+		return new NPuzzleBoard(layout, packed, 0L, layout.gapOf(packed),
+				layout.manhattanOf(packed));
+	}
+
+	public int getWidth() {
+		return layout.width;
+	}
+
+	public int getSize() {
+		return layout.size;
+	}
+
+	public int getTileAt(int square) {
+		return layout.get(lo, hi, square);
+	}
+
+	public int[] getTiles() {
+		int[] tiles = new int[layout.size];
+		for (int sq = 0; sq < tiles.length; sq++) {
+			tiles[sq] = getTileAt(sq);
+		}
+		return tiles;
+	}
+
+	public int getGapPosition() {
+		return gap;
+	}
+
+	public int getManhattanDistance() {
+		return manhattan;
+	}
+
+	public boolean isGoal() {
+		// Every tile in place leaves the gap on square 0
+		return 0 == manhattan;
+	}
+
+	/**
+	 * Returns the board packed 4 bits per square into a single long, square i
+	 * being held in bits 4i..4i+3. Only available for the 8 and 15 puzzles.
+	 */
+	public long getPackedState() {
+		if (!layout.isSingleLong()) {
+			throw new UnsupportedOperationException("A board of width "
+					+ layout.width + " does not fit in a long");
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns true if the gap can be moved in the direction of one of the
+	 * EightPuzzleBoard actions UP, DOWN, LEFT and RIGHT.
+	 */
+	public boolean canMoveGap(String where) {
+		int to = layout.neighbours[gap][direction(where)];
+		return NPuzzleLayout.NO_SQUARE != to;
+	}
+
+	/**
+	 * Returns the board that results from moving the gap in the direction of
+	 * one of the EightPuzzleBoard actions UP, DOWN, LEFT and RIGHT, or null if
+	 * the gap cannot be moved that way.
+	 */
+	public NPuzzleBoard moveGap(String where) {
+		return moveGap(direction(where));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof NPuzzleBoard)) {
+			return false;
+		}
+		NPuzzleBoard other = (NPuzzleBoard) o;
+		return layout == other.layout && lo == other.lo && hi == other.hi;
+	}
+
+	@Override
+	public int hashCode() {
+		long h = (lo ^ (hi * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int sq = 0; sq < layout.size; sq++) {
+			if (sq > 0) {
+				sb.append(0 == sq % layout.width ? '\n' : ' ');
+			}
+			int tile = getTileAt(sq);
+			if (layout.size > 10 && tile < 10) {
+				sb.append(' ');
+			}
+			sb.append(tile);
+		}
+		return sb.toString();
+	}
+
+	//
+	// PACKAGE METHODS
+	//
+	static String actionName(int direction) {
+		return ACTIONS[direction];
+	}
+
+	NPuzzleBoard moveGap(int direction) {
+		int to = layout.neighbours[gap][direction];
+		if (NPuzzleLayout.NO_SQUARE == to) {
+			return null;
+		}
+		// The tile on square 'to' slides into the gap
+		int tile = layout.get(lo, hi, to);
+		int[] md = layout.manhattan;
+		int size = layout.size;
+		long l = layout.orLo(layout.clearLo(lo, to), gap, tile);
+		long h = layout.orHi(layout.clearHi(hi, to), gap, tile);
+		return new NPuzzleBoard(layout, l, h, to, manhattan
+				- md[tile * size + to] + md[tile * size + gap]);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static int direction(String where) {
+		for (int d = 0; d < ACTIONS.length; d++) {
+			if (ACTIONS[d].equals(where)) {
+				return d;
+			}
+		}
+		throw new IllegalArgumentException("Unknown move " + where);
+	}
+}
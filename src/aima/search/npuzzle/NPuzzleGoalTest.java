@@ -0,0 +1,13 @@
+package aima.search.npuzzle;
+
+import aima.search.framework.GoalTest;
+
+/**
+ * The goal has tile t on square t and the gap on square 0.
+ */
+public class NPuzzleGoalTest implements GoalTest {
+
+	public boolean isGoalState(Object state) {
+		return ((NPuzzleBoard) state).isGoal();
+	}
+}
@@ -0,0 +1,146 @@
+package aima.search.npuzzle;
+
+/**
+ * The geometry of a width x width sliding tile puzzle and the bit layout used
+ * to pack its boards. Square i (0..size-1, row major) holds a tile number,
+ * 0 being the gap, in a field of bitsPerSquare bits starting at bit
+ * i * bitsPerSquare of a 128 bit value held as two longs (lo, hi). Boards of
+ * up to 16 squares (the 8 and 15 puzzles) use 4 bit fields and fit entirely
+ * in lo; the 24 puzzle uses 5 bit fields and spills into hi.
+ *
+ * Also holds the tables shared by all boards of a size: the square the gap
+ * moves to for each direction, and the Manhattan distance of every tile from
+ * every square.
+ */
+final class NPuzzleLayout {
+	static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+
+	static final int NO_SQUARE = -1;
+
+	private static final NPuzzleLayout[] LAYOUTS = new NPuzzleLayout[6];
+
+	final int width;
+
+	final int size;
+
+	final int bitsPerSquare;
+
+	final long fieldMask;
+
+	// neighbours[square][direction], NO_SQUARE if off the board
+	final int[][] neighbours;
+
+	// manhattan[tile * size + square]
+	final int[] manhattan;
+
+	// Set in the lowest bit of each field, for finding the gap in a
+	// single long by the "has zero nibble" trick
+	final long lowBits;
+
+	static synchronized NPuzzleLayout forWidth(int width) {
+		if (width < 2 || width >= LAYOUTS.length) {
+			throw new IllegalArgumentException("Unsupported puzzle width "
+					+ width + ", must be from 2 to " + (LAYOUTS.length - 1));
+		}
+		if (null == LAYOUTS[width]) {
+			LAYOUTS[width] = new NPuzzleLayout(width);
+		}
+		return LAYOUTS[width];
+	}
+
+	private NPuzzleLayout(int width) {
+		this.width = width;
+		size = width * width;
+		bitsPerSquare = size <= 16 ? 4 : 5;
+		fieldMask = (1L << bitsPerSquare) - 1;
+		neighbours = new int[size][4];
+		manhattan = new int[size * size];
+		long low = 0L;
+		for (int sq = 0; sq < size; sq++) {
+			int row = sq / width, col = sq % width;
+			neighbours[sq][UP] = row > 0 ? sq - width : NO_SQUARE;
+			neighbours[sq][DOWN] = row < width - 1 ? sq + width : NO_SQUARE;
+			neighbours[sq][LEFT] = col > 0 ? sq - 1 : NO_SQUARE;
+			neighbours[sq][RIGHT] = col < width - 1 ? sq + 1 : NO_SQUARE;
+			for (int tile = 1; tile < size; tile++) {
+				// Tile t belongs on square t, the gap on square 0
+				manhattan[tile * size + sq] = Math.abs(tile / width - row)
+						+ Math.abs(tile % width - col);
+			}
+			if (isSingleLong()) {
+				low |= 1L << (sq * bitsPerSquare);
+			}
+		}
+		lowBits = low;
+	}
+
+	boolean isSingleLong() {
+		return size * bitsPerSquare <= 64;
+	}
+
+	int get(long lo, long hi, int square) {
+		int shift = square * bitsPerSquare;
+		if (shift >= 64) {
+			return (int) ((hi >>> (shift - 64)) & fieldMask);
+		}
+		long v = lo >>> shift;
+		if (shift + bitsPerSquare > 64) {
+			v |= hi << (64 - shift);
+		}
+		return (int) (v & fieldMask);
+	}
+
+	// Only valid on a field currently holding 0
+	long orLo(long lo, int square, int tile) {
+		int shift = square * bitsPerSquare;
+		return shift >= 64 ? lo : lo | ((long) tile << shift);
+	}
+
+	long orHi(long hi, int square, int tile) {
+		int shift = square * bitsPerSquare;
+		if (shift >= 64) {
+			return hi | ((long) tile << (shift - 64));
+		}
+		return shift + bitsPerSquare > 64 ? hi
+				| ((long) tile >>> (64 - shift)) : hi;
+	}
+
+	long clearLo(long lo, int square) {
+		int shift = square * bitsPerSquare;
+		return shift >= 64 ? lo : lo & ~(fieldMask << shift);
+	}
+
+	long clearHi(long hi, int square) {
+		int shift = square * bitsPerSquare;
+		if (shift >= 64) {
+			return hi & ~(fieldMask << (shift - 64));
+		}
+		return shift + bitsPerSquare > 64 ? hi
+				& ~(fieldMask >>> (64 - shift)) : hi;
+	}
+
+	/**
+	 * Returns the square holding the gap of a board packed into a single long
+	 * (4 bit fields) without looping over the squares. The fields are
+	 * inverted, so that the gap's becomes the only one with all bits set, and
+	 * the bits of each field are and-ed down into its lowest bit.
+	 */
+	int gapOf(long packed) {
+		long x = ~packed;
+		x &= x >>> 1;
+		x &= x >>> 2;
+		return Long.numberOfTrailingZeros(x & lowBits) / bitsPerSquare;
+	}
+
+	/**
+	 * Returns the Manhattan distance of a board packed into a single long.
+	 */
+	int manhattanOf(long packed) {
+		int distance = 0;
+		for (int sq = 0; sq < size; sq++) {
+			int tile = (int) ((packed >>> (sq * bitsPerSquare)) & fieldMask);
+			distance += manhattan[tile * size + sq];
+		}
+		return distance;
+	}
+}
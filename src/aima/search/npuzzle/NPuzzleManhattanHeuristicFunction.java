@@ -0,0 +1,15 @@
+package aima.search.npuzzle;
+
+import aima.search.framework.HeuristicFunction;
+
+/**
+ * The sum of the Manhattan distances of the tiles from their goal squares.
+ * NPuzzleBoard keeps this up to date as moves are made, so it is not
+ * recomputed here.
+ */
+public class NPuzzleManhattanHeuristicFunction implements HeuristicFunction {
+
+	public double getHeuristicValue(Object state) {
+		return ((NPuzzleBoard) state).getManhattanDistance();
+	}
+}
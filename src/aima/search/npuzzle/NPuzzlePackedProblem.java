@@ -0,0 +1,94 @@
+package aima.search.npuzzle;
+
+import aima.search.framework.PackedProblem;
+import aima.search.framework.Problem;
+
+/**
+ * The 8 or 15 puzzle as a PackedProblem, with the board packed as by
+ * NPuzzleBoard.getPackedState(), so that it can be solved by
+ * PackedGraphSearch or PackedAStarSearch. The heuristic is Manhattan distance
+ * unless a PatternDatabase is given. It is also an ordinary Problem over
+ * NPuzzleBoards so the object based searches can be run against the same
+ * instance for comparison.
+ */
+public class NPuzzlePackedProblem extends Problem implements PackedProblem {
+
+	private final NPuzzleLayout layout;
+
+	private final PatternDatabase patternDatabase;
+
+	private final long packedInitialState;
+
+	private final long packedGoalState;
+
+	public NPuzzlePackedProblem(NPuzzleBoard initialState) {
+		this(initialState, null);
+	}
+
+	public NPuzzlePackedProblem(NPuzzleBoard initialState,
+			PatternDatabase patternDatabase) {
+		super(initialState, new NPuzzleSuccessorFunction(),
+				new NPuzzleGoalTest(),
+				null == patternDatabase ? new NPuzzleManhattanHeuristicFunction()
+						: patternDatabase);
+		if (null != patternDatabase
+				&& patternDatabase.getWidth() != initialState.getWidth()) {
+			throw new IllegalArgumentException(
+					"Pattern database is for another puzzle width");
+		}
+		layout = NPuzzleLayout.forWidth(initialState.getWidth());
+		this.patternDatabase = patternDatabase;
+		packedInitialState = initialState.getPackedState();
+		packedGoalState = NPuzzleBoard.goal(layout.width).getPackedState();
+	}
+
+	//
+	// START Interface - PackedProblem
+	public long getInitialPackedState() {
+		return packedInitialState;
+	}
+
+	public boolean isPackedGoalState(long state) {
+		return state == packedGoalState;
+	}
+
+	public int getMaxSuccessors() {
+		return 4;
+	}
+
+	public int getPackedSuccessors(long state, long[] successorStates,
+			int[] successorActions) {
+		int gap = layout.gapOf(state);
+		int[] to = layout.neighbours[gap];
+		int n = 0;
+		for (int d = NPuzzleLayout.UP; d <= NPuzzleLayout.RIGHT; d++) {
+			if (NPuzzleLayout.NO_SQUARE != to[d]) {
+				// The gap's field is 0, so the tile just moves across
+				int from = to[d] << 2;
+				long tile = (state >>> from) & 0xFL;
+				successorStates[n] = (state & ~(0xFL << from))
+						| (tile << (gap << 2));
+				successorActions[n++] = d;
+			}
+		}
+		return n;
+	}
+
+	public double getPackedStepCost(long fromState, int action, long toState) {
+		return 1.0;
+	}
+
+	public double getPackedHeuristicValue(long state) {
+		if (null != patternDatabase) {
+			return patternDatabase.getPackedValue(state);
+		}
+		return layout.manhattanOf(state);
+	}
+
+	public String getActionName(int action) {
+		return NPuzzleBoard.actionName(action);
+	}
+
+	// END Interface - PackedProblem
+	//
+}
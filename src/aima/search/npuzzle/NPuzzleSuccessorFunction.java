@@ -0,0 +1,26 @@
+package aima.search.npuzzle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import aima.search.framework.Successor;
+import aima.search.framework.SuccessorFunction;
+
+/**
+ * Moves the gap of an NPuzzleBoard up, down, left and right, in the same
+ * order as EightPuzzleSuccessorFunction.
+ */
+public class NPuzzleSuccessorFunction implements SuccessorFunction {
+
+	public List getSuccessors(Object state) {
+		NPuzzleBoard board = (NPuzzleBoard) state;
+		List<Successor> successors = new ArrayList<Successor>(4);
+		for (int d = NPuzzleLayout.UP; d <= NPuzzleLayout.RIGHT; d++) {
+			NPuzzleBoard next = board.moveGap(d);
+			if (null != next) {
+				successors.add(new Successor(NPuzzleBoard.actionName(d), next));
+			}
+		}
+		return successors;
+	}
+}
@@ -0,0 +1,393 @@
+package aima.search.npuzzle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import aima.search.framework.HeuristicFunction;
+
+/**
+ * An additive disjoint pattern database heuristic for the sliding tile
+ * puzzles. The tiles are split into disjoint groups. For each group a table
+ * holds, for every placement of the group's tiles, the fewest moves of those
+ * tiles needed to bring them to their goal squares, where moves of other
+ * tiles are free. As no move is counted by more than one group, the sum of
+ * the tables' values is an admissible heuristic, and usually a much better
+ * informed one than Manhattan distance.
+ *
+ * The tables are built by a breadth first search backwards from the goal
+ * over the abstract states (placement of the group's tiles, gap square),
+ * free moves being handled as 0-cost edges, and then minimised over the gap
+ * square. A table needs one byte per placement, i.e. size!/(size-k)! bytes
+ * for a group of k tiles, and building it size times as much memory.
+ *
+ * Building the tables for the 15 or 24 puzzle takes a while, so they can be
+ * saved to a file and memory-mapped when next needed. The file holds a
+ * header (magic number, width, number of groups and each group's tiles, as
+ * ints) followed by the tables, one byte per entry.
+ */
+public class PatternDatabase implements HeuristicFunction {
+
+	private static final int MAGIC = 0x50444231; // "PDB1"
+
+	// Largest group whose abstract states can be encoded in a long along
+	// with the gap square and a distance
+	private static final int MAX_GROUP_SIZE = 10;
+
+	private static final int UNVISITED = 0xFF;
+
+	private final NPuzzleLayout layout;
+
+	private final int[][] groups;
+
+	private final ByteBuffer[] tables;
+
+	private PatternDatabase(NPuzzleLayout layout, int[][] groups,
+			ByteBuffer[] tables) {
+		this.layout = layout;
+		this.groups = groups;
+		this.tables = tables;
+	}
+
+	/**
+	 * Builds the tables for the given width and disjoint groups of tiles.
+	 */
+	public static PatternDatabase build(int width, int[][] groups) {
+		NPuzzleLayout layout = NPuzzleLayout.forWidth(width);
+		int[][] copy = validate(layout, groups);
+		ByteBuffer[] tables = new ByteBuffer[copy.length];
+		for (int g = 0; g < copy.length; g++) {
+			tables[g] = ByteBuffer.wrap(buildTable(layout, copy[g]));
+		}
+		return new PatternDatabase(layout, copy, tables);
+	}
+
+	/**
+	 * Memory-maps a pattern database previously written by save().
+	 */
+	public static PatternDatabase load(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (MAGIC != raf.readInt()) {
+				throw new IOException(file + " is not a pattern database");
+			}
+			NPuzzleLayout layout = NPuzzleLayout.forWidth(raf.readInt());
+			int[][] groups = new int[raf.readInt()][];
+			for (int g = 0; g < groups.length; g++) {
+				groups[g] = new int[raf.readInt()];
+				for (int i = 0; i < groups[g].length; i++) {
+					groups[g][i] = raf.readInt();
+				}
+			}
+			validate(layout, groups);
+			ByteBuffer[] tables = new ByteBuffer[groups.length];
+			long offset = raf.getFilePointer();
+			for (int g = 0; g < groups.length; g++) {
+				int length = placements(layout.size, groups[g].length);
+				if (offset + length > channel.size()) {
+					throw new IOException(file + " is truncated");
+				}
+				tables[g] = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+						length);
+				offset += length;
+			}
+			return new PatternDatabase(layout, groups, tables);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Memory-maps the pattern database in file if it exists, otherwise builds
+	 * it and saves it there first.
+	 */
+	public static PatternDatabase loadOrBuild(File file, int width,
+			int[][] groups) throws IOException {
+		if (!file.exists()) {
+			build(width, groups).save(file);
+		}
+		PatternDatabase pdb = load(file);
+		if (pdb.getWidth() != width || !Arrays.deepEquals(pdb.groups, groups)) {
+			throw new IOException(file
+					+ " holds a pattern database for other groups of tiles");
+		}
+		return pdb;
+	}
+
+	/**
+	 * Returns the tiles 1..size-1 split into consecutive groups: 4-4 for the
+	 * 8 puzzle, 5-5-5 for the 15 puzzle and six groups of 4 for the 24
+	 * puzzle.
+	 */
+	public static int[][] defaultGroups(int width) {
+		int size = width * width;
+		int groupSize = 3 == width ? 4 : 4 == width ? 5 : 4;
+		int[][] groups = new int[(size - 1 + groupSize - 1) / groupSize][];
+		for (int g = 0, tile = 1; g < groups.length; g++) {
+			groups[g] = new int[Math.min(groupSize, size - tile)];
+			for (int i = 0; i < groups[g].length; i++) {
+				groups[g][i] = tile++;
+			}
+		}
+		return groups;
+	}
+
+	public void save(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(0);
+			raf.writeInt(MAGIC);
+			raf.writeInt(layout.width);
+			raf.writeInt(groups.length);
+			for (int[] group : groups) {
+				raf.writeInt(group.length);
+				for (int tile : group) {
+					raf.writeInt(tile);
+				}
+			}
+			FileChannel channel = raf.getChannel();
+			channel.position(raf.getFilePointer());
+			for (ByteBuffer table : tables) {
+				ByteBuffer b = table.duplicate();
+				b.clear();
+				while (b.hasRemaining()) {
+					channel.write(b);
+				}
+			}
+		} finally {
+			raf.close();
+		}
+	}
+
+	public int getWidth() {
+		return layout.width;
+	}
+
+	public int[][] getGroups() {
+		int[][] copy = new int[groups.length][];
+		for (int g = 0; g < groups.length; g++) {
+			copy[g] = groups[g].clone();
+		}
+		return copy;
+	}
+
+	public int getValue(NPuzzleBoard board) {
+		int[] squareOf = new int[layout.size];
+		for (int sq = 0; sq < layout.size; sq++) {
+			squareOf[board.getTileAt(sq)] = sq;
+		}
+		return sum(squareOf);
+	}
+
+	/**
+	 * Returns the value for a board packed as by
+	 * NPuzzleBoard.getPackedState().
+	 */
+	public int getPackedValue(long packed) {
+		int[] squareOf = new int[layout.size];
+		for (int sq = 0; sq < layout.size; sq++) {
+			squareOf[(int) ((packed >>> (sq << 2)) & 0xF)] = sq;
+		}
+		return sum(squareOf);
+	}
+
+	//
+	// START Interface - HeuristicFunction
+	public double getHeuristicValue(Object state) {
+		return getValue((NPuzzleBoard) state);
+	}
+
+	// END Interface - HeuristicFunction
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	private int sum(int[] squareOf) {
+		int n = layout.size, h = 0;
+		for (int g = 0; g < groups.length; g++) {
+			int[] group = groups[g];
+			int rank = 0, used = 0;
+			for (int i = 0; i < group.length; i++) {
+				int p = squareOf[group[i]];
+				rank = rank * (n - i) + p
+						- Integer.bitCount(used & ((1 << p) - 1));
+				used |= 1 << p;
+			}
+			h += tables[g].get(rank) & 0xFF;
+		}
+		return h;
+	}
+
+	private static int[][] validate(NPuzzleLayout layout, int[][] groups) {
+		boolean[] used = new boolean[layout.size];
+		int[][] copy = new int[groups.length][];
+		for (int g = 0; g < groups.length; g++) {
+			int k = groups[g].length;
+			long ranks = k < 1 || k > MAX_GROUP_SIZE ? -1 : placements(
+					layout.size, k);
+			if (ranks < 0 || ranks * layout.size > Integer.MAX_VALUE - 8) {
+				throw new IllegalArgumentException("Group of " + k
+						+ " tiles is too large or empty");
+			}
+			for (int tile : groups[g]) {
+				if (tile < 1 || tile >= layout.size || used[tile]) {
+					throw new IllegalArgumentException("Tile " + tile
+							+ " is invalid or in more than one group");
+				}
+				used[tile] = true;
+			}
+			copy[g] = groups[g].clone();
+		}
+		return copy;
+	}
+
+	// n! / (n - k)!, or -1 if that overflows an int
+	private static int placements(int n, int k) {
+		long p = 1;
+		for (int i = 0; i < k; i++) {
+			p *= n - i;
+			if (p > Integer.MAX_VALUE) {
+				return -1;
+			}
+		}
+		return (int) p;
+	}
+
+	private static byte[] buildTable(NPuzzleLayout layout, int[] group) {
+		int n = layout.size, k = group.length;
+		int ranks = placements(n, k);
+		// dist[rank * n + gap]
+		byte[] dist = new byte[ranks * n];
+		Arrays.fill(dist, (byte) UNVISITED);
+		int[] pos = group.clone();
+		int[] occupant = new int[n];
+		LongDeque deque = new LongDeque();
+
+		dist[rank(pos, n) * n] = 0;
+		deque.addFirst(encode(pos, 0, 0));
+		while (!deque.isEmpty()) {
+			long s = deque.removeFirst();
+			int d = (int) (s >>> 56);
+			int gap = decode(s, pos);
+			int r = rank(pos, n);
+			if ((dist[r * n + gap] & 0xFF) < d) {
+				continue; // Reached more cheaply since this was queued
+			}
+			Arrays.fill(occupant, -1);
+			for (int i = 0; i < k; i++) {
+				occupant[pos[i]] = i;
+			}
+			for (int to : layout.neighbours[gap]) {
+				if (NPuzzleLayout.NO_SQUARE == to) {
+					continue;
+				}
+				int j = occupant[to];
+				if (j < 0) {
+					// Moving a tile outside the group is free
+					int idx = r * n + to;
+					if ((dist[idx] & 0xFF) > d) {
+						dist[idx] = (byte) d;
+						deque.addFirst(encode(pos, to, d));
+					}
+				} else {
+					if (d + 1 >= UNVISITED) {
+						throw new IllegalStateException(
+								"Distance does not fit in a byte");
+					}
+					pos[j] = gap;
+					int idx = rank(pos, n) * n + to;
+					if ((dist[idx] & 0xFF) > d + 1) {
+						dist[idx] = (byte) (d + 1);
+						deque.addLast(encode(pos, to, d + 1));
+					}
+					pos[j] = to;
+				}
+			}
+		}
+
+		byte[] table = new byte[ranks];
+		for (int r = 0; r < ranks; r++) {
+			int min = UNVISITED;
+			for (int gap = 0; gap < n; gap++) {
+				min = Math.min(min, dist[r * n + gap] & 0xFF);
+			}
+			table[r] = (byte) min;
+		}
+		return table;
+	}
+
+	// Ranks a placement of distinct squares among n as a mixed radix number
+	private static int rank(int[] pos, int n) {
+		int rank = 0, used = 0;
+		for (int i = 0; i < pos.length; i++) {
+			int p = pos[i];
+			rank = rank * (n - i) + p - Integer.bitCount(used & ((1 << p) - 1));
+			used |= 1 << p;
+		}
+		return rank;
+	}
+
+	// 5 bits for the gap and each tile's square, the distance in the top byte
+	private static long encode(int[] pos, int gap, int d) {
+		long s = gap;
+		for (int i = 0; i < pos.length; i++) {
+			s |= ((long) pos[i]) << (5 * (i + 1));
+		}
+		return s | ((long) d << 56);
+	}
+
+	private static int decode(long s, int[] pos) {
+		for (int i = 0; i < pos.length; i++) {
+			pos[i] = (int) (s >>> (5 * (i + 1))) & 0x1F;
+		}
+		return (int) s & 0x1F;
+	}
+
+	// A growable ring buffer of longs
+	private static class LongDeque {
+		private long[] elements = new long[1024];
+
+		private int head = 0, size = 0;
+
+		boolean isEmpty() {
+			return 0 == size;
+		}
+
+		void addFirst(long e) {
+			ensureCapacity();
+			head = (head - 1) & (elements.length - 1);
+			elements[head] = e;
+			size++;
+		}
+
+		void addLast(long e) {
+			ensureCapacity();
+			elements[(head + size) & (elements.length - 1)] = e;
+			size++;
+		}
+
+		long removeFirst() {
+			long e = elements[head];
+			head = (head + 1) & (elements.length - 1);
+			size--;
+			return e;
+		}
+
+		private void ensureCapacity() {
+			if (size < elements.length) {
+				return;
+			}
+			long[] bigger = new long[elements.length << 1];
+			for (int i = 0; i < size; i++) {
+				bigger[i] = elements[(head + i) & (elements.length - 1)];
+			}
+			elements = bigger;
+			head = 0;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package aima.search.nqueens;
+
+import aima.basic.XYLocation;
+import aima.search.framework.HeuristicFunction;
+
+/**
+ * The number of pairs of queens attacking each other, the h of AIMA page 112,
+ * for the complete-state formulation. Takes constant time for a
+ * CompactNQueensBoard, and O(n^2) for an NQueensBoard.
+ */
+public class AttackingPairsHeuristic implements HeuristicFunction {
+
+	public double getHeuristicValue(Object state) {
+		if (state instanceof CompactNQueensBoard) {
+			return ((CompactNQueensBoard) state).getAttackingPairs();
+		}
+		NQueensBoard board = (NQueensBoard) state;
+		int attacks = 0;
+		for (XYLocation queen : board.getQueenPositions()) {
+			attacks += board.getNumberOfAttacksOn(queen);
+		}
+		// Each pair was counted from both of its queens
+		return attacks / 2;
+	}
+}
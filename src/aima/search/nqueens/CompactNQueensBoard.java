@@ -0,0 +1,182 @@
+package aima.search.nqueens;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import aima.basic.XYLocation;
+
+/**
+ * An n-queens board for complete-state search, with exactly one queen in
+ * every column, stored as the row of each column's queen. The number of
+ * queens on every row, diagonal and anti-diagonal is kept as queens move, so
+ * the number of queens attacking a square, and the change a move makes to
+ * the number of attacking pairs, take constant time. The board takes O(n)
+ * memory where NQueensBoard takes O(n^2).
+ *
+ * Columns and rows are numbered as the x and y of NQueensBoard.
+ */
+public class CompactNQueensBoard {
+
+	private final int size;
+
+	// rows[x] is the row of the queen in column x
+	private final int[] rows;
+
+	// Queens on each row, on each diagonal x + y, and on each anti-diagonal
+	// x - y + size - 1
+	private final int[] rowCounts, diagonalCounts, antiDiagonalCounts;
+
+	private long attackingPairs = 0;
+
+	/**
+	 * Creates a board with the queen of column x on row rows[x].
+	 */
+	public CompactNQueensBoard(int[] rows) {
+		size = rows.length;
+		this.rows = new int[size];
+		rowCounts = new int[size];
+		diagonalCounts = new int[Math.max(1, 2 * size - 1)];
+		antiDiagonalCounts = new int[Math.max(1, 2 * size - 1)];
+		for (int x = 0; x < size; x++) {
+			if (rows[x] < 0 || rows[x] >= size) {
+				throw new IllegalArgumentException("Row " + rows[x]
+						+ " of column " + x + " is off the board");
+			}
+			this.rows[x] = rows[x];
+			attackingPairs += addQueen(x, rows[x]);
+		}
+	}
+
+	public CompactNQueensBoard(CompactNQueensBoard board) {
+		size = board.size;
+		rows = board.rows.clone();
+		rowCounts = board.rowCounts.clone();
+		diagonalCounts = board.diagonalCounts.clone();
+		antiDiagonalCounts = board.antiDiagonalCounts.clone();
+		attackingPairs = board.attackingPairs;
+	}
+
+	/**
+	 * @return a board with its queens on a random permutation of the rows,
+	 *         so that only diagonal attacks remain.
+	 */
+	public static CompactNQueensBoard random(int size, SplittableRandom random) {
+		int[] rows = new int[size];
+		for (int x = 0; x < size; x++) {
+			int y = random.nextInt(x + 1);
+			rows[x] = rows[y];
+			rows[y] = x;
+		}
+		return new CompactNQueensBoard(rows);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the row of the queen in column x.
+	 */
+	public int getRow(int x) {
+		return rows[x];
+	}
+
+	/**
+	 * @return the number of queens, other than the one in column x, that
+	 *         attack square (x, y).
+	 */
+	public int getConflicts(int x, int y) {
+		int conflicts = rowCounts[y] + diagonalCounts[x + y]
+				+ antiDiagonalCounts[x - y + size - 1];
+		// Column x's own queen is on all three lines through its square, and
+		// on none of those through any other square of the column
+		return rows[x] == y ? conflicts - 3 : conflicts;
+	}
+
+	/**
+	 * @return the number of pairs of queens attacking each other.
+	 */
+	public long getAttackingPairs() {
+		return attackingPairs;
+	}
+
+	/**
+	 * @return the change in the number of attacking pairs that moving the
+	 *         queen of column x to row y would make.
+	 */
+	public long getMoveDelta(int x, int y) {
+		return rows[x] == y ? 0 : getConflicts(x, y)
+				- getConflicts(x, rows[x]);
+	}
+
+	/**
+	 * Moves the queen of column x to row y.
+	 */
+	public void moveQueen(int x, int y) {
+		if (rows[x] == y) {
+			return;
+		}
+		attackingPairs -= removeQueen(x, rows[x]);
+		rows[x] = y;
+		attackingPairs += addQueen(x, y);
+	}
+
+	public boolean isSolution() {
+		return 0 == attackingPairs;
+	}
+
+	/**
+	 * @return the same placement as an NQueensBoard, which takes O(n^2)
+	 *         memory.
+	 */
+	public NQueensBoard toNQueensBoard() {
+		NQueensBoard board = new NQueensBoard(size);
+		for (int x = 0; x < size; x++) {
+			board.addQueenAt(new XYLocation(x, rows[x]));
+		}
+		return board;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(rows);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if ((o == null) || (this.getClass() != o.getClass())) {
+			return false;
+		}
+		return Arrays.equals(rows, ((CompactNQueensBoard) o).rows);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer buf = new StringBuffer();
+		for (int row = 0; row < size; row++) { // rows
+			for (int col = 0; col < size; col++) { // columns
+				buf.append(rows[col] == row ? 'Q' : '-');
+			}
+			buf.append("\n");
+		}
+		return buf.toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// Return the number of queens already on the lines through (x, y), i.e.
+	// the attacking pairs added or removed
+	private int addQueen(int x, int y) {
+		return rowCounts[y]++ + diagonalCounts[x + y]++
+				+ antiDiagonalCounts[x - y + size - 1]++;
+	}
+
+	private int removeQueen(int x, int y) {
+		return --rowCounts[y] + --diagonalCounts[x + y]
+				+ --antiDiagonalCounts[x - y + size - 1];
+	}
+}
@@ -0,0 +1,255 @@
+package aima.search.nqueens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import aima.search.framework.Metrics;
+import aima.search.framework.Problem;
+import aima.search.framework.Search;
+
+/**
+ * Artificial Intelligence A Modern Approach (2nd Edition): Figure 5.8, page
+ * 151, MIN-CONFLICTS, for n-queens on a CompactNQueensBoard, after Sosic and
+ * Gu ("Efficient Local Search with Conflict Minimization: A Case Study of
+ * the n-Queens Problem", 1994).
+ *
+ * Each step takes a random queen under attack. The board's counters give the
+ * change in attacking pairs of any move in constant time, so it first tries
+ * swapping the queen's row with those of random other queens, keeping the
+ * first swap that lowers the number of attacking pairs; a swap keeps one
+ * queen to a row. Only if none of a few thousand do is the queen moved to
+ * the row of its column attacked by the fewest queens (ties broken at
+ * random), in O(n). The queen always moves, as staying put would leave the
+ * search stuck when it is already on the best row. The queens under attack
+ * are kept in a list that is checked as they are drawn, and only rebuilt, in
+ * O(n), when it runs out or a queen moved to its best row is still under
+ * attack.
+ *
+ * solve() first places the queens greedily: each column in turn takes the
+ * first of up to 100 random rows not yet used whose diagonals are free. That
+ * leaves only a handful of queens under attack even for a million queens, so
+ * a solution takes a few steps and O(n) time overall.
+ *
+ * As a Search it repairs the initial state of the Problem, which must be a
+ * CompactNQueensBoard, and returns the moves made, named as those of
+ * NQueensLocalSearchProblem.
+ */
+public class MinConflictsNQueensSolver implements Search {
+
+	public enum SearchOutcome {
+		FAILURE, SOLUTION_FOUND
+	};
+
+	private static final String NODES_EXPANDED = "nodesExpanded";
+
+	private static final String INITIAL_ATTACKING_PAIRS = "initialAttackingPairs";
+
+	// Random rows tried for each column by the greedy placement
+	private static final int PLACEMENT_ATTEMPTS = 100;
+
+	// Random swaps tried for a queen under attack before moving it
+	private static final int SWAP_ATTEMPTS = 4096;
+
+	private final SplittableRandom random;
+
+	private final Metrics metrics = new Metrics();
+
+	private long maxSteps = 1000000L;
+
+	private SearchOutcome outcome = SearchOutcome.FAILURE;
+
+	private Object lastState = null;
+
+	public MinConflictsNQueensSolver() {
+		this(new SplittableRandom());
+	}
+
+	public MinConflictsNQueensSolver(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	private MinConflictsNQueensSolver(SplittableRandom random) {
+		this.random = random;
+		clearInstrumentation();
+	}
+
+	/**
+	 * Sets the number of queens moved before giving up, e.g. for boards of 2
+	 * or 3 queens, which have no solution.
+	 */
+	public void setMaxSteps(long maxSteps) {
+		this.maxSteps = maxSteps;
+	}
+
+	/**
+	 * @return a solution for a board of size, or the board reached when
+	 *         maxSteps ran out, which isSolution() tells apart.
+	 */
+	public CompactNQueensBoard solve(int size) {
+		clearInstrumentation();
+		CompactNQueensBoard board = new CompactNQueensBoard(
+				greedyPlacement(size));
+		metrics.set(INITIAL_ATTACKING_PAIRS, board.getAttackingPairs());
+		outcome = repair(board, null) ? SearchOutcome.SOLUTION_FOUND
+				: SearchOutcome.FAILURE;
+		lastState = board;
+		return board;
+	}
+
+	/**
+	 * Moves queens of board until none attack each other, or maxSteps runs
+	 * out.
+	 *
+	 * @return true if board is now a solution.
+	 */
+	public boolean repair(CompactNQueensBoard board) {
+		clearInstrumentation();
+		metrics.set(INITIAL_ATTACKING_PAIRS, board.getAttackingPairs());
+		return repair(board, null);
+	}
+
+	public List<String> search(Problem p) throws Exception {
+		if (!(p.getInitialState() instanceof CompactNQueensBoard)) {
+			throw new IllegalArgumentException(
+					"MinConflictsNQueensSolver requires a CompactNQueensBoard");
+		}
+		clearInstrumentation();
+		CompactNQueensBoard board = new CompactNQueensBoard(
+				(CompactNQueensBoard) p.getInitialState());
+		metrics.set(INITIAL_ATTACKING_PAIRS, board.getAttackingPairs());
+		List<String> actions = new ArrayList<String>();
+		repair(board, actions);
+		outcome = p.isGoalState(board) ? SearchOutcome.SOLUTION_FOUND
+				: SearchOutcome.FAILURE;
+		lastState = board;
+		return actions;
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void clearInstrumentation() {
+		metrics.set(NODES_EXPANDED, 0);
+		metrics.set(INITIAL_ATTACKING_PAIRS, 0L);
+	}
+
+	public SearchOutcome getOutcome() {
+		return outcome;
+	}
+
+	public Object getLastSearchState() {
+		return lastState;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// The rows of a permutation, chosen column by column so that as few
+	// queens as possible share a diagonal with those placed before them
+	private int[] greedyPlacement(int size) {
+		int[] rows = new int[size];
+		for (int x = 0; x < size; x++) {
+			rows[x] = x;
+		}
+		boolean[] diagonals = new boolean[Math.max(1, 2 * size - 1)];
+		boolean[] antiDiagonals = new boolean[Math.max(1, 2 * size - 1)];
+		for (int x = 0; x < size; x++) {
+			// rows[x..size - 1] are the rows not yet used
+			for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+				int i = x + random.nextInt(size - x);
+				int y = rows[i];
+				if (!diagonals[x + y] && !antiDiagonals[x - y + size - 1]) {
+					rows[i] = rows[x];
+					rows[x] = y;
+					break;
+				}
+			}
+			diagonals[x + rows[x]] = true;
+			antiDiagonals[x - rows[x] + size - 1] = true;
+		}
+		return rows;
+	}
+
+	private boolean repair(CompactNQueensBoard board, List<String> actions) {
+		int size = board.getSize();
+		// Columns whose queens were under attack when last checked
+		int[] attacked = new int[size];
+		int attackedCount = 0;
+		long steps = 0;
+		while (!board.isSolution() && steps < maxSteps) {
+			if (0 == attackedCount) {
+				for (int x = 0; x < size; x++) {
+					if (board.getConflicts(x, board.getRow(x)) > 0) {
+						attacked[attackedCount++] = x;
+					}
+				}
+			}
+			int i = random.nextInt(attackedCount);
+			int x = attacked[i];
+			if (0 == board.getConflicts(x, board.getRow(x))) {
+				attacked[i] = attacked[--attackedCount];
+				continue;
+			}
+			steps++;
+			if (swapQueens(board, x, actions)) {
+				continue;
+			}
+			int row = board.getRow(x), best = row, ties = 0;
+			int fewest = Integer.MAX_VALUE;
+			for (int y = 0; y < size; y++) {
+				if (y == row) {
+					continue;
+				}
+				int conflicts = board.getConflicts(x, y);
+				if (conflicts < fewest) {
+					fewest = conflicts;
+					best = y;
+					ties = 1;
+				} else if (conflicts == fewest
+						&& 0 == random.nextInt(++ties)) {
+					best = y;
+				}
+			}
+			board.moveQueen(x, best);
+			if (null != actions) {
+				actions.add("moveQueenTo " + x + " " + best);
+			}
+			// Queens now attacking x may not be in the list, and may be the
+			// only ones whose moves help
+			if (fewest > 0) {
+				attackedCount = 0;
+			}
+		}
+		metrics.set(NODES_EXPANDED, steps);
+		return board.isSolution();
+	}
+
+	// Tries swapping the rows of x and of random other queens, keeping the
+	// first swap that lowers the number of attacking pairs
+	private boolean swapQueens(CompactNQueensBoard board, int x,
+			List<String> actions) {
+		int size = board.getSize();
+		for (int attempt = 0; attempt < SWAP_ATTEMPTS && size > 1; attempt++) {
+			int z = random.nextInt(size - 1);
+			if (z >= x) {
+				z++;
+			}
+			int rowX = board.getRow(x), rowZ = board.getRow(z);
+			long before = board.getAttackingPairs();
+			board.moveQueen(x, rowZ);
+			board.moveQueen(z, rowX);
+			if (board.getAttackingPairs() < before) {
+				if (null != actions) {
+					actions.add("moveQueenTo " + x + " " + rowZ);
+					actions.add("moveQueenTo " + z + " " + rowX);
+				}
+				return true;
+			}
+			board.moveQueen(z, rowZ);
+			board.moveQueen(x, rowX);
+		}
+		return false;
+	}
+}
@@ -8,18 +8,26 @@ import java.util.Set;
 import aima.basic.XYLocation;
 import aima.search.framework.GoalTest;
 import aima.search.informed.ga.FitnessFunction;
+import aima.search.informed.ga.PackedFitnessFunction;
+import aima.search.informed.ga.PackedPopulation;
 
 /**
  * A class whose purpose is to evaluate the fitness of NQueen individuals
  * and to provide utility methods for translating between an NQueensBoard
  * representation and the String representation used by the GeneticAlgorithm.
+ * 
+ * It also evaluates the individuals of a PackedPopulation for the
+ * PackedGeneticAlgorithm, gene x being the row of the queen in column x, by
+ * counting the queens on each row and diagonal in O(n) rather than looking
+ * at every pair.
  */
 
 /**
  * @author Ciaran O'Reilly
  * 
  */
-public class NQueensFitnessFunction implements FitnessFunction, GoalTest {
+public class NQueensFitnessFunction implements FitnessFunction,
+		PackedFitnessFunction, GoalTest {
 
 	private final NQueensGoalTest goalTest = new NQueensGoalTest();
 
@@ -74,6 +82,27 @@ public class NQueensFitnessFunction implements FitnessFunction, GoalTest {
 	// END - Interface FitnessFunction
 	//
 
+	//
+	// START - Interface PackedFitnessFunction
+	public double getValue(PackedPopulation population, int individual) {
+		int boardSize = population.getIndividualLength();
+		int[] rowCounts = new int[boardSize];
+		int[] diagonalCounts = new int[2 * boardSize - 1];
+		int[] antiDiagonalCounts = new int[2 * boardSize - 1];
+		// Every pair of queens sharing a row or diagonal attacks each other,
+		// and no pair shares two of them
+		long attackingPairs = 0;
+		for (int x = 0; x < boardSize; x++) {
+			int y = population.getGene(individual, x);
+			attackingPairs += rowCounts[y]++ + diagonalCounts[x + y]++
+					+ antiDiagonalCounts[x - y + boardSize - 1]++;
+		}
+		return getMaximumFitness(boardSize) - attackingPairs;
+	}
+
+	// END - Interface PackedFitnessFunction
+	//
+
 	//
 	// START - Interface GoalTest
 	public boolean isGoalState(Object state) {
@@ -95,6 +124,26 @@ public class NQueensFitnessFunction implements FitnessFunction, GoalTest {
 		return board;
 	}
 
+	public NQueensBoard getBoardForIndividual(PackedPopulation population,
+			int individual) {
+		int boardSize = population.getIndividualLength();
+		NQueensBoard board = new NQueensBoard(boardSize);
+		for (int i = 0; i < boardSize; i++) {
+			board.addQueenAt(new XYLocation(i, population.getGene(
+					individual, i)));
+		}
+
+		return board;
+	}
+
+	/**
+	 * @return the fitness of a solution, in which none of the n(n - 1) / 2
+	 *         pairs of queens attack each other.
+	 */
+	public double getMaximumFitness(int boardSize) {
+		return boardSize * (boardSize - 1L) / 2;
+	}
+
 	public String generateRandomIndividual(int boardSize) {
 		StringBuffer ind = new StringBuffer();
 
@@ -15,6 +15,9 @@ public class NQueensGoalTest implements GoalTest {
 
 	public boolean isGoalState(Object state) {
 
+		if (state instanceof CompactNQueensBoard) {
+			return ((CompactNQueensBoard) state).isSolution();
+		}
 		board = (NQueensBoard) state;
 		return (allQueensPlaced() && allQueenPositionsHaveZeroAttacks(board
 				.getQueenPositions()));
@@ -0,0 +1,112 @@
+package aima.search.nqueens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import aima.search.framework.DefaultStepCostFunction;
+import aima.search.framework.LocalSearchProblem;
+import aima.search.framework.Problem;
+import aima.search.framework.Successor;
+import aima.search.framework.SuccessorFunction;
+
+/**
+ * The complete-state formulation of n-queens: the states are
+ * CompactNQueensBoards with a queen in every column, the cost of a board is
+ * its number of attacking pairs, and a move takes the queen of one column to
+ * another row of that column, giving n(n - 1) moves from every board.
+ *
+ * As a Problem the moves are the successors, with NQueensGoalTest and
+ * AttackingPairsHeuristic, so it also suits HillClimbingSearch and
+ * SimulatedAnnealingSearch on small boards, and MinConflictsNQueensSolver
+ * on boards of any size. The moves are numbered with ints, so the
+ * LocalSearchProblem methods, and the successors, are only available up to
+ * 46341 queens; MinConflictsNQueensSolver needs neither.
+ */
+public class NQueensLocalSearchProblem extends Problem implements
+		LocalSearchProblem {
+
+	private final int size;
+
+	/**
+	 * Starts from a board with its queens on random rows.
+	 */
+	public NQueensLocalSearchProblem(int size) {
+		this(CompactNQueensBoard.random(size, new SplittableRandom()));
+	}
+
+	public NQueensLocalSearchProblem(CompactNQueensBoard initialState) {
+		size = initialState.getSize();
+		this.initialState = initialState;
+		successorFunction = new SuccessorFunction() {
+			public List getSuccessors(Object state) {
+				List<Successor> successors = new ArrayList<Successor>();
+				for (int move = 0; move < getMoveCount(state); move++) {
+					Object child = copyState(state);
+					applyMove(child, move);
+					successors.add(new Successor(getMoveName(state, move),
+							child));
+				}
+				return successors;
+			}
+		};
+		stepCostFunction = new DefaultStepCostFunction();
+		goalTest = new NQueensGoalTest();
+		heuristicFunction = new AttackingPairsHeuristic();
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	// START Interface - LocalSearchProblem
+	public Object getRandomState(SplittableRandom random) {
+		return CompactNQueensBoard.random(size, random);
+	}
+
+	public Object copyState(Object state) {
+		return new CompactNQueensBoard((CompactNQueensBoard) state);
+	}
+
+	public double getCost(Object state) {
+		return ((CompactNQueensBoard) state).getAttackingPairs();
+	}
+
+	public int getMoveCount(Object state) {
+		if ((long) size * (size - 1) > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Too many moves for a board of "
+					+ size);
+		}
+		return size * (size - 1);
+	}
+
+	public double getMoveDelta(Object state, int move) {
+		CompactNQueensBoard board = (CompactNQueensBoard) state;
+		int x = move / (size - 1);
+		return board.getMoveDelta(x, targetRow(board, x, move));
+	}
+
+	public void applyMove(Object state, int move) {
+		CompactNQueensBoard board = (CompactNQueensBoard) state;
+		int x = move / (size - 1);
+		board.moveQueen(x, targetRow(board, x, move));
+	}
+
+	public String getMoveName(Object state, int move) {
+		CompactNQueensBoard board = (CompactNQueensBoard) state;
+		int x = move / (size - 1);
+		return "moveQueenTo " + x + " " + targetRow(board, x, move);
+	}
+
+	// END Interface - LocalSearchProblem
+	//
+
+	//
+	// PRIVATE METHODS
+	//
+	// The rows other than the queen's own are numbered 0 to size - 2
+	private int targetRow(CompactNQueensBoard board, int x, int move) {
+		int y = move % (size - 1);
+		return y < board.getRow(x) ? y : y + 1;
+	}
+}
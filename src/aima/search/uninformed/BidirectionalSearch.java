@@ -17,6 +17,9 @@ import aima.search.nodestore.FIFONodeStore;
 /**
  * Artificial Intelligence A Modern Approach (2nd Edition): page 79.
  * Bidirectional search.
+ * 
+ * This is a breadth first search from both ends that ignores step costs. For
+ * the cheapest path, informed by heuristics, use MeetInTheMiddleSearch.
  */
 
 /**
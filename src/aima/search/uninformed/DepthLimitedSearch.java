@@ -63,7 +63,7 @@ public class DepthLimitedSearch extends NodeExpander implements Search {
 		// cutoff_occurred? <- false
 		boolean cutOffOccured = false;
 		// if GOAL-TEST[problem](STATE[node]) then return SOLUTION(node)
-		if (problem.isGoalState(node.getState())) {
+		if (isGoalState(problem, node)) {
 			setPathCost(node.getPathCost());
 			return SearchUtils.actionsFromNodes(node.getPathFromRoot());
 			// else if DEPTH[node] = limit then return cutoff
@@ -1,7 +1,6 @@
 package aima.search.uninformed;
 
-import java.util.Comparator;
-
+import aima.search.framework.EvaluationFunction;
 import aima.search.framework.Node;
 import aima.search.framework.PrioritySearch;
 import aima.search.framework.Problem;
@@ -27,11 +26,11 @@ public class UniformCostSearch extends PrioritySearch {
 	// PROTECTED METHODS
 	//
 	@Override
-	protected Comparator<Node> getComparator(Problem p) {
-		return new Comparator<Node>() {
-			public int compare(Node node1, Node node2) {
-				return (new Double(node1.getPathCost()).compareTo(new Double(
-						node2.getPathCost())));
+	protected EvaluationFunction getEvaluationFunction() {
+		return new EvaluationFunction() {
+			public Double getValue(Problem p, Node n) {
+				// f(n) = g(n)
+				return n.getPathCost();
 			}
 		};
 	}
@@ -7,6 +7,11 @@ import aima.test.coretest.PerceptTest;
 import aima.test.coretest.RuleTest;
 import aima.test.coretest.XYEnvironmentTest;
 import aima.test.coretest.XYLocationTest;
+import aima.test.gametest.ConnectFourEngineTest;
+import aima.test.gametest.IterativeDeepeningAlphaBetaSearchTest;
+import aima.test.gametest.MNKGameTest;
+import aima.test.gametest.MonteCarloTreeSearchTest;
+import aima.test.gametest.ParallelAlphaBetaSearchTest;
 import aima.test.gametest.TicTacToeTest;
 import aima.test.learningtest.LearningTests;
 import aima.test.logictest.LogicTests;
@@ -21,6 +26,7 @@ import aima.test.tvenvironmenttest.SimpleReflexVaccumAgentTest;
 import aima.test.tvenvironmenttest.TableDrivenAgentProgramTest;
 import aima.test.tvenvironmenttest.TableDrivenVaccumAgentTest;
 import aima.test.tvenvironmenttest.TrivialVaccumEnvironmentTest;
+import aima.test.utiltest.IndexedDoubleHeapTest;
 import aima.test.utiltest.MeanStDevTests;
 import aima.test.utiltest.MixedRadixNumberTest;
 import aima.test.utiltest.TableTest;
@@ -34,9 +40,16 @@ public class AllAimaTests {
 
 	public static Test suite() {
 		TestSuite suite = new TestSuite();
+		suite.addTest(new TestSuite(ConnectFourEngineTest.class));
+		suite.addTest(new TestSuite(IndexedDoubleHeapTest.class));
+		suite.addTest(new TestSuite(
+				IterativeDeepeningAlphaBetaSearchTest.class));
 		suite.addTest(new TestSuite(MeanStDevTests.class));
 		suite.addTest(new TestSuite(MixedRadixNumberTest.class));
+		suite.addTest(new TestSuite(MNKGameTest.class));
 		suite.addTest(new TestSuite(ModelBasedTVEVaccumAgentTest.class));
+		suite.addTest(new TestSuite(MonteCarloTreeSearchTest.class));
+		suite.addTest(new TestSuite(ParallelAlphaBetaSearchTest.class));
 		suite.addTest(new TestSuite(PerceptTest.class));
 		suite.addTest(new TestSuite(PerceptSequenceTest.class));
 		suite.addTest(new TestSuite(ReflexVaccumAgentTest.class));
@@ -0,0 +1,105 @@
+package aima.test.gametest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.games.ConnectFourEngine;
+import aima.games.GameEngine;
+
+public class ConnectFourEngineTest extends TestCase {
+
+	private ConnectFourEngine engine;
+
+	private ConnectFourEngine.Position position;
+
+	@Override
+	public void setUp() {
+		engine = new ConnectFourEngine();
+		position = engine.getInitialState();
+	}
+
+	public void testMovesFromTheCentreOut() {
+		List<Integer> moves = new ArrayList<Integer>();
+		engine.getMoves(position, moves);
+		assertEquals(7, moves.size());
+		assertEquals(Integer.valueOf(3), moves.get(0));
+		// A full column is no longer a move, and no one has won in it
+		play(0, 0, 0, 0, 0, 0);
+		assertFalse(engine.isTerminal(position));
+		engine.getMoves(position, moves);
+		assertEquals(6, moves.size());
+		assertFalse(moves.contains(0));
+		assertEquals(GameEngine.MIN, position.getDisc(0, 5));
+	}
+
+	public void testMakeAndUnmake() {
+		ConnectFourEngine.Position initial = engine.copyState(position);
+		long hash = engine.getHash(position);
+		play(3, 3, 4);
+		assertEquals(GameEngine.MAX, position.getDisc(3, 0));
+		assertEquals(GameEngine.MIN, position.getDisc(3, 1));
+		assertEquals(-1, position.getDisc(3, 2));
+		assertEquals(GameEngine.MIN, engine.getPlayerToMove(position));
+		engine.unmakeMove(position, 4);
+		engine.unmakeMove(position, 3);
+		engine.unmakeMove(position, 3);
+		assertEquals(initial, position);
+		assertEquals(hash, engine.getHash(position));
+		assertEquals(0, position.getNumberOfMoves());
+	}
+
+	public void testTranspositionsShareAHash() {
+		ConnectFourEngine.Position other = engine.getInitialState();
+		play(0, 1, 2);
+		engine.makeMove(other, 2);
+		engine.makeMove(other, 1);
+		engine.makeMove(other, 0);
+		assertEquals(position, other);
+		assertEquals(engine.getHash(position), engine.getHash(other));
+	}
+
+	public void testWins() {
+		// Vertical, for MAX
+		play(0, 1, 0, 1, 0, 1);
+		assertFalse(engine.isTerminal(position));
+		play(0);
+		assertTrue(engine.isTerminal(position));
+		assertEquals(1, engine.getUtility(position));
+
+		// Horizontal, for MIN, not wrapping from one column to the next
+		position = engine.getInitialState();
+		play(6, 0, 6, 1, 5, 2, 0, 3);
+		assertTrue(engine.isTerminal(position));
+		assertEquals(-1, engine.getUtility(position));
+
+		// Both diagonals
+		position = engine.getInitialState();
+		play(0, 1, 1, 2, 2, 3, 2, 3, 3, 6);
+		assertFalse(engine.isTerminal(position));
+		play(3);
+		assertEquals(1, engine.getUtility(position));
+		position = engine.getInitialState();
+		play(6, 5, 5, 4, 4, 3, 4, 3, 3, 0);
+		assertFalse(engine.isTerminal(position));
+		play(3);
+		assertEquals(1, engine.getUtility(position));
+	}
+
+	public void testNoWrappingBetweenColumns() {
+		// MAX's discs at the top of column 0 and the bottom of column 1
+		// are next to each other in the bits, but not on the board
+		play(0, 6, 0, 6, 0, 5, 1, 0, 1, 0, 1, 0);
+		assertFalse(engine.isTerminal(position));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void play(int... columns) {
+		for (int column : columns) {
+			assertFalse(engine.isTerminal(position));
+			engine.makeMove(position, column);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package aima.test.gametest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.games.Game;
+import aima.games.GameAgent;
+import aima.games.GameEngine;
+import aima.games.GameEvaluationFunction;
+import aima.games.IterativeDeepeningAlphaBetaSearch;
+import aima.games.MNKGameEngine;
+import aima.games.TicTacToe;
+import aima.games.TranspositionTable;
+
+public class IterativeDeepeningAlphaBetaSearchTest extends TestCase {
+
+	public void testAgreesWithMiniMaxOnTicTacToe() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer> search = new IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer>(
+				engine, null, new TranspositionTable(13));
+		checkAgreement(engine, search, engine.getInitialState(), 2);
+		assertTrue(search.getMetrics().getLong("transpositionHits") > 0);
+	}
+
+	public void testAgreesWithMiniMaxOnRandomTrees() {
+		for (long seed = 0; seed < 5; seed++) {
+			RandomTreeGame game = new RandomTreeGame(4, 6, seed);
+			IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer> search = new IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+					game, game, new TranspositionTable(10));
+			RandomTreeGame.Node root = game.getInitialState();
+			Integer move = search.makeDecision(root);
+			int expected = Game.maxValue(game, root);
+			assertEquals(expected, search.getValue());
+			assertEquals(6, search.getMetrics().getInt("depth"));
+			game.makeMove(root, move);
+			assertEquals(expected, Game.minValue(game, root));
+		}
+	}
+
+	public void testOrderingOptionsGiveTheSameValue() {
+		RandomTreeGame game = new RandomTreeGame(6, 6, 11L);
+		int expected = Game.maxValue(game, game.getInitialState(),
+				Integer.MIN_VALUE, Integer.MAX_VALUE);
+		for (int options = 0; options < 4; options++) {
+			IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer> search = new IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+					game, game, 0 == options ? null : new TranspositionTable(
+							12));
+			search.setKillerMoves(0 != (options & 1));
+			search.setHistoryHeuristic(0 != (options & 2));
+			search.makeDecision(game.getInitialState());
+			assertEquals(expected, search.getValue());
+		}
+	}
+
+	public void testDepthLimit() {
+		RandomTreeGame game = new RandomTreeGame(8, 30, 3L);
+		IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer> search = new IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+				game, game);
+		search.setMaxDepth(3);
+		assertNotNull(search.makeDecision(game.getInitialState()));
+		assertEquals(3, search.getMetrics().getInt("depth"));
+		// 8 + 64 + 512 leaves at most, and the inner nodes of each iteration
+		assertTrue(search.getMetrics().getLong("nodesExpanded") <= 3 * 585);
+		assertTrue(search.getMetrics().getLong("betaCutoffs") > 0);
+	}
+
+	public void testTimeLimit() {
+		RandomTreeGame game = new RandomTreeGame(8, 40, 5L);
+		IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer> search = new IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+				game, game);
+		search.setTimeLimit(100);
+		long start = System.currentTimeMillis();
+		assertNotNull(search.makeDecision(game.getInitialState()));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		int depth = search.getMetrics().getInt("depth");
+		assertTrue(depth >= 1 && depth < 40);
+	}
+
+	public void testTerminalState() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer> search = new IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer>(
+				engine, null, new TranspositionTable(4));
+		MNKGameEngine.Position position = engine.getInitialState();
+		for (int move : new int[] { 0, 3, 1, 4, 2 }) {
+			engine.makeMove(position, move);
+		}
+		assertNull(search.makeDecision(position));
+		assertEquals(1, search.getValue());
+	}
+
+	public void testTranspositionTable() {
+		TranspositionTable table = new TranspositionTable(4);
+		assertEquals(16, table.getSize());
+		assertEquals(0L, table.probe(12345L));
+		table.store(12345L, 3, -7, TranspositionTable.LOWER_BOUND, 2);
+		long entry = table.probe(12345L);
+		assertTrue(0L != entry);
+		assertEquals(3, TranspositionTable.getDepth(entry));
+		assertEquals(-7, TranspositionTable.getValue(entry));
+		assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable
+				.getBound(entry));
+		assertEquals(2, TranspositionTable.getMoveIndex(entry));
+		// Another state in the same slot is a miss
+		assertEquals(0L, table.probe(12345L + (1L << 40)));
+
+		// A shallower search of the same state does not replace it
+		table.store(12345L, 2, 5, TranspositionTable.EXACT, -1);
+		assertEquals(-7, TranspositionTable.getValue(table.probe(12345L)));
+		table.store(12345L, TranspositionTable.MAX_DEPTH, 5,
+				TranspositionTable.EXACT, -1);
+		entry = table.probe(12345L);
+		assertEquals(5, TranspositionTable.getValue(entry));
+		assertEquals(-1, TranspositionTable.getMoveIndex(entry));
+		assertEquals(TranspositionTable.MAX_DEPTH, TranspositionTable
+				.getDepth(entry));
+		table.clear();
+		assertEquals(0L, table.probe(12345L));
+	}
+
+	public void testGameAgentPlaysToADraw() {
+		TicTacToe game = new TicTacToe();
+		GameAgent agent = new GameAgent(game,
+				GameAgent.SearchMethod.ITERATIVE_DEEPENING);
+		assertEquals(0, game.getIterativeDeepeningValue(game.getState()));
+		while (!game.hasEnded()) {
+			agent.makeMove();
+		}
+		assertEquals(0, game.computeUtility(game.getState()));
+		assertEquals(9, game.getLevel(game.getState()));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void checkAgreement(MNKGameEngine engine,
+			IterativeDeepeningAlphaBetaSearch<MNKGameEngine.Position, Integer> search,
+			MNKGameEngine.Position position, int depth) {
+		boolean max = GameEngine.MAX == engine.getPlayerToMove(position);
+		int expected = max ? Game.maxValue(engine, position) : Game.minValue(
+				engine, position);
+		Integer move = search.makeDecision(position);
+		assertEquals(expected, search.getValue());
+		if (null == move) {
+			return;
+		}
+		// The move chosen achieves the value
+		engine.makeMove(position, move);
+		assertEquals(expected, max ? Game.minValue(engine, position) : Game
+				.maxValue(engine, position));
+		engine.unmakeMove(position, move);
+		if (depth > 0) {
+			List<Integer> moves = new ArrayList<Integer>();
+			engine.getMoves(position, moves);
+			for (Integer m : moves) {
+				engine.makeMove(position, m);
+				checkAgreement(engine, search, position, depth - 1);
+				engine.unmakeMove(position, m);
+			}
+		}
+	}
+
+	// A uniform tree with pseudo-random leaf values, in which the
+	// evaluation of a node is the value it would have as a leaf
+	static class RandomTreeGame implements GameEngine<RandomTreeGame.Node, Integer>,
+			GameEvaluationFunction<RandomTreeGame.Node> {
+		static class Node {
+			long[] path;
+
+			int depth = 0;
+
+			Node(int height, long seed) {
+				path = new long[height + 1];
+				path[0] = seed;
+			}
+		}
+
+		private final int branching, height;
+
+		private final long seed;
+
+		RandomTreeGame(int branching, int height, long seed) {
+			this.branching = branching;
+			this.height = height;
+			this.seed = seed;
+		}
+
+		public Node getInitialState() {
+			return new Node(height, mix(seed));
+		}
+
+		public Node copyState(Node state) {
+			Node copy = new Node(height, 0L);
+			System.arraycopy(state.path, 0, copy.path, 0, state.path.length);
+			copy.depth = state.depth;
+			return copy;
+		}
+
+		public int getPlayerToMove(Node state) {
+			return 0 == state.depth % 2 ? MAX : MIN;
+		}
+
+		public boolean isTerminal(Node state) {
+			return height == state.depth;
+		}
+
+		public int getUtility(Node state) {
+			return evaluate(state);
+		}
+
+		public void getMoves(Node state, List<Integer> moves) {
+			moves.clear();
+			for (int i = 0; i < branching; i++) {
+				moves.add(i);
+			}
+		}
+
+		public void makeMove(Node state, Integer move) {
+			state.path[state.depth + 1] = mix(state.path[state.depth] + move
+					+ 1);
+			state.depth++;
+		}
+
+		public void unmakeMove(Node state, Integer move) {
+			state.depth--;
+		}
+
+		public long getHash(Node state) {
+			return state.path[state.depth];
+		}
+
+		public int evaluate(Node state) {
+			return (int) ((state.path[state.depth] >>> 1) % 201) - 100;
+		}
+
+		private static long mix(long z) {
+			z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+			z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+			return z ^ (z >>> 33);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package aima.test.gametest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.basic.XYLocation;
+import aima.games.Game;
+import aima.games.GameAgent;
+import aima.games.GameEngine;
+import aima.games.GameState;
+import aima.games.MNKGame;
+import aima.games.MNKGameEngine;
+import aima.games.TicTacToe;
+
+public class MNKGameTest extends TestCase {
+
+	public void testLinesInEveryDirection() {
+		MNKGameEngine engine = new MNKGameEngine(5, 5, 4);
+		// X along row 2, O below it
+		MNKGameEngine.Position position = play(engine, 11, 16, 12, 17, 13,
+				18);
+		assertFalse(engine.isTerminal(position));
+		engine.makeMove(position, 14);
+		assertTrue(engine.isTerminal(position));
+		assertEquals(1, engine.getUtility(position));
+
+		// O down the anti-diagonal from the top right, X scattered
+		position = play(engine, 0, 4, 1, 8, 2, 12, 5, 16);
+		assertTrue(engine.isTerminal(position));
+		assertEquals(-1, engine.getUtility(position));
+
+		// Three in a row is not enough
+		position = play(engine, 0, 24, 6, 23, 12);
+		assertFalse(engine.isTerminal(position));
+		engine.makeMove(position, 1);
+		engine.makeMove(position, 18);
+		assertTrue(engine.isTerminal(position));
+	}
+
+	public void testTallBoardColumn() {
+		// 7 rows of 6 columns, four down column 5
+		MNKGameEngine engine = new MNKGameEngine(7, 6, 4);
+		MNKGameEngine.Position position = play(engine, 5, 0, 11, 1, 17, 2);
+		assertFalse(engine.isTerminal(position));
+		engine.makeMove(position, engine.getMove(3, 5));
+		assertTrue(engine.isTerminal(position));
+		assertEquals(1, engine.getUtility(position));
+	}
+
+	public void testMovesOfAFullSizeBoard() {
+		MNKGameEngine engine = new MNKGameEngine(8, 8, 5);
+		MNKGameEngine.Position position = play(engine, 63, 0);
+		List<Integer> moves = new ArrayList<Integer>();
+		engine.getMoves(position, moves);
+		assertEquals(62, moves.size());
+		assertEquals(Integer.valueOf(1), moves.get(0));
+		assertEquals(Integer.valueOf(62), moves.get(61));
+		assertEquals(1L << 63, position.getMarks(MNKGameEngine.X));
+		assertEquals(1L, position.getMarks(MNKGameEngine.O));
+	}
+
+	public void testMakeAndUnmake() {
+		MNKGameEngine engine = new MNKGameEngine(4, 4, 3);
+		MNKGameEngine.Position position = engine.getInitialState();
+		MNKGameEngine.Position initial = engine.copyState(position);
+		long hash = engine.getHash(position);
+		int[] squares = { 5, 6, 10, 9, 0 };
+		for (int square : squares) {
+			engine.makeMove(position, square);
+		}
+		// X has 0, 5 and 10 on the diagonal
+		assertTrue(engine.isTerminal(position));
+		for (int i = squares.length - 1; i >= 0; i--) {
+			engine.unmakeMove(position, squares[i]);
+		}
+		assertEquals(initial, position);
+		assertEquals(hash, engine.getHash(position));
+		assertFalse(engine.isTerminal(position));
+
+		// A transposition has the same hash, as has the same position built
+		// from its marks
+		MNKGameEngine.Position other = play(engine, 9, 6, 10, 5);
+		position = play(engine, 5, 6, 10, 9);
+		assertFalse(position.equals(other));
+		other = play(engine, 10, 6, 5, 9);
+		assertEquals(position, other);
+		assertEquals(engine.getHash(position), engine.getHash(other));
+		MNKGameEngine.Position built = engine.getPosition(position
+				.getMarks(MNKGameEngine.X), position.getMarks(MNKGameEngine.O),
+				true);
+		assertEquals(position, built);
+		assertEquals(engine.getHash(position), engine.getHash(built));
+	}
+
+	public void testTicTacToeWinsAndDraws() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		MNKGameEngine.Position position = engine.getInitialState();
+		for (int move : new int[] { 0, 3, 1, 4 }) {
+			engine.makeMove(position, move);
+			assertFalse(engine.isTerminal(position));
+		}
+		engine.makeMove(position, 2);
+		assertTrue(engine.isTerminal(position));
+		assertEquals(1, engine.getUtility(position));
+		engine.unmakeMove(position, 2);
+		engine.makeMove(position, 8);
+		engine.makeMove(position, 5);
+		assertEquals(-1, engine.getUtility(position));
+
+		position = play(engine, 0, 4, 8, 1, 7, 6, 2, 5, 3);
+		assertTrue(engine.isTerminal(position));
+		assertEquals(0, engine.getUtility(position));
+	}
+
+	public void testMiniMaxAndAlphaBetaAgree() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		MNKGameEngine.Position position = engine.getInitialState();
+		assertEquals(0, Game.maxValue(engine, position));
+		assertEquals(0, Game.maxValue(engine, position, Integer.MIN_VALUE,
+				Integer.MAX_VALUE));
+		checkAgreement(engine, position, 3);
+		assertEquals(engine.getInitialState(), position);
+	}
+
+	public void testAgreesWithGameStateSearch() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		for (int first = 0; first < 9; first++) {
+			int second = (first + 4) % 9;
+			TicTacToe t = new TicTacToe();
+			t.makeMove(first / 3, first % 3);
+			t.makeMove(second / 3, second % 3);
+			GameState state = t.getState();
+			int expected = t.maxValue(state);
+			assertEquals(expected, t.getMiniMaxValue(state));
+			assertEquals(expected, t.getAlphaBetaValue(state));
+			assertEquals(expected, Game.maxValue(engine, play(engine, first,
+					second)));
+			assertNotNull(state.get("next"));
+		}
+	}
+
+	public void testGameStateSearchLeavesPresentState() {
+		TicTacToe t = new TicTacToe();
+		t.makeMove(0, 0);
+		GameState state = t.getState();
+		t.getSuccessorStates(state);
+		t.getAlphaBetaValue(state);
+		assertSame(state, t.getState());
+		t.makeAlphaBetaMove();
+		assertEquals("X", t.getPlayerToMove(t.getState()));
+	}
+
+	public void testPositionOfTicTacToe() {
+		TicTacToe t = new TicTacToe();
+		t.makeMove(0, 0);
+		t.makeMove(1, 1);
+		t.makeMove(2, 1);
+		MNKGameEngine.Position position = t.getPosition(t.getState());
+		assertEquals(1L | 1L << 7, position.getMarks(MNKGameEngine.X));
+		assertEquals(1L << 4, position.getMarks(MNKGameEngine.O));
+		assertEquals(GameEngine.MIN, t.getEngine().getPlayerToMove(position));
+		assertEquals(play(t.getEngine(), 0, 4, 7), position);
+	}
+
+	public void testGameStates() {
+		MNKGame game = new MNKGame(4, 5, 4);
+		assertEquals(20, game.getMoves(game.getState()).size());
+		GameState state = game.makeMove(3, 4);
+		assertEquals("O", game.getPlayerToMove(state));
+		assertEquals(19, game.getMoves(state).size());
+		assertFalse(game.getMoves(state).contains(new XYLocation(3, 4)));
+		assertNull(game.getMove(state, 3, 4));
+		assertEquals(19, game.getSuccessorStates(state).size());
+		game.makeMove(0, 0);
+		game.makeMove(3, 3);
+		game.makeMove(0, 1);
+		game.makeMove(3, 2);
+		assertFalse(game.hasEnded());
+		game.makeMove(0, 2);
+		game.makeMove(3, 1);
+		assertTrue(game.hasEnded());
+		assertEquals(1, game.getUtility(game.getState()));
+		assertEquals(1, game.computeUtility(game.getState()));
+	}
+
+	public void testGameAgentPlaysToADraw() {
+		MNKGame game = new MNKGame(3, 3, 3);
+		GameAgent agent = new GameAgent(game,
+				GameAgent.SearchMethod.ALPHA_BETA);
+		assertEquals(0, game.getMiniMaxValue(game.getState()));
+		while (!game.hasEnded()) {
+			agent.makeMove();
+		}
+		assertEquals(0, game.computeUtility(game.getState()));
+		assertEquals(9, game.getLevel(game.getState()));
+	}
+
+	public void testBoardSizes() {
+		try {
+			new MNKGameEngine(9, 8, 5);
+			fail("72 squares do not fit in a long");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new MNKGameEngine(3, 3, 4);
+			fail("No line of 4 fits on a board of 3 by 3");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void checkAgreement(MNKGameEngine engine,
+			MNKGameEngine.Position position, int depth) {
+		boolean max = GameEngine.MAX == engine.getPlayerToMove(position);
+		int miniMax = max ? Game.maxValue(engine, position) : Game.minValue(
+				engine, position);
+		int alphaBeta = max ? Game.maxValue(engine, position,
+				Integer.MIN_VALUE, Integer.MAX_VALUE) : Game.minValue(engine,
+				position, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		assertEquals(miniMax, alphaBeta);
+		if (depth > 0 && !engine.isTerminal(position)) {
+			List<Integer> moves = new ArrayList<Integer>();
+			engine.getMoves(position, moves);
+			for (Integer move : moves) {
+				engine.makeMove(position, move);
+				checkAgreement(engine, position, depth - 1);
+				engine.unmakeMove(position, move);
+			}
+		}
+	}
+
+	private MNKGameEngine.Position play(MNKGameEngine engine, int... squares) {
+		MNKGameEngine.Position position = engine.getInitialState();
+		for (int square : squares) {
+			engine.makeMove(position, square);
+		}
+		return position;
+	}
+}
@@ -0,0 +1,132 @@
+package aima.test.gametest;
+
+import junit.framework.TestCase;
+import aima.games.ConnectFourEngine;
+import aima.games.EvaluationRolloutPolicy;
+import aima.games.GameAgent;
+import aima.games.MNKGameEngine;
+import aima.games.MonteCarloTreeSearch;
+import aima.games.TicTacToe;
+
+public class MonteCarloTreeSearchTest extends TestCase {
+
+	public void testTakesAWinAndBlocksOne() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		MonteCarloTreeSearch<MNKGameEngine.Position, Integer> search = new MonteCarloTreeSearch<MNKGameEngine.Position, Integer>(
+				engine);
+		search.setSeed(1L);
+		search.setPlayouts(3000);
+		MNKGameEngine.Position position = engine.getInitialState();
+		for (int move : new int[] { 0, 3, 1, 4 }) {
+			engine.makeMove(position, move);
+		}
+		MNKGameEngine.Position before = engine.copyState(position);
+		assertEquals(Integer.valueOf(2), search.makeDecision(position));
+		assertEquals(before, position);
+		assertTrue(search.getWinRate() > 0.9);
+		assertEquals(3000L, search.getMetrics().getLong("playouts"));
+
+		// O must block X at 2
+		position = engine.getInitialState();
+		for (int move : new int[] { 0, 4, 1 }) {
+			engine.makeMove(position, move);
+		}
+		assertEquals(Integer.valueOf(2), search.makeDecision(position));
+	}
+
+	public void testConnectFour() {
+		ConnectFourEngine engine = new ConnectFourEngine();
+		ConnectFourEngine.Position position = engine.getInitialState();
+		for (int move : new int[] { 3, 0, 3, 0, 3, 1 }) {
+			engine.makeMove(position, move);
+		}
+		for (int threads : new int[] { 1, 3 }) {
+			MonteCarloTreeSearch<ConnectFourEngine.Position, Integer> search = new MonteCarloTreeSearch<ConnectFourEngine.Position, Integer>(
+					engine, threads);
+			search.setSeed(2L);
+			search.setPlayouts(4000);
+			assertEquals(Integer.valueOf(3), search.makeDecision(position));
+			assertEquals(4000L, search.getMetrics().getLong("playouts"));
+			assertTrue(search.getMetrics().getInt("nodes") > 1);
+		}
+		// MIN to move must block the column
+		engine.unmakeMove(position, 1);
+		engine.makeMove(position, 6);
+		engine.makeMove(position, 3);
+		engine.unmakeMove(position, 3);
+		MonteCarloTreeSearch<ConnectFourEngine.Position, Integer> search = new MonteCarloTreeSearch<ConnectFourEngine.Position, Integer>(
+				engine, 2);
+		search.setSeed(3L);
+		search.setPlayouts(4000);
+		search.setRolloutPolicy(new EvaluationRolloutPolicy<ConnectFourEngine.Position, Integer>(
+				engine, null, 0.1));
+		assertEquals(Integer.valueOf(3), search.makeDecision(position));
+	}
+
+	public void testTimeLimit() {
+		ConnectFourEngine engine = new ConnectFourEngine();
+		MonteCarloTreeSearch<ConnectFourEngine.Position, Integer> search = new MonteCarloTreeSearch<ConnectFourEngine.Position, Integer>(
+				engine, 2);
+		search.setPlayouts(Long.MAX_VALUE);
+		search.setTimeLimit(100);
+		long start = System.currentTimeMillis();
+		assertNotNull(search.makeDecision(engine.getInitialState()));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		assertTrue(search.getMetrics().getLong("playouts") > 0);
+		assertTrue(search.getMetrics().getDouble("playoutsPerSecond") > 0);
+		assertTrue(search.getMetrics().getInt("maxTreeDepth") > 1);
+	}
+
+	public void testFullPool() {
+		ConnectFourEngine engine = new ConnectFourEngine();
+		MonteCarloTreeSearch<ConnectFourEngine.Position, Integer> search = new MonteCarloTreeSearch<ConnectFourEngine.Position, Integer>(
+				engine);
+		search.setPlayouts(500);
+		search.setMaxNodes(30);
+		assertNotNull(search.makeDecision(engine.getInitialState()));
+		assertTrue(search.getMetrics().getInt("nodes") <= 30);
+		assertEquals(500L, search.getMetrics().getLong("playouts"));
+		// Not even the children of the root
+		search.setMaxNodes(3);
+		assertNotNull(search.makeDecision(engine.getInitialState()));
+
+		// Threads racing for the last slots
+		search = new MonteCarloTreeSearch<ConnectFourEngine.Position, Integer>(
+				engine, 4);
+		search.setSeed(4L);
+		search.setPlayouts(4000);
+		search.setMaxNodes(100);
+		for (int i = 0; i < 5; i++) {
+			assertNotNull(search.makeDecision(engine.getInitialState()));
+			assertTrue(search.getMetrics().getInt("nodes") <= 100);
+			assertEquals(4000L, search.getMetrics().getLong("playouts"));
+		}
+	}
+
+	public void testTerminalState() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		MNKGameEngine.Position position = engine.getInitialState();
+		for (int move : new int[] { 0, 3, 1, 4, 2 }) {
+			engine.makeMove(position, move);
+		}
+		assertNull(new MonteCarloTreeSearch<MNKGameEngine.Position, Integer>(
+				engine).makeDecision(position));
+	}
+
+	public void testGameAgentPlaysThroughGameStates() {
+		TicTacToe game = new TicTacToe();
+		game.getMonteCarloTreeSearch().setSeed(4L);
+		game.getMonteCarloTreeSearch().setPlayouts(2000);
+		GameAgent agent = new GameAgent(game,
+				GameAgent.SearchMethod.MONTE_CARLO);
+		game.makeMove(0, 0);
+		game.makeMove(1, 0);
+		game.makeMove(0, 1);
+		// O must block at (0, 2)
+		agent.makeMove();
+		assertFalse(game.getBoard(game.getState()).isEmpty(0, 2));
+		while (!game.hasEnded()) {
+			agent.makeMove();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package aima.test.gametest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.games.Game;
+import aima.games.GameAgent;
+import aima.games.GameEngine;
+import aima.games.IterativeDeepeningAlphaBetaSearch;
+import aima.games.MNKGameEngine;
+import aima.games.ParallelAlphaBetaSearch;
+import aima.games.TicTacToe;
+import aima.test.gametest.IterativeDeepeningAlphaBetaSearchTest.RandomTreeGame;
+
+public class ParallelAlphaBetaSearchTest extends TestCase {
+
+	public void testAgreesWithMiniMaxOnRandomTrees() {
+		for (int threads : new int[] { 1, 2, 4 }) {
+			for (long seed = 0; seed < 4; seed++) {
+				RandomTreeGame game = new RandomTreeGame(5, 7, seed);
+				ParallelAlphaBetaSearch<RandomTreeGame.Node, Integer> search = new ParallelAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+						game, game, threads);
+				search.setMinSplitDepth(2);
+				RandomTreeGame.Node root = game.getInitialState();
+				Integer move = search.makeDecision(root);
+				int expected = Game.maxValue(game, root);
+				assertEquals(expected, search.getValue());
+				// The move chosen achieves the value
+				game.makeMove(root, move);
+				assertEquals(expected, Game.minValue(game, root));
+			}
+		}
+	}
+
+	public void testAgreesWithSequentialSearchWhenCutOff() {
+		RandomTreeGame game = new RandomTreeGame(6, 20, 7L);
+		IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer> sequential = new IterativeDeepeningAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+				game, game, null);
+		ParallelAlphaBetaSearch<RandomTreeGame.Node, Integer> parallel = new ParallelAlphaBetaSearch<RandomTreeGame.Node, Integer>(
+				game, game, 3);
+		for (int depth = 1; depth <= 5; depth++) {
+			sequential.setMaxDepth(depth);
+			parallel.setMaxDepth(depth);
+			sequential.makeDecision(game.getInitialState());
+			parallel.makeDecision(game.getInitialState());
+			assertEquals(sequential.getValue(), parallel.getValue());
+		}
+		assertTrue(parallel.getMetrics().getLong("splits") > 0);
+		assertTrue(parallel.getMetrics().getLong("splitCutoffs") > 0);
+		assertTrue(parallel.getMetrics().getLong("nodesExpanded") > 0);
+		assertTrue(parallel.getMetrics().getDouble("nodesPerSecond") > 0);
+	}
+
+	public void testAgreesWithMiniMaxOnTicTacToe() {
+		MNKGameEngine engine = new MNKGameEngine(3, 3, 3);
+		ParallelAlphaBetaSearch<MNKGameEngine.Position, Integer> search = new ParallelAlphaBetaSearch<MNKGameEngine.Position, Integer>(
+				engine, null, 4);
+		MNKGameEngine.Position position = engine.getInitialState();
+		search.makeDecision(position);
+		assertEquals(0, search.getValue());
+		List<Integer> moves = new ArrayList<Integer>();
+		engine.getMoves(position, moves);
+		for (Integer move : moves) {
+			engine.makeMove(position, move);
+			search.makeDecision(position);
+			assertEquals(Game.minValue(engine, position), search.getValue());
+			assertEquals(GameEngine.MIN, engine.getPlayerToMove(position));
+			engine.unmakeMove(position, move);
+		}
+		assertEquals(engine.getInitialState(), position);
+	}
+
+	public void testGameAgentPlaysToADraw() {
+		TicTacToe game = new TicTacToe();
+		GameAgent agent = new GameAgent(game,
+				GameAgent.SearchMethod.PARALLEL_ALPHA_BETA);
+		while (!game.hasEnded()) {
+			agent.makeMove();
+		}
+		assertEquals(0, game.computeUtility(game.getState()));
+	}
+}
@@ -0,0 +1,155 @@
+package aima.test.search;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.search.closedset.FingerprintClosedSet;
+import aima.search.closedset.HashClosedSet;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzlePackedProblem;
+import aima.search.eightpuzzle.EightPuzzleSuccessorFunction;
+import aima.search.eightpuzzle.ManhattanHeuristicFunction;
+import aima.search.framework.ClosedSet;
+import aima.search.framework.GraphSearch;
+import aima.search.framework.Problem;
+import aima.search.framework.StateFingerprint;
+import aima.search.informed.AStarSearch;
+import aima.search.uninformed.BreadthFirstSearch;
+
+public class FingerprintClosedSetTest extends TestCase {
+
+	private static final StateFingerprint PACKED_BOARD = new StateFingerprint() {
+		public long fingerprint(Object state) {
+			return EightPuzzlePackedProblem.pack(((EightPuzzleBoard) state)
+					.getBoard());
+		}
+	};
+
+	// Maps every state to one of 4 fingerprints
+	private static final StateFingerprint COLLIDING = new StateFingerprint() {
+		public long fingerprint(Object state) {
+			return state.hashCode() & 3;
+		}
+	};
+
+	public void testAddAndContains() {
+		ClosedSet closed = new FingerprintClosedSet(new StateFingerprint() {
+			public long fingerprint(Object state) {
+				return ((Long) state).longValue();
+			}
+		}, false, 2);
+		assertTrue(closed.add(Long.valueOf(0L)));
+		assertFalse(closed.add(Long.valueOf(0L)));
+		assertTrue(closed.contains(Long.valueOf(0L)));
+		assertFalse(closed.contains(Long.valueOf(1L)));
+		assertTrue(closed.add(Long.valueOf(1L)));
+		assertTrue(closed.add(Long.valueOf(-1L)));
+		assertTrue(closed.add(Long.valueOf(1L << 40)));
+		assertEquals(4, closed.size());
+		closed.clear();
+		assertEquals(0, closed.size());
+		assertFalse(closed.contains(Long.valueOf(0L)));
+		assertFalse(closed.contains(Long.valueOf(1L << 40)));
+	}
+
+	public void testGrowsAndMatchesHashSet() {
+		FingerprintClosedSet closed = new FingerprintClosedSet(
+				new StateFingerprint() {
+					public long fingerprint(Object state) {
+						return ((Long) state).longValue() * 0x9E3779B97F4A7C15L;
+					}
+				}, false, 16);
+		HashSet<Long> expected = new HashSet<Long>();
+		Random r = new Random(1L);
+		for (int i = 0; i < 100000; i++) {
+			Long l = Long.valueOf(r.nextInt(50000));
+			assertEquals(expected.add(l), closed.add(l));
+		}
+		assertEquals(expected.size(), closed.size());
+		assertTrue(closed.getCapacity() >= 2 * closed.size());
+		for (long l = 0; l < 60000; l++) {
+			assertEquals(expected.contains(l), closed.contains(Long.valueOf(l)));
+		}
+	}
+
+	public void testClearKeepsTable() {
+		FingerprintClosedSet closed = new FingerprintClosedSet(COLLIDING, true,
+				4);
+		for (int i = 0; i < 100; i++) {
+			closed.add("S" + i);
+		}
+		int capacity = closed.getCapacity();
+		closed.clear();
+		assertEquals(0, closed.size());
+		assertEquals(capacity, closed.getCapacity());
+		for (int i = 0; i < 100; i++) {
+			assertFalse(closed.contains("S" + i));
+		}
+		assertTrue(closed.add("S0"));
+		assertTrue(closed.contains("S0"));
+	}
+
+	public void testCapacityLimit() {
+		try {
+			new FingerprintClosedSet(COLLIDING, false, (1 << 27) + 1);
+			fail("More than 2^27 slots of 8 bytes overflow a ByteBuffer");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testExactModeResolvesCollisions() {
+		FingerprintClosedSet exact = new FingerprintClosedSet(COLLIDING, true,
+				4);
+		FingerprintClosedSet inexact = new FingerprintClosedSet(COLLIDING,
+				false, 4);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(exact.add("S" + i));
+			inexact.add("S" + i);
+		}
+		assertEquals(100, exact.size());
+		assertTrue(inexact.size() <= 4);
+		for (int i = 0; i < 100; i++) {
+			assertFalse(exact.add("S" + i));
+			assertTrue(exact.contains("S" + i));
+		}
+		assertFalse(exact.contains("T"));
+	}
+
+	public void testGraphSearchWithPackedFingerprints() throws Exception {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 });
+		AStarSearch search = new AStarSearch(new GraphSearch(
+				new FingerprintClosedSet(PACKED_BOARD)));
+		List actions = search.search(new Problem(board,
+				new EightPuzzleSuccessorFunction(), new EightPuzzleGoalTest(),
+				new ManhattanHeuristicFunction()));
+		assertEquals(23, actions.size());
+		// As for the HashSet based closed set, see AStarSearchTest
+		assertEquals(945, search.getMetrics().getInt("nodesExpanded"));
+	}
+
+	public void testGraphSearchClosedSetsAgree() throws Exception {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 1, 4, 2, 7,
+				5, 8, 3, 0, 6 });
+		ClosedSet[] closedSets = new ClosedSet[] { new HashClosedSet(),
+				new FingerprintClosedSet(PACKED_BOARD),
+				new FingerprintClosedSet(FingerprintClosedSet.HASH_CODE, true) };
+		List expected = null;
+		for (ClosedSet closed : closedSets) {
+			GraphSearch graphSearch = new GraphSearch(closed);
+			List actions = new BreadthFirstSearch(graphSearch)
+					.search(new Problem(new EightPuzzleBoard(board.getBoard()),
+							new EightPuzzleSuccessorFunction(),
+							new EightPuzzleGoalTest()));
+			if (null == expected) {
+				expected = actions;
+			}
+			assertEquals(expected, actions);
+			assertSame(closed, graphSearch.getClosedSet());
+			assertTrue(closed.size() > 0);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package aima.test.search;
+
+import junit.framework.TestCase;
+import aima.search.framework.EvaluationFunction;
+import aima.search.framework.Node;
+import aima.search.framework.Problem;
+import aima.search.nodestore.IndexedPriorityNodeStore;
+
+public class IndexedPriorityNodeStoreTest extends TestCase {
+
+	private IndexedPriorityNodeStore store;
+
+	private Node root;
+
+	@Override
+	public void setUp() {
+		store = new IndexedPriorityNodeStore(null, new EvaluationFunction() {
+			public Double getValue(Problem p, Node n) {
+				return n.getPathCost();
+			}
+		});
+		root = new Node("root");
+	}
+
+	public void testRemovesInValueOrder() {
+		store.add(createNode("A", 5.0));
+		store.add(createNode("B", 1.0));
+		store.add(createNode("C", 3.0));
+		store.add(createNode("D", 4.0));
+		store.add(createNode("E", 2.0));
+		assertEquals(5, store.size());
+		assertEquals("B", store.remove().getState());
+		assertEquals("E", store.remove().getState());
+		assertEquals("C", store.remove().getState());
+		assertEquals("D", store.remove().getState());
+		assertEquals("A", store.remove().getState());
+		assertTrue(store.isEmpty());
+	}
+
+	public void testDuplicateStateDecreasesKey() {
+		store.add(createNode("A", 5.0));
+		store.add(createNode("B", 3.0));
+		Node cheaperA = createNode("A", 1.0);
+		store.add(cheaperA);
+		assertEquals(2, store.size());
+		assertEquals(1.0, store.getValueOf("A"));
+		assertSame(cheaperA, store.remove());
+		assertEquals("B", store.remove().getState());
+		assertTrue(store.isEmpty());
+	}
+
+	public void testMoreExpensiveDuplicateIsDiscarded() {
+		Node a = createNode("A", 2.0);
+		store.add(a);
+		store.add(createNode("A", 7.0));
+		assertEquals(1, store.size());
+		assertSame(a, store.getNodeBasedOn("A"));
+		assertSame(a, store.remove());
+		assertFalse(store.containsNodeBasedOn("A"));
+	}
+
+	private Node createNode(String state, double pathCost) {
+		Node n = new Node(root, state);
+		n.setStepCost(pathCost);
+		n.addToPathCost(pathCost);
+		return n;
+	}
+}
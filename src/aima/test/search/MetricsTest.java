@@ -0,0 +1,135 @@
+package aima.test.search;
+
+import junit.framework.TestCase;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzleSuccessorFunction;
+import aima.search.eightpuzzle.ManhattanHeuristicFunction;
+import aima.search.framework.GraphSearch;
+import aima.search.framework.Metrics;
+import aima.search.framework.MetricsSnapshot;
+import aima.search.framework.Problem;
+import aima.search.informed.AStarSearch;
+
+public class MetricsTest extends TestCase {
+
+	private Metrics metrics;
+
+	@Override
+	public void setUp() {
+		metrics = new Metrics();
+	}
+
+	public void testStringViewMatchesTypedValues() {
+		metrics.set("nodesExpanded", 945);
+		metrics.set("pathCost", 418.0);
+		assertEquals("945", metrics.get("nodesExpanded"));
+		assertEquals("418.0", metrics.get("pathCost"));
+		assertEquals(945, metrics.getInt("nodesExpanded"));
+		assertEquals(418.0, metrics.getDouble("pathCost"));
+		assertNull(metrics.get("missing"));
+	}
+
+	public void testSetUpdatesRegisteredMetricInPlace() {
+		Metrics.Counter counter = metrics.counter("nodesExpanded");
+		counter.increment();
+		counter.add(4);
+		assertEquals("5", metrics.get("nodesExpanded"));
+		metrics.set("nodesExpanded", 0);
+		assertSame(counter, metrics.counter("nodesExpanded"));
+		counter.increment();
+		assertEquals(1, metrics.getInt("nodesExpanded"));
+	}
+
+	public void testMaxGaugeKeepsLargestValue() {
+		Metrics.MaxGauge max = metrics.maxGauge("maxQueueSize");
+		max.update(3);
+		max.update(7);
+		max.update(5);
+		assertEquals("7", metrics.get("maxQueueSize"));
+		metrics.set("maxQueueSize", 0);
+		max.update(2);
+		assertEquals(2, metrics.getInt("maxQueueSize"));
+	}
+
+	public void testTimer() {
+		Metrics.Timer timer = metrics.timer("expansionTime");
+		timer.record(10);
+		timer.record(30);
+		assertEquals(2, timer.getCount());
+		assertEquals(40, timer.getTotalNanos());
+		assertEquals(30, timer.getMaxNanos());
+		assertEquals("40", metrics.get("expansionTime"));
+		try {
+			metrics.set("expansionTime", 0);
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(40, timer.getTotalNanos());
+		timer.reset();
+		assertEquals("0", metrics.get("expansionTime"));
+	}
+
+	public void testGaugeChangesType() {
+		Metrics.Gauge gauge = metrics.gauge("queueSize");
+		assertEquals("0", metrics.get("queueSize"));
+		gauge.set(7);
+		metrics.set("queueSize", 9L);
+		assertEquals(9, gauge.longValue());
+		assertSame(gauge, metrics.gauge("queueSize"));
+
+		metrics.set("pathCost", 7L);
+		assertEquals(Long.valueOf(7L), metrics.snapshot().get("pathCost"));
+		metrics.set("pathCost", 2.5);
+		assertEquals("2.5", metrics.get("pathCost"));
+		assertEquals(2, metrics.getLong("pathCost"));
+		assertEquals(Double.valueOf(2.5), metrics.snapshot().get("pathCost"));
+		Metrics.DoubleGauge cost = metrics.doubleGauge("pathCost");
+		metrics.set("pathCost", 3.0);
+		assertEquals(3.0, cost.doubleValue());
+		metrics.set("pathCost", 7L);
+		assertEquals("7", metrics.get("pathCost"));
+		assertEquals(7.0, metrics.getDouble("pathCost"));
+	}
+
+	public void testMetricTypeCannotChange() {
+		metrics.counter("nodesExpanded");
+		try {
+			metrics.timer("nodesExpanded");
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testSnapshotExport() {
+		metrics.set("pathCost", 8.5);
+		metrics.counter("nodesExpanded").add(12);
+		metrics.timer("goalTestTime").record(100);
+		MetricsSnapshot snapshot = metrics.snapshot();
+		metrics.counter("nodesExpanded").increment();
+		assertEquals(12L, snapshot.get("nodesExpanded"));
+		assertEquals("{\"goalTestTime.count\":1,\"goalTestTime.maxNanos\":100,"
+				+ "\"goalTestTime.totalNanos\":100,\"nodesExpanded\":12,"
+				+ "\"pathCost\":8.5}", snapshot.toJSON());
+		assertEquals("goalTestTime.count,goalTestTime.maxNanos,"
+				+ "goalTestTime.totalNanos,nodesExpanded,pathCost\n"
+				+ "1,100,100,12,8.5\n", snapshot.toCSV());
+	}
+
+	public void testSearchTimers() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 1, 4,
+				2, 7, 5, 8, 3, 0, 6 }), new EightPuzzleSuccessorFunction(),
+				new EightPuzzleGoalTest(), new ManhattanHeuristicFunction());
+		GraphSearch graphSearch = new GraphSearch();
+		graphSearch.setTimingEnabled(true);
+		new AStarSearch(graphSearch).search(problem);
+		MetricsSnapshot snapshot = graphSearch.getMetrics().snapshot();
+		assertEquals((long) graphSearch.getNodesExpanded(), snapshot
+				.get("expansionTime.count"));
+		assertEquals(graphSearch.getNodesExpanded() + 1L, snapshot
+				.get("goalTestTime.count"));
+		assertTrue(snapshot.get("heuristicTime.count").longValue() > 0);
+	}
+}
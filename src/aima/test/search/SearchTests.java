@@ -4,16 +4,27 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 import aima.test.search.csp.AssignmentTest;
 import aima.test.search.csp.DomainsTest;
+import aima.test.search.csp.IntCSPSolverTest;
 import aima.test.search.csp.MapCSPTest;
+import aima.test.search.csp.MinConflictsSolverTest;
+import aima.test.search.csp.ParallelCSPSolverTest;
 import aima.test.search.eightpuzzle.EightPuzzleBoardMoveTest;
 import aima.test.search.eightpuzzle.EightPuzzleBoardTest;
 import aima.test.search.eightpuzzle.EightPuzzleSuccessorFunctionTest;
+import aima.test.search.map.CompactMapTest;
+import aima.test.search.map.ContractionHierarchyTest;
+import aima.test.search.map.DistanceMatrixServiceTest;
+import aima.test.search.map.LandmarksTest;
 import aima.test.search.map.MapAgentTest;
 import aima.test.search.map.MapEnvironmentTest;
 import aima.test.search.map.MapStepCostFunctionTest;
 import aima.test.search.map.MapSuccessorFunctionTest;
 import aima.test.search.map.MapTest;
+import aima.test.search.npuzzle.NPuzzleBoardTest;
+import aima.test.search.npuzzle.PatternDatabaseTest;
 import aima.test.search.nqueens.NQueensBoardTest;
+import aima.test.search.nqueens.CompactNQueensBoardTest;
+import aima.test.search.nqueens.MinConflictsNQueensSolverTest;
 import aima.test.search.nqueens.NQueensFitnessFunctionTest;
 import aima.test.search.nqueens.NQueensGoalTestTest;
 import aima.test.search.nqueens.NQueensSuccessorFunctionTest;
@@ -25,8 +36,15 @@ import aima.test.search.searches.BreadthFirstSearchTest;
 import aima.test.search.searches.DepthFirstSearchTest;
 import aima.test.search.searches.DepthLimitedSearchTest;
 import aima.test.search.searches.GreedyBestFirstSearchTest;
+import aima.test.search.searches.IDAStarSearchTest;
 import aima.test.search.searches.IterativeDeepeningSearchTest;
+import aima.test.search.searches.LocalSearchPortfolioTest;
+import aima.test.search.searches.PackedGeneticAlgorithmTest;
+import aima.test.search.searches.MeetInTheMiddleSearchTest;
+import aima.test.search.searches.PackedSearchTest;
+import aima.test.search.searches.ParallelAStarSearchTest;
 import aima.test.search.searches.RecursiveBestFirstSearchTest;
+import aima.test.search.searches.SMAStarSearchTest;
 import aima.test.search.searches.SimulatedAnnealingSearchTest;
 import aima.test.search.searches.UniformCostSearchTest;
 
@@ -50,26 +68,47 @@ public class SearchTests {
 		suite.addTest(new TestSuite(EightPuzzleBoardMoveTest.class));
 		suite.addTest(new TestSuite(EightPuzzleSuccessorFunctionTest.class));
 		suite.addTest(new TestSuite(FIFOQueueTest.class));
+		suite.addTest(new TestSuite(FingerprintClosedSetTest.class));
 		suite.addTest(new TestSuite(GreedyBestFirstSearchTest.class));
+		suite.addTest(new TestSuite(IDAStarSearchTest.class));
+		suite.addTest(new TestSuite(IndexedPriorityNodeStoreTest.class));
 		suite.addTest(new TestSuite(IterativeDeepeningSearchTest.class));
+		suite.addTest(new TestSuite(LandmarksTest.class));
+		suite.addTest(new TestSuite(DistanceMatrixServiceTest.class));
 		suite.addTest(new TestSuite(LIFOQueueTest.class));
 		suite.addTest(new TestSuite(LRTAStarAgentTest.class));
+		suite.addTest(new TestSuite(CompactMapTest.class));
+		suite.addTest(new TestSuite(ContractionHierarchyTest.class));
 		suite.addTest(new TestSuite(MapAgentTest.class));
 		suite.addTest(new TestSuite(MapCSPTest.class));
+		suite.addTest(new TestSuite(IntCSPSolverTest.class));
+		suite.addTest(new TestSuite(MinConflictsSolverTest.class));
+		suite.addTest(new TestSuite(ParallelCSPSolverTest.class));
 		suite.addTest(new TestSuite(MapEnvironmentTest.class));
 		suite.addTest(new TestSuite(MapStepCostFunctionTest.class));
 		suite.addTest(new TestSuite(MapSuccessorFunctionTest.class));
 		suite.addTest(new TestSuite(MapTest.class));
+		suite.addTest(new TestSuite(MeetInTheMiddleSearchTest.class));
+		suite.addTest(new TestSuite(MetricsTest.class));
 		suite.addTest(new TestSuite(MisplacedTileHeuristicFunctionTest.class));
+		suite.addTest(new TestSuite(NPuzzleBoardTest.class));
 		suite.addTest(new TestSuite(NQueensBoardTest.class));
+		suite.addTest(new TestSuite(CompactNQueensBoardTest.class));
+		suite.addTest(new TestSuite(MinConflictsNQueensSolverTest.class));
 		suite.addTest(new TestSuite(NQueensFitnessFunctionTest.class));
 		suite.addTest(new TestSuite(NQueensGoalTestTest.class));
 		suite.addTest(new TestSuite(NQueensSuccessorFunctionTest.class));
 		suite.addTest(new TestSuite(NodeTest.class));
 		suite.addTest(new TestSuite(OnlineDFSAgentTest.class));
+		suite.addTest(new TestSuite(PackedSearchTest.class));
+		suite.addTest(new TestSuite(ParallelAStarSearchTest.class));
+		suite.addTest(new TestSuite(PatternDatabaseTest.class));
 		suite.addTest(new TestSuite(QueueTest.class));
 		suite.addTest(new TestSuite(RecursiveBestFirstSearchTest.class));
+		suite.addTest(new TestSuite(SMAStarSearchTest.class));
 		suite.addTest(new TestSuite(SimulatedAnnealingSearchTest.class));
+		suite.addTest(new TestSuite(LocalSearchPortfolioTest.class));
+		suite.addTest(new TestSuite(PackedGeneticAlgorithmTest.class));
 		suite.addTest(new TestSuite(UniformCostSearchTest.class));
 
 		return suite;
@@ -0,0 +1,210 @@
+package aima.test.search.csp;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.search.csp.Assignment;
+import aima.search.csp.BinaryRelation;
+import aima.search.csp.CSP;
+import aima.search.csp.IntCSP;
+import aima.search.csp.IntCSPSolver;
+import aima.search.csp.MapCSP;
+import aima.search.csp.NogoodStore;
+
+public class IntCSPSolverTest extends TestCase {
+
+	private static final BinaryRelation NOT_EQUAL = new BinaryRelation() {
+		public boolean isSatisfiedBy(int a, int b) {
+			return a != b;
+		}
+	};
+
+	public void testMapCSP() {
+		CSP csp = MapCSP.getMap();
+		IntCSP intCSP = IntCSP.fromCSP(csp);
+		assertEquals(7, intCSP.getVariableCount());
+		// WA-NT, WA-SA, NT-SA, NT-Q, SA-Q, SA-NSW, SA-V, Q-NSW, NSW-V
+		assertEquals(18, intCSP.getArcCount());
+		assertEquals(0, intCSP.getArcsFrom(intCSP.getVariable(MapCSP.T)).length);
+		assertEquals(MapCSP.BLUE, intCSP.getValue(intCSP
+				.getVariable(MapCSP.WA), 1));
+
+		Assignment solution = csp.constraintPropagationSearch();
+		assertNotNull(solution);
+		assertTrue(solution.isComplete());
+		assertTrue(solution.satisfies(csp.getConstraints()));
+	}
+
+	public void testSolveAfterStop() {
+		IntCSPSolver solver = new IntCSPSolver();
+		solver.stop();
+		assertTrue(solver.isStopped());
+		assertNotNull(solver.solve(IntCSP.fromCSP(MapCSP.getMap())));
+		assertFalse(solver.isStopped());
+	}
+
+	public void testNQueens() {
+		for (IntCSPSolver.Inference inference : IntCSPSolver.Inference
+				.values()) {
+			for (boolean backjumping : new boolean[] { false, true }) {
+				IntCSPSolver solver = new IntCSPSolver();
+				solver.setInference(inference);
+				solver.setBackjumping(backjumping);
+				for (int size : new int[] { 1, 4, 8, 12 }) {
+					IntCSP csp = nQueens(size);
+					int[] solution = solver.solve(csp);
+					assertNotNull(solution);
+					assertTrue(csp.isSolution(solution));
+				}
+				assertNull(solver.solve(nQueens(3)));
+			}
+		}
+		// MAC and MRV find 100 queens with few backtracks
+		IntCSPSolver solver = new IntCSPSolver();
+		IntCSP csp = nQueens(100);
+		assertTrue(csp.isSolution(solver.solve(csp)));
+		assertTrue(solver.getMetrics().getLong("nodesExpanded") < 1000);
+	}
+
+	public void testArcConsistentDomains() {
+		// x < y < z over 0..2 leaves one value each
+		IntCSP csp = new IntCSP();
+		int x = csp.addVariable("x", 3), y = csp.addVariable("y", 3);
+		int z = csp.addVariable("z", 3);
+		BinaryRelation less = new BinaryRelation() {
+			public boolean isSatisfiedBy(int a, int b) {
+				return a < b;
+			}
+		};
+		csp.addConstraint(x, y, less);
+		csp.addConstraint(y, z, less);
+		IntCSPSolver solver = new IntCSPSolver();
+		int[][] domains = solver.arcConsistentDomains(csp);
+		assertEquals(1, domains[x].length);
+		assertEquals(0, domains[x][0]);
+		assertEquals(1, domains[y][0]);
+		assertEquals(2, domains[z][0]);
+
+		// and nothing once z cannot be 2
+		csp.removeValue(z, 2);
+		assertFalse(csp.isInDomain(z, 2));
+		assertNull(solver.arcConsistentDomains(csp));
+		assertEquals(1L, solver.getMetrics().getLong("wipeouts"));
+		assertNull(solver.solve(csp));
+	}
+
+	public void testBackjumping() {
+		// A 4-clique needing 4 colours of 3, with independent variables
+		// assigned between its first variable and the others, and no
+		// inference to find it early
+		IntCSP csp = new IntCSP();
+		for (int i = 0; i < 10; i++) {
+			csp.addVariable("v" + i, 3);
+		}
+		int[] clique = { 0, 7, 8, 9 };
+		for (int i = 0; i < clique.length; i++) {
+			for (int j = i + 1; j < clique.length; j++) {
+				csp.addConstraint(clique[i], clique[j], NOT_EQUAL);
+			}
+		}
+		IntCSPSolver solver = new IntCSPSolver();
+		solver.setInference(IntCSPSolver.Inference.NONE);
+		solver.setVariableOrdering(IntCSPSolver.VariableOrdering.FIRST_UNASSIGNED);
+		solver.setValueOrdering(IntCSPSolver.ValueOrdering.DEFAULT);
+		assertNull(solver.solve(csp));
+		assertTrue(solver.getMetrics().getLong("backjumps") > 0);
+		long jumping = solver.getMetrics().getLong("nodesExpanded");
+		solver.setBackjumping(false);
+		assertNull(solver.solve(csp));
+		assertEquals(0L, solver.getMetrics().getLong("backjumps"));
+		assertTrue(jumping * 100 < solver.getMetrics().getLong(
+				"nodesExpanded"));
+	}
+
+	public void testAgreesWithExhaustiveSearch() {
+		Random random = new Random(11L);
+		for (int trial = 0; trial < 200; trial++) {
+			IntCSP csp = new IntCSP();
+			int n = 3 + random.nextInt(5);
+			for (int x = 0; x < n; x++) {
+				csp.addVariable("v" + x, 2 + random.nextInt(3));
+			}
+			for (int c = 0; c < n * 2; c++) {
+				int x = random.nextInt(n), y = random.nextInt(n);
+				if (x != y) {
+					final boolean[][] allowed = new boolean[4][4];
+					for (int a = 0; a < 4; a++) {
+						for (int b = 0; b < 4; b++) {
+							allowed[a][b] = random.nextInt(10) < 7;
+						}
+					}
+					csp.addConstraint(x, y, new BinaryRelation() {
+						public boolean isSatisfiedBy(int a, int b) {
+							return allowed[a][b];
+						}
+					});
+				}
+			}
+			boolean satisfiable = exhaustiveSearch(csp, new int[n], 0);
+			for (IntCSPSolver.Inference inference : IntCSPSolver.Inference
+					.values()) {
+				for (boolean backjumping : new boolean[] { false, true }) {
+					IntCSPSolver solver = new IntCSPSolver();
+					solver.setInference(inference);
+					solver.setBackjumping(backjumping);
+					int[] solution = solver.solve(csp);
+					assertEquals(satisfiable, null != solution);
+					if (satisfiable) {
+						assertTrue(csp.isSolution(solution));
+					}
+				}
+			}
+			// Random ties and nogoods shared between solvers change nothing
+			NogoodStore store = new NogoodStore();
+			for (long seed = 0; seed < 3; seed++) {
+				IntCSPSolver solver = new IntCSPSolver();
+				solver.setSeed(seed);
+				solver.setNogoodStore(store);
+				int[] solution = solver.solve(csp);
+				assertEquals(satisfiable, null != solution);
+				if (satisfiable) {
+					assertTrue(csp.isSolution(solution));
+				}
+			}
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private IntCSP nQueens(int size) {
+		IntCSP csp = new IntCSP();
+		for (int x = 0; x < size; x++) {
+			csp.addVariable("Q" + x, size);
+		}
+		for (int x = 0; x < size; x++) {
+			for (int y = x + 1; y < size; y++) {
+				final int distance = y - x;
+				csp.addConstraint(x, y, new BinaryRelation() {
+					public boolean isSatisfiedBy(int a, int b) {
+						return a != b && Math.abs(a - b) != distance;
+					}
+				});
+			}
+		}
+		return csp;
+	}
+
+	private boolean exhaustiveSearch(IntCSP csp, int[] values, int x) {
+		if (x == values.length) {
+			return csp.isSolution(values);
+		}
+		for (int a = 0; a < csp.getDomainSize(x); a++) {
+			values[x] = a;
+			if (exhaustiveSearch(csp, values, x + 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,142 @@
+package aima.test.search.csp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.search.csp.Assignment;
+import aima.search.csp.BinaryRelation;
+import aima.search.csp.CSP;
+import aima.search.csp.Domain;
+import aima.search.csp.IntCSP;
+import aima.search.csp.MapCSP;
+import aima.search.csp.MapColoringConstraint;
+import aima.search.csp.MinConflictsSolver;
+
+public class MinConflictsSolverTest extends TestCase {
+
+	private static final BinaryRelation NOT_EQUAL = new BinaryRelation() {
+		public boolean isSatisfiedBy(int a, int b) {
+			return a != b;
+		}
+	};
+
+	public void testMapCSP() {
+		CSP csp = MapCSP.getMap();
+		Assignment solution = csp.mcSearch(1000);
+		assertNotNull(solution);
+		assertTrue(solution.satisfies(csp.getConstraints()));
+	}
+
+	public void testSolveAfterStop() {
+		MinConflictsSolver solver = new MinConflictsSolver(1L);
+		solver.stop();
+		assertNotNull(solver.solve(IntCSP.fromCSP(MapCSP.getMap())));
+	}
+
+	public void testLargeMapColoringCSP() {
+		// 10^4 regions of a map with a planted 4-colouring
+		int n = 10000;
+		Random random = new Random(5L);
+		List<String> variables = new ArrayList<String>();
+		Hashtable<String, List<String>> neighbors = new Hashtable<String, List<String>>();
+		int[] planted = new int[n];
+		for (int i = 0; i < n; i++) {
+			variables.add("R" + i);
+			neighbors.put("R" + i, new ArrayList<String>());
+			planted[i] = random.nextInt(4);
+		}
+		for (int m = 0; m < 2 * n;) {
+			int x = random.nextInt(n), y = random.nextInt(n);
+			if (planted[x] != planted[y]) {
+				neighbors.get("R" + x).add("R" + y);
+				neighbors.get("R" + y).add("R" + x);
+				m++;
+			}
+		}
+		Domain domains = new Domain(variables);
+		for (String variable : variables) {
+			domains.addToDomain(variable, Arrays.asList(MapCSP.RED,
+					MapCSP.GREEN, MapCSP.BLUE, "YELLOW"));
+		}
+		CSP csp = new CSP(variables, new MapColoringConstraint(neighbors),
+				domains);
+		Assignment solution = csp.mcSearch(1000000);
+		assertNotNull(solution);
+		assertTrue(solution.satisfies(csp.getConstraints()));
+	}
+
+	public void testHundredThousandVariables() {
+		int n = 100000;
+		IntCSP csp = plantedColoring(n, 4, 2 * n, new Random(7L));
+		MinConflictsSolver solver = new MinConflictsSolver(3L);
+		int[] solution = solver.solve(csp);
+		assertNotNull(solution);
+		assertTrue(csp.isSolution(solution));
+		assertEquals(0L, solver.getConflicts());
+		assertEquals(0L, solver.getMetrics().getLong("conflicts"));
+		assertTrue(solver.getMetrics().getLong("initialConflicts") > 0);
+		assertTrue(solver.getMetrics().getLong("nodesExpanded") > 0);
+	}
+
+	public void testTabuAndRandomWalk() {
+		IntCSP csp = plantedColoring(2000, 3, 3000, new Random(9L));
+		for (int tenure : new int[] { 0, 10 }) {
+			for (double walk : new double[] { 0.02, 0.1 }) {
+				MinConflictsSolver solver = new MinConflictsSolver(1L);
+				solver.setTabuTenure(tenure);
+				solver.setWalkProbability(walk);
+				int[] solution = solver.solve(csp);
+				assertNotNull(solution);
+				assertTrue(csp.isSolution(solution));
+				assertTrue(solver.getMetrics().getLong("randomWalks") > 0);
+			}
+		}
+		MinConflictsSolver solver = new MinConflictsSolver(1L);
+		solver.setWalkProbability(0.0);
+		solver.setMaxSteps(1000);
+		solver.solve(csp);
+		assertEquals(0L, solver.getMetrics().getLong("randomWalks"));
+	}
+
+	public void testNoSolution() {
+		// 4 mutual neighbours with 3 colours
+		IntCSP csp = new IntCSP();
+		for (int x = 0; x < 4; x++) {
+			csp.addVariable("v" + x, 3);
+		}
+		for (int x = 0; x < 4; x++) {
+			for (int y = x + 1; y < 4; y++) {
+				csp.addConstraint(x, y, NOT_EQUAL);
+			}
+		}
+		MinConflictsSolver solver = new MinConflictsSolver(2L);
+		solver.setMaxSteps(1000);
+		assertNull(solver.solve(csp));
+		assertEquals(1000L, solver.getMetrics().getLong("nodesExpanded"));
+		assertTrue(solver.getConflicts() >= 1);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private IntCSP plantedColoring(int n, int colors, int edges, Random random) {
+		IntCSP csp = new IntCSP();
+		int[] planted = new int[n];
+		for (int x = 0; x < n; x++) {
+			csp.addVariable("v" + x, colors);
+			planted[x] = random.nextInt(colors);
+		}
+		for (int m = 0; m < edges;) {
+			int x = random.nextInt(n), y = random.nextInt(n);
+			if (planted[x] != planted[y]) {
+				csp.addConstraint(x, y, NOT_EQUAL);
+				m++;
+			}
+		}
+		return csp;
+	}
+}
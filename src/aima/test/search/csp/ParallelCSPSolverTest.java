@@ -0,0 +1,188 @@
+package aima.test.search.csp;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+import aima.search.csp.Assignment;
+import aima.search.csp.BinaryRelation;
+import aima.search.csp.CSP;
+import aima.search.csp.IntCSP;
+import aima.search.csp.MapCSP;
+import aima.search.csp.NogoodStore;
+import aima.search.csp.ParallelCSPSolver;
+
+public class ParallelCSPSolverTest extends TestCase {
+
+	private static final BinaryRelation NOT_EQUAL = new BinaryRelation() {
+		public boolean isSatisfiedBy(int a, int b) {
+			return a != b;
+		}
+	};
+
+	public void testSolve() {
+		ParallelCSPSolver solver = new ParallelCSPSolver(4);
+		for (int size : new int[] { 1, 4, 8, 30 }) {
+			IntCSP csp = nQueens(size);
+			int[] solution = solver.solve(csp);
+			assertNotNull(solution);
+			assertTrue(csp.isSolution(solution));
+		}
+		assertTrue(solver.getMetrics().getLong("tasks") > 1);
+
+		IntCSP csp = plantedColoring(300, 3, 500, new Random(3L));
+		assertTrue(csp.isSolution(solver.solve(csp)));
+
+		CSP map = MapCSP.getMap();
+		Assignment assignment = solver.solve(map);
+		assertTrue(assignment.satisfies(map.getConstraints()));
+	}
+
+	public void testSolveWithoutSolution() {
+		ParallelCSPSolver solver = new ParallelCSPSolver(3);
+		assertNull(solver.solve(nQueens(3)));
+		assertNull(solver.solve(nQueens(2)));
+		// A 4-clique among 20 variables with 3 colours
+		IntCSP csp = plantedColoring(20, 3, 20, new Random(1L));
+		for (int x = 0; x < 4; x++) {
+			for (int y = x + 1; y < 4; y++) {
+				csp.addConstraint(x, y, NOT_EQUAL);
+			}
+		}
+		solver.setMaxSplitDepth(3);
+		assertNull(solver.solve(csp));
+	}
+
+	public void testRace() {
+		ParallelCSPSolver solver = new ParallelCSPSolver(4);
+		solver.setSeed(5L);
+		IntCSP csp = plantedColoring(2000, 4, 4000, new Random(5L));
+		int[] solution = solver.race(csp);
+		assertNotNull(solution);
+		assertTrue(csp.isSolution(solution));
+		assertTrue(solver.getWinner() >= 0);
+		assertEquals("mac", solver.getMemberName(0));
+		assertEquals("minConflicts", solver.getMemberName(1));
+		assertEquals("forwardChecking", solver.getMemberName(2));
+
+		CSP map = MapCSP.getMap();
+		Assignment assignment = solver.race(map);
+		assertTrue(assignment.satisfies(map.getConstraints()));
+
+		// Only a complete solver can show there is no solution
+		assertNull(solver.race(nQueens(3)));
+		assertFalse("minConflicts".equals(solver.getMemberName(solver
+				.getWinner())));
+	}
+
+	public void testRaceOnFreshCSPs() {
+		// Every member asks a CSP nobody has searched yet for its arcs at
+		// once
+		ParallelCSPSolver solver = new ParallelCSPSolver(8);
+		Random random = new Random(7L);
+		for (int i = 0; i < 20; i++) {
+			solver.setSeed(i);
+			IntCSP csp = plantedColoring(3000, 4, 6000, random);
+			int[] solution = solver.race(csp);
+			assertNotNull(solution);
+			assertTrue(csp.isSolution(solution));
+		}
+	}
+
+	public void testArcsOfAFreshCSPOnManyThreads() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			final IntCSP expected = plantedColoring(3000, 4, 6000,
+					new Random(i));
+			final IntCSP csp = plantedColoring(3000, 4, 6000, new Random(i));
+			final CountDownLatch start = new CountDownLatch(1);
+			final AtomicBoolean agree = new AtomicBoolean(true);
+			Thread[] threads = new Thread[8];
+			for (int t = 0; t < threads.length; t++) {
+				threads[t] = new Thread() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							for (int x = 0; x < csp.getVariableCount(); x++) {
+								if (!Arrays.equals(expected.getArcsFrom(x),
+										csp.getArcsFrom(x))) {
+									agree.set(false);
+								}
+							}
+						} catch (Exception e) {
+							agree.set(false);
+						}
+					}
+				};
+				threads[t].start();
+			}
+			start.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertTrue(agree.get());
+		}
+	}
+
+	public void testNogoodStore() {
+		NogoodStore store = new NogoodStore();
+		assertTrue(store.add(new int[] { 3 }, new int[] { 1 }, 1));
+		assertFalse(store.add(new int[] { 3 }, new int[] { 1 }, 1));
+		assertTrue(store.isNogood(3, 1));
+		assertFalse(store.isNogood(3, 2));
+
+		assertTrue(store.add(new int[] { 1, 2 }, new int[] { 0, 5 }, 2));
+		assertFalse(store.add(new int[] { 2, 1 }, new int[] { 5, 0 }, 2));
+		assertTrue(store.isNogood(1, 0, 2, 5));
+		assertTrue(store.isNogood(2, 5, 1, 0));
+		assertFalse(store.isNogood(1, 0, 2, 4));
+		// Larger nogoods are not kept
+		assertFalse(store.add(new int[] { 1, 2, 3 }, new int[] { 0, 0, 0 },
+				3));
+		assertEquals(2L, store.size());
+
+		assertFalse(store.isUnsatisfiable());
+		store.add(new int[0], new int[0], 0);
+		assertTrue(store.isUnsatisfiable());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private IntCSP nQueens(int size) {
+		IntCSP csp = new IntCSP();
+		for (int x = 0; x < size; x++) {
+			csp.addVariable("Q" + x, size);
+		}
+		for (int x = 0; x < size; x++) {
+			for (int y = x + 1; y < size; y++) {
+				final int distance = y - x;
+				csp.addConstraint(x, y, new BinaryRelation() {
+					public boolean isSatisfiedBy(int a, int b) {
+						return a != b && Math.abs(a - b) != distance;
+					}
+				});
+			}
+		}
+		return csp;
+	}
+
+	private IntCSP plantedColoring(int n, int colors, int edges, Random random) {
+		IntCSP csp = new IntCSP();
+		int[] planted = new int[n];
+		for (int x = 0; x < n; x++) {
+			csp.addVariable("v" + x, colors);
+			planted[x] = random.nextInt(colors);
+		}
+		for (int m = 0; m < edges;) {
+			int x = random.nextInt(n), y = random.nextInt(n);
+			if (planted[x] != planted[y]) {
+				csp.addConstraint(x, y, NOT_EQUAL);
+				m++;
+			}
+		}
+		return csp;
+	}
+}
@@ -0,0 +1,210 @@
+package aima.test.search.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.basic.BasicEnvironmentView;
+import aima.search.framework.GraphSearch;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Successor;
+import aima.search.informed.AStarSearch;
+import aima.search.map.AdaptableHeuristicFunction;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.CompactMap;
+import aima.search.map.CompactMapLoader;
+import aima.search.map.ExtendableMap;
+import aima.search.map.Map;
+import aima.search.map.MapAgent;
+import aima.search.map.MapEnvironment;
+import aima.search.map.MapSuccessorFunction;
+import aima.search.map.Point2D;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.search.uninformed.UniformCostSearch;
+
+public class CompactMapTest extends TestCase {
+
+	ExtendableMap aMap;
+
+	CompactMap compact;
+
+	@Override
+	public void setUp() {
+		aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		aMap.addBidirectionalLink("A", "C", 6.0);
+		aMap.addBidirectionalLink("B", "C", 4.0);
+		aMap.addBidirectionalLink("C", "D", 7.0);
+		aMap.addUnidirectionalLink("B", "E", 14.0);
+		compact = CompactMap.copyOf(aMap);
+	}
+
+	public void testMatchesExtendableMap() {
+		assertSameMap(aMap, compact);
+		assertEquals(5, compact.getLocationCount());
+		assertEquals(9, compact.getLinkCount());
+		assertNull(compact.getDistance("E", "B"));
+		assertNull(compact.getDistance("A", "X"));
+		assertEquals(-1, compact.getId("X"));
+		assertTrue(compact.getLocationsLinkedTo("X").isEmpty());
+	}
+
+	public void testMatchesRomania() {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		assertSameMap(romania, CompactMap.copyOf(romania));
+	}
+
+	public void testBuilderOrdersLinksAndReplacesDuplicates() {
+		CompactMap map = new CompactMap.Builder().addUnidirectionalLink("A",
+				"D", 1.0).addUnidirectionalLink("A", "B", 2.0)
+				.addUnidirectionalLink("A", "C", 3.0).addUnidirectionalLink(
+						"A", "B", 4.0).build();
+		assertEquals("[B, C, D]", map.getLocationsLinkedTo("A").toString());
+		assertEquals(4.0, map.getDistance("A", "B"));
+		assertEquals(3, map.getLinkCount());
+		assertNull(map.getPosition("A"));
+
+		int a = map.getId("A");
+		assertEquals(map.getId("B"), map.getLinkTarget(map.getFirstLink(a)));
+		assertEquals(4.0, map.getLinkDistance(map.getFirstLink(a)));
+		assertEquals(3, map.getFirstLink(a + 1) - map.getFirstLink(a));
+	}
+
+	public void testViewsAreReadOnly() {
+		try {
+			compact.getLocations().add("F");
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+		}
+		try {
+			compact.getLocationsLinkedTo("A").remove(0);
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	public void testSuccessorsAreReused() {
+		List first = new MapSuccessorFunction(compact).getSuccessors("A");
+		List second = new MapSuccessorFunction(compact).getSuccessors("C");
+		assertEquals(2, first.size());
+		assertEquals("B", ((Successor) first.get(0)).getState());
+		assertEquals("B", ((Successor) first.get(0)).getAction());
+		assertSame(first.get(0), second.get(1));
+	}
+
+	public void testLoadAndWrite() throws IOException {
+		CompactMap map = CompactMapLoader.load(new StringReader(
+				"# A small map\n" + "v A 0 0\n" + "v B 3.5 4\n\n"
+						+ "b A\tB 5.0\n" + "e B C 2\n"));
+		assertEquals("[A, B, C]", map.getLocations().toString());
+		assertEquals(5.0, map.getDistance("B", "A"));
+		assertEquals(2.0, map.getDistance("B", "C"));
+		assertNull(map.getDistance("C", "B"));
+		assertEquals(3.5, map.getPosition("B").getX());
+		assertNull(map.getPosition("C"));
+
+		File file = File.createTempFile("compactmap", ".txt");
+		try {
+			CompactMapLoader.write(map, file);
+			assertSameMap(map, CompactMapLoader.load(file));
+		} finally {
+			file.delete();
+		}
+
+		StringWriter out = new StringWriter();
+		CompactMapLoader.write(CompactMap
+				.copyOf(new SimplifiedRoadMapOfPartOfRomania()), out);
+		assertSameMap(new SimplifiedRoadMapOfPartOfRomania(), CompactMapLoader
+				.load(new StringReader(out.toString())));
+	}
+
+	public void testLoadRejectsMalformedLines() {
+		String[] malformed = new String[] { "e A B", "x A B 1", "e A B one",
+				"b A B 1 2" };
+		for (String line : malformed) {
+			try {
+				CompactMapLoader.load(new StringReader("v A 0 0\n" + line));
+				fail("Expected IOException for " + line);
+			} catch (IOException e) {
+				assertTrue(e.getMessage().startsWith("Line 2 "));
+			}
+		}
+	}
+
+	public void testAStarMatchesExtendableMap() throws Exception {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		CompactMap compactRomania = CompactMap.copyOf(romania);
+		for (String from : romania.getLocations()) {
+			AStarSearch expected = new AStarSearch(new GraphSearch());
+			AStarSearch actual = new AStarSearch(new GraphSearch());
+			assertEquals(expected.search(new BidirectionalMapProblem(romania,
+					from, SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+					straightLineTo(romania))), actual
+					.search(new BidirectionalMapProblem(compactRomania, from,
+							SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+							straightLineTo(compactRomania))));
+			assertEquals(expected.getMetrics().getDouble("pathCost"), actual
+					.getMetrics().getDouble("pathCost"));
+		}
+	}
+
+	public void testMapAgent() {
+		// As for the ExtendableMap in MapAgentTest
+		final StringBuffer envChanges = new StringBuffer();
+		MapEnvironment me = new MapEnvironment(compact);
+		MapAgent ma = new MapAgent(me,
+				new UniformCostSearch(new GraphSearch()), new String[] { "D" });
+		me.addAgent(ma, "A");
+		me.registerView(new BasicEnvironmentView() {
+			@Override
+			public void envChanged(String command) {
+				envChanges.append(command).append(":");
+			}
+		});
+		me.stepUntilDone();
+
+		assertEquals(
+				"CurrentLocation=In(A), Goal=In(D):C:D:METRIC[pathCost]=13.0:METRIC[maxQueueSize]=4:METRIC[queueSize]=1:METRIC[nodesExpanded]=3:NoOP:",
+				envChanges.toString());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private HeuristicFunction straightLineTo(Map map) {
+		return new StraightLine().getAdaptation(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST, map);
+	}
+
+	private void assertSameMap(Map expected, Map actual) {
+		assertEquals(expected.getLocations().size(), actual.getLocations()
+				.size());
+		assertTrue(actual.getLocations().containsAll(expected.getLocations()));
+		for (String from : expected.getLocations()) {
+			List<String> linked = expected.getLocationsLinkedTo(from);
+			assertEquals(linked, actual.getLocationsLinkedTo(from));
+			for (String to : linked) {
+				assertEquals(expected.getDistance(from, to), actual
+						.getDistance(from, to));
+			}
+			Point2D p = expected.getPosition(from);
+			if (null == p) {
+				assertNull(actual.getPosition(from));
+			} else {
+				assertEquals(p.getX(), actual.getPosition(from).getX());
+				assertEquals(p.getY(), actual.getPosition(from).getY());
+			}
+		}
+	}
+
+	static class StraightLine extends AdaptableHeuristicFunction {
+		public double getHeuristicValue(Object state) {
+			Point2D pt1 = map.getPosition((String) state);
+			Point2D pt2 = map.getPosition((String) goal);
+			return pt1.distance(pt2);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package aima.test.search.map;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.basic.BasicEnvironmentView;
+import aima.search.framework.GraphSearch;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.CompactMap;
+import aima.search.map.ContractionHierarchy;
+import aima.search.map.ContractionHierarchySearch;
+import aima.search.map.ExtendableMap;
+import aima.search.map.Map;
+import aima.search.map.MapAgent;
+import aima.search.map.MapEnvironment;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.search.uninformed.UniformCostSearch;
+
+public class ContractionHierarchyTest extends TestCase {
+
+	public void testRomaniaAllPairs() throws Exception {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		ContractionHierarchySearch search = new ContractionHierarchySearch(
+				ContractionHierarchy.build(romania));
+		assertMatchesUniformCostSearch(romania, search, romania.getLocations(),
+				romania.getLocations());
+	}
+
+	public void testRandomOneWayGrids() throws Exception {
+		Random r = new Random(5L);
+		for (int trial = 0; trial < 5; trial++) {
+			ExtendableMap grid = createRandomGrid(12, r);
+			ContractionHierarchy hierarchy = ContractionHierarchy.build(grid);
+			assertEquals(grid.getLocations().size(), hierarchy.getMap()
+					.getLocationCount());
+			ContractionHierarchySearch search = new ContractionHierarchySearch(
+					hierarchy);
+			for (int i = 0; i < 20; i++) {
+				List<String> locations = grid.getLocations();
+				assertMatchesUniformCostSearch(grid, search, locations.get(r
+						.nextInt(locations.size())), locations.get(r
+						.nextInt(locations.size())));
+			}
+		}
+	}
+
+	public void testSmallWitnessLimitStillOptimal() throws Exception {
+		Random r = new Random(9L);
+		ExtendableMap grid = createRandomGrid(10, r);
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(
+				CompactMap.copyOf(grid), 1);
+		assertTrue(hierarchy.getShortcutCount() >= ContractionHierarchy
+				.build(grid).getShortcutCount());
+		ContractionHierarchySearch search = new ContractionHierarchySearch(
+				hierarchy);
+		List<String> locations = grid.getLocations();
+		for (int i = 0; i < 30; i++) {
+			assertMatchesUniformCostSearch(grid, search, locations.get(r
+					.nextInt(locations.size())), locations.get(r
+					.nextInt(locations.size())));
+		}
+	}
+
+	public void testStartingAtGoalAndNoPath() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		aMap.addUnidirectionalLink("B", "C", 5.0);
+		ContractionHierarchySearch search = new ContractionHierarchySearch(
+				ContractionHierarchy.build(aMap));
+		assertEquals(0, search.search(
+				new BidirectionalMapProblem(aMap, "A", "A")).size());
+		assertEquals(0.0, search.getPathCost());
+		assertEquals(0, search.search(
+				new BidirectionalMapProblem(aMap, "C", "A")).size());
+		assertEquals("[B, C]", search.search(
+				new BidirectionalMapProblem(aMap, "A", "C")).toString());
+		assertEquals(10.0, search.getPathCost());
+		try {
+			search.search(new BidirectionalMapProblem(aMap, "A", "X"));
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testSaveAndLoad() throws Exception {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		ContractionHierarchy built = ContractionHierarchy.build(romania);
+		File file = File.createTempFile("romania", ".ch");
+		try {
+			built.save(file);
+			ContractionHierarchy loaded = ContractionHierarchy.load(file);
+			CompactMap map = loaded.getMap();
+			assertEquals(romania.getLocations().size(), map.getLocationCount());
+			for (int v = 0; v < map.getLocationCount(); v++) {
+				assertEquals(built.getMap().getName(v), map.getName(v));
+				assertEquals(built.getRank(v), loaded.getRank(v));
+				assertEquals(built.getMap().getX(v), map.getX(v));
+			}
+			assertEquals(built.getEdgeCount(), loaded.getEdgeCount());
+			assertEquals(built.getShortcutCount(), loaded.getShortcutCount());
+			assertMatchesUniformCostSearch(romania,
+					new ContractionHierarchySearch(loaded), romania
+							.getLocations(), romania.getLocations());
+
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			raf.setLength(raf.length() - 1);
+			raf.close();
+			try {
+				ContractionHierarchy.load(file);
+				fail("Expected IOException");
+			} catch (IOException e) {
+				assertTrue(e.getMessage().endsWith("is truncated"));
+			}
+
+			FileOutputStream out = new FileOutputStream(file);
+			out.write(new byte[] { 1, 2, 3, 4 });
+			out.close();
+			try {
+				ContractionHierarchy.load(file);
+				fail("Expected IOException");
+			} catch (IOException e) {
+				assertTrue(e.getMessage().endsWith("is not a contraction hierarchy"));
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testMapAgent() {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		aMap.addBidirectionalLink("A", "C", 6.0);
+		aMap.addBidirectionalLink("B", "C", 4.0);
+		aMap.addBidirectionalLink("C", "D", 7.0);
+		aMap.addUnidirectionalLink("B", "E", 14.0);
+		final StringBuffer envChanges = new StringBuffer();
+		MapEnvironment me = new MapEnvironment(aMap);
+		MapAgent ma = new MapAgent(me, new ContractionHierarchySearch(
+				ContractionHierarchy.build(aMap)), new String[] { "D" });
+		me.addAgent(ma, "A");
+		me.registerView(new BasicEnvironmentView() {
+			@Override
+			public void envChanged(String command) {
+				envChanges.append(command).append(":");
+			}
+		});
+		me.stepUntilDone();
+
+		assertTrue(envChanges.toString().startsWith(
+				"CurrentLocation=In(A), Goal=In(D):C:D:"));
+		assertTrue(envChanges.toString().indexOf("METRIC[pathCost]=13.0") > 0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void assertMatchesUniformCostSearch(Map map,
+			ContractionHierarchySearch search, List<String> froms,
+			List<String> tos) throws Exception {
+		for (String from : froms) {
+			for (String to : tos) {
+				assertMatchesUniformCostSearch(map, search, from, to);
+			}
+		}
+	}
+
+	private void assertMatchesUniformCostSearch(Map map,
+			ContractionHierarchySearch search, String from, String to)
+			throws Exception {
+		UniformCostSearch ucs = new UniformCostSearch(new GraphSearch());
+		List expected = ucs.search(new BidirectionalMapProblem(map, from, to));
+		List<String> actions = search.search(new BidirectionalMapProblem(map,
+				from, to));
+		assertEquals(from + " to " + to, expected.isEmpty(), actions.isEmpty());
+		if (!expected.isEmpty()) {
+			double optimal = ucs.getMetrics().getDouble("pathCost");
+			assertEquals(optimal, search.getPathCost(), 1e-9);
+			double cost = 0;
+			String at = from;
+			for (String next : actions) {
+				cost += map.getDistance(at, next);
+				at = next;
+			}
+			assertEquals(to, at);
+			assertEquals(optimal, cost, 1e-9);
+		}
+	}
+
+	// A width x width grid with some links missing and some one way
+	private ExtendableMap createRandomGrid(int width, Random r) {
+		ExtendableMap grid = new ExtendableMap();
+		for (int i = 0; i < width * width; i++) {
+			grid.setPosition("L" + i, i % width * 10, i / width * 10);
+		}
+		for (int i = 0; i < width * width; i++) {
+			if (i % width < width - 1) {
+				addRandomLink(grid, "L" + i, "L" + (i + 1), r);
+			}
+			if (i / width < width - 1) {
+				addRandomLink(grid, "L" + i, "L" + (i + width), r);
+			}
+		}
+		return grid;
+	}
+
+	private void addRandomLink(ExtendableMap grid, String a, String b,
+			Random r) {
+		double distance = 10.0 + r.nextInt(11);
+		switch (r.nextInt(6)) {
+		case 0:
+			break;
+		case 1:
+			grid.addUnidirectionalLink(a, b, distance);
+			break;
+		case 2:
+			grid.addUnidirectionalLink(b, a, distance);
+			break;
+		default:
+			grid.addBidirectionalLink(a, b, distance);
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package aima.test.search.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import aima.search.framework.GraphSearch;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.CompactMap;
+import aima.search.map.DistanceMatrixService;
+import aima.search.map.ExtendableMap;
+import aima.search.map.MappedDistanceMatrix;
+import aima.search.map.ShortestPaths;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.search.uninformed.UniformCostSearch;
+
+public class DistanceMatrixServiceTest extends TestCase {
+
+	public void testMatrixOnRomania() {
+		SimplifiedRoadMapOfPartOfRomania romania = new SimplifiedRoadMapOfPartOfRomania();
+		DistanceMatrixService service = new DistanceMatrixService(romania);
+		List<String> origins = Arrays.asList(
+				SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.NEAMT);
+		List<String> destinations = Arrays.asList(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				SimplifiedRoadMapOfPartOfRomania.ARAD);
+		double[][] matrix = service.computeMatrix(origins, destinations);
+		assertEquals(2, matrix.length);
+		assertEquals(418.0, matrix[0][0], 1e-9);
+		assertEquals(0.0, matrix[0][1], 1e-9);
+		assertEquals(406.0, matrix[1][0], 1e-9);
+		assertEquals(824.0, matrix[1][1], 1e-9);
+	}
+
+	public void testMatrixAgreesWithUniformCostSearch() throws Exception {
+		ExtendableMap grid = createRandomGrid(6, new Random(5L));
+		List<String> locations = grid.getLocations();
+		double[][] matrix = new DistanceMatrixService(grid, new ForkJoinPool(
+				3)).computeMatrix(locations, locations);
+		for (int i = 0; i < locations.size(); i += 5) {
+			for (int j = 0; j < locations.size(); j += 3) {
+				UniformCostSearch search = new UniformCostSearch(
+						new GraphSearch());
+				List actions = search.search(new BidirectionalMapProblem(grid,
+						locations.get(i), locations.get(j)));
+				if (i != j && actions.isEmpty()) {
+					assertEquals(Double.POSITIVE_INFINITY, matrix[i][j]);
+				} else {
+					assertEquals(search.getMetrics().getDouble("pathCost"),
+							matrix[i][j], 1e-9);
+				}
+			}
+		}
+	}
+
+	public void testPoolsAgree() {
+		CompactMap grid = CompactMap.copyOf(createRandomGrid(12, new Random(
+				9L)));
+		List<String> locations = grid.getLocations();
+		List<String> destinations = locations.subList(0, 20);
+		double[][] common = new DistanceMatrixService(grid).computeMatrix(
+				locations, destinations);
+		double[][] single = new DistanceMatrixService(grid, new ForkJoinPool(
+				1)).computeMatrix(locations, destinations);
+		assertEquals(locations.size(), common.length);
+		for (int i = 0; i < common.length; i++) {
+			assertTrue(Arrays.equals(common[i], single[i]));
+		}
+	}
+
+	public void testUnknownLocation() {
+		DistanceMatrixService service = new DistanceMatrixService(
+				new SimplifiedRoadMapOfPartOfRomania());
+		try {
+			service.computeMatrix(Arrays.asList("Atlantis"), Arrays
+					.asList(SimplifiedRoadMapOfPartOfRomania.ARAD));
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testMappedMatrix() throws IOException {
+		CompactMap grid = CompactMap.copyOf(createRandomGrid(8, new Random(
+				3L)));
+		List<String> locations = grid.getLocations();
+		List<String> destinations = new ArrayList<String>(locations.subList(
+				10, 17));
+		DistanceMatrixService service = new DistanceMatrixService(grid);
+		double[][] expected = service.computeMatrix(locations, destinations);
+		File file = File.createTempFile("matrix", ".dma");
+		try {
+			MappedDistanceMatrix written = service.computeMatrix(locations,
+					destinations, file);
+			MappedDistanceMatrix read = MappedDistanceMatrix.open(file);
+			assertEquals(locations, read.getOrigins());
+			assertEquals(destinations, read.getDestinations());
+			assertEquals(locations.size(), read.getRowCount());
+			assertEquals(destinations.size(), read.getColumnCount());
+			double[] row = new double[destinations.size()];
+			for (int i = 0; i < expected.length; i++) {
+				for (int j = 0; j < row.length; j++) {
+					assertEquals(expected[i][j], written.get(i, j));
+					assertEquals(expected[i][j], read.get(i, j));
+				}
+				read.getRow(i, row);
+				assertTrue(Arrays.equals(expected[i], row));
+			}
+
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			raf.setLength(raf.length() - 8);
+			raf.close();
+			try {
+				MappedDistanceMatrix.open(file);
+				fail("Expected an IOException");
+			} catch (IOException e) {
+			}
+
+			raf = new RandomAccessFile(file, "rw");
+			raf.writeInt(0);
+			raf.close();
+			try {
+				MappedDistanceMatrix.open(file);
+				fail("Expected an IOException");
+			} catch (IOException e) {
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testGetPath() {
+		SimplifiedRoadMapOfPartOfRomania romania = new SimplifiedRoadMapOfPartOfRomania();
+		DistanceMatrixService service = new DistanceMatrixService(romania);
+		assertEquals(Arrays.asList(SimplifiedRoadMapOfPartOfRomania.SIBIU,
+				SimplifiedRoadMapOfPartOfRomania.RIMNICU_VILCEA,
+				SimplifiedRoadMapOfPartOfRomania.PITESTI,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST), service.getPath(
+				SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST));
+		assertTrue(service.getPath(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.ARAD).isEmpty());
+
+		ExtendableMap grid = createRandomGrid(7, new Random(1L));
+		service = new DistanceMatrixService(grid);
+		List<String> locations = grid.getLocations();
+		double[][] matrix = service.computeMatrix(locations, locations);
+		for (int i = 0; i < locations.size(); i += 4) {
+			for (int j = 0; j < locations.size(); j += 3) {
+				List<String> path = service.getPath(locations.get(i),
+						locations.get(j));
+				double cost = 0;
+				String from = locations.get(i);
+				for (String to : path) {
+					Double distance = grid.getDistance(from, to);
+					assertNotNull(distance);
+					cost += ShortestPaths.linkCost(distance.doubleValue());
+					from = to;
+				}
+				if (path.isEmpty() && i != j) {
+					assertEquals(Double.POSITIVE_INFINITY, matrix[i][j]);
+				} else {
+					assertEquals(matrix[i][j], cost, 1e-9);
+				}
+			}
+		}
+	}
+
+	public void testSearchStoppedAtTarget() {
+		CompactMap grid = CompactMap.copyOf(createRandomGrid(10, new Random(
+				4L)));
+		ShortestPaths all = new ShortestPaths(grid);
+		ShortestPaths toTarget = new ShortestPaths(grid);
+		all.compute(0);
+		for (int target = 1; target < grid.getLocationCount(); target += 7) {
+			toTarget.compute(0, target);
+			assertEquals(all.getDistance(target), toTarget
+					.getDistance(target), 1e-9);
+			if (all.getDistance(target) < Double.POSITIVE_INFINITY) {
+				assertTrue(toTarget.getSettledCount() <= all.getSettledCount());
+			}
+		}
+		// A full search after a stopped one starts afresh
+		toTarget.compute(0);
+		for (int v = 0; v < grid.getLocationCount(); v++) {
+			assertEquals(all.getDistance(v), toTarget.getDistance(v));
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private ExtendableMap createRandomGrid(int width, Random r) {
+		ExtendableMap grid = new ExtendableMap();
+		for (int i = 0; i < width * width; i++) {
+			if (i % width < width - 1) {
+				addRandomLink(grid, "L" + i, "L" + (i + 1), r);
+			}
+			if (i / width < width - 1) {
+				addRandomLink(grid, "L" + i, "L" + (i + width), r);
+			}
+		}
+		return grid;
+	}
+
+	private void addRandomLink(ExtendableMap grid, String a, String b,
+			Random r) {
+		double distance = 10.0 + r.nextInt(11);
+		switch (r.nextInt(6)) {
+		case 0:
+			break;
+		case 1:
+			grid.addUnidirectionalLink(a, b, distance);
+			break;
+		case 2:
+			grid.addUnidirectionalLink(b, a, distance);
+			break;
+		default:
+			grid.addBidirectionalLink(a, b, distance);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package aima.test.search.map;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import aima.basic.BasicEnvironmentView;
+import aima.search.framework.GraphSearch;
+import aima.search.informed.AStarSearch;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.CompactMap;
+import aima.search.map.ExtendableMap;
+import aima.search.map.LandmarkHeuristicFunction;
+import aima.search.map.Landmarks;
+import aima.search.map.Map;
+import aima.search.map.MapAgent;
+import aima.search.map.MapEnvironment;
+import aima.search.map.ShortestPaths;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.search.uninformed.UniformCostSearch;
+
+public class LandmarksTest extends TestCase {
+
+	public void testLowerBoundsAreAdmissible() {
+		Random r = new Random(11L);
+		for (Landmarks.Selection selection : Landmarks.Selection.values()) {
+			CompactMap grid = CompactMap.copyOf(createRandomGrid(9, r));
+			Landmarks landmarks = Landmarks.select(grid, 4, selection, r);
+			assertEquals(4, landmarks.getLandmarks().size());
+			assertEquals(4, new HashSet<String>(landmarks
+					.getLandmarks()).size());
+			ShortestPaths paths = new ShortestPaths(grid);
+			for (int v = 0; v < grid.getLocationCount(); v++) {
+				paths.compute(v);
+				for (int t = 0; t < grid.getLocationCount(); t++) {
+					double bound = landmarks.lowerBound(v, t);
+					assertTrue(bound >= 0);
+					assertTrue(bound <= paths.getDistance(t) + 1e-9);
+					if (landmarks.getLandmarks().contains(grid.getName(t))
+							&& paths.getDistance(t) < Double.POSITIVE_INFINITY) {
+						// Exact to a landmark
+						assertEquals(paths.getDistance(t), bound, 1e-9);
+					}
+				}
+			}
+		}
+	}
+
+	public void testGivenLandmarksOnRomania() {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		List<String> chosen = Arrays.asList(
+				SimplifiedRoadMapOfPartOfRomania.NEAMT,
+				SimplifiedRoadMapOfPartOfRomania.TIMISOARA);
+		Landmarks landmarks = Landmarks.of(romania, chosen);
+		assertEquals(chosen, landmarks.getLandmarks());
+		// Timisoara's shortest path to Bucharest is through Arad, so the
+		// bound is exact
+		assertEquals(418.0, landmarks.lowerBound(
+				SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST), 1e-9);
+		assertEquals(0.0, landmarks.lowerBound("Nowhere",
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST));
+		try {
+			Landmarks.of(romania, Arrays.asList("Nowhere"));
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testPoolsAgree() {
+		ExtendableMap grid = createRandomGrid(8, new Random(2L));
+		Landmarks common = Landmarks.select(grid, 6,
+				Landmarks.Selection.AVOID, new Random(3L));
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			Landmarks own = Landmarks.select(grid, 6,
+					Landmarks.Selection.AVOID, new Random(3L), pool);
+			assertEquals(common.getLandmarks(), own.getLandmarks());
+			for (String from : grid.getLocations()) {
+				for (String to : grid.getLocations()) {
+					assertEquals(common.lowerBound(from, to), own.lowerBound(
+							from, to));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public void testSelectsAtMostEveryLocation() {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		aMap.addUnidirectionalLink("B", "C", 5.0);
+		Landmarks landmarks = Landmarks.select(aMap, 10,
+				Landmarks.Selection.FARTHEST, new Random(1L));
+		assertEquals(3, landmarks.getLandmarks().size());
+		assertEquals(10.0, landmarks.lowerBound("A", "C"));
+		// C cannot reach A, which no finite bound can express
+		assertEquals(0.0, landmarks.lowerBound("C", "A"));
+	}
+
+	public void testAStarWithoutPositions() throws Exception {
+		ExtendableMap grid = createRandomGrid(10, new Random(7L));
+		CompactMap.Builder builder = new CompactMap.Builder();
+		for (String from : grid.getLocations()) {
+			for (String to : grid.getLocationsLinkedTo(from)) {
+				builder.addUnidirectionalLink(from, to, grid.getDistance(from,
+						to));
+			}
+		}
+		CompactMap unpositioned = builder.build();
+		assertNull(unpositioned.getPosition("L0"));
+		LandmarkHeuristicFunction alt = new LandmarkHeuristicFunction(
+				Landmarks.select(unpositioned, 4, Landmarks.Selection.AVOID,
+						new Random(5L)));
+		List<String> locations = unpositioned.getLocations();
+		Random r = new Random(8L);
+		int altExpanded = 0, ucsExpanded = 0;
+		for (int i = 0; i < 20; i++) {
+			String from = locations.get(r.nextInt(locations.size()));
+			String to = locations.get(r.nextInt(locations.size()));
+			UniformCostSearch ucs = new UniformCostSearch(new GraphSearch());
+			List expected = ucs.search(new BidirectionalMapProblem(
+					unpositioned, from, to));
+			AStarSearch aStar = new AStarSearch(new GraphSearch());
+			List actions = aStar.search(new BidirectionalMapProblem(
+					unpositioned, from, to, alt.getAdaptation(to,
+							unpositioned)));
+			assertEquals(expected.isEmpty(), actions.isEmpty());
+			assertEquals(ucs.getMetrics().getDouble("pathCost"), aStar
+					.getMetrics().getDouble("pathCost"), 1e-9);
+			altExpanded += aStar.getMetrics().getInt("nodesExpanded");
+			ucsExpanded += ucs.getMetrics().getInt("nodesExpanded");
+		}
+		assertTrue(altExpanded < ucsExpanded);
+	}
+
+	public void testMapAgent() {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		aMap.addBidirectionalLink("A", "C", 6.0);
+		aMap.addBidirectionalLink("B", "C", 4.0);
+		aMap.addBidirectionalLink("C", "D", 7.0);
+		aMap.addUnidirectionalLink("B", "E", 14.0);
+		final StringBuffer envChanges = new StringBuffer();
+		MapEnvironment me = new MapEnvironment(aMap);
+		MapAgent ma = new MapAgent(me, new AStarSearch(new GraphSearch()),
+				new String[] { "D" });
+		ma.setHeuristicFunction(new LandmarkHeuristicFunction(Landmarks.of(
+				aMap, Arrays.asList("D", "E"))).getAdaptation("D", aMap));
+		me.addAgent(ma, "A");
+		me.registerView(new BasicEnvironmentView() {
+			@Override
+			public void envChanged(String command) {
+				envChanges.append(command).append(":");
+			}
+		});
+		me.stepUntilDone();
+
+		assertTrue(envChanges.toString().startsWith(
+				"CurrentLocation=In(A), Goal=In(D):C:D:"));
+		assertTrue(envChanges.toString().indexOf("METRIC[pathCost]=13.0") > 0);
+		// D is a landmark, so the estimates are exact and only the path is
+		// expanded
+		assertTrue(envChanges.toString().indexOf("METRIC[nodesExpanded]=2") > 0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// A width x width grid with some links missing and some one way
+	private ExtendableMap createRandomGrid(int width, Random r) {
+		ExtendableMap grid = new ExtendableMap();
+		for (int i = 0; i < width * width; i++) {
+			if (i % width < width - 1) {
+				addRandomLink(grid, "L" + i, "L" + (i + 1), r);
+			}
+			if (i / width < width - 1) {
+				addRandomLink(grid, "L" + i, "L" + (i + width), r);
+			}
+		}
+		return grid;
+	}
+
+	private void addRandomLink(ExtendableMap grid, String a, String b,
+			Random r) {
+		double distance = 10.0 + r.nextInt(11);
+		switch (r.nextInt(6)) {
+		case 0:
+			break;
+		case 1:
+			grid.addUnidirectionalLink(a, b, distance);
+			break;
+		case 2:
+			grid.addUnidirectionalLink(b, a, distance);
+			break;
+		default:
+			grid.addBidirectionalLink(a, b, distance);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package aima.test.search.npuzzle;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.framework.Successor;
+import aima.search.npuzzle.NPuzzleBoard;
+import aima.search.npuzzle.NPuzzlePackedProblem;
+import aima.search.npuzzle.NPuzzleSuccessorFunction;
+
+public class NPuzzleBoardTest extends TestCase {
+
+	private static final String[] ACTIONS = new String[] { EightPuzzleBoard.UP,
+			EightPuzzleBoard.DOWN, EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT };
+
+	public void testGoal() {
+		for (int width = 3; width <= 5; width++) {
+			NPuzzleBoard goal = NPuzzleBoard.goal(width);
+			assertTrue(goal.isGoal());
+			assertEquals(0, goal.getGapPosition());
+			assertEquals(0, goal.getManhattanDistance());
+			assertEquals(width * width, goal.getSize());
+		}
+	}
+
+	public void testRejectsInvalidTiles() {
+		try {
+			new NPuzzleBoard(3, new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 7 });
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new NPuzzleBoard(3, new int[] { 0, 1, 2, 3 });
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testMovesMatchEightPuzzleBoard() {
+		int[] tiles = new int[] { 0, 5, 4, 6, 1, 8, 7, 3, 2 };
+		EightPuzzleBoard expected = new EightPuzzleBoard(tiles.clone());
+		NPuzzleBoard board = new NPuzzleBoard(3, tiles.clone());
+		Random r = new Random(7L);
+		for (int i = 0; i < 200; i++) {
+			String action = ACTIONS[r.nextInt(ACTIONS.length)];
+			assertEquals(expected.canMoveGap(action), board.canMoveGap(action));
+			if (board.canMoveGap(action)) {
+				move(expected, action);
+				board = board.moveGap(action);
+			} else {
+				assertNull(board.moveGap(action));
+			}
+			assertEquals(new NPuzzleBoard(3, expected.getBoard()), board);
+		}
+	}
+
+	public void testIncrementalManhattanMatchesRecomputed() {
+		Random r = new Random(11L);
+		for (int width = 3; width <= 5; width++) {
+			NPuzzleBoard board = NPuzzleBoard.goal(width);
+			for (int i = 0; i < 500; i++) {
+				NPuzzleBoard next = board.moveGap(ACTIONS[r.nextInt(4)]);
+				if (null == next) {
+					continue;
+				}
+				board = next;
+				// Rebuilding from the tiles checks the packing as well,
+				// including the field straddling both longs of a 24 puzzle
+				NPuzzleBoard rebuilt = new NPuzzleBoard(width, board.getTiles());
+				assertEquals(rebuilt, board);
+				assertEquals(rebuilt.hashCode(), board.hashCode());
+				assertEquals(rebuilt.getGapPosition(), board.getGapPosition());
+				assertEquals(rebuilt.getManhattanDistance(), board
+						.getManhattanDistance());
+				assertEquals(0, board.getTileAt(board.getGapPosition()));
+			}
+		}
+	}
+
+	public void testPackedStateRoundTrip() {
+		NPuzzleBoard board = new NPuzzleBoard(4, new int[] { 15, 14, 13, 12,
+				11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 0 });
+		NPuzzleBoard unpacked = NPuzzleBoard.fromPackedState(4, board
+				.getPackedState());
+		assertEquals(board, unpacked);
+		assertEquals(15, unpacked.getGapPosition());
+		assertEquals(board.getManhattanDistance(), unpacked
+				.getManhattanDistance());
+		try {
+			NPuzzleBoard.goal(5).getPackedState();
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	public void testPackedSuccessorsMatchSuccessorFunction() {
+		NPuzzleBoard board = new NPuzzleBoard(4, new int[] { 1, 2, 3, 7, 4, 5,
+				0, 6, 8, 9, 10, 11, 12, 13, 14, 15 });
+		NPuzzlePackedProblem problem = new NPuzzlePackedProblem(board);
+		long[] states = new long[problem.getMaxSuccessors()];
+		int[] actions = new int[problem.getMaxSuccessors()];
+		int n = problem.getPackedSuccessors(board.getPackedState(), states,
+				actions);
+		List successors = new NPuzzleSuccessorFunction().getSuccessors(board);
+		assertEquals(successors.size(), n);
+		for (int i = 0; i < n; i++) {
+			Successor s = (Successor) successors.get(i);
+			assertEquals(s.getAction(), problem.getActionName(actions[i]));
+			assertEquals(((NPuzzleBoard) s.getState()).getPackedState(),
+					states[i]);
+			assertEquals((double) ((NPuzzleBoard) s.getState())
+					.getManhattanDistance(), problem
+					.getPackedHeuristicValue(states[i]));
+		}
+	}
+
+	private void move(EightPuzzleBoard board, String action) {
+		if (EightPuzzleBoard.UP.equals(action)) {
+			board.moveGapUp();
+		} else if (EightPuzzleBoard.DOWN.equals(action)) {
+			board.moveGapDown();
+		} else if (EightPuzzleBoard.LEFT.equals(action)) {
+			board.moveGapLeft();
+		} else {
+			board.moveGapRight();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package aima.test.search.npuzzle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.search.informed.PackedAStarSearch;
+import aima.search.npuzzle.NPuzzleBoard;
+import aima.search.npuzzle.NPuzzlePackedProblem;
+import aima.search.npuzzle.PatternDatabase;
+
+public class PatternDatabaseTest extends TestCase {
+
+	private static final int[][] SMALL_15_PUZZLE_GROUPS = new int[][] {
+			{ 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 9 }, { 10, 11, 12 },
+			{ 13, 14, 15 } };
+
+	public void testAdmissibleAndAtLeastManhattanOnEightPuzzle() {
+		PatternDatabase pdb = PatternDatabase.build(3, PatternDatabase
+				.defaultGroups(3));
+		// Exact distances of all 181440 reachable boards
+		Map<NPuzzleBoard, Integer> distances = new HashMap<NPuzzleBoard, Integer>();
+		List<NPuzzleBoard> frontier = new ArrayList<NPuzzleBoard>();
+		NPuzzleBoard goal = NPuzzleBoard.goal(3);
+		distances.put(goal, 0);
+		frontier.add(goal);
+		for (int depth = 1; !frontier.isEmpty(); depth++) {
+			List<NPuzzleBoard> next = new ArrayList<NPuzzleBoard>();
+			for (NPuzzleBoard board : frontier) {
+				for (String action : new String[] { "Up", "Down", "Left",
+						"Right" }) {
+					NPuzzleBoard child = board.moveGap(action);
+					if (null != child && !distances.containsKey(child)) {
+						distances.put(child, depth);
+						next.add(child);
+					}
+				}
+			}
+			frontier = next;
+		}
+		assertEquals(181440, distances.size());
+		for (Map.Entry<NPuzzleBoard, Integer> e : distances.entrySet()) {
+			NPuzzleBoard board = e.getKey();
+			int h = pdb.getValue(board);
+			assertTrue(h <= e.getValue());
+			assertTrue(h >= board.getManhattanDistance());
+			assertEquals(h, pdb.getPackedValue(board.getPackedState()));
+		}
+		assertEquals(0.0, pdb.getHeuristicValue(goal));
+	}
+
+	public void testDefaultGroups() {
+		assertEquals(2, PatternDatabase.defaultGroups(3).length);
+		assertEquals(3, PatternDatabase.defaultGroups(4).length);
+		assertEquals(5, PatternDatabase.defaultGroups(4)[2].length);
+		assertEquals(6, PatternDatabase.defaultGroups(5).length);
+	}
+
+	public void testRejectsOverlappingGroups() {
+		try {
+			PatternDatabase.build(3, new int[][] { { 1, 2 }, { 2, 3 } });
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testRejectsOversizedGroups() {
+		int[] tiles = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+		for (int width : new int[] { 4, 5 }) {
+			try {
+				// 16! / 6! and 25! / 15! placements overflow an int
+				PatternDatabase.build(width, new int[][] { tiles });
+				fail("Expected IllegalArgumentException");
+			} catch (IllegalArgumentException e) {
+			}
+		}
+	}
+
+	public void testSaveAndLoadMemoryMapped() throws Exception {
+		PatternDatabase built = PatternDatabase.build(4,
+				SMALL_15_PUZZLE_GROUPS);
+		File file = File.createTempFile("pdb", ".bin");
+		file.deleteOnExit();
+		built.save(file);
+		PatternDatabase loaded = PatternDatabase.load(file);
+		assertEquals(4, loaded.getWidth());
+		assertEquals(SMALL_15_PUZZLE_GROUPS.length, loaded.getGroups().length);
+		NPuzzleBoard board = NPuzzleBoard.goal(4);
+		Random r = new Random(3L);
+		for (int i = 0; i < 1000; i++) {
+			NPuzzleBoard next = board.moveGap(new String[] { "Up", "Down",
+					"Left", "Right" }[r.nextInt(4)]);
+			if (null != next) {
+				board = next;
+				assertEquals(built.getValue(board), loaded.getValue(board));
+			}
+		}
+		assertEquals(built.getValue(board), PatternDatabase.loadOrBuild(file,
+				4, SMALL_15_PUZZLE_GROUPS).getValue(board));
+	}
+
+	public void testSolvesFifteenPuzzleWithPackedAStar() throws Exception {
+		PatternDatabase pdb = PatternDatabase.build(4, SMALL_15_PUZZLE_GROUPS);
+		NPuzzleBoard start = new NPuzzleBoard(4, new int[] { 4, 1, 2, 3, 8, 5,
+				6, 7, 12, 9, 10, 11, 13, 14, 15, 0 });
+		PackedAStarSearch search = new PackedAStarSearch();
+		List<String> actions = search.search(new NPuzzlePackedProblem(start,
+				pdb));
+		assertEquals(6, actions.size());
+		NPuzzleBoard board = start;
+		for (String action : actions) {
+			board = board.moveGap(action);
+		}
+		assertTrue(board.isGoal());
+
+		// A harder instance, compared with Manhattan distance
+		Random r = new Random(5L);
+		start = NPuzzleBoard.goal(4);
+		for (int i = 0; i < 60; i++) {
+			NPuzzleBoard next = start.moveGap(new String[] { "Up", "Down",
+					"Left", "Right" }[r.nextInt(4)]);
+			start = null == next ? start : next;
+		}
+		List<String> withPdb = new PackedAStarSearch()
+				.search(new NPuzzlePackedProblem(start, pdb));
+		List<String> withManhattan = new PackedAStarSearch()
+				.search(new NPuzzlePackedProblem(start));
+		assertEquals(withManhattan.size(), withPdb.size());
+	}
+}
@@ -0,0 +1,84 @@
+package aima.test.search.nqueens;
+
+import java.util.SplittableRandom;
+
+import junit.framework.TestCase;
+import aima.basic.XYLocation;
+import aima.search.nqueens.CompactNQueensBoard;
+import aima.search.nqueens.NQueensBoard;
+import aima.search.nqueens.NQueensGoalTest;
+
+public class CompactNQueensBoardTest extends TestCase {
+
+	public void testAttackingPairs() {
+		// All on one row
+		assertEquals(28, new CompactNQueensBoard(new int[8]).getAttackingPairs());
+		// All on one diagonal
+		assertEquals(28, new CompactNQueensBoard(new int[] { 0, 1, 2, 3, 4, 5,
+				6, 7 }).getAttackingPairs());
+		CompactNQueensBoard solution = new CompactNQueensBoard(new int[] { 0,
+				4, 7, 5, 2, 6, 1, 3 });
+		assertEquals(0, solution.getAttackingPairs());
+		assertTrue(solution.isSolution());
+		assertTrue(new NQueensGoalTest().isGoalState(solution
+				.toNQueensBoard()));
+	}
+
+	public void testAgreesWithNQueensBoard() {
+		SplittableRandom random = new SplittableRandom(3L);
+		int[] rows = new int[9];
+		for (int x = 0; x < rows.length; x++) {
+			rows[x] = random.nextInt(rows.length);
+		}
+		CompactNQueensBoard board = new CompactNQueensBoard(rows);
+		for (int step = 0; step < 200; step++) {
+			NQueensBoard expected = board.toNQueensBoard();
+			long attacks = 0;
+			for (int x = 0; x < rows.length; x++) {
+				XYLocation queen = new XYLocation(x, board.getRow(x));
+				assertEquals(expected.getNumberOfAttacksOn(queen), board
+						.getConflicts(x, board.getRow(x)));
+				attacks += expected.getNumberOfAttacksOn(queen);
+			}
+			assertEquals(attacks / 2, board.getAttackingPairs());
+
+			int x = random.nextInt(rows.length);
+			int y = random.nextInt(rows.length);
+			long before = board.getAttackingPairs();
+			long delta = board.getMoveDelta(x, y);
+			CompactNQueensBoard copy = new CompactNQueensBoard(board);
+			board.moveQueen(x, y);
+			assertEquals(before + delta, board.getAttackingPairs());
+			assertEquals(before, copy.getAttackingPairs());
+		}
+	}
+
+	public void testRandomBoardIsAPermutation() {
+		CompactNQueensBoard board = CompactNQueensBoard.random(50,
+				new SplittableRandom(1L));
+		boolean[] used = new boolean[50];
+		for (int x = 0; x < 50; x++) {
+			assertFalse(used[board.getRow(x)]);
+			used[board.getRow(x)] = true;
+		}
+	}
+
+	public void testEquality() {
+		CompactNQueensBoard board = new CompactNQueensBoard(new int[] { 1, 3,
+				0, 2 });
+		CompactNQueensBoard copy = new CompactNQueensBoard(board);
+		assertEquals(board, copy);
+		assertEquals(board.hashCode(), copy.hashCode());
+		copy.moveQueen(0, 2);
+		assertFalse(board.equals(copy));
+		assertEquals("--Q-\nQ---\n---Q\n-Q--\n", board.toString());
+	}
+
+	public void testRowOffTheBoard() {
+		try {
+			new CompactNQueensBoard(new int[] { 0, 4, 1, 2 });
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package aima.test.search.nqueens;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.basic.XYLocation;
+import aima.search.nqueens.AttackingPairsHeuristic;
+import aima.search.nqueens.CompactNQueensBoard;
+import aima.search.nqueens.MinConflictsNQueensSolver;
+import aima.search.nqueens.NQueensBoard;
+import aima.search.nqueens.NQueensGoalTest;
+import aima.search.nqueens.NQueensLocalSearchProblem;
+
+public class MinConflictsNQueensSolverTest extends TestCase {
+
+	public void testSolve() {
+		MinConflictsNQueensSolver solver = new MinConflictsNQueensSolver(7L);
+		for (int size : new int[] { 1, 4, 5, 8, 50, 1000, 100000 }) {
+			CompactNQueensBoard board = solver.solve(size);
+			assertEquals(size, board.getSize());
+			assertTrue(board.isSolution());
+			assertEquals(MinConflictsNQueensSolver.SearchOutcome.SOLUTION_FOUND,
+					solver.getOutcome());
+			if (size <= 50) {
+				assertTrue(new NQueensGoalTest().isGoalState(board
+						.toNQueensBoard()));
+			}
+		}
+		// The greedy placement leaves little to repair
+		assertTrue(solver.getMetrics().getLong("initialAttackingPairs") < 100);
+	}
+
+	public void testMillionQueens() {
+		MinConflictsNQueensSolver solver = new MinConflictsNQueensSolver(11L);
+		CompactNQueensBoard board = solver.solve(1000000);
+		assertTrue(board.isSolution());
+		assertTrue(solver.getMetrics().getInt("nodesExpanded") < 1000);
+	}
+
+	public void testNoSolution() {
+		MinConflictsNQueensSolver solver = new MinConflictsNQueensSolver(1L);
+		solver.setMaxSteps(500);
+		CompactNQueensBoard board = solver.solve(3);
+		assertFalse(board.isSolution());
+		assertEquals(MinConflictsNQueensSolver.SearchOutcome.FAILURE, solver
+				.getOutcome());
+		assertEquals(500, solver.getMetrics().getInt("nodesExpanded"));
+	}
+
+	public void testRepairInPlace() {
+		// All queens on one row
+		CompactNQueensBoard board = new CompactNQueensBoard(new int[30]);
+		assertTrue(new MinConflictsNQueensSolver(2L).repair(board));
+		assertTrue(board.isSolution());
+	}
+
+	public void testSearchReturnsTheMoves() throws Exception {
+		CompactNQueensBoard start = new CompactNQueensBoard(new int[] { 0, 1,
+				2, 3, 4, 5, 6, 7, 8, 9, 10, 11 });
+		NQueensLocalSearchProblem problem = new NQueensLocalSearchProblem(
+				start);
+		MinConflictsNQueensSolver solver = new MinConflictsNQueensSolver(5L);
+		List<String> actions = solver.search(problem);
+		assertEquals(MinConflictsNQueensSolver.SearchOutcome.SOLUTION_FOUND,
+				solver.getOutcome());
+		// The initial state is left alone, and the moves lead from it to the
+		// solution
+		assertEquals(66, start.getAttackingPairs());
+		CompactNQueensBoard replayed = new CompactNQueensBoard(start);
+		for (String action : actions) {
+			String[] parts = action.split(" ");
+			assertEquals("moveQueenTo", parts[0]);
+			replayed.moveQueen(Integer.parseInt(parts[1]), Integer
+					.parseInt(parts[2]));
+		}
+		assertEquals(solver.getLastSearchState(), replayed);
+		assertTrue(problem.isGoalState(replayed));
+	}
+
+	public void testSearchOfAMillionQueens() throws Exception {
+		MinConflictsNQueensSolver solver = new MinConflictsNQueensSolver(13L);
+		CompactNQueensBoard start = solver.solve(1000000);
+		// Three queens onto the first row
+		for (int x : new int[] { 10, 500000, 999999 }) {
+			start.moveQueen(x, 0);
+		}
+		NQueensLocalSearchProblem problem = new NQueensLocalSearchProblem(
+				start);
+		assertFalse(problem.isGoalState(start));
+		List<String> actions = solver.search(problem);
+		assertEquals(MinConflictsNQueensSolver.SearchOutcome.SOLUTION_FOUND,
+				solver.getOutcome());
+		assertFalse(actions.isEmpty());
+		assertTrue(problem.isGoalState(solver.getLastSearchState()));
+		try {
+			problem.getMoveCount(start);
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	public void testHeuristicAgreesForBothBoards() {
+		CompactNQueensBoard compact = new CompactNQueensBoard(new int[] { 3,
+				1, 4, 1, 5, 0, 2, 6 });
+		NQueensBoard board = compact.toNQueensBoard();
+		AttackingPairsHeuristic h = new AttackingPairsHeuristic();
+		assertEquals((double) compact.getAttackingPairs(), h
+				.getHeuristicValue(compact));
+		assertEquals(h.getHeuristicValue(compact), h.getHeuristicValue(board));
+		assertFalse(new NQueensGoalTest().isGoalState(compact));
+
+		board = new NQueensBoard(4);
+		board.addQueenAt(new XYLocation(0, 1));
+		board.addQueenAt(new XYLocation(1, 3));
+		board.addQueenAt(new XYLocation(2, 0));
+		board.addQueenAt(new XYLocation(3, 2));
+		assertEquals(0.0, h.getHeuristicValue(board));
+	}
+}
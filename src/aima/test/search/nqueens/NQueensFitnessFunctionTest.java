@@ -1,9 +1,12 @@
 package aima.test.search.nqueens;
 
+import java.util.Arrays;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import junit.framework.TestCase;
 
+import aima.search.informed.ga.PackedPopulation;
 import aima.search.nqueens.NQueensBoard;
 import aima.search.nqueens.NQueensFitnessFunction;
 
@@ -29,6 +32,36 @@ public class NQueensFitnessFunctionTest extends TestCase {
 		assertTrue(28.0 == fitnessFunction.getValue("04752613"));
 	}
 
+	public void test_getPackedValue() {
+		String[] individuals = { "00000000", "01234567", "76543210",
+				"56136477", "04752613" };
+		PackedPopulation population = PackedPopulation.fromStrings(Arrays
+				.asList(individuals), fitnessFunction
+				.getFiniteAlphabetForBoardOfSize(8).toArray(new Character[8]));
+		assertTrue(0.0 == fitnessFunction.getValue(population, 0));
+		assertTrue(0.0 == fitnessFunction.getValue(population, 1));
+		assertTrue(0.0 == fitnessFunction.getValue(population, 2));
+		assertTrue(23.0 == fitnessFunction.getValue(population, 3));
+		assertTrue(28.0 == fitnessFunction.getValue(population, 4));
+		assertTrue(28.0 == fitnessFunction.getMaximumFitness(8));
+		assertEquals(fitnessFunction.getBoardForIndividual("56136477"),
+				fitnessFunction.getBoardForIndividual(population, 3));
+
+		// The same as the String individuals for any board
+		SplittableRandom random = new SplittableRandom(3L);
+		for (int size = 4; size <= 20; size++) {
+			population = PackedPopulation.random(10, size, size, random);
+			Character[] alphabet = new Character[size];
+			for (int i = 0; i < size; i++) {
+				alphabet[i] = Character.forDigit(i, size);
+			}
+			for (int i = 0; i < population.size(); i++) {
+				assertTrue(fitnessFunction.getValue(population.toString(i,
+						alphabet)) == fitnessFunction.getValue(population, i));
+			}
+		}
+	}
+
 	public void test_isGoalState() {
 		assertTrue(fitnessFunction.isGoalState("04752613"));
 		assertFalse(fitnessFunction.isGoalState("00000000"));
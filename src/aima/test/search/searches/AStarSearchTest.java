@@ -33,11 +33,11 @@ public class AStarSearchTest extends TestCase {
 			Search search = new AStarSearch(new GraphSearch());
 			SearchAgent agent = new SearchAgent(problem, search);
 			assertEquals(23, agent.getActions().size());
-			assertEquals("906", agent.getInstrumentation().getProperty(
+			assertEquals("945", agent.getInstrumentation().getProperty(
 					"nodesExpanded"));
-			assertEquals("914", agent.getInstrumentation().getProperty(
+			assertEquals("877", agent.getInstrumentation().getProperty(
 					"queueSize"));
-			assertEquals("920", agent.getInstrumentation().getProperty(
+			assertEquals("878", agent.getInstrumentation().getProperty(
 					"maxQueueSize"));
 
 		} catch (Exception e) {
@@ -30,12 +30,12 @@ public class GreedyBestFirstSearchTest extends TestCase {
 					new EightPuzzleGoalTest(), new ManhattanHeuristicFunction());
 			Search search = new GreedyBestFirstSearch(new GraphSearch());
 			SearchAgent agent = new SearchAgent(problem, search);
-			assertEquals(81, agent.getActions().size());
-			assertEquals("304", agent.getInstrumentation().getProperty(
+			assertEquals(39, agent.getActions().size());
+			assertEquals("45", agent.getInstrumentation().getProperty(
 					"nodesExpanded"));
-			assertEquals("268", agent.getInstrumentation().getProperty(
+			assertEquals("61", agent.getInstrumentation().getProperty(
 					"queueSize"));
-			assertEquals("269", agent.getInstrumentation().getProperty(
+			assertEquals("62", agent.getInstrumentation().getProperty(
 					"maxQueueSize"));
 
 		} catch (Exception e) {
@@ -0,0 +1,125 @@
+package aima.test.search.searches;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzleSuccessorFunction;
+import aima.search.eightpuzzle.ManhattanHeuristicFunction;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.MetricsSnapshot;
+import aima.search.framework.Problem;
+import aima.search.informed.IDAStarSearch;
+import aima.search.map.Map;
+import aima.search.map.MapGoalTest;
+import aima.search.map.MapStepCostFunction;
+import aima.search.map.MapSuccessorFunction;
+import aima.search.map.Point2D;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+
+public class IDAStarSearchTest extends TestCase {
+
+	private static final int[] BOARD = new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 };
+
+	public void testEightPuzzle() throws Exception {
+		IDAStarSearch search = new IDAStarSearch();
+		List<String> actions = search.search(createEightPuzzleProblem(BOARD));
+		assertEquals(23, actions.size());
+		assertEquals(23.0, search.getPathCost());
+		assertTrue(reachesGoal(BOARD, actions));
+	}
+
+	public void testTranspositionTablePrunesWithoutLosingOptimality()
+			throws Exception {
+		IDAStarSearch plain = new IDAStarSearch();
+		plain.search(createEightPuzzleProblem(BOARD));
+		IDAStarSearch withTable = new IDAStarSearch(10000);
+		List<String> actions = withTable.search(createEightPuzzleProblem(BOARD));
+		assertEquals(23, actions.size());
+		assertTrue(reachesGoal(BOARD, actions));
+		assertTrue(withTable.getMetrics().getInt("transpositionHits") > 0);
+		assertTrue(withTable.getNodesExpanded() < plain.getNodesExpanded());
+
+		// A tiny table only prunes less
+		IDAStarSearch withTinyTable = new IDAStarSearch(8);
+		assertEquals(23, withTinyTable.search(createEightPuzzleProblem(BOARD))
+				.size());
+	}
+
+	public void testIterationMetrics() throws Exception {
+		IDAStarSearch search = new IDAStarSearch();
+		search.search(createEightPuzzleProblem(BOARD));
+		List<MetricsSnapshot> iterations = search.getIterationMetrics();
+		assertEquals(search.getIterations(), iterations.size());
+		// Manhattan distance is 15 and bounds rise 2 at a time on the puzzle
+		assertEquals(5, iterations.size());
+		long total = 0;
+		for (int i = 0; i < iterations.size(); i++) {
+			MetricsSnapshot snapshot = iterations.get(i);
+			assertEquals(15.0 + 2 * i, snapshot.get("bound").doubleValue());
+			total += snapshot.get("iterationNodesExpanded").longValue();
+		}
+		assertEquals(search.getNodesExpanded(), total);
+
+		// Metrics are cleared by the next search
+		search.search(createEightPuzzleProblem(new int[] { 1, 0, 2, 3, 4, 5,
+				6, 7, 8 }));
+		assertEquals(1, search.getIterationMetrics().size());
+		assertEquals(1.0, search.getPathCost());
+	}
+
+	public void testStartingAtGoal() throws Exception {
+		IDAStarSearch search = new IDAStarSearch();
+		assertEquals(0, search.search(
+				createEightPuzzleProblem(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }))
+				.size());
+		assertEquals(0, search.getNodesExpanded());
+	}
+
+	public void testRomania() throws Exception {
+		final Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		HeuristicFunction straightLine = new HeuristicFunction() {
+			public double getHeuristicValue(Object state) {
+				Point2D pt1 = romania.getPosition((String) state);
+				Point2D pt2 = romania
+						.getPosition(SimplifiedRoadMapOfPartOfRomania.BUCHAREST);
+				return pt1.distance(pt2);
+			}
+		};
+		Problem problem = new Problem(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				new MapSuccessorFunction(romania), new MapGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romania), straightLine);
+		IDAStarSearch search = new IDAStarSearch(100);
+		List<String> actions = search.search(problem);
+		assertEquals("[Sibiu, RimnicuVilcea, Pitesti, Bucharest]", actions
+				.toString());
+		assertEquals(418.0, search.getPathCost());
+	}
+
+	private Problem createEightPuzzleProblem(int[] board) {
+		return new Problem(new EightPuzzleBoard(board.clone()),
+				new EightPuzzleSuccessorFunction(), new EightPuzzleGoalTest(),
+				new ManhattanHeuristicFunction());
+	}
+
+	private boolean reachesGoal(int[] start, List<String> actions) {
+		EightPuzzleBoard board = new EightPuzzleBoard(start.clone());
+		for (String action : actions) {
+			if (!board.canMoveGap(action)) {
+				return false;
+			}
+			if (EightPuzzleBoard.UP.equals(action)) {
+				board.moveGapUp();
+			} else if (EightPuzzleBoard.DOWN.equals(action)) {
+				board.moveGapDown();
+			} else if (EightPuzzleBoard.LEFT.equals(action)) {
+				board.moveGapLeft();
+			} else {
+				board.moveGapRight();
+			}
+		}
+		return new EightPuzzleGoalTest().isGoalState(board);
+	}
+}
@@ -0,0 +1,148 @@
+package aima.test.search.searches;
+
+import java.util.SplittableRandom;
+
+import junit.framework.TestCase;
+import aima.search.framework.Problem;
+import aima.search.informed.HillClimbingSearch;
+import aima.search.informed.LocalSearchPortfolio;
+import aima.search.nqueens.CompactNQueensBoard;
+import aima.search.nqueens.NQueensGoalTest;
+import aima.search.nqueens.NQueensLocalSearchProblem;
+import aima.search.nqueens.NQueensSuccessorFunction;
+
+public class LocalSearchPortfolioTest extends TestCase {
+
+	public void testEachStrategySolvesNQueens() throws Exception {
+		LocalSearchPortfolio[] portfolios = new LocalSearchPortfolio[] {
+				new LocalSearchPortfolio(2, 0, 0),
+				new LocalSearchPortfolio(0, 4, 0),
+				new LocalSearchPortfolio(0, 0, 4) };
+		for (LocalSearchPortfolio portfolio : portfolios) {
+			portfolio.setSeed(17L);
+			NQueensLocalSearchProblem problem = new NQueensLocalSearchProblem(
+					CompactNQueensBoard.random(20, new SplittableRandom(5L)));
+			assertTrue(portfolio.search(problem).isEmpty());
+			assertEquals(LocalSearchPortfolio.SearchOutcome.SOLUTION_FOUND,
+					portfolio.getOutcome());
+			CompactNQueensBoard solution = (CompactNQueensBoard) portfolio
+					.getLastSearchState();
+			assertTrue(solution.isSolution());
+			assertTrue(new NQueensGoalTest().isGoalState(solution
+					.toNQueensBoard()));
+
+			int winner = portfolio.getWinningChain();
+			assertTrue(winner >= 0);
+			assertEquals(LocalSearchPortfolio.SearchOutcome.SOLUTION_FOUND,
+					portfolio.getChainOutcome(winner));
+			assertEquals(0.0, portfolio.getMetrics().getDouble(
+					"cost[" + winner + "]"));
+			long expanded = 0;
+			for (int i = 0; i < portfolio.getChainCount(); i++) {
+				expanded += portfolio.getMetrics().getLong(
+						"nodesExpanded[" + i + "]");
+				if (i != winner) {
+					assertEquals(LocalSearchPortfolio.SearchOutcome.FAILURE,
+							portfolio.getChainOutcome(i));
+				}
+			}
+			assertEquals(expanded, portfolio.getMetrics().getLong(
+					"nodesExpanded"));
+		}
+	}
+
+	public void testPortfolioOnALargeBoard() throws Exception {
+		LocalSearchPortfolio portfolio = new LocalSearchPortfolio(2, 2, 4);
+		portfolio.setSeed(3L);
+		portfolio.search(new NQueensLocalSearchProblem(200));
+		assertEquals(LocalSearchPortfolio.SearchOutcome.SOLUTION_FOUND,
+				portfolio.getOutcome());
+		assertTrue(((CompactNQueensBoard) portfolio.getLastSearchState())
+				.isSolution());
+		assertEquals(7, portfolio.getChainCount());
+		assertEquals("hillClimbing", portfolio.getChainName(0));
+		assertEquals("localBeam", portfolio.getChainName(2));
+		assertEquals("tempering", portfolio.getChainName(6));
+	}
+
+	public void testFailureReturnsCheapestState() throws Exception {
+		// No solution for 3 queens; the best has one attacking pair
+		LocalSearchPortfolio portfolio = new LocalSearchPortfolio(1, 2, 2);
+		portfolio.setSeed(1L);
+		portfolio.setMoveLimit(2000);
+		portfolio.setExchangeInterval(50);
+		portfolio.search(new NQueensLocalSearchProblem(3));
+		assertEquals(LocalSearchPortfolio.SearchOutcome.FAILURE, portfolio
+				.getOutcome());
+		assertEquals(-1, portfolio.getWinningChain());
+		assertEquals(1, ((CompactNQueensBoard) portfolio.getLastSearchState())
+				.getAttackingPairs());
+		assertTrue(portfolio.getMetrics().getInt("restarts") > 0);
+
+		// Replicas this hot wander off their best states, which must still
+		// be kept
+		final double[] cheapest = { Double.POSITIVE_INFINITY };
+		NQueensLocalSearchProblem problem = new NQueensLocalSearchProblem(8) {
+			@Override
+			public double getCost(Object state) {
+				double cost = super.getCost(state);
+				synchronized (cheapest) {
+					cheapest[0] = Math.min(cheapest[0], cost);
+				}
+				return cost;
+			}
+		};
+		portfolio = new LocalSearchPortfolio(0, 0, 2);
+		portfolio.setSeed(1L);
+		portfolio.setMoveLimit(2000);
+		portfolio.setTemperatures(50.0, 100.0);
+		portfolio.search(problem);
+		assertEquals(cheapest[0], (double) ((CompactNQueensBoard) portfolio
+				.getLastSearchState()).getAttackingPairs());
+	}
+
+	public void testStatesWithoutMoves() throws Exception {
+		// No queen may move, so no chain gets anywhere
+		NQueensLocalSearchProblem problem = new NQueensLocalSearchProblem(3) {
+			@Override
+			public int getMoveCount(Object state) {
+				return 0;
+			}
+		};
+		LocalSearchPortfolio portfolio = new LocalSearchPortfolio(2, 2, 2);
+		portfolio.setSeed(1L);
+		portfolio.setMoveLimit(1000);
+		portfolio.setExchangeInterval(50);
+		portfolio.search(problem);
+		assertEquals(LocalSearchPortfolio.SearchOutcome.FAILURE, portfolio
+				.getOutcome());
+		for (int i = 0; i < portfolio.getChainCount(); i++) {
+			assertTrue(portfolio.getMetrics().getLong(
+					"movesEvaluated[" + i + "]") >= 1000);
+		}
+	}
+
+	public void testRequiresALocalSearchProblem() throws Exception {
+		try {
+			new LocalSearchPortfolio().search(new Problem(
+					new CompactNQueensBoard(new int[4]),
+					new NQueensSuccessorFunction(), new NQueensGoalTest()));
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testProblemSuitsHillClimbingSearch() throws Exception {
+		NQueensLocalSearchProblem problem = new NQueensLocalSearchProblem(
+				new CompactNQueensBoard(new int[] { 0, 2, 4, 1, 3, 0 }));
+		HillClimbingSearch search = new HillClimbingSearch();
+		search.search(problem);
+		CompactNQueensBoard last = (CompactNQueensBoard) search
+				.getLastSearchState();
+		assertTrue(last.getAttackingPairs() <= ((CompactNQueensBoard) problem
+				.getInitialState()).getAttackingPairs());
+		assertEquals(last.isSolution(),
+				HillClimbingSearch.SearchOutcome.SOLUTION_FOUND == search
+						.getOutcome());
+	}
+}
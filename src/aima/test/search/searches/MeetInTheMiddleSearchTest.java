@@ -0,0 +1,167 @@
+package aima.test.search.searches;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.search.framework.DefaultHeuristicFunction;
+import aima.search.framework.GraphSearch;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Problem;
+import aima.search.informed.AStarSearch;
+import aima.search.informed.MeetInTheMiddleSearch;
+import aima.search.map.AdaptableHeuristicFunction;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.ExtendableMap;
+import aima.search.map.Map;
+import aima.search.map.Point2D;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+
+public class MeetInTheMiddleSearchTest extends TestCase {
+
+	MeetInTheMiddleSearch search;
+
+	@Override
+	public void setUp() {
+		search = new MeetInTheMiddleSearch();
+	}
+
+	public void testRomaniaStraightLineDistance() throws Exception {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		List<String> actions = search.search(new BidirectionalMapProblem(
+				romania, SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST, new StraightLine()
+						.getAdaptation(
+								SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+								romania)));
+		assertEquals("[Sibiu, RimnicuVilcea, Pitesti, Bucharest]", actions
+				.toString());
+		assertEquals(418.0, search.getPathCost());
+		assertFalse(MeetInTheMiddleSearch.Side.NONE == search
+				.getClosingSide());
+		assertEquals(search.getNodesExpanded(), search.getMetrics().getInt(
+				"nodesExpandedOriginal")
+				+ search.getMetrics().getInt("nodesExpandedReverse"));
+	}
+
+	public void testRomaniaWithoutHeuristic() throws Exception {
+		Map romania = new SimplifiedRoadMapOfPartOfRomania();
+		List<String> actions = search.search(new BidirectionalMapProblem(
+				romania, SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST));
+		assertEquals("[Sibiu, RimnicuVilcea, Pitesti, Bucharest]", actions
+				.toString());
+		assertEquals(418.0, search.getPathCost());
+	}
+
+	public void testStartingAtGoal() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		List<String> actions = search.search(new BidirectionalMapProblem(aMap,
+				"A", "A"));
+		assertEquals(0, actions.size());
+		assertEquals(0.0, search.getPathCost());
+		assertEquals(MeetInTheMiddleSearch.Side.ORIGINAL_PROBLEM, search
+				.getClosingSide());
+	}
+
+	public void testClosedByReverseProblem() throws Exception {
+		// Only the reverse problem is informed, so its search gets ahead
+		// and generates B after the original problem's search has (the
+		// DefaultHeuristicFunction is taken as h = 0)
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 6.0);
+		aMap.addBidirectionalLink("B", "C", 5.0);
+		HeuristicFunction toA = new HeuristicFunction() {
+			public double getHeuristicValue(Object state) {
+				return "C".equals(state) ? 11.0 : "B".equals(state) ? 6.0 : 0.0;
+			}
+		};
+		List<String> actions = search.search(new BidirectionalMapProblem(aMap,
+				"A", "C", new DefaultHeuristicFunction(), toA));
+		assertEquals("[B, C]", actions.toString());
+		assertEquals(11.0, search.getPathCost());
+		assertEquals(MeetInTheMiddleSearch.Side.REVERSE_PROBLEM, search
+				.getClosingSide());
+		assertEquals(2, search.getNodesExpanded());
+	}
+
+	public void testNoPath() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 5.0);
+		aMap.addBidirectionalLink("C", "D", 5.0);
+		List<String> actions = search.search(new BidirectionalMapProblem(aMap,
+				"A", "D"));
+		assertEquals(0, actions.size());
+		assertEquals(MeetInTheMiddleSearch.Side.NONE, search.getClosingSide());
+	}
+
+	public void testMatchesAStarOnRandomGrids() throws Exception {
+		Random r = new Random(17L);
+		for (int trial = 0; trial < 20; trial++) {
+			ExtendableMap grid = createRandomGrid(8, r);
+			String from = "L" + r.nextInt(64), to = "L" + r.nextInt(64);
+			StraightLine toGoal = (StraightLine) new StraightLine()
+					.getAdaptation(to, grid);
+			AStarSearch aStar = new AStarSearch(new GraphSearch());
+			List expected = aStar.search(new BidirectionalMapProblem(grid, from,
+					to, toGoal));
+			List<String> actions = search.search(new BidirectionalMapProblem(
+					grid, from, to, toGoal));
+			double optimal = aStar.getMetrics().getDouble("pathCost");
+			assertEquals(optimal, search.getPathCost(), 1e-9);
+			assertEquals(optimal, pathCost(grid, from, actions), 1e-9);
+			assertEquals(expected.isEmpty(), actions.isEmpty());
+		}
+	}
+
+	public void testRequiresBidirectionalProblem() throws Exception {
+		try {
+			search.search(new Problem("A", null, null));
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// A width x width grid of locations with some links missing, each link
+	// costing from 1 to 2 times its straight line length
+	private ExtendableMap createRandomGrid(int width, Random r) {
+		ExtendableMap grid = new ExtendableMap();
+		for (int i = 0; i < width * width; i++) {
+			grid.setPosition("L" + i, i % width * 10, i / width * 10);
+		}
+		for (int i = 0; i < width * width; i++) {
+			if (i % width < width - 1 && r.nextInt(5) > 0) {
+				grid.addBidirectionalLink("L" + i, "L" + (i + 1),
+						10.0 + r.nextInt(11));
+			}
+			if (i / width < width - 1 && r.nextInt(5) > 0) {
+				grid.addBidirectionalLink("L" + i, "L" + (i + width),
+						10.0 + r.nextInt(11));
+			}
+		}
+		return grid;
+	}
+
+	private double pathCost(Map map, String from, List<String> actions) {
+		double cost = 0;
+		for (String to : actions) {
+			assertTrue(map.getLocationsLinkedTo(from).contains(to));
+			cost += map.getDistance(from, to);
+			from = to;
+		}
+		return cost;
+	}
+
+	static class StraightLine extends AdaptableHeuristicFunction {
+		public double getHeuristicValue(Object state) {
+			Point2D pt1 = map.getPosition((String) state);
+			Point2D pt2 = map.getPosition((String) goal);
+			return pt1.distance(pt2);
+		}
+	}
+}
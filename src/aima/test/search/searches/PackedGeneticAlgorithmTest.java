@@ -0,0 +1,119 @@
+package aima.test.search.searches;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import aima.search.informed.ga.PackedFitnessFunction;
+import aima.search.informed.ga.PackedGeneticAlgorithm;
+import aima.search.informed.ga.PackedPopulation;
+import aima.search.nqueens.NQueensFitnessFunction;
+import aima.search.nqueens.NQueensGoalTest;
+
+public class PackedGeneticAlgorithmTest extends TestCase {
+
+	public void testPackedGenes() {
+		// 3 bits a gene, 21 genes to a word, so 3 words an individual
+		PackedPopulation population = new PackedPopulation(4, 50, 5);
+		for (int i = 0; i < 4; i++) {
+			for (int g = 0; g < 50; g++) {
+				population.setGene(i, g, (i + g) % 5);
+			}
+		}
+		for (int i = 0; i < 4; i++) {
+			for (int g = 0; g < 50; g++) {
+				assertEquals((i + g) % 5, population.getGene(i, g));
+			}
+		}
+		population.setGene(2, 20, 0);
+		assertEquals(0, population.getGene(2, 20));
+		assertEquals(1, population.getGene(2, 19));
+		assertEquals(3, population.getGene(2, 21));
+		try {
+			population.setGene(0, 0, 5);
+			fail("5 is not in an alphabet of 5");
+		} catch (IllegalArgumentException e) {
+		}
+
+		Character[] alphabet = { 'a', 'b' };
+		PackedPopulation strings = PackedPopulation.fromStrings(Arrays
+				.asList("abba", "baab"), alphabet);
+		assertEquals(2, strings.getAlphabetSize());
+		assertEquals("abba", strings.toString(0, alphabet));
+		assertEquals("baab", strings.toString(1, alphabet));
+	}
+
+	public void testRouletteSelectsOnlyTheFit() {
+		// Only individual 0, all ones, has any fitness
+		PackedPopulation population = new PackedPopulation(50, 70, 2);
+		for (int g = 0; g < 70; g++) {
+			population.setGene(0, g, 1);
+		}
+		PackedGeneticAlgorithm ga = new PackedGeneticAlgorithm(0.0);
+		ga.setSeed(3L);
+		ga.setRouletteSelection();
+		ga.geneticAlgorithm(population, new OnesFitnessFunction(), 1);
+		assertEquals(1, ga.getGenerations());
+		for (int i = 0; i < population.size(); i++) {
+			assertTrue(70.0 == population.getFitness(i));
+		}
+		assertTrue(70.0 == ga.getMetrics().getDouble("meanFitness"));
+	}
+
+	public void testOneMax() {
+		PackedPopulation population = PackedPopulation.random(100, 200, 2,
+				new SplittableRandom(5L));
+		PackedGeneticAlgorithm ga = new PackedGeneticAlgorithm(0.5,
+				new ForkJoinPool(2));
+		ga.setSeed(5L);
+		ga.setTournamentSelection(4);
+		int[] best = ga.geneticAlgorithm(population,
+				new OnesFitnessFunction(), 200.0, 2000);
+		assertTrue(200.0 == ga.getBestFitness());
+		for (int g = 0; g < 200; g++) {
+			assertEquals(1, best[g]);
+		}
+		assertEquals(100L * (ga.getGenerations() + 1), ga.getMetrics()
+				.getLong("evaluations"));
+		assertTrue(ga.getMetrics().getDouble("evaluationsPerSecond") > 0.0);
+	}
+
+	public void testNQueens() {
+		for (PackedGeneticAlgorithm.Selection selection : PackedGeneticAlgorithm.Selection
+				.values()) {
+			NQueensFitnessFunction fitnessFunction = new NQueensFitnessFunction();
+			PackedPopulation population = PackedPopulation.random(500, 8, 8,
+					new SplittableRandom(7L));
+			PackedGeneticAlgorithm ga = new PackedGeneticAlgorithm(0.15);
+			ga.setSeed(7L);
+			if (PackedGeneticAlgorithm.Selection.ROULETTE == selection) {
+				ga.setRouletteSelection();
+			} else {
+				ga.setTournamentSelection(3);
+			}
+			assertEquals(selection, ga.getSelection());
+			int[] best = ga.geneticAlgorithm(population, fitnessFunction,
+					28.0, 2000);
+			assertTrue(28.0 == ga.getBestFitness());
+			PackedPopulation solution = new PackedPopulation(1, 8, 8);
+			for (int x = 0; x < 8; x++) {
+				solution.setGene(0, x, best[x]);
+			}
+			assertTrue(new NQueensGoalTest().isGoalState(fitnessFunction
+					.getBoardForIndividual(solution, 0)));
+			assertTrue(ga.getMetrics().getDouble("bestFitness") == 28.0);
+			assertTrue(ga.getMetrics().getDouble("meanFitness") <= 28.0);
+		}
+	}
+
+	private static class OnesFitnessFunction implements PackedFitnessFunction {
+		public double getValue(PackedPopulation population, int individual) {
+			double ones = 0;
+			for (int g = 0; g < population.getIndividualLength(); g++) {
+				ones += population.getGene(individual, g);
+			}
+			return ones;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package aima.test.search.searches;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzlePackedProblem;
+import aima.search.framework.GraphSearch;
+import aima.search.framework.PackedGraphSearch;
+import aima.search.framework.Search;
+import aima.search.informed.AStarSearch;
+import aima.search.informed.PackedAStarSearch;
+import aima.search.uninformed.BreadthFirstSearch;
+
+public class PackedSearchTest extends TestCase {
+
+	public void testPackUnpack() {
+		int[] board = new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 };
+		long packed = EightPuzzlePackedProblem.pack(board);
+		int[] unpacked = EightPuzzlePackedProblem.unpack(packed);
+		for (int i = 0; i < board.length; i++) {
+			assertEquals(board[i], unpacked[i]);
+		}
+	}
+
+	public void testPackedAStarSearch() throws Exception {
+		EightPuzzlePackedProblem problem = new EightPuzzlePackedProblem(
+				new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 }));
+		PackedAStarSearch search = new PackedAStarSearch();
+		List<String> actions = search.search(problem);
+		assertEquals(23, actions.size());
+		assertEquals(23.0, search.getPathCost());
+		assertTrue(reachesGoal(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 },
+				actions));
+	}
+
+	public void testPackedAStarSearchMatchesAStarSearchPlanLength()
+			throws Exception {
+		int[] board = new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 };
+		Search search = new AStarSearch(new GraphSearch());
+		List expected = search.search(new EightPuzzlePackedProblem(
+				new EightPuzzleBoard(board.clone())));
+		List<String> actions = new PackedAStarSearch()
+				.search(new EightPuzzlePackedProblem(new EightPuzzleBoard(
+						board.clone())));
+		assertEquals(expected.size(), actions.size());
+		assertTrue(reachesGoal(board, actions));
+	}
+
+	public void testPackedGraphSearchMatchesBreadthFirstSearch()
+			throws Exception {
+		int[] board = new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 };
+		Search search = new BreadthFirstSearch(new GraphSearch());
+		List expected = search.search(new EightPuzzlePackedProblem(
+				new EightPuzzleBoard(board.clone())));
+		PackedGraphSearch packedSearch = new PackedGraphSearch();
+		List<String> actions = packedSearch.search(new EightPuzzlePackedProblem(
+				new EightPuzzleBoard(board.clone())));
+		assertEquals(expected, actions);
+		assertEquals((double) actions.size(), packedSearch.getPathCost());
+	}
+
+	public void testPackedSearchStartingAtGoal() throws Exception {
+		EightPuzzlePackedProblem problem = new EightPuzzlePackedProblem(
+				new EightPuzzleBoard(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }));
+		assertEquals(0, new PackedGraphSearch().search(problem).size());
+		assertEquals(0, new PackedAStarSearch().search(problem).size());
+	}
+
+	private boolean reachesGoal(int[] start, List<String> actions) {
+		EightPuzzleBoard board = new EightPuzzleBoard(start.clone());
+		for (String action : actions) {
+			assertTrue(board.canMoveGap(action));
+			if (EightPuzzleBoard.UP.equals(action)) {
+				board.moveGapUp();
+			} else if (EightPuzzleBoard.DOWN.equals(action)) {
+				board.moveGapDown();
+			} else if (EightPuzzleBoard.LEFT.equals(action)) {
+				board.moveGapLeft();
+			} else {
+				board.moveGapRight();
+			}
+		}
+		return new EightPuzzleGoalTest().isGoalState(board);
+	}
+}
@@ -0,0 +1,73 @@
+package aima.test.search.searches;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzleSuccessorFunction;
+import aima.search.eightpuzzle.ManhattanHeuristicFunction;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Problem;
+import aima.search.informed.ParallelAStarSearch;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.Map;
+import aima.search.map.Point2D;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+
+public class ParallelAStarSearchTest extends TestCase {
+
+	public void testEightPuzzle() throws Exception {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 });
+		Problem problem = new Problem(board,
+				new EightPuzzleSuccessorFunction(), new EightPuzzleGoalTest(),
+				new ManhattanHeuristicFunction());
+		for (int workers = 1; workers <= 4; workers++) {
+			ParallelAStarSearch search = new ParallelAStarSearch(workers);
+			List<String> actions = search.search(problem);
+			assertEquals(23, actions.size());
+			assertEquals(23.0, search.getPathCost());
+			assertEquals(Integer.toString(workers), search.getMetrics().get(
+					"numberOfWorkers"));
+			int expanded = 0, maxQueueSize = 0;
+			for (int i = 0; i < workers; i++) {
+				expanded += search.getMetrics().getInt("nodesExpanded[" + i
+						+ "]");
+				maxQueueSize = Math.max(maxQueueSize, search.getMetrics()
+						.getInt("maxQueueSize[" + i + "]"));
+			}
+			assertEquals(search.getNodesExpanded(), expanded);
+			assertEquals(maxQueueSize, search.getMaxQueueSize());
+		}
+	}
+
+	public void testRomaniaIsOptimal() throws Exception {
+		final Map aMap = new SimplifiedRoadMapOfPartOfRomania();
+		HeuristicFunction hf = new HeuristicFunction() {
+			public double getHeuristicValue(Object state) {
+				Point2D pt1 = aMap.getPosition((String) state);
+				Point2D pt2 = aMap
+						.getPosition(SimplifiedRoadMapOfPartOfRomania.BUCHAREST);
+				return pt1.distance(pt2);
+			}
+		};
+		Problem problem = new BidirectionalMapProblem(aMap,
+				SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST, hf);
+		ParallelAStarSearch search = new ParallelAStarSearch(3);
+		List<String> actions = search.search(problem);
+		assertEquals("[Sibiu, RimnicuVilcea, Pitesti, Bucharest]", actions
+				.toString());
+		assertEquals(418.0, search.getPathCost());
+	}
+
+	public void testStartingAtGoal() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 0, 1,
+				2, 3, 4, 5, 6, 7, 8 }), new EightPuzzleSuccessorFunction(),
+				new EightPuzzleGoalTest(), new ManhattanHeuristicFunction());
+		ParallelAStarSearch search = new ParallelAStarSearch(2);
+		assertEquals(0, search.search(problem).size());
+		assertEquals(0.0, search.getPathCost());
+	}
+}
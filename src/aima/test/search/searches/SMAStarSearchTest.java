@@ -0,0 +1,96 @@
+package aima.test.search.searches;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import aima.search.eightpuzzle.EightPuzzleBoard;
+import aima.search.eightpuzzle.EightPuzzleGoalTest;
+import aima.search.eightpuzzle.EightPuzzleSuccessorFunction;
+import aima.search.eightpuzzle.ManhattanHeuristicFunction;
+import aima.search.framework.HeuristicFunction;
+import aima.search.framework.Problem;
+import aima.search.informed.SMAStarSearch;
+import aima.search.map.BidirectionalMapProblem;
+import aima.search.map.Map;
+import aima.search.map.Point2D;
+import aima.search.map.SimplifiedRoadMapOfPartOfRomania;
+
+public class SMAStarSearchTest extends TestCase {
+
+	Problem eightPuzzle;
+
+	Problem romania;
+
+	@Override
+	public void setUp() {
+		eightPuzzle = new Problem(new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 }), new EightPuzzleSuccessorFunction(),
+				new EightPuzzleGoalTest(), new ManhattanHeuristicFunction());
+
+		final Map aMap = new SimplifiedRoadMapOfPartOfRomania();
+		romania = new BidirectionalMapProblem(aMap,
+				SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				new HeuristicFunction() {
+					public double getHeuristicValue(Object state) {
+						Point2D pt1 = aMap.getPosition((String) state);
+						Point2D pt2 = aMap
+								.getPosition(SimplifiedRoadMapOfPartOfRomania.BUCHAREST);
+						return pt1.distance(pt2);
+					}
+				});
+	}
+
+	public void testWithoutMemoryPressure() throws Exception {
+		SMAStarSearch search = new SMAStarSearch(100000);
+		List<String> actions = search.search(eightPuzzle);
+		assertEquals(23, actions.size());
+		assertEquals(23.0, search.getPathCost());
+		assertEquals(0, search.getNodesForgotten());
+	}
+
+	public void testWithinNodeBudget() throws Exception {
+		SMAStarSearch search = new SMAStarSearch(300);
+		List<String> actions = search.search(eightPuzzle);
+		assertEquals(23, actions.size());
+		assertEquals(23.0, search.getPathCost());
+		assertTrue(search.getNodesForgotten() > 0);
+		assertTrue(search.getMaxNodesInMemory() <= 300 + 4);
+	}
+
+	public void testSpillToDisk() throws Exception {
+		SMAStarSearch forgetting = new SMAStarSearch(300);
+		forgetting.search(eightPuzzle);
+		SMAStarSearch spilling = new SMAStarSearch(300, true);
+		List<String> actions = spilling.search(eightPuzzle);
+		assertEquals(23, actions.size());
+		assertEquals(23.0, spilling.getPathCost());
+		assertEquals(spilling.getNodesForgotten(), spilling.getNodesSpilled());
+		assertTrue(spilling.getNodesExpanded() <= forgetting
+				.getNodesExpanded());
+	}
+
+	public void testRomaniaWithMinimalMemory() throws Exception {
+		// Arad, Sibiu, RimnicuVilcea, Pitesti, Bucharest
+		for (boolean spill : new boolean[] { false, true }) {
+			SMAStarSearch search = new SMAStarSearch(6, spill);
+			List<String> actions = search.search(romania);
+			assertEquals("[Sibiu, RimnicuVilcea, Pitesti, Bucharest]",
+					actions.toString());
+			assertEquals(418.0, search.getPathCost());
+		}
+	}
+
+	public void testBestSolutionReachableWithinMemory() throws Exception {
+		// The optimal path needs 5 nodes, the one via Fagaras only 4
+		SMAStarSearch search = new SMAStarSearch(4);
+		List<String> actions = search.search(romania);
+		assertEquals("[Sibiu, Fagaras, Bucharest]", actions.toString());
+		assertEquals(450.0, search.getPathCost());
+	}
+
+	public void testNotEnoughMemoryForSolution() throws Exception {
+		SMAStarSearch search = new SMAStarSearch(3);
+		assertEquals(0, search.search(romania).size());
+	}
+}
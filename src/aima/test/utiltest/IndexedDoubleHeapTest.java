@@ -0,0 +1,72 @@
+package aima.test.utiltest;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import aima.util.IndexedDoubleHeap;
+
+public class IndexedDoubleHeapTest extends TestCase {
+
+	public void testRemovesInKeyOrder() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(5);
+		heap.put(3, 3.0);
+		heap.put(0, 5.0);
+		heap.put(4, 1.0);
+		heap.put(1, 4.0);
+		assertEquals(4, heap.size());
+		assertTrue(heap.contains(0));
+		assertFalse(heap.contains(2));
+		assertEquals(1.0, heap.peekKey());
+		assertEquals(4, heap.removeMin());
+		assertEquals(3, heap.removeMin());
+		assertEquals(1, heap.removeMin());
+		assertEquals(0, heap.removeMin());
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(0));
+	}
+
+	public void testChangingKeys() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(3);
+		heap.put(0, 1.0);
+		heap.put(1, 2.0);
+		heap.put(2, 3.0);
+		heap.put(2, 0.5);
+		assertEquals(0.5, heap.getKey(2));
+		heap.put(2, 10.0);
+		heap.put(0, 5.0);
+		assertEquals(1, heap.removeMin());
+		assertEquals(0, heap.removeMin());
+		assertEquals(2, heap.removeMin());
+	}
+
+	public void testClear() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(4);
+		heap.put(1, 1.0);
+		heap.put(2, 2.0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(1));
+		heap.put(2, 7.0);
+		assertEquals(7.0, heap.peekKey());
+		try {
+			new IndexedDoubleHeap(1).removeMin();
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	public void testRandomOperationsStayOrdered() {
+		Random r = new Random(3L);
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(200);
+		for (int i = 0; i < 5000; i++) {
+			heap.put(r.nextInt(200), r.nextDouble());
+		}
+		double last = Double.NEGATIVE_INFINITY;
+		while (!heap.isEmpty()) {
+			double key = heap.peekKey();
+			heap.removeMin();
+			assertTrue(key >= last);
+			last = key;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package aima.util;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of the ints 0 to capacity - 1, each with a double key,
+ * held in three int and double arrays so that a Dijkstra style search over a
+ * graph with integer vertices creates no objects per vertex. An item's key
+ * can be lowered or raised while it is in the heap.
+ */
+public class IndexedDoubleHeap {
+
+	private final int[] items;
+
+	private final double[] keys;
+
+	// positions[item] is where item is in items, or -1 if not in the heap
+	private final int[] positions;
+
+	private int size = 0;
+
+	public IndexedDoubleHeap(int capacity) {
+		items = new int[capacity];
+		keys = new double[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+
+	/**
+	 * @return the key of item, which must be in the heap.
+	 */
+	public double getKey(int item) {
+		return keys[positions[item]];
+	}
+
+	/**
+	 * Adds item with the given key, or changes its key if it is already in
+	 * the heap.
+	 */
+	public void put(int item, double key) {
+		int i = positions[item];
+		if (i < 0) {
+			i = size++;
+			items[i] = item;
+			positions[item] = i;
+			keys[i] = key;
+			siftUp(i);
+		} else if (key < keys[i]) {
+			keys[i] = key;
+			siftUp(i);
+		} else {
+			keys[i] = key;
+			siftDown(i);
+		}
+	}
+
+	/**
+	 * @return the key of the item that removeMin() would return.
+	 */
+	public double peekKey() {
+		if (0 == size) {
+			throw new IllegalStateException("Heap is empty");
+		}
+		return keys[0];
+	}
+
+	public int peek() {
+		if (0 == size) {
+			throw new IllegalStateException("Heap is empty");
+		}
+		return items[0];
+	}
+
+	public int removeMin() {
+		int min = peek();
+		positions[min] = -1;
+		size--;
+		if (size > 0) {
+			move(items[size], keys[size], 0);
+			siftDown(0);
+		}
+		return min;
+	}
+
+	/**
+	 * Removes all items, in time proportional to their number rather than
+	 * the capacity.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[items[i]] = -1;
+		}
+		size = 0;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void siftUp(int i) {
+		int item = items[i];
+		double key = keys[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (keys[parent] <= key) {
+				break;
+			}
+			move(items[parent], keys[parent], i);
+			i = parent;
+		}
+		move(item, key, i);
+	}
+
+	private void siftDown(int i) {
+		int item = items[i];
+		double key = keys[i];
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && keys[child + 1] < keys[child]) {
+				child++;
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			move(items[child], keys[child], i);
+			i = child;
+		}
+		move(item, key, i);
+	}
+
+	private void move(int item, double key, int i) {
+		items[i] = item;
+		keys[i] = key;
+		positions[item] = i;
+	}
+}